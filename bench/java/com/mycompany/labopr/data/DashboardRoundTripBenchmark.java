@@ -0,0 +1,57 @@
+package com.mycompany.labopr.data;
+
+import com.mycompany.labopr.database.DatabaseDAO;
+import java.time.YearMonth;
+
+/**
+ * Database round trips and latency of one dashboard refresh
+ *
+ * Usage: DashboardRoundTripBenchmark userId [month] [refreshes]   (defaults: this month, 20 refreshes)
+ *
+ * Needs the MySQL server. Logs in as userId, loads the TransactionStore once (its
+ * round trips are reported separately), then calls DataFacade.getDashboardData the
+ * given number of times. Round trips are counted with getRoundTripCount, which only
+ * counts connections borrowed by the calling thread, so the balance reconciliation
+ * job and other threads do not inflate the figure.
+ */
+public final class DashboardRoundTripBenchmark {
+
+    private DashboardRoundTripBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("Usage: DashboardRoundTripBenchmark userId [month] [refreshes]");
+            System.exit(2);
+        }
+        int userId = Integer.parseInt(args[0]);
+        String month = args.length > 1 ? args[1] : YearMonth.now().toString();
+        int refreshes = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+
+        DatabaseDAO dao = DatabaseDAO.getInstance();
+        DatabaseDAO.setCurrentUserId(userId);
+
+        long startTrips = dao.getRoundTripCount();
+        long startTime = System.nanoTime();
+        TransactionStore.getInstance().load();
+        System.out.println(String.format("Store load: %d round trips in %.1f ms",
+            dao.getRoundTripCount() - startTrips, (System.nanoTime() - startTime) / 1_000_000.0));
+
+        DataFacade facade = DataFacade.getInstance();
+        long minTrips = Long.MAX_VALUE;
+        long maxTrips = 0;
+        long totalNanos = 0;
+        for (int i = 0; i < refreshes; i++) {
+            startTrips = dao.getRoundTripCount();
+            startTime = System.nanoTime();
+            facade.getDashboardData(month);
+            totalNanos += System.nanoTime() - startTime;
+            long trips = dao.getRoundTripCount() - startTrips;
+            minTrips = Math.min(minTrips, trips);
+            maxTrips = Math.max(maxTrips, trips);
+        }
+        System.out.println(String.format("✓ Dashboard refresh for %s: %d-%d round trips, %.2f ms average over %d refreshes",
+            month, minTrips, maxTrips, totalNanos / 1_000_000.0 / refreshes, refreshes));
+        System.exit(0); // stops the pool and reconciliation threads
+    }
+}
@@ -0,0 +1,158 @@
+package com.mycompany.labopr.data;
+
+import com.mycompany.labopr.database.DatabaseDAO;
+import com.mycompany.labopr.utils.ChannelCsvWriter;
+import com.mycompany.labopr.utils.ParallelCsvReader;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * CSV import benchmark
+ *
+ * Usage: ImportBenchmark file.csv [rows] [--user userId]
+ *
+ * If file.csv does not exist, an export-format file with rows transactions (default
+ * 1,000,000) is generated first; every seventh comment has quotes and commas. The
+ * transaction section is then parsed into Transaction objects twice per run: with
+ * the regex line split importData used before the tokenizer, and with
+ * ParallelCsvReader. Nothing is written to the database.
+ *
+ * With --user, the file is also imported end to end through SettingsData.importData
+ * into that user's account (needs the MySQL server; the rows are ADDED to the
+ * user's data). BulkImporter logs the rows/sec of the database stage.
+ */
+public final class ImportBenchmark {
+
+    private static final String[] CATEGORIES = { "Food", "Transportation", "Paycheck", "Home", "Leisure", "Health" };
+    private static final String OLD_FIELD_SPLIT = ",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)";
+
+    private ImportBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: ImportBenchmark file.csv [rows] [--user userId]");
+            System.exit(2);
+        }
+        Path path = Paths.get(args[0]);
+        int rows = 1_000_000;
+        Integer userId = null;
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--user") && i + 1 < args.length) {
+                userId = Integer.parseInt(args[++i]);
+            } else {
+                rows = Integer.parseInt(args[i]);
+            }
+        }
+
+        if (!Files.exists(path)) {
+            long startTime = System.nanoTime();
+            generate(path, rows);
+            System.out.println(String.format("✓ Generated %,d rows, %,.1f MB in %.2f s", rows,
+                Files.size(path) / 1_048_576.0, (System.nanoTime() - startTime) / 1_000_000_000.0));
+        }
+
+        System.out.println("Parallelism: " + ForkJoinPool.commonPool().getParallelism());
+        for (int run = 1; run <= 3; run++) {
+            long startTime = System.nanoTime();
+            long regexRows = parseWithRegex(path);
+            double regexSeconds = (System.nanoTime() - startTime) / 1_000_000_000.0;
+
+            startTime = System.nanoTime();
+            long tokenizedRows = parseWithTokenizer(path);
+            double tokenizerSeconds = (System.nanoTime() - startTime) / 1_000_000_000.0;
+
+            System.out.println(String.format("run %d: regex %,d rows in %.2f s (%,.0f rows/s), tokenizer %,d rows in %.2f s (%,.0f rows/s)",
+                run, regexRows, regexSeconds, regexRows / regexSeconds,
+                tokenizedRows, tokenizerSeconds, tokenizedRows / tokenizerSeconds));
+        }
+
+        if (userId != null) {
+            DatabaseDAO.setCurrentUserId(userId);
+            long startTime = System.nanoTime();
+            boolean imported = SettingsData.importData(path.toString());
+            System.out.println(String.format("%s Import into user %d in %.2f s", imported ? "✓" : "✗",
+                userId, (System.nanoTime() - startTime) / 1_000_000_000.0));
+            System.exit(imported ? 0 : 1); // stops the pool and reconciliation threads
+        }
+    }
+
+    private static void generate(Path path, int rows) throws IOException {
+        Random random = new Random(1);
+        LocalDate first = LocalDate.of(2015, 1, 1);
+        try (ChannelCsvWriter out = ChannelCsvWriter.open(path)) {
+            out.write("STARTING_BALANCE,1000.00").newLine();
+            out.write("CURRENT_BALANCE,0.00").newLine();
+            out.newLine();
+            out.write("TRANSACTIONS").newLine();
+            out.write("Type,Date,Category,Amount,Comment").newLine();
+            for (int i = 0; i < rows; i++) {
+                out.write(i % 5 == 0 ? "Income" : "Expenses").comma()
+                   .write(first.plusDays(i % 3650).toString()).comma()
+                   .field(CATEGORIES[i % CATEGORIES.length]).comma()
+                   .cents(random.nextInt(100_000)).comma()
+                   .quoted(i % 7 == 0 ? "said \"hi\", then, left" : "lunch with team " + i)
+                   .newLine();
+            }
+            out.newLine();
+            out.write("BUDGETS").newLine();
+            out.write("Category,Month,Goal").newLine();
+            out.write("Food,2024-01,5000.00").newLine();
+            out.newLine();
+            out.write("SETTINGS").newLine();
+            out.write("Key,Value").newLine();
+        }
+    }
+
+    /**
+     * The transaction parsing of importData before the tokenizer, without the saves
+     */
+    private static long parseWithRegex(Path path) throws IOException {
+        long count = 0;
+        try (BufferedReader br = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            boolean transactions = false;
+            while ((line = br.readLine()) != null) {
+                if (line.trim().isEmpty()) {
+                    transactions = false;
+                } else if (line.equals("TRANSACTIONS")) {
+                    transactions = true;
+                    br.readLine(); // Skip header
+                } else if (transactions) {
+                    String[] parts = line.split(OLD_FIELD_SPLIT, 5);
+                    if (parts.length == 5) {
+                        String comment = parts[4].replaceAll("^\"|\"$", "").replace("\"\"", "\"");
+                        new TransactionData.Transaction(parts[0], parts[1], parts[2], Double.parseDouble(parts[3]), comment);
+                        count++;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    private static long parseWithTokenizer(Path path) throws IOException {
+        long[] count = {0};
+        boolean[] transactions = {false};
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            ParallelCsvReader.read(reader, records -> {
+                for (String[] fields : records) {
+                    if (fields.length == 1) {
+                        transactions[0] = fields[0].equals("TRANSACTIONS");
+                    } else if (transactions[0] && fields.length == 5 && !fields[3].equals("Amount")) {
+                        new TransactionData.Transaction(fields[0], fields[1], fields[2], Double.parseDouble(fields[3]), fields[4]);
+                        count[0]++;
+                    }
+                }
+                return true;
+            });
+        }
+        return count[0];
+    }
+}
@@ -0,0 +1,172 @@
+package com.mycompany.labopr.data;
+
+import com.mycompany.labopr.utils.ChannelCsvWriter;
+import com.mycompany.labopr.utils.ParallelCsvReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Size and speed of BinarySnapshot against the CSV export, without a database
+ *
+ * Usage: SnapshotBenchmark directory [rows]   (default 1,000,000 rows)
+ *
+ * Writes the same synthetic history (ten years, seven categories, a third of the
+ * comments null, some with quotes and line breaks) as CSV, as a binary snapshot and
+ * as a deflated binary snapshot, then reads each back: the CSV through
+ * ParallelCsvReader with amounts and dates parsed, the snapshots through
+ * BinarySnapshot.read with every field compared to the source. Three runs are made.
+ * Finally a copy with one flipped bit and a truncated copy must both be rejected.
+ */
+public final class SnapshotBenchmark {
+
+    private static final String[] CATEGORIES = { "Food", "Transportation", "Paycheck", "Home", "Leisure", "Health", "Ñandú" };
+
+    private SnapshotBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: SnapshotBenchmark directory [rows]");
+            System.exit(2);
+        }
+        Path directory = Paths.get(args[0]);
+        int rows = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        Files.createDirectories(directory);
+        Path csv = directory.resolve("benchmark.csv");
+        Path binary = directory.resolve("benchmark.kwtb");
+        Path deflated = directory.resolve("benchmark-deflated.kwtb");
+
+        // Synthetic history, newest first like streamTransactions
+        String[] types = new String[rows];
+        String[] dates = new String[rows];
+        String[] categories = new String[rows];
+        long[] cents = new long[rows];
+        String[] comments = new String[rows];
+        Random random = new Random(2);
+        LocalDate newest = LocalDate.of(2025, 1, 1);
+        for (int i = 0; i < rows; i++) {
+            types[i] = i % 5 == 0 ? "Income" : "Expenses";
+            dates[i] = newest.minusDays(i * 3650L / rows).toString();
+            categories[i] = CATEGORIES[random.nextInt(CATEGORIES.length)];
+            cents[i] = random.nextInt(500_000);
+            comments[i] = i % 3 == 0 ? null : i % 11 == 0 ? "line1\nline2 \"q\"" : "lunch with team " + (i % 500);
+        }
+
+        for (int run = 1; run <= 3; run++) {
+            long t0 = System.nanoTime();
+            try (ChannelCsvWriter out = ChannelCsvWriter.open(csv)) {
+                for (int i = 0; i < rows; i++) {
+                    out.field(types[i]).comma().write(dates[i]).comma().field(categories[i]).comma()
+                       .cents(cents[i]).comma().quoted(comments[i]).newLine();
+                }
+            }
+            long t1 = System.nanoTime();
+            writeSnapshot(binary, false, types, dates, categories, cents, comments);
+            long t2 = System.nanoTime();
+            writeSnapshot(deflated, true, types, dates, categories, cents, comments);
+            long t3 = System.nanoTime();
+
+            long[] csvRows = {0};
+            try (Reader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+                ParallelCsvReader.read(reader, records -> {
+                    for (String[] fields : records) {
+                        Double.parseDouble(fields[3]);
+                        TransactionColumns.toEpochDay(fields[1]);
+                        csvRows[0]++;
+                    }
+                    return true;
+                });
+            }
+            long t4 = System.nanoTime();
+            long mismatches = verify(binary, types, dates, categories, cents, comments);
+            long t5 = System.nanoTime();
+            mismatches += verify(deflated, types, dates, categories, cents, comments);
+            long t6 = System.nanoTime();
+
+            System.out.println(String.format("run %d: write csv %,.0f ms, binary %,.0f ms, deflated %,.0f ms"
+                    + " | read csv %,.0f ms (%,d rows), binary %,.0f ms, deflated %,.0f ms | mismatches %d",
+                run, (t1 - t0) / 1e6, (t2 - t1) / 1e6, (t3 - t2) / 1e6,
+                (t4 - t3) / 1e6, csvRows[0], (t5 - t4) / 1e6, (t6 - t5) / 1e6, mismatches));
+        }
+        System.out.println(String.format("size: csv %,.1f MB, binary %,.1f MB, deflated %,.1f MB",
+            Files.size(csv) / 1_048_576.0, Files.size(binary) / 1_048_576.0, Files.size(deflated) / 1_048_576.0));
+
+        Path damaged = directory.resolve("benchmark-damaged.kwtb");
+        byte[] bytes = Files.readAllBytes(deflated);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(damaged, bytes);
+        expectRejected("flipped bit", damaged);
+        Files.write(damaged, Arrays.copyOf(Files.readAllBytes(binary), (int) Files.size(binary) - 20));
+        expectRejected("truncated", damaged);
+        Files.delete(damaged);
+    }
+
+    private static void writeSnapshot(Path path, boolean deflate, String[] types, String[] dates,
+                                      String[] categories, long[] cents, String[] comments) throws IOException {
+        try (BinarySnapshot.Writer out = BinarySnapshot.Writer.open(path, deflate, 0)) {
+            out.writeStartingBalance(100_000L);
+            for (int i = 0; i < types.length; i++) {
+                out.addTransaction(types.length - i, types[i], dates[i], categories[i], cents[i], comments[i]);
+            }
+            out.addBudget("Food", "2024-01", 500_000);
+            out.finish();
+        }
+    }
+
+    /**
+     * Read a snapshot back and count the rows that differ from the source
+     */
+    private static long verify(Path path, String[] types, String[] dates,
+                               String[] categories, long[] cents, String[] comments) throws IOException {
+        long[] mismatches = {0};
+        int[] index = {0};
+        long rows = BinarySnapshot.read(path, new BinarySnapshot.Visitor() {
+            @Override
+            public void startingBalance(Long balance) {
+            }
+
+            @Override
+            public boolean transaction(int id, String type, int epochDay, String category, long amountCents, String comment) {
+                int i = index[0]++;
+                if (id != types.length - i || !type.equals(types[i]) || !BinarySnapshot.toDate(epochDay).equals(dates[i])
+                        || !category.equals(categories[i]) || amountCents != cents[i] || !Objects.equals(comment, comments[i])) {
+                    mismatches[0]++;
+                }
+                return true;
+            }
+
+            @Override
+            public void budget(String category, String month, long goalCents) {
+            }
+        });
+        return mismatches[0] + Math.abs(rows - types.length);
+    }
+
+    private static void expectRejected(String label, Path path) {
+        try {
+            BinarySnapshot.read(path, new BinarySnapshot.Visitor() {
+                @Override
+                public void startingBalance(Long balance) {
+                }
+
+                @Override
+                public boolean transaction(int id, String type, int epochDay, String category, long amountCents, String comment) {
+                    return true;
+                }
+
+                @Override
+                public void budget(String category, String month, long goalCents) {
+                }
+            });
+            System.out.println("✗ " + label + ": not detected");
+        } catch (IOException e) {
+            System.out.println("✓ " + label + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.mycompany.labopr.data;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+
+/**
+ * Memory and scan throughput of TransactionColumns against a List of Transaction objects
+ *
+ * Usage: TransactionColumnsBenchmark [rows] [runs]   (defaults: 1,000,000 rows, 3 runs)
+ *
+ * Builds the same synthetic history (ten years, newest first) both ways, without a
+ * database. Every Transaction gets its own date and category strings, as rows read
+ * through JDBC do; comments are left out of both, as the store loads them lazily.
+ * Retained heap is measured after a full GC. The scan sums one month's expenses for
+ * every month of the history: the list filters on the date prefix, the columns
+ * binary-search the month's slice and read the primitive arrays.
+ */
+public final class TransactionColumnsBenchmark {
+
+    private static final String[] CATEGORIES = { "Food", "Transportation", "Paycheck", "Home", "Leisure", "Health" };
+
+    private TransactionColumnsBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        LocalDate newest = LocalDate.of(2025, 1, 1);
+        Random random = new Random(3);
+
+        long before = usedHeap();
+        List<TransactionData.Transaction> list = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            list.add(new TransactionData.Transaction(rows - i, i % 5 == 0 ? "Income" : "Expenses",
+                newest.minusDays(i * 3650L / rows).toString(), new String(CATEGORIES[random.nextInt(CATEGORIES.length)]),
+                random.nextInt(500_000) / 100.0, null));
+        }
+        long listBytes = usedHeap() - before;
+
+        before = usedHeap();
+        TransactionColumns columns = toColumns(list);
+        long columnBytes = usedHeap() - before;
+
+        System.out.println(String.format("%,d rows: List<Transaction> %,.1f MB, TransactionColumns %,.1f MB (estimatedBytes %,.1f MB)",
+            rows, listBytes / 1_048_576.0, columnBytes / 1_048_576.0, columns.estimatedBytes() / 1_048_576.0));
+
+        List<YearMonth> months = new ArrayList<>();
+        for (YearMonth m = YearMonth.from(newest.minusDays(3650)); !m.isAfter(YearMonth.from(newest)); m = m.plusMonths(1)) {
+            months.add(m);
+        }
+        for (int run = 1; run <= runs; run++) {
+            long startTime = System.nanoTime();
+            long listCents = 0;
+            for (YearMonth month : months) {
+                listCents += sumExpenses(list, month.toString());
+            }
+            long listNanos = System.nanoTime() - startTime;
+
+            startTime = System.nanoTime();
+            long columnCents = 0;
+            for (YearMonth month : months) {
+                columnCents += sumExpenses(columns, month);
+            }
+            long columnNanos = System.nanoTime() - startTime;
+
+            System.out.println(String.format("run %d: %d month scans, list %,.1f ms, columns %,.1f ms (%.0fx) %s",
+                run, months.size(), listNanos / 1e6, columnNanos / 1e6, (double) listNanos / columnNanos,
+                listCents == columnCents ? "✓ totals match" : "✗ totals differ"));
+        }
+    }
+
+    /**
+     * Columns built the way TransactionStore.load does; the builder's arrays are garbage afterwards
+     */
+    private static TransactionColumns toColumns(List<TransactionData.Transaction> list) {
+        TransactionColumns.Builder builder = new TransactionColumns.Builder(list.size(),
+            new TransactionColumns.CategoryDictionary(), Collections::emptyMap);
+        for (TransactionData.Transaction t : list) {
+            builder.add(t.id, TransactionColumns.toEpochDay(t.date), TransactionColumns.typeCode(t.type),
+                t.category, TransactionColumns.toCents(t.amount));
+        }
+        return builder.build();
+    }
+
+    /**
+     * The List version: every row is visited and filtered on its YYYY-MM prefix
+     */
+    private static long sumExpenses(List<TransactionData.Transaction> list, String month) {
+        long cents = 0;
+        for (TransactionData.Transaction t : list) {
+            if (t.date.startsWith(month) && t.type.equals("Expenses")) {
+                cents += TransactionColumns.toCents(t.amount);
+            }
+        }
+        return cents;
+    }
+
+    /**
+     * The columnar version: only the month's contiguous slice is visited
+     */
+    private static long sumExpenses(TransactionColumns columns, YearMonth month) {
+        int start = columns.firstRowBefore((int) month.plusMonths(1).atDay(1).toEpochDay());
+        int end = columns.firstRowBefore((int) month.atDay(1).toEpochDay());
+        long cents = 0;
+        for (int row = start; row < end; row++) {
+            if (columns.type(row) == TransactionColumns.EXPENSES) {
+                cents += columns.amountCents(row);
+            }
+        }
+        return cents;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,109 @@
+package com.mycompany.labopr.data;
+
+import com.mycompany.labopr.database.DatabaseDAO;
+import com.mycompany.labopr.utils.TransactionCaretaker;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Undo and restore latency against history size
+ *
+ * Usage: UndoBenchmark --destructive userId [sizes...]   (defaults: 1,000 10,000 100,000 rows)
+ *
+ * Needs the MySQL server, and REPLACES the user's data: use a scratch account. The
+ * run refuses to start without --destructive. For each size the user's data is reset
+ * and refilled with that many synthetic rows. Then:
+ * "undo" edits the newest row and undoes the edit through TransactionCaretaker, 20
+ * times, and reports the average undo time and database round trips; "restore" takes
+ * a binary backup, edits one row and restores the backup, which should write one row
+ * whatever the size of the history.
+ */
+public final class UndoBenchmark {
+
+    private static final String[] CATEGORIES = { "Food", "Transportation", "Paycheck", "Home", "Leisure", "Health" };
+    private static final int UNDOS = 20;
+
+    private UndoBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || !"--destructive".equals(args[0])) {
+            System.err.println("Usage: UndoBenchmark --destructive userId [sizes...]");
+            System.err.println("Resets and refills the user's data; --destructive confirms that.");
+            System.exit(2);
+        }
+        DatabaseDAO dao = DatabaseDAO.getInstance();
+        DatabaseDAO.setCurrentUserId(Integer.parseInt(args[1]));
+        int[] sizes = args.length > 2
+            ? Arrays.stream(args, 2, args.length).mapToInt(Integer::parseInt).toArray()
+            : new int[] { 1_000, 10_000, 100_000 };
+        Path backup = Files.createTempFile("undo-benchmark", ".kwtb");
+
+        for (int size : sizes) {
+            fill(dao, size);
+
+            TransactionCaretaker caretaker = new TransactionCaretaker();
+            long undoNanos = 0;
+            long undoTrips = 0;
+            for (int i = 0; i < UNDOS; i++) {
+                TransactionData.Transaction original = newest();
+                TransactionData.Transaction edited = new TransactionData.Transaction(original.id, original.type,
+                    original.date, original.category, original.amount + 1, original.comment);
+                if (!TransactionData.updateTransaction(original.id, edited)) {
+                    System.out.println("✗ Update failed");
+                    System.exit(1);
+                }
+                caretaker.recordUpdate(original, edited);
+
+                long startTrips = dao.getRoundTripCount();
+                long startTime = System.nanoTime();
+                caretaker.undo();
+                undoNanos += System.nanoTime() - startTime;
+                undoTrips += dao.getRoundTripCount() - startTrips;
+            }
+
+            SettingsData.exportBackup(backup.toString(), true);
+            TransactionData.Transaction original = newest();
+            TransactionData.updateTransaction(original.id, new TransactionData.Transaction(original.id, original.type,
+                original.date, original.category, original.amount + 1, original.comment));
+            long startTime = System.nanoTime();
+            boolean restored = SettingsData.restoreBackup(backup.toString());
+            double restoreMillis = (System.nanoTime() - startTime) / 1_000_000.0;
+
+            System.out.println(String.format("%s %,d rows: undo %.2f ms (%d round trips), restore after one edit %,.0f ms",
+                restored ? "✓" : "✗", size, undoNanos / 1_000_000.0 / UNDOS, undoTrips / UNDOS, restoreMillis));
+        }
+        Files.deleteIfExists(backup);
+        System.exit(0); // stops the pool and reconciliation threads
+    }
+
+    /**
+     * Reset the user's data and insert size synthetic rows
+     */
+    /**
+     * Newest row with its comment (getRecentTransactions leaves comments out)
+     */
+    private static TransactionData.Transaction newest() {
+        return TransactionStore.getInstance().snapshot().getColumns().toTransaction(0);
+    }
+
+    private static void fill(DatabaseDAO dao, int size) {
+        SettingsData.resetAllData();
+        LocalDate first = LocalDate.of(2015, 1, 1);
+        Random random = new Random(size);
+        List<TransactionData.Transaction> chunk = new ArrayList<>(BulkImporter.CHUNK_ROWS);
+        for (int i = 0; i < size; i++) {
+            chunk.add(new TransactionData.Transaction(i % 5 == 0 ? "Income" : "Expenses",
+                first.plusDays(i % 3650).toString(), CATEGORIES[i % CATEGORIES.length],
+                random.nextInt(100_000) / 100.0, "row " + i));
+            if (chunk.size() == BulkImporter.CHUNK_ROWS || i == size - 1) {
+                dao.bulkInsertTransactions(chunk);
+                chunk.clear();
+            }
+        }
+        TransactionStore.getInstance().load();
+    }
+}
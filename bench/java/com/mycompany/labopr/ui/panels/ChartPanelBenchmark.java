@@ -0,0 +1,72 @@
+package com.mycompany.labopr.ui.panels;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Headless paint benchmark for ChartPanel's render cache
+ *
+ * Usage: ChartPanelBenchmark [frames] [runs]   (defaults: 2000 frames, 3 runs)
+ *
+ * Paints an 11-slice pie chart at 520x440 into an off-screen image. "cached" paints at
+ * a fixed size, so every frame after the first is served from the cached image;
+ * "redraw" alternates the width by one pixel every frame, so every paint re-renders
+ * the chart. Both are reported in microseconds per frame, with the number of real
+ * renders taken from getRenderCount().
+ */
+public final class ChartPanelBenchmark {
+
+    private static final int WIDTH = 520;
+    private static final int HEIGHT = 440;
+
+    private ChartPanelBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        if (System.getProperty("java.awt.headless") == null) {
+            System.setProperty("java.awt.headless", "true");
+        }
+        int frames = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+
+        Map<String, Double> slices = new LinkedHashMap<>();
+        for (int i = 0; i < 11; i++) {
+            slices.put("Category " + i, 100.0 + i * 37);
+        }
+        ChartPanel panel = new ChartPanel("Spending by Category", slices);
+        panel.setSize(WIDTH, HEIGHT);
+        BufferedImage target = new BufferedImage(WIDTH + 1, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+
+        System.out.println(String.format("Pie chart, %d slices, %dx%d, %,d frames per case", slices.size(), WIDTH, HEIGHT, frames));
+        for (int run = 1; run <= runs; run++) {
+            panel.setSize(WIDTH, HEIGHT);
+            long startTime = System.nanoTime();
+            for (int i = 0; i < frames; i++) {
+                paint(panel, target);
+            }
+            long cached = System.nanoTime() - startTime;
+
+            long rendersBefore = panel.getRenderCount();
+            startTime = System.nanoTime();
+            for (int i = 0; i < frames; i++) {
+                panel.setSize(WIDTH + (i & 1), HEIGHT);
+                paint(panel, target);
+            }
+            long redraw = System.nanoTime() - startTime;
+
+            System.out.println(String.format("run %d: cached %,.0f us/frame, redraw %,.0f us/frame (%,d renders)",
+                run, cached / 1000.0 / frames, redraw / 1000.0 / frames, panel.getRenderCount() - rendersBefore));
+        }
+    }
+
+    private static void paint(ChartPanel panel, BufferedImage target) {
+        Graphics2D g = target.createGraphics();
+        try {
+            panel.paint(g);
+        } finally {
+            g.dispose();
+        }
+    }
+}
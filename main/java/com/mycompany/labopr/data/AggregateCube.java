@@ -0,0 +1,228 @@
+package com.mycompany.labopr.data;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+
+/**
+ * Maintained (month, type, category) -> sum, count aggregate
+ *
+ * Built once from the columnar history when the store loads, then updated
+ * incrementally on every write: a change touches one cell, and the new cube shares
+ * every other month with the previous one. Lookups are hash lookups, so budget and
+ * analytics queries no longer scan transactions at all.
+ *
+ * Instances are immutable; sums are kept in cents so incremental updates never drift.
+ */
+public final class AggregateCube {
+
+    private static final AggregateCube EMPTY = new AggregateCube(Collections.emptyMap());
+
+    private final Map<String, MonthCell> months;
+
+    private AggregateCube(Map<String, MonthCell> months) {
+        this.months = months;
+    }
+
+    public static AggregateCube empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Build the cube in one pass over the columns
+     * Rows are newest first, so each month is a contiguous run of rows
+     */
+    public static AggregateCube build(TransactionColumns columns) {
+        Map<String, MonthCell> months = new HashMap<>();
+        int row = 0;
+        while (row < columns.size()) {
+            YearMonth month = YearMonth.from(LocalDate.ofEpochDay(columns.epochDay(row)));
+            int monthStart = (int) month.atDay(1).toEpochDay();
+
+            Map<String, Cell> income = new HashMap<>();
+            Map<String, Cell> expenses = new HashMap<>();
+            while (row < columns.size() && columns.epochDay(row) >= monthStart) {
+                Map<String, Cell> cells = columns.type(row) == TransactionColumns.INCOME ? income : expenses;
+                cells.merge(columns.category(row), new Cell(columns.amountCents(row), 1), Cell::plus);
+                row++;
+            }
+            months.put(month.toString(), new MonthCell(income, expenses));
+        }
+        return new AggregateCube(months);
+    }
+
+    // ==================== INCREMENTAL UPDATES ====================
+
+    /**
+     * New cube with one transaction added (sign = 1) or removed (sign = -1)
+     */
+    public AggregateCube withTransaction(TransactionData.Transaction t, int sign) {
+        return withChange(t.date.substring(0, 7), t.type, t.category,
+            sign * TransactionColumns.toCents(t.amount), sign);
+    }
+
+    /**
+     * New cube with a delta applied to one (month, type, category) cell
+     */
+    public AggregateCube withChange(String month, String type, String category, long centsDelta, int countDelta) {
+        MonthCell current = months.getOrDefault(month, MonthCell.EMPTY);
+        MonthCell updated = current.withChange(TransactionColumns.typeCode(type), category, new Cell(centsDelta, countDelta));
+
+        Map<String, MonthCell> copy = new HashMap<>(months);
+        if (updated.isEmpty()) {
+            copy.remove(month);
+        } else {
+            copy.put(month, updated);
+        }
+        return new AggregateCube(copy);
+    }
+
+    // ==================== QUERIES ====================
+
+    /**
+     * Per-(type, category) totals for a YYYY-MM month
+     */
+    public List<AnalyticsData.CategoryTotal> getMonthTotals(String month) {
+        MonthCell cell = months.get(month);
+        List<AnalyticsData.CategoryTotal> totals = new ArrayList<>();
+        if (cell == null) {
+            return totals;
+        }
+        addTotals(totals, "Income", cell.income);
+        addTotals(totals, "Expenses", cell.expenses);
+        return totals;
+    }
+
+    /**
+     * Total of one type in a month
+     */
+    public double getTotal(String month, String type) {
+        MonthCell cell = months.get(month);
+        if (cell == null) {
+            return 0.0;
+        }
+        return (TransactionColumns.typeCode(type) == TransactionColumns.INCOME ? cell.incomeCents : cell.expenseCents) / 100.0;
+    }
+
+    /**
+     * Total of one type and category in a month
+     */
+    public double getCategoryTotal(String month, String type, String category) {
+        MonthCell cell = months.get(month);
+        if (cell == null) {
+            return 0.0;
+        }
+        Cell value = cell.cells(TransactionColumns.typeCode(type)).get(category);
+        return value != null ? value.cents / 100.0 : 0.0;
+    }
+
+    /**
+     * Categories of one type that have transactions in a month
+     */
+    public Set<String> getCategories(String month, String type) {
+        MonthCell cell = months.get(month);
+        if (cell == null) {
+            return Collections.emptySet();
+        }
+        return cell.cells(TransactionColumns.typeCode(type)).keySet();
+    }
+
+    /**
+     * Income and expense totals for every month in [fromMonth, toMonth], in order
+     * Months without transactions are included with zero totals.
+     */
+    public Map<String, AnalyticsData.MonthlyData> getMonthlyTotals(YearMonth fromMonth, YearMonth toMonth) {
+        Map<String, AnalyticsData.MonthlyData> totals = new LinkedHashMap<>();
+        for (YearMonth month = fromMonth; !month.isAfter(toMonth); month = month.plusMonths(1)) {
+            String key = month.toString();
+            MonthCell cell = months.getOrDefault(key, MonthCell.EMPTY);
+            totals.put(key, new AnalyticsData.MonthlyData(cell.incomeCents / 100.0, cell.expenseCents / 100.0));
+        }
+        return totals;
+    }
+
+    /**
+     * Months that have at least one transaction, ascending
+     */
+    public List<String> getMonths() {
+        List<String> sorted = new ArrayList<>(months.keySet());
+        Collections.sort(sorted);
+        return sorted;
+    }
+
+    private static void addTotals(List<AnalyticsData.CategoryTotal> totals, String type, Map<String, Cell> cells) {
+        for (Map.Entry<String, Cell> entry : cells.entrySet()) {
+            Cell cell = entry.getValue();
+            totals.add(new AnalyticsData.CategoryTotal(type, entry.getKey(), cell.cents / 100.0, cell.count));
+        }
+    }
+
+    // ==================== CELLS ====================
+
+    /**
+     * One month: per-type category cells plus per-type totals
+     */
+    private static final class MonthCell {
+        static final MonthCell EMPTY = new MonthCell(Collections.emptyMap(), Collections.emptyMap());
+
+        final Map<String, Cell> income;
+        final Map<String, Cell> expenses;
+        final long incomeCents;
+        final long expenseCents;
+
+        MonthCell(Map<String, Cell> income, Map<String, Cell> expenses) {
+            this.income = Collections.unmodifiableMap(income);
+            this.expenses = Collections.unmodifiableMap(expenses);
+            this.incomeCents = sum(income);
+            this.expenseCents = sum(expenses);
+        }
+
+        Map<String, Cell> cells(byte type) {
+            return type == TransactionColumns.INCOME ? income : expenses;
+        }
+
+        MonthCell withChange(byte type, String category, Cell delta) {
+            Map<String, Cell> changed = new HashMap<>(cells(type));
+            Cell merged = changed.getOrDefault(category, Cell.ZERO).plus(delta);
+            if (merged.count <= 0) {
+                changed.remove(category);
+            } else {
+                changed.put(category, merged);
+            }
+            return type == TransactionColumns.INCOME
+                ? new MonthCell(changed, expenses)
+                : new MonthCell(income, changed);
+        }
+
+        boolean isEmpty() {
+            return income.isEmpty() && expenses.isEmpty();
+        }
+
+        private static long sum(Map<String, Cell> cells) {
+            long total = 0;
+            for (Cell cell : cells.values()) {
+                total += cell.cents;
+            }
+            return total;
+        }
+    }
+
+    /**
+     * Sum in cents and row count for one (month, type, category)
+     */
+    private static final class Cell {
+        static final Cell ZERO = new Cell(0, 0);
+
+        final long cents;
+        final int count;
+
+        Cell(long cents, int count) {
+            this.cents = cents;
+            this.count = count;
+        }
+
+        Cell plus(Cell other) {
+            return new Cell(cents + other.cents, count + other.count);
+        }
+    }
+}
@@ -1,57 +1,34 @@
 package com.mycompany.labopr.data;
 
+import com.mycompany.labopr.database.DatabaseDAO;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Fully Refactored AnalyticsData - Complete database integration
- * All analytics calculations now use real-time database queries through TransactionData
+ * Monthly metrics come from the (month, type, category) AggregateCube maintained by
+ * the in-memory TransactionStore; until the store has loaded the user's history they
+ * are aggregated in SQL (GROUP BY type, category over the month's date range)
  * Provides comprehensive financial analytics and reporting
  */
 public class AnalyticsData {
     
     /**
      * Get total income for a specific month
-     * Queries all income transactions and sums amounts for matching month
+     * Read from the cube's per-month total
      */
     public static double getTotalIncome(String month) {
-        if (month == null || month.isEmpty()) {
-            return 0.0;
-        }
-        
-        List<TransactionData.Transaction> incomeTransactions = 
-            TransactionData.getTransactionsByType("Income");
-        
-        double total = 0.0;
-        for (TransactionData.Transaction t : incomeTransactions) {
-            String transactionMonth = extractMonth(t.date);
-            if (transactionMonth.equals(month)) {
-                total += t.amount;
-            }
-        }
-        return total;
+        return getMonthTotal(month, "Income");
     }
     
     /**
      * Get total expenses for a specific month
-     * Queries all expense transactions and sums amounts for matching month
+     * Read from the cube's per-month total
      */
     public static double getTotalExpenses(String month) {
-        if (month == null || month.isEmpty()) {
-            return 0.0;
-        }
-        
-        List<TransactionData.Transaction> expenseTransactions = 
-            TransactionData.getTransactionsByType("Expenses");
-        
-        double total = 0.0;
-        for (TransactionData.Transaction t : expenseTransactions) {
-            String transactionMonth = extractMonth(t.date);
-            if (transactionMonth.equals(month)) {
-                total += t.amount;
-            }
-        }
-        return total;
+        return getMonthTotal(month, "Expenses");
     }
     
     /**
@@ -66,11 +43,7 @@ public class AnalyticsData {
      * Returns 0 if no income
      */
     public static double getSavingsRate(String month) {
-        double income = getTotalIncome(month);
-        if (income == 0) return 0.0;
-        
-        double savings = getNetSavings(month);
-        return (savings / income) * 100;
+        return new MonthlyData(getTotalIncome(month), getTotalExpenses(month)).savingsRate;
     }
     
     /**
@@ -78,26 +51,7 @@ public class AnalyticsData {
      * Returns map of category -> total amount spent
      */
     public static Map<String, Double> getSpendingByCategory(String month) {
-        if (month == null || month.isEmpty()) {
-            return new HashMap<>();
-        }
-        
-        List<TransactionData.Transaction> expenseTransactions = 
-            TransactionData.getTransactionsByType("Expenses");
-        
-        Map<String, Double> categorySpending = new HashMap<>();
-        
-        for (TransactionData.Transaction t : expenseTransactions) {
-            String transactionMonth = extractMonth(t.date);
-            if (transactionMonth.equals(month)) {
-                categorySpending.put(
-                    t.category, 
-                    categorySpending.getOrDefault(t.category, 0.0) + t.amount
-                );
-            }
-        }
-        
-        return categorySpending;
+        return byCategory(getMonthTotals(month), "Expenses");
     }
     
     /**
@@ -105,26 +59,7 @@ public class AnalyticsData {
      * Returns map of category -> total amount received
      */
     public static Map<String, Double> getIncomeByCategory(String month) {
-        if (month == null || month.isEmpty()) {
-            return new HashMap<>();
-        }
-        
-        List<TransactionData.Transaction> incomeTransactions = 
-            TransactionData.getTransactionsByType("Income");
-        
-        Map<String, Double> categoryIncome = new HashMap<>();
-        
-        for (TransactionData.Transaction t : incomeTransactions) {
-            String transactionMonth = extractMonth(t.date);
-            if (transactionMonth.equals(month)) {
-                categoryIncome.put(
-                    t.category, 
-                    categoryIncome.getOrDefault(t.category, 0.0) + t.amount
-                );
-            }
-        }
-        
-        return categoryIncome;
+        return byCategory(getMonthTotals(month), "Income");
     }
     
     /**
@@ -154,17 +89,35 @@ public class AnalyticsData {
             return new LinkedHashMap<>();
         }
         
+        AggregateCube cube = TransactionStore.getInstance().snapshot().getCube();
         Map<String, MonthlyData> trend = new LinkedHashMap<>();
         
         for (String month : months) {
-            double income = getTotalIncome(month);
-            double expenses = getTotalExpenses(month);
-            trend.put(month, new MonthlyData(income, expenses));
+            YearMonth yearMonth = YearMonth.parse(month);
+            trend.putAll(cube.getMonthlyTotals(yearMonth, yearMonth));
         }
         
         return trend;
     }
     
+    /**
+     * Income vs expenses for the monthCount months ending with endMonth (YYYY-MM)
+     * One pass over the maintained month totals; no per-month queries
+     */
+    public static Map<String, MonthlyData> getIncomeExpensesTrend(String endMonth, int monthCount) {
+        YearMonth to = YearMonth.parse(endMonth);
+        return getIncomeExpensesTrend(to.minusMonths(Math.max(1, monthCount) - 1).toString(), endMonth);
+    }
+    
+    /**
+     * Income vs expenses for every month in [fromMonth, toMonth] (YYYY-MM), chronological,
+     * months without transactions included as zero
+     */
+    public static Map<String, MonthlyData> getIncomeExpensesTrend(String fromMonth, String toMonth) {
+        return TransactionStore.getInstance().snapshot().getCube()
+            .getMonthlyTotals(YearMonth.parse(fromMonth), YearMonth.parse(toMonth));
+    }
+    
     /**
      * Get average monthly spending over a period
      */
@@ -225,41 +178,78 @@ public class AnalyticsData {
      * Returns sorted list of months in YYYY-MM format
      */
     public static List<String> getMonthsWithTransactions() {
-        List<TransactionData.Transaction> allTransactions = 
-            TransactionData.getAllTransactions();
-        
-        Set<String> months = new HashSet<>();
-        for (TransactionData.Transaction t : allTransactions) {
-            String month = extractMonth(t.date);
-            if (!month.isEmpty()) {
-                months.add(month);
-            }
+        TransactionStore store = TransactionStore.getInstance();
+        if (!store.isLoaded()) {
+            return DatabaseDAO.getInstance().getMonthsWithTransactions();
         }
-        
-        List<String> sortedMonths = new ArrayList<>(months);
-        Collections.sort(sortedMonths);
-        return sortedMonths;
+        return store.snapshot().getMonths();
+    }
+    
+    /**
+     * Date of the oldest and newest transaction (YYYY-MM-DD), or null with no history
+     */
+    public static String getFirstTransactionDate() {
+        TransactionColumns columns = TransactionStore.getInstance().snapshot().getColumns();
+        return columns.size() > 0 ? LocalDate.ofEpochDay(columns.oldestDay()).toString() : null;
+    }
+    
+    public static String getLastTransactionDate() {
+        TransactionColumns columns = TransactionStore.getInstance().snapshot().getColumns();
+        return columns.size() > 0 ? LocalDate.ofEpochDay(columns.newestDay()).toString() : null;
+    }
+    
+    /**
+     * Daily spending and end-of-day balance over [fromDate, toDateExclusive)
+     * Every value comes from the day index: per-day totals and the opening balance
+     * (starting balance plus the net of everything before fromDate) are O(1) each.
+     */
+    public static DailySeries getDailySeries(String fromDate, String toDateExclusive) {
+        int fromDay = TransactionColumns.toEpochDay(fromDate);
+        int toDay = TransactionColumns.toEpochDay(toDateExclusive);
+        int days = Math.max(0, toDay - fromDay);
+        
+        DayIndex index = TransactionStore.getInstance().snapshot().getDayIndex();
+        Double startingBalance = TransactionData.getBalance();
+        long balanceCents = TransactionColumns.toCents(startingBalance != null ? startingBalance : 0.0)
+            + index.netCents(Integer.MIN_VALUE, fromDay);
+        
+        double[] spend = new double[days];
+        double[] balance = new double[days];
+        for (int i = 0; i < days; i++) {
+            int day = fromDay + i;
+            balanceCents += index.netCents(day, day + 1);
+            spend[i] = index.expenseCents(day, day + 1) / 100.0;
+            balance[i] = balanceCents / 100.0;
+        }
+        return new DailySeries(fromDay, spend, balance);
+    }
+    
+    /**
+     * Income, expenses and net over any [fromDate, toDateExclusive) range
+     * Answered in O(1) from the day index, whatever the length of the range or history.
+     * The range is clamped to [FIRST_DATE, LAST_DATE], which holds every supported row.
+     */
+    public static RangeTotals getRangeTotals(LocalDate fromDate, LocalDate toDateExclusive) {
+        int fromDay = clampDay(fromDate.toEpochDay());
+        int toDay = clampDay(toDateExclusive.toEpochDay());
+        DayIndex index = TransactionStore.getInstance().snapshot().getDayIndex();
+        return new RangeTotals(fromDate.toString(), toDateExclusive.toString(),
+            index.incomeCents(fromDay, toDay) / 100.0,
+            index.expenseCents(fromDay, toDay) / 100.0);
+    }
+    
+    private static int clampDay(long epochDay) {
+        return (int) Math.max(TransactionColumns.FIRST_DAY, Math.min(epochDay, TransactionColumns.LAST_DAY + 1L));
     }
     
     /**
      * Get transaction count for a month
      */
     public static int getTransactionCount(String month) {
-        if (month == null || month.isEmpty()) {
-            return 0;
-        }
-        
-        List<TransactionData.Transaction> allTransactions = 
-            TransactionData.getAllTransactions();
-        
         int count = 0;
-        for (TransactionData.Transaction t : allTransactions) {
-            String transactionMonth = extractMonth(t.date);
-            if (transactionMonth.equals(month)) {
-                count++;
-            }
+        for (CategoryTotal total : getMonthTotals(month)) {
+            count += total.count;
         }
-        
         return count;
     }
     
@@ -276,37 +266,180 @@ public class AnalyticsData {
      * Returns percentage of budget goals met (not exceeded)
      */
     public static double getBudgetAdherenceRate(String month) {
+        return getMonthSnapshot(month).budgetAdherence;
+    }
+    
+    /**
+     * Compute every monthly metric in one pass
+     * Uses one aggregation of the month's totals and one query for its budget goals,
+     * instead of re-querying per metric and per budgeted category
+     */
+    public static MonthSnapshot getMonthSnapshot(String month) {
+        List<CategoryTotal> totals = getMonthTotals(month);
         Map<String, Double> budgetGoals = BudgetData.getBudgetGoalsForMonth(month);
-        if (budgetGoals.isEmpty()) {
-            return 100.0; // No budgets = perfect adherence
+        return new MonthSnapshot(totals, budgetGoals);
+    }
+    
+    /**
+     * Per-(type, category) totals for a YYYY-MM month, read from the maintained aggregate cube
+     * If the store has not loaded the history yet, the database aggregates the month over
+     * [first day of month, first day of next month) instead of waiting for a full load
+     */
+    private static List<CategoryTotal> getMonthTotals(String month) {
+        if (month == null || month.isEmpty()) {
+            return new ArrayList<>();
         }
         
-        int totalGoals = budgetGoals.size();
-        int goalsAdhered = 0;
-        
-        for (Map.Entry<String, Double> entry : budgetGoals.entrySet()) {
-            double spent = BudgetData.getSpentForCategoryAndMonth(entry.getKey(), month);
-            if (spent <= entry.getValue()) {
-                goalsAdhered++;
-            }
+        TransactionStore store = TransactionStore.getInstance();
+        if (store.isLoaded()) {
+            return store.snapshot().getCube().getMonthTotals(month);
         }
         
-        return (goalsAdhered / (double) totalGoals) * 100;
+        YearMonth yearMonth;
+        try {
+            yearMonth = YearMonth.parse(month);
+        } catch (DateTimeParseException e) {
+            return new ArrayList<>();
+        }
+        return DatabaseDAO.getInstance().getCategoryTotals(
+            yearMonth.atDay(1).toString(),
+            yearMonth.plusMonths(1).atDay(1).toString()
+        );
     }
     
     /**
-     * Extract YYYY-MM from date string
-     * Handles various date formats
+     * Total of one type in a YYYY-MM month: an O(1) cube lookup once the store is loaded,
+     * otherwise the sum of the month's SQL category totals
      */
-    private static String extractMonth(String date) {
-        if (date == null || date.length() < 7) {
-            return "";
+    private static double getMonthTotal(String month, String type) {
+        if (month == null || month.isEmpty()) {
+            return 0.0;
+        }
+        
+        TransactionStore store = TransactionStore.getInstance();
+        if (store.isLoaded()) {
+            return store.snapshot().getCube().getTotal(month, type);
+        }
+        return sumByType(getMonthTotals(month), type);
+    }
+    
+    private static double sumByType(List<CategoryTotal> totals, String type) {
+        double sum = 0.0;
+        for (CategoryTotal total : totals) {
+            if (total.type.equals(type)) {
+                sum += total.total;
+            }
         }
-        return date.substring(0, 7);
+        return sum;
+    }
+    
+    private static Map<String, Double> byCategory(List<CategoryTotal> totals, String type) {
+        Map<String, Double> categories = new HashMap<>();
+        for (CategoryTotal total : totals) {
+            if (total.type.equals(type)) {
+                categories.merge(total.category, total.total, Double::sum);
+            }
+        }
+        return categories;
     }
     
     // ==================== HELPER CLASSES ====================
     
+    /**
+     * Aggregated total for one transaction type and category
+     */
+    public static class CategoryTotal {
+        public final String type;
+        public final String category;
+        public final double total;
+        public final int count;
+        
+        public CategoryTotal(String type, String category, double total, int count) {
+            this.type = type;
+            this.category = category;
+            this.total = total;
+            this.count = count;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("CategoryTotal[type=%s, category=%s, total=%.2f, count=%d]", 
+                type, category, total, count);
+        }
+    }
+    
+    /**
+     * All metrics for one month, derived from its per-category totals and budget goals
+     */
+    public static class MonthSnapshot {
+        public final double totalIncome;
+        public final double totalExpenses;
+        public final double netSavings;
+        public final double savingsRate;
+        public final int transactionCount;
+        public final Map<String, Double> spendingByCategory;
+        public final Map<String, Double> incomeByCategory;
+        public final List<CategorySpending> expenseCategoriesByAmount;
+        public final double totalBudget;
+        public final double budgetAdherence;
+        public final boolean isOverBudget;
+        
+        public MonthSnapshot(List<CategoryTotal> totals, Map<String, Double> budgetGoals) {
+            double income = 0.0;
+            double expenses = 0.0;
+            int count = 0;
+            Map<String, Double> spending = new HashMap<>();
+            Map<String, Double> received = new HashMap<>();
+            
+            for (CategoryTotal total : totals) {
+                count += total.count;
+                if (total.type.equals("Income")) {
+                    income += total.total;
+                    received.merge(total.category, total.total, Double::sum);
+                } else if (total.type.equals("Expenses")) {
+                    expenses += total.total;
+                    spending.merge(total.category, total.total, Double::sum);
+                }
+            }
+            
+            List<CategorySpending> ranked = new ArrayList<>();
+            for (Map.Entry<String, Double> entry : spending.entrySet()) {
+                ranked.add(new CategorySpending(entry.getKey(), entry.getValue()));
+            }
+            ranked.sort((a, b) -> Double.compare(b.amount, a.amount));
+            
+            double budget = 0.0;
+            int goalsAdhered = 0;
+            for (Map.Entry<String, Double> entry : budgetGoals.entrySet()) {
+                budget += entry.getValue();
+                if (spending.getOrDefault(entry.getKey(), 0.0) <= entry.getValue()) {
+                    goalsAdhered++;
+                }
+            }
+            
+            MonthlyData monthly = new MonthlyData(income, expenses);
+            this.totalIncome = income;
+            this.totalExpenses = expenses;
+            this.netSavings = monthly.netSavings;
+            this.savingsRate = monthly.savingsRate;
+            this.transactionCount = count;
+            this.spendingByCategory = spending;
+            this.incomeByCategory = received;
+            this.expenseCategoriesByAmount = ranked;
+            this.totalBudget = budget;
+            // No budgets = perfect adherence
+            this.budgetAdherence = budgetGoals.isEmpty() ? 100.0 : (goalsAdhered / (double) budgetGoals.size()) * 100;
+            this.isOverBudget = budget > 0 && expenses > budget;
+        }
+        
+        /**
+         * Top N expense categories (or all if fewer than N)
+         */
+        public List<CategorySpending> getTopExpenseCategories(int topN) {
+            return expenseCategoriesByAmount.subList(0, Math.min(topN, expenseCategoriesByAmount.size()));
+        }
+    }
+    
     /**
      * Category spending data holder
      */
@@ -342,6 +475,20 @@ public class AnalyticsData {
             this.savingsRate = (income > 0) ? (netSavings / income) * 100 : 0;
         }
         
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof MonthlyData)) return false;
+            MonthlyData other = (MonthlyData) o;
+            return Double.compare(income, other.income) == 0
+                && Double.compare(expenses, other.expenses) == 0;
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(income, expenses);
+        }
+        
         @Override
         public String toString() {
             return String.format("MonthlyData[income=%.2f, expenses=%.2f, savings=%.2f]", 
@@ -349,6 +496,55 @@ public class AnalyticsData {
         }
     }
     
+    /**
+     * Totals over a date range [fromDate, toDateExclusive)
+     */
+    public static class RangeTotals {
+        public final String fromDate;
+        public final String toDateExclusive;
+        public final double income;
+        public final double expenses;
+        public final double net;
+        
+        public RangeTotals(String fromDate, String toDateExclusive, double income, double expenses) {
+            this.fromDate = fromDate;
+            this.toDateExclusive = toDateExclusive;
+            this.income = income;
+            this.expenses = expenses;
+            this.net = income - expenses;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("RangeTotals[%s..%s, income=%.2f, expenses=%.2f, net=%.2f]",
+                fromDate, toDateExclusive, income, expenses, net);
+        }
+    }
+    
+    /**
+     * One value per calendar day starting at fromDay (epoch day)
+     */
+    public static class DailySeries {
+        public final int fromDay;
+        public final double[] spend;   // expenses on the day
+        public final double[] balance; // balance at the end of the day
+        
+        public DailySeries(int fromDay, double[] spend, double[] balance) {
+            this.fromDay = fromDay;
+            this.spend = spend;
+            this.balance = balance;
+        }
+        
+        public int size() {
+            return spend.length;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("DailySeries[from=%s, days=%d]", LocalDate.ofEpochDay(fromDay), size());
+        }
+    }
+    
     /**
      * Spending trend enum
      */
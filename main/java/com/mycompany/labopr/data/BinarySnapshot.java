@@ -0,0 +1,713 @@
+package com.mycompany.labopr.data;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Versioned binary backup format
+ *
+ * File layout (fixed-width integers are little-endian):
+ *   header   "KWTB" magic, u8 version, u8 flags (bit 0: blocks are deflated, bit 1:
+ *            incremental), u16 reserved, i64 creation time in epoch millis, then since
+ *            version 2: i64 first and i64 last change_seq covered (a full snapshot
+ *            covers everything up to the last one and has first = 0)
+ *   blocks   u8 kind, i32 raw length, i32 stored length, i32 CRC32 of the raw payload,
+ *            then the stored payload (deflated when the flag is set)
+ *
+ * Block payloads:
+ *   META          starting balance present (u8), zigzag varint starting balance in cents
+ *   TRANSACTIONS  varint count of categories new in this block, each as length-prefixed
+ *                 UTF-8 (they extend one dictionary shared by the whole file), varint
+ *                 row count, then per row: varint (category index << 1 | expense bit),
+ *                 zigzag varint days since the previous row (the first row of a block is
+ *                 relative to epoch day 0), since version 2 zigzag varint transaction_id
+ *                 delta from the previous row, zigzag varint cents, length-prefixed UTF-8
+ *                 comment (length + 1, 0 for null)
+ *   BUDGETS       varint count, then category, month (length-prefixed UTF-8) and zigzag
+ *                 varint goal in cents
+ *   DELETES       incremental files only: varint count of deleted transaction ids as
+ *                 ascending deltas, varint count of deleted budgets as category, month
+ *   END           varint total transaction rows, checked on restore
+ *
+ * Full snapshots list rows newest first, so consecutive day and id deltas are small
+ * and most rows take 10-14 bytes before their comment. An incremental snapshot holds
+ * the current state of every row changed in its change_seq range plus the rows deleted
+ * in it; SnapshotMerger applies increments to a full snapshot. A corrupt or truncated
+ * file is rejected with an IOException naming the failing block.
+ */
+public final class BinarySnapshot {
+
+    public static final int VERSION = 2;
+    public static final int ROWS_PER_BLOCK = 32_768;
+
+    private static final byte[] MAGIC = { 'K', 'W', 'T', 'B' };
+    private static final int FLAG_DEFLATE = 1;
+    private static final int FLAG_INCREMENTAL = 2;
+    private static final int HEADER_BYTES = 32;
+    private static final int TO_SEQ_OFFSET = 24;
+    private static final int BLOCK_HEADER_BYTES = 13;
+
+    private static final byte BLOCK_END = 0;
+    private static final byte BLOCK_META = 1;
+    private static final byte BLOCK_TRANSACTIONS = 2;
+    private static final byte BLOCK_BUDGETS = 3;
+    private static final byte BLOCK_DELETES = 4;
+
+    private BinarySnapshot() {
+    }
+
+    /**
+     * Snapshot header fields
+     */
+    public static final class Header {
+        public final int version;
+        public final boolean deflated;
+        public final boolean incremental;
+        public final long createdMillis;
+        public final long fromSeq; // exclusive; 0 for a full snapshot
+        public final long toSeq;   // inclusive; 0 for a version 1 file
+
+        Header(int version, boolean deflated, boolean incremental, long createdMillis, long fromSeq, long toSeq) {
+            this.version = version;
+            this.deflated = deflated;
+            this.incremental = incremental;
+            this.createdMillis = createdMillis;
+            this.fromSeq = fromSeq;
+            this.toSeq = toSeq;
+        }
+
+        @Override
+        public String toString() {
+            return (incremental ? "incremental (" + fromSeq + ", " + toSeq + "]" : "full @" + toSeq) + ", v" + version;
+        }
+    }
+
+    /**
+     * Receives the contents of a snapshot in file order
+     */
+    public interface Visitor {
+        default void header(Header header) throws IOException {
+        }
+
+        void startingBalance(Long cents);
+
+        /**
+         * @param id transaction_id, 0 in version 1 files
+         * @return false to stop reading
+         */
+        boolean transaction(int id, String type, int epochDay, String category, long amountCents, String comment);
+
+        void budget(String category, String month, long goalCents);
+
+        default void deletedTransaction(int id) {
+        }
+
+        default void deletedBudget(String category, String month) {
+        }
+    }
+
+    // ==================== WRITING ====================
+
+    /**
+     * Streaming snapshot writer: rows are encoded into one reusable block buffer and
+     * written to the channel every ROWS_PER_BLOCK rows. Budgets and deletions are
+     * buffered and written by finish().
+     *
+     * The file is written next to the target as name.tmp and only moved into place by
+     * finish(), after the END block. Closing without finish() (an exception part way
+     * through the stream) deletes the temporary file, so a truncated backup can never
+     * pass for a complete one and an existing file at the target is left as it was.
+     */
+    public static final class Writer implements Closeable {
+        private final Path target;
+        private final Path temp;
+        private final FileChannel channel;
+        private final Deflater deflater;
+        private final ByteBuffer blockHeader = ByteBuffer.allocate(BLOCK_HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        private final CRC32 crc = new CRC32();
+        private final Encoder rows = new Encoder(1 << 20);
+        private final Encoder block = new Encoder(1 << 20);
+        private final Encoder budgets = new Encoder(4096);
+        private byte[] deflated = new byte[0];
+        private final boolean incremental;
+        private long toSeq;
+
+        private final Map<String, Integer> dictionary = new HashMap<>();
+        private final List<String> newCategories = new ArrayList<>();
+        private int blockRows = 0;
+        private int previousDay = 0;
+        private int previousId = 0;
+        private long totalRows = 0;
+        private int budgetCount = 0;
+        private final List<Integer> deletedIds = new ArrayList<>();
+        private final List<String[]> deletedBudgets = new ArrayList<>();
+        private long bytesWritten = 0;
+        private boolean finished = false;
+
+        private Writer(Path target, boolean deflate, boolean incremental, long fromSeq, long toSeq) throws IOException {
+            this.target = target;
+            this.temp = target.resolveSibling(target.getFileName() + ".tmp");
+            this.channel = FileChannel.open(temp,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            this.deflater = deflate ? new Deflater(Deflater.BEST_SPEED) : null;
+            this.incremental = incremental;
+            this.toSeq = toSeq;
+
+            int flags = (deflate ? FLAG_DEFLATE : 0) | (incremental ? FLAG_INCREMENTAL : 0);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.put(MAGIC).put((byte) VERSION).put((byte) flags)
+                  .putShort((short) 0).putLong(System.currentTimeMillis())
+                  .putLong(fromSeq).putLong(toSeq).flip();
+            try {
+                writeFully(header);
+            } catch (IOException e) {
+                close();
+                throw e;
+            }
+        }
+
+        /**
+         * Start a full snapshot covering every change up to baseSeq; path is replaced by finish()
+         */
+        public static Writer open(Path path, boolean deflate, long baseSeq) throws IOException {
+            return new Writer(path, deflate, false, 0, baseSeq);
+        }
+
+        /**
+         * Start an incremental snapshot of the changes in (fromSeq, toSeq]; path is replaced by finish()
+         */
+        public static Writer openIncremental(Path path, boolean deflate, long fromSeq, long toSeq) throws IOException {
+            return new Writer(path, deflate, true, fromSeq, toSeq);
+        }
+
+        /**
+         * Set the end of the covered change_seq range once it is known (written by finish())
+         */
+        public void setToSeq(long toSeq) {
+            this.toSeq = toSeq;
+        }
+
+        public void writeStartingBalance(Long cents) throws IOException {
+            block.reset();
+            block.writeByte(cents != null ? 1 : 0);
+            block.writeZigzag(cents != null ? cents : 0);
+            writeBlock(BLOCK_META, block);
+        }
+
+        public void addTransaction(int id, String type, String date, String category, long amountCents, String comment) throws IOException {
+            addTransaction(id, TransactionColumns.typeCode(type), TransactionColumns.toEpochDay(date), category, amountCents, comment);
+        }
+
+        public void addTransaction(int id, byte type, int day, String category, long amountCents, String comment) throws IOException {
+            Integer index = dictionary.get(category);
+            if (index == null) {
+                index = dictionary.size();
+                dictionary.put(category, index);
+                newCategories.add(category);
+            }
+            int typeBit = type == TransactionColumns.INCOME ? 0 : 1;
+
+            rows.writeVarint(((long) index << 1) | typeBit);
+            rows.writeZigzag(day - previousDay);
+            rows.writeZigzag((long) id - previousId);
+            rows.writeZigzag(amountCents);
+            rows.writeOptionalString(comment);
+            previousDay = day;
+            previousId = id;
+
+            if (++blockRows == ROWS_PER_BLOCK) {
+                flushRows();
+            }
+        }
+
+        public void addBudget(String category, String month, long goalCents) {
+            budgets.writeString(category);
+            budgets.writeString(month);
+            budgets.writeZigzag(goalCents);
+            budgetCount++;
+        }
+
+        public void addBudgets(List<BudgetData.BudgetGoal> goals) {
+            for (BudgetData.BudgetGoal goal : goals) {
+                addBudget(goal.category, goal.month, TransactionColumns.toCents(goal.goal));
+            }
+        }
+
+        public void deleteTransaction(int id) {
+            requireIncremental();
+            deletedIds.add(id);
+        }
+
+        public void deleteBudget(String category, String month) {
+            requireIncremental();
+            deletedBudgets.add(new String[] { category, month });
+        }
+
+        private void requireIncremental() {
+            if (!incremental) {
+                throw new IllegalStateException("Deletions only belong in incremental snapshots");
+            }
+        }
+
+        public long getTransactionCount() {
+            return totalRows + blockRows;
+        }
+
+        public long getBytesWritten() {
+            return bytesWritten;
+        }
+
+        /**
+         * Write the remaining rows, budgets, deletions and the END block, then move the
+         * finished file into place. Only the success path calls this.
+         */
+        public void finish() throws IOException {
+            flushRows();
+            if (budgetCount > 0) {
+                block.reset();
+                block.writeVarint(budgetCount);
+                block.writeBytes(budgets.bytes, 0, budgets.length);
+                writeBlock(BLOCK_BUDGETS, block);
+            }
+            if (!deletedIds.isEmpty() || !deletedBudgets.isEmpty()) {
+                Collections.sort(deletedIds);
+                block.reset();
+                block.writeVarint(deletedIds.size());
+                long previous = 0;
+                for (int id : deletedIds) {
+                    block.writeZigzag(id - previous);
+                    previous = id;
+                }
+                block.writeVarint(deletedBudgets.size());
+                for (String[] key : deletedBudgets) {
+                    block.writeString(key[0]);
+                    block.writeString(key[1]);
+                }
+                writeBlock(BLOCK_DELETES, block);
+            }
+            block.reset();
+            block.writeVarint(totalRows);
+            writeBlock(BLOCK_END, block);
+
+            ByteBuffer seq = ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN).putLong(toSeq).flip();
+            while (seq.hasRemaining()) {
+                channel.write(seq, TO_SEQ_OFFSET + seq.position());
+            }
+            channel.force(false);
+            channel.close();
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            finished = true;
+        }
+
+        /**
+         * Release the file; without finish() the partial temporary file is deleted
+         */
+        @Override
+        public void close() throws IOException {
+            if (deflater != null) deflater.end();
+            channel.close();
+            if (!finished) {
+                Files.deleteIfExists(temp);
+            }
+        }
+
+        private void flushRows() throws IOException {
+            if (blockRows == 0) return;
+
+            block.reset();
+            block.writeVarint(newCategories.size());
+            for (String category : newCategories) {
+                block.writeString(category);
+            }
+            block.writeVarint(blockRows);
+            block.writeBytes(rows.bytes, 0, rows.length);
+            writeBlock(BLOCK_TRANSACTIONS, block);
+
+            totalRows += blockRows;
+            blockRows = 0;
+            previousDay = 0;
+            previousId = 0;
+            newCategories.clear();
+            rows.reset();
+        }
+
+        private void writeBlock(byte kind, Encoder payload) throws IOException {
+            crc.reset();
+            crc.update(payload.bytes, 0, payload.length);
+
+            byte[] stored = payload.bytes;
+            int storedLength = payload.length;
+            if (deflater != null) {
+                if (deflated.length < payload.length + 64) {
+                    deflated = new byte[payload.length + payload.length / 8 + 64];
+                }
+                deflater.reset();
+                deflater.setInput(payload.bytes, 0, payload.length);
+                deflater.finish();
+                storedLength = 0;
+                while (!deflater.finished()) {
+                    if (storedLength == deflated.length) {
+                        deflated = Arrays.copyOf(deflated, deflated.length * 2);
+                    }
+                    storedLength += deflater.deflate(deflated, storedLength, deflated.length - storedLength);
+                }
+                stored = deflated;
+            }
+
+            blockHeader.clear();
+            blockHeader.put(kind).putInt(payload.length).putInt(storedLength).putInt((int) crc.getValue()).flip();
+            writeFully(blockHeader);
+            writeFully(ByteBuffer.wrap(stored, 0, storedLength));
+        }
+
+        private void writeFully(ByteBuffer buffer) throws IOException {
+            bytesWritten += buffer.remaining();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    // ==================== READING ====================
+
+    /**
+     * Memory-map the snapshot and hand its contents to visitor, verifying every
+     * block's CRC and the END row count
+     *
+     * @return number of transactions visited
+     */
+    public static long read(Path path, Visitor visitor) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Backup larger than 2 GB is not supported");
+            }
+            MappedByteBuffer file = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            file.order(ByteOrder.LITTLE_ENDIAN);
+            return read(file, visitor);
+        }
+    }
+
+    /**
+     * Read just the header
+     */
+    public static Header readHeader(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // keep reading
+            }
+            buffer.flip();
+            try {
+                return readHeader(buffer);
+            } catch (BufferUnderflowException e) {
+                throw new IOException("Backup is truncated (incomplete header)", e);
+            }
+        }
+    }
+
+    private static Header readHeader(ByteBuffer file) throws IOException {
+        byte[] magic = new byte[MAGIC.length];
+        file.get(magic);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IOException("Not a KwarTrack backup file");
+        }
+        int version = file.get() & 0xFF;
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Unsupported backup version " + version);
+        }
+        int flags = file.get() & 0xFF;
+        file.getShort();
+        long created = file.getLong();
+        long fromSeq = 0;
+        long toSeq = 0;
+        if (version >= 2) {
+            fromSeq = file.getLong();
+            toSeq = file.getLong();
+        }
+        return new Header(version, (flags & FLAG_DEFLATE) != 0, (flags & FLAG_INCREMENTAL) != 0, created, fromSeq, toSeq);
+    }
+
+    private static long read(ByteBuffer file, Visitor visitor) throws IOException {
+        int blockNumber = 0;
+        try {
+            Header header = readHeader(file);
+            visitor.header(header);
+            boolean withIds = header.version >= 2;
+
+            Inflater inflater = header.deflated ? new Inflater() : null;
+            CRC32 crc = new CRC32();
+            List<String> dictionary = new ArrayList<>();
+            byte[] inflateBuffer = new byte[0];
+            long rowsRead = 0;
+
+            try {
+                while (true) {
+                    blockNumber++;
+                    byte kind = file.get();
+                    int rawLength = file.getInt();
+                    int storedLength = file.getInt();
+                    int expectedCrc = file.getInt();
+                    if (rawLength < 0 || storedLength < 0 || storedLength > file.remaining()) {
+                        throw new IOException("Backup is truncated at block " + blockNumber);
+                    }
+
+                    ByteBuffer stored = file.slice(file.position(), storedLength);
+                    file.position(file.position() + storedLength);
+
+                    ByteBuffer payload;
+                    if (inflater != null) {
+                        if (inflateBuffer.length < rawLength) {
+                            inflateBuffer = new byte[rawLength];
+                        }
+                        inflater.reset();
+                        inflater.setInput(stored);
+                        int inflated = 0;
+                        while (inflated < rawLength && !inflater.finished()) {
+                            int n = inflater.inflate(inflateBuffer, inflated, rawLength - inflated);
+                            if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+                            inflated += n;
+                        }
+                        if (inflated != rawLength) {
+                            throw new IOException("Backup block " + blockNumber + " is corrupt (bad length)");
+                        }
+                        payload = ByteBuffer.wrap(inflateBuffer, 0, rawLength);
+                    } else {
+                        if (storedLength != rawLength) {
+                            throw new IOException("Backup block " + blockNumber + " is corrupt (bad length)");
+                        }
+                        payload = stored;
+                    }
+
+                    crc.reset();
+                    crc.update(payload.duplicate());
+                    if ((int) crc.getValue() != expectedCrc) {
+                        throw new IOException("Backup block " + blockNumber + " is corrupt (CRC mismatch)");
+                    }
+
+                    Decoder in = new Decoder(payload);
+                    switch (kind) {
+                        case BLOCK_META: {
+                            boolean present = in.readByte() != 0;
+                            long cents = in.readZigzag();
+                            visitor.startingBalance(present ? cents : null);
+                            break;
+                        }
+                        case BLOCK_TRANSACTIONS: {
+                            int newCategories = (int) in.readVarint();
+                            for (int i = 0; i < newCategories; i++) {
+                                dictionary.add(in.readString());
+                            }
+                            int count = (int) in.readVarint();
+                            int day = 0;
+                            int id = 0;
+                            for (int i = 0; i < count; i++) {
+                                long code = in.readVarint();
+                                day += (int) in.readZigzag();
+                                if (withIds) {
+                                    id += (int) in.readZigzag();
+                                }
+                                long cents = in.readZigzag();
+                                String comment = in.readOptionalString();
+                                int category = (int) (code >>> 1);
+                                if (category >= dictionary.size()) {
+                                    throw new IOException("Backup block " + blockNumber + " is corrupt (bad category)");
+                                }
+                                String type = TransactionColumns.typeName((code & 1) == 0
+                                    ? TransactionColumns.INCOME : TransactionColumns.EXPENSES);
+                                if (!visitor.transaction(id, type, day, dictionary.get(category), cents, comment)) {
+                                    return rowsRead;
+                                }
+                                rowsRead++;
+                            }
+                            break;
+                        }
+                        case BLOCK_BUDGETS: {
+                            int count = (int) in.readVarint();
+                            for (int i = 0; i < count; i++) {
+                                visitor.budget(in.readString(), in.readString(), in.readZigzag());
+                            }
+                            break;
+                        }
+                        case BLOCK_DELETES: {
+                            int ids = (int) in.readVarint();
+                            long id = 0;
+                            for (int i = 0; i < ids; i++) {
+                                id += in.readZigzag();
+                                visitor.deletedTransaction((int) id);
+                            }
+                            int keys = (int) in.readVarint();
+                            for (int i = 0; i < keys; i++) {
+                                visitor.deletedBudget(in.readString(), in.readString());
+                            }
+                            break;
+                        }
+                        case BLOCK_END: {
+                            long expected = in.readVarint();
+                            if (expected != rowsRead) {
+                                throw new IOException("Backup row count mismatch: expected " + expected + ", read " + rowsRead);
+                            }
+                            return rowsRead;
+                        }
+                        default:
+                            throw new IOException("Backup block " + blockNumber + " has unknown kind " + kind);
+                    }
+                }
+            } finally {
+                if (inflater != null) inflater.end();
+            }
+        } catch (BufferUnderflowException | DataFormatException e) {
+            throw new IOException("Backup is truncated or corrupt at block " + blockNumber, e);
+        }
+    }
+
+    /**
+     * Epoch day back to ISO YYYY-MM-DD
+     */
+    public static String toDate(int epochDay) {
+        return LocalDate.ofEpochDay(epochDay).toString();
+    }
+
+    // ==================== ENCODING ====================
+
+    /**
+     * Growable byte array with varint and string writers
+     */
+    private static final class Encoder {
+        private byte[] bytes;
+        private int length = 0;
+
+        Encoder(int capacity) {
+            bytes = new byte[capacity];
+        }
+
+        void reset() {
+            length = 0;
+        }
+
+        void writeByte(int b) {
+            ensure(1);
+            bytes[length++] = (byte) b;
+        }
+
+        void writeVarint(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                bytes[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[length++] = (byte) value;
+        }
+
+        void writeZigzag(long value) {
+            writeVarint((value << 1) ^ (value >> 63));
+        }
+
+        void writeString(String value) {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(utf8.length);
+            writeBytes(utf8, 0, utf8.length);
+        }
+
+        /**
+         * Length + 1, so null (0) and "" (1) stay distinct
+         */
+        void writeOptionalString(String value) {
+            if (value == null) {
+                writeVarint(0);
+                return;
+            }
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(utf8.length + 1L);
+            writeBytes(utf8, 0, utf8.length);
+        }
+
+        void writeBytes(byte[] source, int offset, int count) {
+            ensure(count);
+            System.arraycopy(source, offset, bytes, length, count);
+            length += count;
+        }
+
+        private void ensure(int needed) {
+            if (length + needed > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + needed));
+            }
+        }
+    }
+
+    private static final class Decoder {
+        private final ByteBuffer in;
+        private byte[] scratch = new byte[256];
+
+        Decoder(ByteBuffer in) {
+            this.in = in;
+        }
+
+        int readByte() {
+            return in.get();
+        }
+
+        long readVarint() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = in.get();
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed varint in backup");
+        }
+
+        long readZigzag() throws IOException {
+            long raw = readVarint();
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+
+        String readString() throws IOException {
+            return readUtf8((int) readVarint());
+        }
+
+        String readOptionalString() throws IOException {
+            long marker = readVarint();
+            return marker == 0 ? null : readUtf8((int) (marker - 1));
+        }
+
+        private String readUtf8(int length) throws IOException {
+            if (length < 0 || length > in.remaining()) {
+                throw new IOException("Malformed string in backup");
+            }
+            if (in.hasArray()) {
+                String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+                in.position(in.position() + length);
+                return value;
+            }
+            if (scratch.length < length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            in.get(scratch, 0, length);
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+    }
+}
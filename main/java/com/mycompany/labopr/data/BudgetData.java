@@ -5,7 +5,8 @@ import java.util.*;
 
 /**
  * Fully Refactored BudgetData - Complete database integration
- * All budget operations now use DatabaseDAO with SQL queries
+ * Budget goals are read and written through DatabaseDAO; spending per month and
+ * category comes from the AggregateCube kept by TransactionStore
  */
 public class BudgetData {
     
@@ -84,17 +85,7 @@ public class BudgetData {
         if (month == null || month.isEmpty()) {
             return new HashMap<>();
         }
-        
-        Map<String, Double> goals = new HashMap<>();
-        List<BudgetGoal> allGoals = dao.getAllBudgetGoals();
-        
-        for (BudgetGoal goal : allGoals) {
-            if (goal.month.equals(month)) {
-                goals.put(goal.category, goal.goal);
-            }
-        }
-        
-        return goals;
+        return dao.getBudgetGoalsForMonth(month);
     }
     
     /**
@@ -110,77 +101,49 @@ public class BudgetData {
     
     /**
      * Calculate total spent for a category in a specific month
-     * Queries transactions table directly
+     * Reads the maintained aggregate cube (no scan, no query)
      */
     public static double getSpentForCategoryAndMonth(String category, String month) {
         if (category == null || month == null) {
             return 0.0;
         }
-        
-        List<TransactionData.Transaction> transactions = 
-            TransactionData.getTransactionsByType("Expenses");
-        double spent = 0.0;
-        
-        for (TransactionData.Transaction t : transactions) {
-            // Extract YYYY-MM from transaction date
-            String transactionMonth = t.date.length() >= 7 ? t.date.substring(0, 7) : "";
-            
-            if (t.category.equals(category) && transactionMonth.equals(month)) {
-                spent += t.amount;
-            }
-        }
-        
-        return spent;
+        return spentCube().getCategoryTotal(month, "Expenses", category);
     }
     
     /**
      * Get all expense categories that have either goals or transactions for a month
-     * Combines data from budgets table and transactions table
+     * Combines the month's budget goals with the categories in the aggregate cube
      */
     public static Set<String> getAllRelevantCategories(String month) {
         if (month == null || month.isEmpty()) {
             return new HashSet<>();
         }
         
-        Set<String> categories = new HashSet<>();
-        
-        // Add categories with budget goals
-        List<BudgetGoal> goals = dao.getAllBudgetGoals();
-        for (BudgetGoal goal : goals) {
-            if (goal.month.equals(month)) {
-                categories.add(goal.category);
-            }
-        }
-        
-        // Add categories with transactions in this month
-        List<TransactionData.Transaction> transactions = 
-            TransactionData.getTransactionsByType("Expenses");
-        for (TransactionData.Transaction t : transactions) {
-            String transactionMonth = t.date.length() >= 7 ? t.date.substring(0, 7) : "";
-            if (transactionMonth.equals(month)) {
-                categories.add(t.category);
-            }
-        }
-        
+        Set<String> categories = new HashSet<>(getBudgetGoalsForMonth(month).keySet());
+        categories.addAll(spentCube().getCategories(month, "Expenses"));
         return categories;
     }
     
     /**
      * Get budget status summary for a specific month
      * Returns map of category -> status information
+     * One goals query for the month; spending comes from the aggregate cube
      */
     public static Map<String, BudgetStatusInfo> getBudgetStatusForMonth(String month) {
         if (month == null || month.isEmpty()) {
             return new HashMap<>();
         }
         
-        Map<String, BudgetStatusInfo> statusMap = new HashMap<>();
-        Set<String> categories = getAllRelevantCategories(month);
+        Map<String, Double> goals = getBudgetGoalsForMonth(month);
+        AggregateCube cube = spentCube();
+        
+        Set<String> categories = new HashSet<>(goals.keySet());
+        categories.addAll(cube.getCategories(month, "Expenses"));
         
+        Map<String, BudgetStatusInfo> statusMap = new HashMap<>();
         for (String category : categories) {
-            Double goal = getBudgetGoal(category, month);
-            double spent = getSpentForCategoryAndMonth(category, month);
-            double goalAmount = (goal != null) ? goal : 0.0;
+            double goalAmount = goals.getOrDefault(category, 0.0);
+            double spent = cube.getCategoryTotal(month, "Expenses", category);
             
             BudgetStatus status = calculateStatus(goalAmount, spent);
             statusMap.put(category, new BudgetStatusInfo(category, goalAmount, spent, status));
@@ -263,15 +226,7 @@ public class BudgetData {
         if (month == null || month.isEmpty()) {
             return 0.0;
         }
-        
-        Set<String> categories = getAllRelevantCategories(month);
-        double total = 0.0;
-        
-        for (String category : categories) {
-            total += getSpentForCategoryAndMonth(category, month);
-        }
-        
-        return total;
+        return spentCube().getTotal(month, "Expenses");
     }
     
     /**
@@ -283,4 +238,8 @@ public class BudgetData {
         
         return totalBudget > 0 && totalSpent > totalBudget;
     }
+    
+    private static AggregateCube spentCube() {
+        return TransactionStore.getInstance().snapshot().getCube();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,104 @@
+package com.mycompany.labopr.data;
+
+import com.mycompany.labopr.database.DatabaseDAO;
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Insert stage of the CSV import pipeline
+ *
+ * Parsed transactions are buffered into chunks of CHUNK_ROWS and written with
+ * DatabaseDAO.bulkInsertTransactions: one connection and one database transaction per
+ * chunk, multi-row INSERTs inside it, and a single current_balance update per chunk.
+ * Budget goals are collected and upserted together at the end, and the in-memory
+ * TransactionStore is reloaded once instead of being patched row by row.
+ *
+ * Chunks are written in the order rows are added. A failed chunk is rolled back and
+ * stops the import; chunks committed before it stay imported.
+ */
+public class BulkImporter {
+
+    public static final int CHUNK_ROWS = 10_000;
+
+    private static final DatabaseDAO dao = DatabaseDAO.getInstance();
+
+    private final List<TransactionData.Transaction> chunk = new ArrayList<>(CHUNK_ROWS);
+    private final List<BudgetData.BudgetGoal> budgets = new ArrayList<>();
+    private final long startNanos = System.nanoTime();
+
+    private long transactionCount = 0;
+    private int chunkCount = 0;
+    private BigDecimal balanceDelta = BigDecimal.ZERO;
+    private boolean failed = false;
+
+    /**
+     * Queue a transaction, writing the chunk once it is full
+     *
+     * @return false if a chunk write failed; the import should stop
+     */
+    public boolean addTransaction(TransactionData.Transaction transaction) {
+        if (failed) return false;
+        chunk.add(transaction);
+        return chunk.size() < CHUNK_ROWS || flush();
+    }
+
+    /**
+     * Queue a whole parsed chunk, keeping its order relative to earlier rows
+     */
+    public boolean addTransactions(List<TransactionData.Transaction> transactions) {
+        for (TransactionData.Transaction t : transactions) {
+            if (!addTransaction(t)) return false;
+        }
+        return true;
+    }
+
+    public void addBudget(BudgetData.BudgetGoal goal) {
+        budgets.add(goal);
+    }
+
+    /**
+     * Write the remaining rows and budgets and reload the store
+     *
+     * @return true if every chunk and the budget upsert succeeded
+     */
+    public boolean finish() {
+        boolean ok = !failed && flush();
+        if (ok && !budgets.isEmpty()) {
+            ok = dao.saveBudgetGoals(budgets);
+        }
+        if (transactionCount > 0) {
+            TransactionStore.getInstance().load();
+        }
+
+        double seconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+        long rows = transactionCount + budgets.size();
+        System.out.println(String.format(
+            "%s Import: %,d transactions in %d chunks, %,d budgets, balance %+,.2f in %.2f s (%,.0f rows/sec)",
+            ok ? "✓" : "✗", transactionCount, chunkCount, budgets.size(), balanceDelta,
+            seconds, seconds > 0 ? rows / seconds : 0));
+        return ok;
+    }
+
+    public long getTransactionCount() {
+        return transactionCount;
+    }
+
+    public int getBudgetCount() {
+        return budgets.size();
+    }
+
+    private boolean flush() {
+        if (chunk.isEmpty()) return true;
+
+        BigDecimal net = dao.bulkInsertTransactions(chunk);
+        if (net == null) {
+            failed = true;
+            return false;
+        }
+        transactionCount += chunk.size();
+        chunkCount++;
+        balanceDelta = balanceDelta.add(net);
+        chunk.clear();
+        return true;
+    }
+}
@@ -5,6 +5,7 @@ import com.mycompany.labopr.data.BudgetData.BudgetGoal;
 import com.mycompany.labopr.data.BudgetData.BudgetStatusInfo;
 import com.mycompany.labopr.data.AnalyticsData.MonthlyData;
 import com.mycompany.labopr.data.AnalyticsData.CategorySpending;
+import java.time.LocalDate;
 import java.util.*;
 
 /**
@@ -20,6 +21,7 @@ import java.util.*;
 public class DataFacade {
     
     private static DataFacade instance;
+    private static final int RECENT_TRANSACTION_LIMIT = 10;
     
     private DataFacade() {
         // Private constructor for singleton
@@ -52,26 +54,46 @@ public class DataFacade {
     }
     
     /**
-     * Save a new transaction
+     * Number of transactions of a type (for sizing a paged table)
      */
-    public void saveTransaction(Transaction transaction) {
-        TransactionData.saveTransaction(transaction);
+    public int countTransactionsByType(String type) {
+        return TransactionData.countTransactionsByType(type);
     }
     
     /**
-     * Update an existing transaction
+     * One page of a type's transactions, newest first, strictly after the given key
+     * (null for the first page)
      */
-    public boolean updateTransaction(String originalDate, String originalCategory, 
-                                     double originalAmount, Transaction updatedTransaction) {
-        return TransactionData.updateTransaction(originalDate, originalCategory, 
-                                                originalAmount, updatedTransaction);
+    public List<Transaction> getTransactionPage(String type, TransactionData.PageKey after, int limit) {
+        return TransactionData.getTransactionPage(type, after, limit);
     }
     
     /**
-     * Delete a transaction
+     * Key of the transaction at a position, used to start a page without its predecessor
      */
-    public boolean deleteTransaction(String date, String category, double amount) {
-        return TransactionData.deleteTransaction(date, category, amount);
+    public TransactionData.PageKey getTransactionKeyAt(String type, int position) {
+        return TransactionData.getTransactionKeyAt(type, position);
+    }
+    
+    /**
+     * Save a new transaction (its id is set once persisted)
+     */
+    public boolean saveTransaction(Transaction transaction) {
+        return TransactionData.saveTransaction(transaction);
+    }
+    
+    /**
+     * Update an existing transaction by its primary key
+     */
+    public boolean updateTransaction(int transactionId, Transaction updatedTransaction) {
+        return TransactionData.updateTransaction(transactionId, updatedTransaction);
+    }
+    
+    /**
+     * Delete a transaction by its primary key
+     */
+    public boolean deleteTransaction(int transactionId) {
+        return TransactionData.deleteTransaction(transactionId);
     }
     
     /**
@@ -84,8 +106,8 @@ public class DataFacade {
     /**
      * Set starting balance
      */
-    public void setBalance(double balance) {
-        TransactionData.setBalance(balance);
+    public boolean setBalance(double balance) {
+        return TransactionData.setBalance(balance);
     }
     
     /**
@@ -95,6 +117,13 @@ public class DataFacade {
         return TransactionData.calculateCurrentBalance();
     }
     
+    /**
+     * Verify the stored current balance against transaction history and repair drift
+     */
+    public double reconcileBalance() {
+        return TransactionData.reconcileBalance();
+    }
+    
     /**
      * Get available categories for a transaction type
      */
@@ -109,13 +138,6 @@ public class DataFacade {
         TransactionData.addCustomCategory(type, category);
     }
     
-    /**
-     * Replace all transactions (used by Memento pattern)
-     */
-    public void replaceAllTransactions(List<Transaction> transactions) {
-        TransactionData.replaceAllTransactions(transactions);
-    }
-    
     // ==================== BUDGET OPERATIONS ====================
     
     /**
@@ -253,6 +275,13 @@ public class DataFacade {
         return AnalyticsData.getIncomeExpensesTrend(months);
     }
     
+    /**
+     * Get income vs expenses for the monthCount months ending with endMonth
+     */
+    public Map<String, MonthlyData> getIncomeExpensesTrend(String endMonth, int monthCount) {
+        return AnalyticsData.getIncomeExpensesTrend(endMonth, monthCount);
+    }
+    
     /**
      * Get average monthly spending over a period
      */
@@ -267,6 +296,31 @@ public class DataFacade {
         return AnalyticsData.getAverageMonthlyIncome(months);
     }
     
+    /**
+     * Income, expenses and net over any [fromDate, toDateExclusive) range, O(1)
+     */
+    public AnalyticsData.RangeTotals getRangeTotals(LocalDate fromDate, LocalDate toDateExclusive) {
+        return AnalyticsData.getRangeTotals(fromDate, toDateExclusive);
+    }
+    
+    /**
+     * Daily spending and balance over [fromDate, toDateExclusive) (YYYY-MM-DD)
+     */
+    public AnalyticsData.DailySeries getDailySeries(String fromDate, String toDateExclusive) {
+        return AnalyticsData.getDailySeries(fromDate, toDateExclusive);
+    }
+    
+    /**
+     * Oldest and newest transaction dates, or null with no history
+     */
+    public String getFirstTransactionDate() {
+        return AnalyticsData.getFirstTransactionDate();
+    }
+    
+    public String getLastTransactionDate() {
+        return AnalyticsData.getLastTransactionDate();
+    }
+    
     /**
      * Get all months that have transactions
      */
@@ -318,39 +372,65 @@ public class DataFacade {
         return SettingsData.importData(filepath);
     }
     
+    /**
+     * Write a compressed binary backup
+     */
+    public boolean exportBackup(String filepath) {
+        return SettingsData.exportBackup(filepath, true);
+    }
+    
+    /**
+     * Write a compressed binary backup of only what changed since the last backup
+     */
+    public boolean exportIncrementalBackup(String filepath) {
+        return SettingsData.exportIncrementalBackup(filepath, true);
+    }
+    
+    /**
+     * Replace all user data with a binary backup
+     */
+    public boolean restoreBackup(String filepath) {
+        return SettingsData.restoreBackup(filepath);
+    }
+    
     // ==================== CONVENIENCE METHODS ====================
     
     /**
      * Get complete analytics summary for a month
+     * Built from a single month snapshot (the month's aggregated totals plus its budget goals)
      */
     public AnalyticsSummary getAnalyticsSummary(String month) {
-        return new AnalyticsSummary(
-            getTotalIncome(month),
-            getTotalExpenses(month),
-            getNetSavings(month),
-            getSavingsRate(month),
-            getSpendingByCategory(month),
-            getTopExpenseCategories(month, 3),
-            getBudgetAdherenceRate(month)
-        );
+        return toAnalyticsSummary(AnalyticsData.getMonthSnapshot(month));
     }
     
     /**
      * Get dashboard data (recent transactions, current balance, quick stats)
+     * Includes the month's analytics summary so a dashboard refresh needs no further queries
      */
     public DashboardData getDashboardData(String currentMonth) {
-        List<Transaction> recentTransactions = getAllTransactions();
-        if (recentTransactions.size() > 10) {
-            recentTransactions = recentTransactions.subList(0, 10);
-        }
+        AnalyticsData.MonthSnapshot snapshot = AnalyticsData.getMonthSnapshot(currentMonth);
+        List<Transaction> recentTransactions = TransactionData.getRecentTransactions(RECENT_TRANSACTION_LIMIT);
         
         return new DashboardData(
             calculateCurrentBalance(),
-            getTotalIncome(currentMonth),
-            getTotalExpenses(currentMonth),
-            getNetSavings(currentMonth),
+            snapshot.totalIncome,
+            snapshot.totalExpenses,
+            snapshot.netSavings,
             recentTransactions,
-            isOverBudgetForMonth(currentMonth)
+            snapshot.isOverBudget,
+            toAnalyticsSummary(snapshot)
+        );
+    }
+    
+    private AnalyticsSummary toAnalyticsSummary(AnalyticsData.MonthSnapshot snapshot) {
+        return new AnalyticsSummary(
+            snapshot.totalIncome,
+            snapshot.totalExpenses,
+            snapshot.netSavings,
+            snapshot.savingsRate,
+            snapshot.spendingByCategory,
+            snapshot.getTopExpenseCategories(3),
+            snapshot.budgetAdherence
         );
     }
     
@@ -393,17 +473,20 @@ public class DataFacade {
         public final double monthlySavings;
         public final List<Transaction> recentTransactions;
         public final boolean isOverBudget;
+        public final AnalyticsSummary analytics;
         
         public DashboardData(double currentBalance, double monthlyIncome,
                            double monthlyExpenses, double monthlySavings,
                            List<Transaction> recentTransactions,
-                           boolean isOverBudget) {
+                           boolean isOverBudget,
+                           AnalyticsSummary analytics) {
             this.currentBalance = currentBalance;
             this.monthlyIncome = monthlyIncome;
             this.monthlyExpenses = monthlyExpenses;
             this.monthlySavings = monthlySavings;
             this.recentTransactions = recentTransactions;
             this.isOverBudget = isOverBudget;
+            this.analytics = analytics;
         }
     }
 }
\ No newline at end of file
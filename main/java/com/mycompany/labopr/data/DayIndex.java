@@ -0,0 +1,215 @@
+package com.mycompany.labopr.data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Per-type prefix sums over calendar days
+ *
+ * prefix[i] holds the total in cents of every transaction dated before baseDay + i,
+ * one array for income and one for expenses. The total for any date range, a week, a
+ * pay period, a quarter, is the difference of two entries, so range queries are O(1)
+ * and never touch transactions.
+ *
+ * Instances are immutable like the rest of the snapshot. A write copies the arrays and
+ * adds its delta to every entry after its day. That is O(days of history): about 3,650
+ * longs per array for ten years, a few microseconds. Dates outside the indexed span
+ * grow the arrays.
+ *
+ * Only days in [TransactionColumns.FIRST_DAY, LAST_DAY] are gridded. Writes outside
+ * that range are rejected, but older data may still hold a mistyped year; such rows
+ * are kept as a short list of outliers that queries add up directly, so one bad date
+ * cannot make every later write copy arrays spanning thousands of years.
+ */
+public final class DayIndex {
+
+    private static final DayIndex EMPTY = new DayIndex(0, new long[1], new long[1], Collections.emptyList());
+
+    private final int baseDay;
+    private final long[] incomePrefix;
+    private final long[] expensePrefix;
+    private final List<Outlier> outliers;
+
+    private DayIndex(int baseDay, long[] incomePrefix, long[] expensePrefix, List<Outlier> outliers) {
+        this.baseDay = baseDay;
+        this.incomePrefix = incomePrefix;
+        this.expensePrefix = expensePrefix;
+        this.outliers = outliers;
+    }
+
+    public static DayIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Build the index in one pass over the columns (rows are newest first)
+     */
+    public static DayIndex build(TransactionColumns columns) {
+        // Rows are sorted by day, so the gridded rows are one contiguous run
+        int first = 0;
+        int end = columns.size();
+        while (first < end && columns.epochDay(first) > TransactionColumns.LAST_DAY) first++;
+        while (end > first && columns.epochDay(end - 1) < TransactionColumns.FIRST_DAY) end--;
+
+        List<Outlier> outliers = Collections.emptyList();
+        for (int row = 0; row < first; row++) {
+            outliers = withOutlier(outliers, columns.epochDay(row), columns.type(row), columns.amountCents(row));
+        }
+        for (int row = end; row < columns.size(); row++) {
+            outliers = withOutlier(outliers, columns.epochDay(row), columns.type(row), columns.amountCents(row));
+        }
+        if (first == end) {
+            return outliers.isEmpty() ? EMPTY : new DayIndex(0, new long[1], new long[1], outliers);
+        }
+
+        int baseDay = columns.epochDay(end - 1);
+        int days = columns.epochDay(first) - baseDay + 1;
+
+        long[] income = new long[days + 1];
+        long[] expenses = new long[days + 1];
+        for (int row = first; row < end; row++) {
+            long[] target = columns.type(row) == TransactionColumns.INCOME ? income : expenses;
+            target[columns.epochDay(row) - baseDay + 1] += columns.amountCents(row);
+        }
+        for (int i = 1; i <= days; i++) {
+            income[i] += income[i - 1];
+            expenses[i] += expenses[i - 1];
+        }
+        return new DayIndex(baseDay, income, expenses, outliers);
+    }
+
+    // ==================== INCREMENTAL UPDATES ====================
+
+    /**
+     * New index with a transaction added (sign = 1) or removed (sign = -1)
+     */
+    public DayIndex withTransaction(TransactionData.Transaction t, int sign) {
+        return withChange(TransactionColumns.toEpochDay(t.date), TransactionColumns.typeCode(t.type),
+            sign * TransactionColumns.toCents(t.amount));
+    }
+
+    /**
+     * New index with centsDelta added to one type on one day
+     */
+    public DayIndex withChange(int day, byte type, long centsDelta) {
+        if (day < TransactionColumns.FIRST_DAY || day > TransactionColumns.LAST_DAY) {
+            return new DayIndex(baseDay, incomePrefix, expensePrefix, withOutlier(outliers, day, type, centsDelta));
+        }
+        int days = incomePrefix.length - 1;
+        boolean empty = days == 0;
+        int newBase = empty ? day : Math.min(baseDay, day);
+        int newEnd = empty ? day + 1 : Math.max(baseDay + days, day + 1);
+
+        long[] income = regrid(incomePrefix, newBase, newEnd, empty);
+        long[] expenses = regrid(expensePrefix, newBase, newEnd, empty);
+        long[] target = type == TransactionColumns.INCOME ? income : expenses;
+        for (int i = day - newBase + 1; i < target.length; i++) {
+            target[i] += centsDelta;
+        }
+        return new DayIndex(newBase, income, expenses, outliers);
+    }
+
+    /**
+     * Copy of an outlier list with centsDelta added to (day, type); entries that net
+     * to zero are dropped
+     */
+    private static List<Outlier> withOutlier(List<Outlier> outliers, int day, byte type, long centsDelta) {
+        List<Outlier> result = new ArrayList<>(outliers.size() + 1);
+        long cents = centsDelta;
+        for (Outlier outlier : outliers) {
+            if (outlier.day == day && outlier.type == type) {
+                cents += outlier.cents;
+            } else {
+                result.add(outlier);
+            }
+        }
+        if (cents != 0) {
+            result.add(new Outlier(day, type, cents));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Copy of a prefix array re-based onto [newBase, newEnd): earlier days are 0,
+     * later days carry the last total
+     */
+    private long[] regrid(long[] prefix, int newBase, int newEnd, boolean empty) {
+        long[] result = new long[newEnd - newBase + 1];
+        if (empty) {
+            return result;
+        }
+        int offset = baseDay - newBase;
+        System.arraycopy(prefix, 0, result, offset, prefix.length);
+        long last = prefix[prefix.length - 1];
+        for (int i = offset + prefix.length; i < result.length; i++) {
+            result[i] = last;
+        }
+        return result;
+    }
+
+    // ==================== QUERIES (O(1)) ====================
+
+    /**
+     * Total of one type in cents over [fromDay, toDayExclusive)
+     */
+    public long sumCents(byte type, int fromDay, int toDayExclusive) {
+        if (toDayExclusive <= fromDay) {
+            return 0;
+        }
+        long[] prefix = type == TransactionColumns.INCOME ? incomePrefix : expensePrefix;
+        long sum = prefix[slot(toDayExclusive)] - prefix[slot(fromDay)];
+        for (Outlier outlier : outliers) {
+            if (outlier.type == type && outlier.day >= fromDay && outlier.day < toDayExclusive) {
+                sum += outlier.cents;
+            }
+        }
+        return sum;
+    }
+
+    public long incomeCents(int fromDay, int toDayExclusive) {
+        return sumCents(TransactionColumns.INCOME, fromDay, toDayExclusive);
+    }
+
+    public long expenseCents(int fromDay, int toDayExclusive) {
+        return sumCents(TransactionColumns.EXPENSES, fromDay, toDayExclusive);
+    }
+
+    /**
+     * Income minus expenses in cents over [fromDay, toDayExclusive)
+     */
+    public long netCents(int fromDay, int toDayExclusive) {
+        return incomeCents(fromDay, toDayExclusive) - expenseCents(fromDay, toDayExclusive);
+    }
+
+    /**
+     * Prefix slot of a day boundary, clamped to the indexed span
+     */
+    private int slot(int day) {
+        long index = (long) day - baseDay;
+        if (index <= 0) return 0;
+        return (int) Math.min(index, incomePrefix.length - 1);
+    }
+
+    /**
+     * Approximate heap used by the prefix arrays and outliers
+     */
+    public long estimatedBytes() {
+        return 2L * incomePrefix.length * Long.BYTES + 32L * outliers.size();
+    }
+
+    /**
+     * Net cents of one type on a day outside the gridded range
+     */
+    private static final class Outlier {
+        final int day;
+        final byte type;
+        final long cents;
+
+        Outlier(int day, byte type, long cents) {
+            this.day = day;
+            this.type = type;
+            this.cents = cents;
+        }
+    }
+}
@@ -1,7 +1,13 @@
 package com.mycompany.labopr.data;
 
 import com.mycompany.labopr.database.DatabaseDAO;
+import com.mycompany.labopr.utils.ChannelCsvWriter;
+import com.mycompany.labopr.utils.ParallelCsvReader;
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
 
 /**
@@ -13,63 +19,72 @@ public class SettingsData {
     private static final DatabaseDAO dao = DatabaseDAO.getInstance();
     
     public static boolean resetAllData() {
-        return dao.resetUserData();
+        boolean reset = dao.resetUserData();
+        TransactionStore.getInstance().load();
+        return reset;
     }
     
     /**
      * Export all user data to CSV file
      * Includes balance, transactions, budgets, and settings
+     * Transactions are streamed from the database straight into a buffered channel
+     * writer, so memory use does not grow with the size of the history
      */
     public static boolean exportData(String filepath) {
-        try (BufferedWriter bw = new BufferedWriter(new FileWriter(filepath))) {
+        long startTime = System.nanoTime();
+        long[] rows = {0};
+        
+        try (ChannelCsvWriter out = ChannelCsvWriter.open(Paths.get(filepath))) {
             // Export starting balance
             Double balance = TransactionData.getBalance();
             if (balance != null) {
-                bw.write("STARTING_BALANCE," + balance);
-                bw.newLine();
+                out.write("STARTING_BALANCE,").cents(TransactionColumns.toCents(balance)).newLine();
             }
             
             // Export current balance
             double currentBalance = TransactionData.calculateCurrentBalance();
-            bw.write("CURRENT_BALANCE," + currentBalance);
-            bw.newLine();
+            out.write("CURRENT_BALANCE,").cents(TransactionColumns.toCents(currentBalance)).newLine();
             
             // Export transactions
-            bw.newLine();
-            bw.write("TRANSACTIONS");
-            bw.newLine();
-            bw.write("Type,Date,Category,Amount,Comment");
-            bw.newLine();
+            out.newLine();
+            out.write("TRANSACTIONS").newLine();
+            out.write("Type,Date,Category,Amount,Comment").newLine();
             
-            List<TransactionData.Transaction> transactions = TransactionData.getAllTransactions();
-            for (TransactionData.Transaction t : transactions) {
-                // Escape quotes in comments
-                String escapedComment = t.comment.replace("\"", "\"\"");
-                bw.write(String.format("%s,%s,%s,%.2f,\"%s\"", 
-                    t.type, t.date, t.category, t.amount, escapedComment));
-                bw.newLine();
+            boolean streamed = dao.streamTransactions((id, type, date, category, amountCents, comment) -> {
+                out.field(type).comma()
+                   .write(date).comma()
+                   .field(category).comma()
+                   .cents(amountCents).comma()
+                   .quoted(comment)
+                   .newLine();
+                rows[0]++;
+            });
+            if (!streamed) {
+                return false;
             }
             
             // Export budgets
-            bw.newLine();
-            bw.write("BUDGETS");
-            bw.newLine();
-            bw.write("Category,Month,Goal");
-            bw.newLine();
+            out.newLine();
+            out.write("BUDGETS").newLine();
+            out.write("Category,Month,Goal").newLine();
             
             List<BudgetData.BudgetGoal> budgets = BudgetData.getAllBudgetGoals();
             for (BudgetData.BudgetGoal b : budgets) {
-                bw.write(String.format("%s,%s,%.2f", b.category, b.month, b.goal));
-                bw.newLine();
+                out.field(b.category).comma()
+                   .write(b.month).comma()
+                   .cents(TransactionColumns.toCents(b.goal))
+                   .newLine();
             }
             
             // Export settings (simplified - no currency/date format)
-            bw.newLine();
-            bw.write("SETTINGS");
-            bw.newLine();
-            bw.write("Key,Value");
-            bw.newLine();
+            out.newLine();
+            out.write("SETTINGS").newLine();
+            out.write("Key,Value").newLine();
             
+            out.flush();
+            double seconds = (System.nanoTime() - startTime) / 1_000_000_000.0;
+            System.out.println(String.format("✓ Export: %,d transactions, %,.1f MB in %.2f s",
+                rows[0], out.getBytesWritten() / 1_048_576.0, seconds));
             return true;
         } catch (IOException e) {
             e.printStackTrace();
@@ -77,58 +92,281 @@ public class SettingsData {
         }
     }
     
+    /**
+     * Write a full binary backup (see BinarySnapshot), streamed from the database
+     * The backup records the change_seq it covers and becomes the base that later
+     * incremental backups start from. The file only appears at filepath once it is
+     * complete (BinarySnapshot.Writer.finish()); a failure part way leaves no file behind.
+     */
+    public static boolean exportBackup(String filepath, boolean compress) {
+        long startTime = System.nanoTime();
+        Path path = Paths.get(filepath);
+        long baseSeq = dao.getChangeSeq();
+        if (baseSeq < 0) {
+            return false;
+        }
+        boolean written = false;
+        
+        try (BinarySnapshot.Writer out = BinarySnapshot.Writer.open(path, compress, baseSeq)) {
+            Double balance = TransactionData.getBalance();
+            out.writeStartingBalance(balance != null ? TransactionColumns.toCents(balance) : null);
+            if (dao.streamTransactions(out::addTransaction)) {
+                out.addBudgets(BudgetData.getAllBudgetGoals());
+                out.finish();
+                written = true;
+            }
+        } catch (IOException | RuntimeException e) {
+            e.printStackTrace();
+        }
+        
+        return finishBackup(path, written, written && dao.setBackupWatermark(baseSeq), startTime,
+            "Backup (full, change " + baseSeq + ")" + (compress ? ", deflated" : ""));
+    }
+    
+    /**
+     * Write an incremental binary backup: only the transactions and budgets created,
+     * changed or deleted since the last backup's watermark, then advance the watermark
+     * Needs a full backup first and the change journal triggers; without them nothing is
+     * journaled, so the export is refused rather than writing an empty increment.
+     * SnapshotMerger applies increments to the full backup.
+     */
+    public static boolean exportIncrementalBackup(String filepath, boolean compress) {
+        long startTime = System.nanoTime();
+        Path path = Paths.get(filepath);
+        if (!dao.isChangeJournalInstalled()) {
+            System.err.println("✗ Incremental backup: change journal triggers are missing, take a full backup instead");
+            return false;
+        }
+        Long watermark = dao.getBackupWatermark();
+        if (watermark == null) {
+            System.err.println("✗ Incremental backup: no full backup yet, take a full backup first");
+            return false;
+        }
+        long[] counts = new long[2]; // upserts, deletions
+        long upToSeq = -1;
+        boolean written = false;
+        
+        try (BinarySnapshot.Writer out = BinarySnapshot.Writer.openIncremental(path, compress, watermark, watermark)) {
+            Double balance = TransactionData.getBalance();
+            out.writeStartingBalance(balance != null ? TransactionColumns.toCents(balance) : null);
+            upToSeq = dao.streamChangesSince(watermark, new DatabaseDAO.ChangeVisitor() {
+                @Override
+                public void transaction(int id, String type, String date, String category, long amountCents, String comment) throws IOException {
+                    out.addTransaction(id, type, date, category, amountCents, comment);
+                    counts[0]++;
+                }
+                
+                @Override
+                public void transactionDeleted(int id) {
+                    out.deleteTransaction(id);
+                    counts[1]++;
+                }
+                
+                @Override
+                public void budget(String category, String month, long goalCents) {
+                    out.addBudget(category, month, goalCents);
+                    counts[0]++;
+                }
+                
+                @Override
+                public void budgetDeleted(String category, String month) {
+                    out.deleteBudget(category, month);
+                    counts[1]++;
+                }
+            });
+            if (upToSeq >= 0) {
+                out.setToSeq(upToSeq);
+                out.finish();
+                written = true;
+            }
+        } catch (IOException | RuntimeException e) {
+            e.printStackTrace();
+        }
+        
+        return finishBackup(path, written, written && dao.setBackupWatermark(upToSeq), startTime,
+            String.format("Incremental backup (changes %d-%d): %,d changed, %,d deleted",
+                watermark, upToSeq, counts[0], counts[1]));
+    }
+    
+    /**
+     * Log the outcome; a written file whose watermark could not be recorded is removed,
+     * while a failed write never replaced whatever was at path
+     */
+    private static boolean finishBackup(Path path, boolean written, boolean ok, long startTime, String label) {
+        try {
+            if (!ok) {
+                if (written) Files.deleteIfExists(path);
+                System.err.println("✗ " + label + " failed: " + path);
+                return false;
+            }
+            System.out.println(String.format("✓ %s, %,.1f MB in %.2f s", label,
+                Files.size(path) / 1_048_576.0, (System.nanoTime() - startTime) / 1_000_000_000.0));
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+    
+    /**
+     * Replace all user data with the contents of a binary backup
+     * The whole file is verified (magic, version, every block CRC, row count) before
+     * anything is deleted. The delete and the reload then run as one database
+     * transaction (DatabaseDAO.RestoreSession), written in chunks of
+     * BulkImporter.CHUNK_ROWS rows, so a failure part way leaves the old data intact.
+     */
+    public static boolean restoreBackup(String filepath) {
+        Path path = Paths.get(filepath);
+        long startTime = System.nanoTime();
+        try {
+            long rows = BinarySnapshot.read(path, new BinarySnapshot.Visitor() {
+                @Override
+                public void header(BinarySnapshot.Header header) throws IOException {
+                    if (header.incremental) {
+                        throw new IOException("Incremental backup: merge it onto a full backup with SnapshotMerger first");
+                    }
+                }
+                
+                @Override
+                public void startingBalance(Long cents) {
+                }
+                
+                @Override
+                public boolean transaction(int id, String type, int epochDay, String category, long amountCents, String comment) {
+                    return true;
+                }
+                
+                @Override
+                public void budget(String category, String month, long goalCents) {
+                }
+            });
+            System.out.println(String.format("✓ Restore: backup verified, %,d transactions", rows));
+            
+            boolean restored;
+            try (DatabaseDAO.RestoreSession session = dao.beginRestore()) {
+                if (session == null) {
+                    return false;
+                }
+                List<TransactionData.Transaction> chunk = new ArrayList<>(BulkImporter.CHUNK_ROWS);
+                List<BudgetData.BudgetGoal> budgets = new ArrayList<>();
+                boolean[] failed = {false};
+                
+                BinarySnapshot.read(path, new BinarySnapshot.Visitor() {
+                    @Override
+                    public void startingBalance(Long cents) {
+                        if (cents != null) {
+                            session.setStartingBalance(cents / 100.0);
+                        }
+                    }
+                    
+                    @Override
+                    public boolean transaction(int id, String type, int epochDay, String category, long amountCents, String comment) {
+                        chunk.add(new TransactionData.Transaction(
+                            id, type, BinarySnapshot.toDate(epochDay), category, amountCents / 100.0, comment));
+                        if (chunk.size() < BulkImporter.CHUNK_ROWS) {
+                            return true;
+                        }
+                        failed[0] = !session.addTransactions(chunk);
+                        chunk.clear();
+                        return !failed[0];
+                    }
+                    
+                    @Override
+                    public void budget(String category, String month, long goalCents) {
+                        budgets.add(new BudgetData.BudgetGoal(category, month, goalCents / 100.0));
+                    }
+                });
+                
+                restored = !failed[0]
+                    && (chunk.isEmpty() || session.addTransactions(chunk))
+                    && (budgets.isEmpty() || session.addBudgetGoals(budgets))
+                    && session.commit();
+                if (restored) {
+                    double seconds = (System.nanoTime() - startTime) / 1_000_000_000.0;
+                    System.out.println(String.format("✓ Restore: %,d transactions, %,d budgets in %.2f s (%,.0f rows/s)",
+                        session.getTransactionCount(), budgets.size(), seconds, session.getTransactionCount() / seconds));
+                }
+            }
+            TransactionStore.getInstance().load();
+            return restored;
+        } catch (IOException e) {
+            System.err.println("✗ Restore failed: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+    
     /**
      * Import data from CSV file
      * Adds to existing data (does not replace)
+     * The file is tokenized by ParallelCsvReader and rows are handed, in file order,
+     * to a BulkImporter, which writes them in chunked batches
      */
     public static boolean importData(String filepath) {
-        try (BufferedReader br = new BufferedReader(new FileReader(filepath))) {
-            String line;
-            String section = "";
-            
-            while ((line = br.readLine()) != null) {
-                if (line.trim().isEmpty()) continue;
+        BulkImporter importer = new BulkImporter();
+        ImportSections sections = new ImportSections(importer);
+        try (Reader reader = new InputStreamReader(new FileInputStream(filepath), StandardCharsets.UTF_8)) {
+            ParallelCsvReader.read(reader, sections::accept);
+        } catch (Exception e) {
+            e.printStackTrace();
+            importer.finish(); // rows before the bad line stay imported, as before
+            return false;
+        }
+        return importer.finish();
+    }
+    
+    /**
+     * Routes tokenized records to the importer by file section
+     * (STARTING_BALANCE line, then TRANSACTIONS, BUDGETS and SETTINGS, each with a header row)
+     */
+    private static class ImportSections {
+        private final BulkImporter importer;
+        private String section = "";
+        private boolean skipHeader = false;
+        
+        ImportSections(BulkImporter importer) {
+            this.importer = importer;
+        }
+        
+        boolean accept(List<String[]> records) {
+            for (String[] fields : records) {
+                String first = fields[0];
                 
-                if (line.startsWith("STARTING_BALANCE,")) {
-                    double balance = Double.parseDouble(line.split(",")[1]);
-                    TransactionData.setBalance(balance);
-                } else if (line.startsWith("CURRENT_BALANCE,")) {
+                if (skipHeader) {
+                    skipHeader = false;
+                } else if (first.equals("STARTING_BALANCE") && fields.length > 1) {
+                    TransactionData.setBalance(Double.parseDouble(fields[1]));
+                } else if (first.equals("CURRENT_BALANCE")) {
                     // Skip current balance as it will be recalculated
-                    continue;
-                } else if (line.equals("TRANSACTIONS")) {
-                    section = "TRANSACTIONS";
-                    br.readLine(); // Skip header
-                } else if (line.equals("BUDGETS")) {
-                    section = "BUDGETS";
-                    br.readLine(); // Skip header
-                } else if (line.equals("SETTINGS")) {
-                    section = "SETTINGS";
-                    br.readLine(); // Skip header
+                } else if (fields.length == 1 && (first.equals("TRANSACTIONS")
+                        || first.equals("BUDGETS") || first.equals("SETTINGS"))) {
+                    section = first;
+                    skipHeader = true;
                 } else if (section.equals("TRANSACTIONS")) {
-                    // Parse CSV with quoted fields support
-                    String[] parts = line.split(",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)", 5);
-                    if (parts.length == 5) {
-                        String comment = parts[4].replaceAll("^\"|\"$", "").replace("\"\"", "\"");
+                    if (fields.length >= 5) {
+                        // Unquoted commas in a hand-edited comment stay part of the comment
+                        String comment = fields.length == 5 ? fields[4]
+                            : String.join(",", Arrays.copyOfRange(fields, 4, fields.length));
+                        if (!TransactionData.isSupportedDate(fields[1])) {
+                            // Stops the import like an unparseable amount does
+                            throw new IllegalArgumentException("Unsupported transaction date: " + fields[1]);
+                        }
                         TransactionData.Transaction t = new TransactionData.Transaction(
-                            parts[0], parts[1], parts[2], Double.parseDouble(parts[3]), comment
+                            fields[0], fields[1], fields[2], Double.parseDouble(fields[3]), comment
                         );
-                        TransactionData.saveTransaction(t);
+                        if (!importer.addTransaction(t)) {
+                            return false;
+                        }
                     }
                 } else if (section.equals("BUDGETS")) {
-                    String[] parts = line.split(",");
-                    if (parts.length == 3) {
-                        BudgetData.BudgetGoal b = new BudgetData.BudgetGoal(
-                            parts[0], parts[1], Double.parseDouble(parts[2])
-                        );
-                        BudgetData.saveBudgetGoal(b);
+                    if (fields.length == 3) {
+                        importer.addBudget(new BudgetData.BudgetGoal(
+                            fields[0], fields[1], Double.parseDouble(fields[2])
+                        ));
                     }
-                } 
+                }
             }
-            
             return true;
-        } catch (Exception e) {
-            e.printStackTrace();
-            return false;
         }
     }
 }
\ No newline at end of file
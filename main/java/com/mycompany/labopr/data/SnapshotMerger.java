@@ -0,0 +1,155 @@
+package com.mycompany.labopr.data;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * Applies incremental backups on top of a full backup, producing a new full backup
+ *
+ * Usage: SnapshotMerger base.kwtb increment1.kwtb [increment2.kwtb ...] -o merged.kwtb
+ *
+ * Increments are applied in the order given. Each one must continue the chain: its
+ * change range has to start at or before the change the result so far covers and end
+ * at or after it (an overlapping increment is safe, since it carries the final state of
+ * every row it touches). A gap or an older increment is rejected. The base must be a
+ * version 2 snapshot, which carries transaction ids.
+ *
+ * The merged history is held in memory while it is rebuilt, then written newest first
+ * like any full snapshot. The output only replaces an existing file once it is complete.
+ */
+public final class SnapshotMerger {
+
+    private SnapshotMerger() {
+    }
+
+    private static final class Row {
+        final int id;
+        final byte type;
+        final int day;
+        final String category;
+        final long cents;
+        final String comment;
+
+        Row(int id, byte type, int day, String category, long cents, String comment) {
+            this.id = id;
+            this.type = type;
+            this.day = day;
+            this.category = category;
+            this.cents = cents;
+            this.comment = comment;
+        }
+    }
+
+    /**
+     * Merge base and increments into output
+     *
+     * @return the change_seq the merged snapshot covers
+     */
+    public static long merge(Path base, List<Path> increments, Path output, boolean deflate) throws IOException {
+        Map<Integer, Row> rows = new HashMap<>();
+        Map<String, Long> budgets = new LinkedHashMap<>(); // category \0 month -> goal cents
+        Map<String, String> categories = new HashMap<>();  // one String per category
+        Long[] startingBalance = { null };
+
+        BinarySnapshot.Visitor apply = new BinarySnapshot.Visitor() {
+            @Override
+            public void startingBalance(Long cents) {
+                startingBalance[0] = cents;
+            }
+
+            @Override
+            public boolean transaction(int id, String type, int epochDay, String category, long amountCents, String comment) {
+                String shared = categories.computeIfAbsent(category, c -> c);
+                rows.put(id, new Row(id, TransactionColumns.typeCode(type), epochDay, shared, amountCents, comment));
+                return true;
+            }
+
+            @Override
+            public void budget(String category, String month, long goalCents) {
+                budgets.put(category + '\0' + month, goalCents);
+            }
+
+            @Override
+            public void deletedTransaction(int id) {
+                rows.remove(id);
+            }
+
+            @Override
+            public void deletedBudget(String category, String month) {
+                budgets.remove(category + '\0' + month);
+            }
+        };
+
+        BinarySnapshot.Header baseHeader = BinarySnapshot.readHeader(base);
+        if (baseHeader.incremental) {
+            throw new IOException(base + " is an incremental backup, not a full base");
+        }
+        if (baseHeader.version < 2) {
+            throw new IOException(base + " has no transaction ids (version 1); take a new full backup");
+        }
+        BinarySnapshot.read(base, apply);
+        long covered = baseHeader.toSeq;
+
+        for (Path increment : increments) {
+            BinarySnapshot.Header header = BinarySnapshot.readHeader(increment);
+            if (!header.incremental) {
+                throw new IOException(increment + " is a full backup, not an increment");
+            }
+            if (header.fromSeq > covered) {
+                throw new IOException(increment + " starts after change " + header.fromSeq
+                    + " but the backup so far only covers up to " + covered + " (missing increment)");
+            }
+            if (header.toSeq < covered) {
+                throw new IOException(increment + " ends at change " + header.toSeq
+                    + ", older than the backup so far (" + covered + ")");
+            }
+            BinarySnapshot.read(increment, apply);
+            covered = header.toSeq;
+        }
+
+        List<Row> sorted = new ArrayList<>(rows.values());
+        sorted.sort((a, b) -> a.day != b.day ? Integer.compare(b.day, a.day) : Integer.compare(b.id, a.id));
+
+        try (BinarySnapshot.Writer out = BinarySnapshot.Writer.open(output, deflate, covered)) {
+            out.writeStartingBalance(startingBalance[0]);
+            for (Row row : sorted) {
+                out.addTransaction(row.id, row.type, row.day, row.category, row.cents, row.comment);
+            }
+            for (Map.Entry<String, Long> budget : budgets.entrySet()) {
+                String key = budget.getKey();
+                int split = key.indexOf('\0');
+                out.addBudget(key.substring(0, split), key.substring(split + 1), budget.getValue());
+            }
+            out.finish();
+        }
+        return covered;
+    }
+
+    public static void main(String[] args) {
+        List<Path> inputs = new ArrayList<>();
+        Path output = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-o") && i + 1 < args.length) {
+                output = Paths.get(args[++i]);
+            } else {
+                inputs.add(Paths.get(args[i]));
+            }
+        }
+        if (output == null || inputs.size() < 2) {
+            System.err.println("Usage: SnapshotMerger base.kwtb increment.kwtb [increment.kwtb ...] -o merged.kwtb");
+            System.exit(2);
+        }
+
+        long startTime = System.nanoTime();
+        try {
+            long covered = merge(inputs.get(0), inputs.subList(1, inputs.size()), output, true);
+            System.out.println(String.format("✓ Merged %d increment(s) into %s, covering change %d, in %.2f s",
+                inputs.size() - 1, output, covered, (System.nanoTime() - startTime) / 1_000_000_000.0));
+        } catch (IOException e) {
+            System.err.println("✗ Merge failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,467 @@
+package com.mycompany.labopr.data;
+
+import com.mycompany.labopr.data.TransactionData.Transaction;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Columnar, primitive-specialized transaction history
+ *
+ * One array per field instead of one object per row:
+ * - int id[], int epochDay[], byte type[], int categoryId[] (via a shared dictionary)
+ *   and long amountCents[]
+ * - comments are only needed to display rows, so they are loaded lazily in bulk
+ *
+ * Rows are kept newest first (epochDay desc, id desc), so any date range is a
+ * contiguous slice found by binary search. Instances are immutable; the with*
+ * methods return a new instance that shares the dictionary.
+ */
+public final class TransactionColumns {
+
+    public static final byte INCOME = 0;
+    public static final byte EXPENSES = 1;
+
+    /** Date range accepted for new and edited transactions (see isSupportedDate) */
+    public static final String FIRST_DATE = "1900-01-01";
+    public static final String LAST_DATE = "2100-12-31";
+    public static final int FIRST_DAY = toEpochDay(FIRST_DATE);
+    public static final int LAST_DAY = toEpochDay(LAST_DATE);
+
+    private final int size;
+    private final int[] ids;
+    private final int[] epochDays;
+    private final byte[] types;
+    private final int[] categoryIds;
+    private final long[] amountCents;
+    private final CategoryDictionary dictionary;
+    private final Supplier<Map<Integer, String>> commentLoader;
+    private volatile String[] comments;
+
+    private TransactionColumns(int size, int[] ids, int[] epochDays, byte[] types, int[] categoryIds,
+                               long[] amountCents, String[] comments, CategoryDictionary dictionary,
+                               Supplier<Map<Integer, String>> commentLoader) {
+        this.size = size;
+        this.ids = ids;
+        this.epochDays = epochDays;
+        this.types = types;
+        this.categoryIds = categoryIds;
+        this.amountCents = amountCents;
+        this.comments = comments;
+        this.dictionary = dictionary;
+        this.commentLoader = commentLoader;
+    }
+
+    /**
+     * Empty history
+     */
+    public static TransactionColumns empty() {
+        return new Builder(0, new CategoryDictionary(), Collections::emptyMap).build();
+    }
+
+    // ==================== ROW ACCESS ====================
+
+    public int size() {
+        return size;
+    }
+
+    public int id(int row) {
+        return ids[row];
+    }
+
+    public int epochDay(int row) {
+        return epochDays[row];
+    }
+
+    public byte type(int row) {
+        return types[row];
+    }
+
+    public String category(int row) {
+        return dictionary.name(categoryIds[row]);
+    }
+
+    public long amountCents(int row) {
+        return amountCents[row];
+    }
+
+    /**
+     * Comment for a row; the first call loads every comment in one query
+     */
+    public String comment(int row) {
+        return loadedComments()[row];
+    }
+
+    /**
+     * Materialize one row as a Transaction object
+     */
+    public Transaction toTransaction(int row) {
+        return toTransaction(row, comment(row));
+    }
+
+    /**
+     * Materialize one row with a null comment, for views that do not show comments
+     * Unlike toTransaction this never triggers the bulk comment load.
+     */
+    public Transaction toTransactionWithoutComment(int row) {
+        return toTransaction(row, null);
+    }
+
+    private Transaction toTransaction(int row, String comment) {
+        return new Transaction(
+            ids[row],
+            typeName(types[row]),
+            LocalDate.ofEpochDay(epochDays[row]).toString(),
+            dictionary.name(categoryIds[row]),
+            amountCents[row] / 100.0,
+            comment
+        );
+    }
+
+    /**
+     * Row index of a transaction id, or -1
+     */
+    public int indexOf(int transactionId) {
+        for (int row = 0; row < size; row++) {
+            if (ids[row] == transactionId) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    // ==================== SCANS ====================
+
+    /**
+     * First row (inclusive) whose day is before toDayExclusive
+     */
+    public int firstRowBefore(int toDayExclusive) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (epochDays[mid] >= toDayExclusive) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Day of the oldest and newest transaction (rows are newest first); call only when size() > 0
+     */
+    public int oldestDay() {
+        return epochDays[size - 1];
+    }
+
+    public int newestDay() {
+        return epochDays[0];
+    }
+
+    // ==================== COPY-ON-WRITE UPDATES ====================
+
+    /**
+     * New columns with a transaction inserted at its sorted position
+     */
+    public TransactionColumns withInserted(Transaction t) {
+        int day = toEpochDay(t.date);
+        int row = firstRowBefore(day + 1);
+        while (row < size && epochDays[row] == day && ids[row] > t.id) {
+            row++;
+        }
+
+        String[] currentComments = comments;
+        String[] newComments = null;
+        if (currentComments != null) {
+            newComments = insertAt(currentComments, row, t.comment);
+        }
+
+        return new TransactionColumns(size + 1,
+            insertAt(ids, row, t.id),
+            insertAt(epochDays, row, day),
+            insertAt(types, row, typeCode(t.type)),
+            insertAt(categoryIds, row, dictionary.intern(t.category)),
+            insertAt(amountCents, row, toCents(t.amount)),
+            newComments, dictionary, commentLoader);
+    }
+
+    /**
+     * New columns without the given transaction (this instance if it is absent)
+     */
+    public TransactionColumns withDeleted(int transactionId) {
+        int row = indexOf(transactionId);
+        if (row < 0) {
+            return this;
+        }
+
+        String[] currentComments = comments;
+        return new TransactionColumns(size - 1,
+            removeAt(ids, row),
+            removeAt(epochDays, row),
+            removeAt(types, row),
+            removeAt(categoryIds, row),
+            removeAt(amountCents, row),
+            currentComments != null ? removeAt(currentComments, row) : null,
+            dictionary, commentLoader);
+    }
+
+    // ==================== MEMORY ====================
+
+    /**
+     * Approximate heap used by the primitive columns (excluding the shared dictionary and comments)
+     */
+    public long estimatedBytes() {
+        return (long) ids.length * Integer.BYTES
+            + (long) epochDays.length * Integer.BYTES
+            + types.length
+            + (long) categoryIds.length * Integer.BYTES
+            + (long) amountCents.length * Long.BYTES;
+    }
+
+    // ==================== CONVERSIONS ====================
+
+    public static byte typeCode(String type) {
+        return "Income".equals(type) ? INCOME : EXPENSES;
+    }
+
+    public static String typeName(byte type) {
+        return type == INCOME ? "Income" : "Expenses";
+    }
+
+    /**
+     * Parse ISO YYYY-MM-DD to an epoch day without intermediate objects
+     */
+    public static int toEpochDay(String date) {
+        int year = Integer.parseInt(date, 0, 4, 10);
+        int month = Integer.parseInt(date, 5, 7, 10);
+        int day = Integer.parseInt(date, 8, 10, 10);
+        return (int) LocalDate.of(year, month, day).toEpochDay();
+    }
+
+    /**
+     * True if date is a real YYYY-MM-DD calendar day within [FIRST_DATE, LAST_DATE]
+     * A typo such as 0202-05-01 or 20244-01-01 is rejected at write time rather than
+     * stretching every day-indexed structure across centuries.
+     */
+    public static boolean isSupportedDate(String date) {
+        if (date == null || date.length() != 10 || date.charAt(4) != '-' || date.charAt(7) != '-') {
+            return false;
+        }
+        try {
+            int day = toEpochDay(date);
+            return day >= FIRST_DAY && day <= LAST_DAY;
+        } catch (NumberFormatException | DateTimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Round an amount to a DECIMAL(15, 2) value exactly as it is stored: the shortest
+     * decimal form of the double, rounded half up (1.005 -> 1.01)
+     */
+    public static BigDecimal toDecimal(double amount) {
+        return BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Cents of an amount, rounded like toDecimal so in-memory totals match the database
+     */
+    public static long toCents(double amount) {
+        return toCents(toDecimal(amount));
+    }
+
+    public static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).longValue();
+    }
+
+    private String[] loadedComments() {
+        String[] loaded = comments;
+        if (loaded == null) {
+            synchronized (this) {
+                loaded = comments;
+                if (loaded == null) {
+                    Map<Integer, String> byId = commentLoader.get();
+                    loaded = new String[size];
+                    for (int row = 0; row < size; row++) {
+                        loaded[row] = byId.get(ids[row]);
+                    }
+                    comments = loaded;
+                }
+            }
+        }
+        return loaded;
+    }
+
+    private static int[] insertAt(int[] source, int index, int value) {
+        int[] result = new int[source.length + 1];
+        System.arraycopy(source, 0, result, 0, index);
+        result[index] = value;
+        System.arraycopy(source, index, result, index + 1, source.length - index);
+        return result;
+    }
+
+    private static long[] insertAt(long[] source, int index, long value) {
+        long[] result = new long[source.length + 1];
+        System.arraycopy(source, 0, result, 0, index);
+        result[index] = value;
+        System.arraycopy(source, index, result, index + 1, source.length - index);
+        return result;
+    }
+
+    private static byte[] insertAt(byte[] source, int index, byte value) {
+        byte[] result = new byte[source.length + 1];
+        System.arraycopy(source, 0, result, 0, index);
+        result[index] = value;
+        System.arraycopy(source, index, result, index + 1, source.length - index);
+        return result;
+    }
+
+    private static String[] insertAt(String[] source, int index, String value) {
+        String[] result = new String[source.length + 1];
+        System.arraycopy(source, 0, result, 0, index);
+        result[index] = value;
+        System.arraycopy(source, index, result, index + 1, source.length - index);
+        return result;
+    }
+
+    private static int[] removeAt(int[] source, int index) {
+        int[] result = new int[source.length - 1];
+        System.arraycopy(source, 0, result, 0, index);
+        System.arraycopy(source, index + 1, result, index, source.length - index - 1);
+        return result;
+    }
+
+    private static long[] removeAt(long[] source, int index) {
+        long[] result = new long[source.length - 1];
+        System.arraycopy(source, 0, result, 0, index);
+        System.arraycopy(source, index + 1, result, index, source.length - index - 1);
+        return result;
+    }
+
+    private static byte[] removeAt(byte[] source, int index) {
+        byte[] result = new byte[source.length - 1];
+        System.arraycopy(source, 0, result, 0, index);
+        System.arraycopy(source, index + 1, result, index, source.length - index - 1);
+        return result;
+    }
+
+    private static String[] removeAt(String[] source, int index) {
+        String[] result = new String[source.length - 1];
+        System.arraycopy(source, 0, result, 0, index);
+        System.arraycopy(source, index + 1, result, index, source.length - index - 1);
+        return result;
+    }
+
+    // ==================== BUILDER ====================
+
+    /**
+     * Appends rows that are already in newest-first order (as the DAO query returns them)
+     */
+    public static final class Builder {
+        private int size;
+        private int[] ids;
+        private int[] epochDays;
+        private byte[] types;
+        private int[] categoryIds;
+        private long[] amountCents;
+        private String[] comments; // allocated on the first row that carries a comment
+        private final CategoryDictionary dictionary;
+        private final Supplier<Map<Integer, String>> commentLoader;
+
+        public Builder(int expectedSize, CategoryDictionary dictionary, Supplier<Map<Integer, String>> commentLoader) {
+            int capacity = Math.max(expectedSize, 16);
+            this.ids = new int[capacity];
+            this.epochDays = new int[capacity];
+            this.types = new byte[capacity];
+            this.categoryIds = new int[capacity];
+            this.amountCents = new long[capacity];
+            this.dictionary = dictionary;
+            this.commentLoader = commentLoader;
+        }
+
+        /**
+         * Append a row without its comment (loaded lazily)
+         */
+        public void add(int id, int epochDay, byte type, String category, long cents) {
+            ensureCapacity();
+            ids[size] = id;
+            epochDays[size] = epochDay;
+            types[size] = type;
+            categoryIds[size] = dictionary.intern(category);
+            amountCents[size] = cents;
+            size++;
+        }
+
+        /**
+         * Append a row with its comment already known
+         */
+        public void add(int id, int epochDay, byte type, String category, long cents, String comment) {
+            add(id, epochDay, type, category, cents);
+            if (comments == null) {
+                comments = new String[ids.length];
+            }
+            comments[size - 1] = comment;
+        }
+
+        public TransactionColumns build() {
+            return new TransactionColumns(size,
+                Arrays.copyOf(ids, size),
+                Arrays.copyOf(epochDays, size),
+                Arrays.copyOf(types, size),
+                Arrays.copyOf(categoryIds, size),
+                Arrays.copyOf(amountCents, size),
+                comments != null ? Arrays.copyOf(comments, size) : (size == 0 ? new String[0] : null),
+                dictionary, commentLoader);
+        }
+
+        private void ensureCapacity() {
+            if (size == ids.length) {
+                int capacity = ids.length * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                epochDays = Arrays.copyOf(epochDays, capacity);
+                types = Arrays.copyOf(types, capacity);
+                categoryIds = Arrays.copyOf(categoryIds, capacity);
+                amountCents = Arrays.copyOf(amountCents, capacity);
+                if (comments != null) {
+                    comments = Arrays.copyOf(comments, capacity);
+                }
+            }
+        }
+    }
+
+    // ==================== CATEGORY DICTIONARY ====================
+
+    /**
+     * Append-only category name <-> id mapping shared by every version of the columns
+     * Ids are never reused, so older versions stay valid as new categories appear
+     */
+    public static final class CategoryDictionary {
+        private final Map<String, Integer> idsByName = new HashMap<>();
+        private volatile String[] names = new String[0];
+
+        public synchronized int intern(String name) {
+            Integer id = idsByName.get(name);
+            if (id != null) {
+                return id;
+            }
+            String[] grown = Arrays.copyOf(names, names.length + 1);
+            grown[names.length] = name;
+            idsByName.put(name, names.length);
+            names = grown;
+            return grown.length - 1;
+        }
+
+        public String name(int id) {
+            return names[id];
+        }
+
+        public int size() {
+            return names.length;
+        }
+    }
+}
@@ -9,8 +9,8 @@ public class TransactionData {
         return DatabaseDAO.getInstance().getBalance();
     }
     
-    public static void setBalance(double balance) {
-        DatabaseDAO.getInstance().setBalance(balance);
+    public static boolean setBalance(double balance) {
+        return DatabaseDAO.getInstance().setBalance(balance);
     }
     
     /**
@@ -25,31 +25,111 @@ public class TransactionData {
         return currentBalance != null ? currentBalance : 0.0;
     }
     
-    public static void saveTransaction(Transaction transaction) {
-        DatabaseDAO.getInstance().createTransaction(transaction);
+    /**
+     * Verify current_balance against the full transaction history and repair drift.
+     * 
+     * @return The drift that was corrected (0.0 when consistent)
+     */
+    public static double reconcileBalance() {
+        java.math.BigDecimal drift = DatabaseDAO.getInstance().reconcileCurrentBalance();
+        return drift != null ? drift.doubleValue() : 0.0;
+    }
+    
+    /**
+     * Dates a transaction may be saved with, see TransactionColumns.isSupportedDate
+     */
+    public static boolean isSupportedDate(String date) {
+        return TransactionColumns.isSupportedDate(date);
+    }
+    
+    public static boolean saveTransaction(Transaction transaction) {
+        if (!isSupportedDate(transaction.date)) {
+            System.err.println("✗ saveTransaction(): Unsupported date " + transaction.date);
+            return false;
+        }
+        return insert(transaction);
+    }
+    
+    public static boolean updateTransaction(int transactionId, Transaction updatedTransaction) {
+        if (!isSupportedDate(updatedTransaction.date)) {
+            System.err.println("✗ updateTransaction(): Unsupported date " + updatedTransaction.date);
+            return false;
+        }
+        return update(transactionId, updatedTransaction);
     }
     
-    public static boolean updateTransaction(String originalDate, String originalCategory, 
-                                           double originalAmount, Transaction updatedTransaction) {
-        return DatabaseDAO.getInstance().updateTransaction(
-            originalDate, originalCategory, originalAmount, updatedTransaction
-        );
+    /**
+     * Put back a row exactly as it once was (undo/redo), under its id
+     * Skips the date check: the row already existed, possibly with a legacy date
+     * outside the supported range, and the DayIndex keeps such rows as outliers.
+     */
+    public static boolean restoreTransaction(Transaction transaction) {
+        return insert(transaction);
     }
     
-    public static boolean deleteTransaction(String date, String category, double amount) {
-        return DatabaseDAO.getInstance().deleteTransaction(date, category, amount);
+    /**
+     * Set a row back to values it once had (undo/redo), without the date check
+     */
+    public static boolean restoreTransaction(int transactionId, Transaction transaction) {
+        return update(transactionId, transaction);
+    }
+    
+    private static boolean insert(Transaction transaction) {
+        boolean saved = DatabaseDAO.getInstance().createTransaction(transaction);
+        if (saved) {
+            TransactionStore.getInstance().applyInsert(transaction);
+        }
+        return saved;
+    }
+    
+    private static boolean update(int transactionId, Transaction updatedTransaction) {
+        boolean updated = DatabaseDAO.getInstance().updateTransaction(transactionId, updatedTransaction);
+        if (updated) {
+            TransactionStore.getInstance().applyUpdate(transactionId, updatedTransaction);
+        }
+        return updated;
+    }
+    
+    public static boolean deleteTransaction(int transactionId) {
+        boolean deleted = DatabaseDAO.getInstance().deleteTransaction(transactionId);
+        if (deleted) {
+            TransactionStore.getInstance().applyDelete(transactionId);
+        }
+        return deleted;
     }
     
+    /**
+     * Reads are served from the in-memory store; see {@link TransactionStore}
+     */
     public static List<Transaction> getAllTransactions() {
-        return DatabaseDAO.getInstance().getAllTransactions();
+        return TransactionStore.getInstance().snapshot().getAll();
+    }
+    
+    /**
+     * Newest rows for display; their comments are not loaded (null)
+     */
+    public static List<Transaction> getRecentTransactions(int limit) {
+        return TransactionStore.getInstance().snapshot().getRecent(limit);
     }
     
     public static List<Transaction> getTransactionsByType(String type) {
-        return DatabaseDAO.getInstance().getTransactionsByType(type);
+        return TransactionStore.getInstance().snapshot().getByType(type);
     }
     
-    public static void replaceAllTransactions(List<Transaction> transactions) {
-        DatabaseDAO.getInstance().replaceAllTransactions(transactions);
+    /**
+     * Paged reads go straight to the database (keyset pagination) so the
+     * transactions table never materializes the whole history
+     */
+    public static int countTransactionsByType(String type) {
+        return DatabaseDAO.getInstance().countTransactionsByType(type);
+    }
+    
+    public static List<Transaction> getTransactionPage(String type, PageKey after, int limit) {
+        return DatabaseDAO.getInstance().getTransactionPage(type, after, limit);
+    }
+    
+    public static PageKey getTransactionKeyAt(String type, int position) {
+        return DatabaseDAO.getInstance().getTransactionKeyAt(type, position);
     }
     
     public static Set<String> getCategories(String type) {
@@ -60,7 +140,30 @@ public class TransactionData {
         DatabaseDAO.getInstance().addCustomCategory(type, category);
     }
     
+    /**
+     * Position in the (date DESC, id DESC) ordering used by keyset pagination
+     */
+    public static class PageKey {
+        public final String date; // YYYY-MM-DD
+        public final int id;
+        
+        public PageKey(String date, int id) {
+            this.date = date;
+            this.id = id;
+        }
+        
+        public static PageKey of(Transaction transaction) {
+            return new PageKey(transaction.date, transaction.id);
+        }
+        
+        @Override
+        public String toString() {
+            return "PageKey[" + date + ", #" + id + "]";
+        }
+    }
+    
     public static class Transaction {
+        public int id; // transaction_id primary key, 0 until persisted
         public String type;
         public String date;
         public String category;
@@ -68,6 +171,11 @@ public class TransactionData {
         public String comment;
         
         public Transaction(String type, String date, String category, double amount, String comment) {
+            this(0, type, date, category, amount, comment);
+        }
+        
+        public Transaction(int id, String type, String date, String category, double amount, String comment) {
+            this.id = id;
             this.type = type;
             this.date = date;
             this.category = category;
@@ -102,7 +210,7 @@ public class TransactionData {
          * Create a deep copy of this transaction
          */
         public Transaction copy() {
-            return new Transaction(type, date, category, amount, comment);
+            return new Transaction(id, type, date, category, amount, comment);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,303 @@
+package com.mycompany.labopr.data;
+
+import com.mycompany.labopr.data.TransactionData.Transaction;
+import com.mycompany.labopr.database.DatabaseDAO;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+
+/**
+ * In-memory read model of the logged-in user's transactions
+ *
+ * MySQL stays the system of record: every write goes to the database first and is
+ * then applied here (write-through), so reads never need a round trip.
+ *
+ * Readers get an immutable {@link Snapshot}; writers build a new snapshot and publish
+ * it with a single volatile write (copy-on-write), so a reader that holds a snapshot
+ * sees one consistent version of the history for as long as it keeps it.
+ * Each snapshot carries the columnar history, the matching {@link AggregateCube}
+ * and a {@link DayIndex} of per-day prefix sums for arbitrary date ranges.
+ */
+public class TransactionStore {
+
+    private static TransactionStore instance;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private long nextVersion = 1;
+    private volatile long loadGeneration = 0;
+
+    private TransactionStore() {
+        // Private constructor for singleton
+    }
+
+    /**
+     * Get singleton instance of TransactionStore
+     */
+    public static synchronized TransactionStore getInstance() {
+        if (instance == null) {
+            instance = new TransactionStore();
+        }
+        return instance;
+    }
+
+    // ==================== LIFECYCLE ====================
+
+    /**
+     * Load the current user's full history from the database
+     * Called once at login, after DatabaseDAO.setCurrentUserId
+     */
+    public synchronized void load() {
+        loadGeneration++;
+        Integer userId = DatabaseDAO.getCurrentUserId();
+        if (userId == null) {
+            snapshot = Snapshot.EMPTY;
+            return;
+        }
+
+        long startTime = System.nanoTime();
+        DatabaseDAO dao = DatabaseDAO.getInstance();
+        TransactionColumns.Builder builder = new TransactionColumns.Builder(
+            0, new TransactionColumns.CategoryDictionary(), dao::getTransactionComments);
+        dao.loadTransactionColumns(builder);
+        TransactionColumns columns = builder.build();
+        snapshot = new Snapshot(userId, nextVersion++, columns, AggregateCube.build(columns), DayIndex.build(columns));
+        System.out.println(String.format("✓ Transaction store loaded: %d transactions (%,d bytes of columns) in %.1f ms",
+            columns.size(), columns.estimatedBytes(), (System.nanoTime() - startTime) / 1_000_000.0));
+    }
+
+    /**
+     * Whether the store holds the logged-in user's history, so snapshot() will not
+     * have to load it first
+     */
+    public boolean isLoaded() {
+        Integer userId = DatabaseDAO.getCurrentUserId();
+        return userId != null && userId.equals(snapshot.userId);
+    }
+
+    /**
+     * Drop the cached history (logout)
+     */
+    public synchronized void clear() {
+        loadGeneration++;
+        snapshot = Snapshot.EMPTY;
+    }
+
+    /**
+     * Changes on every load() and clear(): login, import, restore, reset and logout
+     * History that refers to rows by id (undo/redo) is only valid within one generation.
+     */
+    public long getLoadGeneration() {
+        return loadGeneration;
+    }
+
+    /**
+     * Current consistent view of the history
+     * Loads it on first use if the store does not belong to the logged-in user
+     */
+    public Snapshot snapshot() {
+        Snapshot current = snapshot;
+        Integer userId = DatabaseDAO.getCurrentUserId();
+        if (userId != null && !userId.equals(current.userId)) {
+            synchronized (this) {
+                if (!userId.equals(snapshot.userId)) {
+                    load();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    // ==================== WRITE-THROUGH ====================
+
+    /**
+     * Apply a transaction that has just been inserted into the database
+     * A reload (import, restore, reset) can run between the insert's commit and this
+     * call and already contain the row; it is then left alone instead of counted twice.
+     */
+    public synchronized void applyInsert(Transaction transaction) {
+        if (snapshot.columns.indexOf(transaction.id) >= 0) {
+            return;
+        }
+        publish(snapshot.columns.withInserted(transaction),
+            snapshot.cube.withTransaction(transaction, 1),
+            snapshot.dayIndex.withTransaction(transaction, 1));
+    }
+
+    /**
+     * Apply an update that has just been committed to the database
+     */
+    public synchronized void applyUpdate(int transactionId, Transaction transaction) {
+        Transaction replacement = transaction.copy();
+        replacement.id = transactionId;
+        publish(snapshot.columns.withDeleted(transactionId).withInserted(replacement),
+            withoutRow(snapshot, transactionId).withTransaction(replacement, 1),
+            withoutRowDays(snapshot, transactionId).withTransaction(replacement, 1));
+    }
+
+    /**
+     * Apply a delete that has just been committed to the database
+     */
+    public synchronized void applyDelete(int transactionId) {
+        publish(snapshot.columns.withDeleted(transactionId),
+            withoutRow(snapshot, transactionId),
+            withoutRowDays(snapshot, transactionId));
+    }
+
+    private void publish(TransactionColumns columns, AggregateCube cube, DayIndex dayIndex) {
+        if (snapshot.userId == null) {
+            // Nothing loaded yet; the first read will load from the database
+            return;
+        }
+        snapshot = new Snapshot(snapshot.userId, nextVersion++, columns, cube, dayIndex);
+    }
+
+    /**
+     * The snapshot's cube with the stored row for a transaction id subtracted
+     */
+    private static AggregateCube withoutRow(Snapshot current, int transactionId) {
+        TransactionColumns columns = current.columns;
+        int row = columns.indexOf(transactionId);
+        if (row < 0) {
+            return current.cube;
+        }
+        return current.cube.withChange(
+            YearMonth.from(LocalDate.ofEpochDay(columns.epochDay(row))).toString(),
+            TransactionColumns.typeName(columns.type(row)),
+            columns.category(row),
+            -columns.amountCents(row),
+            -1
+        );
+    }
+
+    /**
+     * The snapshot's day index with the stored row for a transaction id subtracted
+     */
+    private static DayIndex withoutRowDays(Snapshot current, int transactionId) {
+        TransactionColumns columns = current.columns;
+        int row = columns.indexOf(transactionId);
+        if (row < 0) {
+            return current.dayIndex;
+        }
+        return current.dayIndex.withChange(columns.epochDay(row), columns.type(row), -columns.amountCents(row));
+    }
+
+    // ==================== SNAPSHOT ====================
+
+    /**
+     * Immutable, consistent view of one user's transactions
+     *
+     * Backed by {@link TransactionColumns}; analytics scan the columns directly, and
+     * Transaction objects are only materialized (once per snapshot) for code that
+     * needs rows. Those objects are shared between readers and must not be modified.
+     */
+    public static final class Snapshot {
+
+        static final Snapshot EMPTY = new Snapshot(null, 0, TransactionColumns.empty(), AggregateCube.empty(), DayIndex.empty());
+
+        private final Integer userId;
+        private final long version;
+        private final TransactionColumns columns;
+        private final AggregateCube cube;
+        private final DayIndex dayIndex;
+        private volatile List<Transaction> all;
+        private volatile List<Transaction> income;
+        private volatile List<Transaction> expenses;
+
+        private Snapshot(Integer userId, long version, TransactionColumns columns, AggregateCube cube, DayIndex dayIndex) {
+            this.userId = userId;
+            this.version = version;
+            this.columns = columns;
+            this.cube = cube;
+            this.dayIndex = dayIndex;
+        }
+
+        /**
+         * Monotonic version, changes on every write
+         */
+        public long getVersion() {
+            return version;
+        }
+
+        /**
+         * Columnar view for scans and aggregates
+         */
+        public TransactionColumns getColumns() {
+            return columns;
+        }
+
+        /**
+         * Maintained (month, type, category) aggregate, consistent with the columns
+         */
+        public AggregateCube getCube() {
+            return cube;
+        }
+
+        /**
+         * Per-day prefix sums for O(1) date-range totals, consistent with the columns
+         */
+        public DayIndex getDayIndex() {
+            return dayIndex;
+        }
+
+        /**
+         * All transactions, newest first
+         */
+        public List<Transaction> getAll() {
+            materialize();
+            return all;
+        }
+
+        /**
+         * Transactions of one type (Income/Expenses), newest first
+         */
+        public List<Transaction> getByType(String type) {
+            materialize();
+            if ("Income".equals(type)) return income;
+            if ("Expenses".equals(type)) return expenses;
+            return Collections.emptyList();
+        }
+
+        /**
+         * The most recent transactions, newest first, without comments
+         * The recent list does not show comments, and reading one would load every
+         * comment the user has; use getAll/getByType for complete rows.
+         */
+        public List<Transaction> getRecent(int limit) {
+            int count = Math.min(limit, columns.size());
+            List<Transaction> recent = new ArrayList<>(count);
+            for (int row = 0; row < count; row++) {
+                recent.add(columns.toTransactionWithoutComment(row));
+            }
+            return recent;
+        }
+
+        /**
+         * Distinct YYYY-MM months that have at least one transaction, ascending
+         */
+        public List<String> getMonths() {
+            return cube.getMonths();
+        }
+
+        private synchronized void materialize() {
+            if (all != null) return;
+
+            List<Transaction> allList = new ArrayList<>(columns.size());
+            List<Transaction> incomeList = new ArrayList<>();
+            List<Transaction> expenseList = new ArrayList<>();
+            for (int row = 0; row < columns.size(); row++) {
+                Transaction t = columns.toTransaction(row);
+                allList.add(t);
+                if (columns.type(row) == TransactionColumns.INCOME) {
+                    incomeList.add(t);
+                } else {
+                    expenseList.add(t);
+                }
+            }
+
+            income = Collections.unmodifiableList(incomeList);
+            expenses = Collections.unmodifiableList(expenseList);
+            all = Collections.unmodifiableList(allList);
+        }
+    }
+}
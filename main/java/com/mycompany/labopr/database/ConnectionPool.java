@@ -0,0 +1,617 @@
+package com.mycompany.labopr.database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded JDBC connection pool used by DatabaseDAO
+ *
+ * Connections handed out are proxies: calling close() returns the physical
+ * connection to the pool instead of closing it, so existing try-with-resources
+ * code keeps working unchanged.
+ *
+ * Features:
+ * - Configurable minimum idle / maximum total connections
+ * - Validation on borrow (Connection.isValid)
+ * - Idle eviction down to the configured minimum
+ * - Leak detection with the borrower's stack trace captured at borrow time; borrows
+ *   that hold a connection on purpose (streaming exports, restores) opt out
+ * - Metrics: active/idle counts, borrow count, wait time
+ */
+public class ConnectionPool {
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final Config config;
+
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition connectionReturned = lock.newCondition();
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private final Set<PooledConnection> active = new HashSet<>();
+    private int totalConnections = 0;
+    private boolean closed = false;
+
+    private final ScheduledExecutorService housekeeper;
+
+    // Metrics (guarded by lock)
+    private long borrowCount = 0;
+    private long totalWaitNanos = 0;
+    private long maxWaitNanos = 0;
+    private long createdCount = 0;
+    private long destroyedCount = 0;
+    private long validationFailures = 0;
+    private long leaksDetected = 0;
+    private long borrowTimeouts = 0;
+
+    public ConnectionPool(String url, String user, String password, Config config) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.config = config;
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "kwartrack-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        housekeeper.scheduleWithFixedDelay(this::runHousekeeping,
+            config.housekeepingIntervalMillis, config.housekeepingIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // ==================== BORROW / RETURN ====================
+
+    /**
+     * Borrow a connection from the pool, creating one if below the maximum
+     * or waiting up to the configured borrow timeout otherwise.
+     * Closing the returned connection hands it back to the pool.
+     */
+    public Connection getConnection() throws SQLException {
+        return getConnection(false);
+    }
+
+    /**
+     * Borrow a connection as getConnection() does
+     *
+     * @param longRunning the borrower keeps the connection for as long as its work takes
+     *        (streaming a whole history, a restore session), so holding it past the leak
+     *        detection threshold is expected and not reported
+     */
+    public Connection getConnection(boolean longRunning) throws SQLException {
+        long waitStart = System.nanoTime();
+        long deadline = waitStart + TimeUnit.MILLISECONDS.toNanos(config.borrowTimeoutMillis);
+
+        while (true) {
+            PooledConnection candidate = null;
+            boolean create = false;
+
+            lock.lock();
+            try {
+                while (candidate == null && !create) {
+                    if (closed) {
+                        throw new SQLException("Connection pool is closed");
+                    }
+                    if (!idle.isEmpty()) {
+                        candidate = idle.pollFirst();
+                    } else if (totalConnections < config.maxSize) {
+                        totalConnections++; // reserve the slot before connecting outside the lock
+                        create = true;
+                    } else {
+                        long remaining = deadline - System.nanoTime();
+                        if (remaining <= 0) {
+                            borrowTimeouts++;
+                            throw new SQLException("Timed out after " + config.borrowTimeoutMillis
+                                + "ms waiting for a pooled connection (" + describeLocked() + ")");
+                        }
+                        try {
+                            connectionReturned.awaitNanos(remaining);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw new SQLException("Interrupted while waiting for a pooled connection", e);
+                        }
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (create) {
+                try {
+                    candidate = openPooledConnection();
+                } catch (SQLException e) {
+                    lock.lock();
+                    try {
+                        totalConnections--;
+                        connectionReturned.signal();
+                    } finally {
+                        lock.unlock();
+                    }
+                    throw e;
+                }
+                lock.lock();
+                try {
+                    createdCount++;
+                } finally {
+                    lock.unlock();
+                }
+            } else if (config.validateOnBorrow && !isUsable(candidate)) {
+                destroy(candidate, true);
+                continue;
+            }
+
+            return checkOut(candidate, System.nanoTime() - waitStart, longRunning);
+        }
+    }
+
+    private Connection checkOut(PooledConnection pc, long waitedNanos, boolean longRunning) {
+        pc.borrowedAt = System.currentTimeMillis();
+        pc.longRunning = longRunning;
+        pc.borrowStack = config.leakDetectionThresholdMillis > 0 && !longRunning
+            ? new Throwable("Connection borrowed by thread " + Thread.currentThread().getName())
+            : null;
+        pc.leakReported = false;
+
+        lock.lock();
+        try {
+            active.add(pc);
+            borrowCount++;
+            totalWaitNanos += waitedNanos;
+            maxWaitNanos = Math.max(maxWaitNanos, waitedNanos);
+        } finally {
+            lock.unlock();
+        }
+        return pc.newLease();
+    }
+
+    /**
+     * Called when a lease is closed. Resets session state (open transaction,
+     * isolation level, read-only flag, warnings) to what the connection had when it
+     * was opened and returns it to the idle queue, or destroys it if it is broken.
+     */
+    private void release(PooledConnection pc) {
+        boolean healthy = true;
+        try {
+            if (pc.raw.isClosed()) {
+                healthy = false;
+            } else {
+                if (!pc.raw.getAutoCommit()) {
+                    pc.raw.rollback();
+                    pc.raw.setAutoCommit(true);
+                }
+                if (pc.raw.getTransactionIsolation() != pc.defaultIsolation) {
+                    pc.raw.setTransactionIsolation(pc.defaultIsolation);
+                }
+                if (pc.raw.isReadOnly() != pc.defaultReadOnly) {
+                    pc.raw.setReadOnly(pc.defaultReadOnly);
+                }
+                pc.raw.clearWarnings();
+            }
+        } catch (SQLException e) {
+            healthy = false;
+        }
+
+        lock.lock();
+        try {
+            active.remove(pc);
+            pc.borrowStack = null;
+            if (healthy && !closed) {
+                pc.lastReturnedAt = System.currentTimeMillis();
+                idle.addFirst(pc); // LIFO keeps hot connections hot and lets cold ones age out
+                connectionReturned.signal();
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        destroy(pc, false);
+    }
+
+    private boolean isUsable(PooledConnection pc) {
+        try {
+            if (pc.raw.isValid(config.validationTimeoutSeconds)) {
+                return true;
+            }
+        } catch (SQLException ignored) {
+        }
+        lock.lock();
+        try {
+            validationFailures++;
+        } finally {
+            lock.unlock();
+        }
+        return false;
+    }
+
+    private PooledConnection openPooledConnection() throws SQLException {
+        Connection raw = DriverManager.getConnection(url, user, password);
+        try {
+            return new PooledConnection(raw);
+        } catch (SQLException e) {
+            try {
+                raw.close();
+            } catch (SQLException ignored) {
+            }
+            throw e;
+        }
+    }
+
+    private void destroy(PooledConnection pc, boolean alreadyRemoved) {
+        try {
+            pc.raw.close();
+        } catch (SQLException ignored) {
+        }
+        lock.lock();
+        try {
+            if (!alreadyRemoved) {
+                idle.remove(pc);
+                active.remove(pc);
+            }
+            totalConnections--;
+            destroyedCount++;
+            connectionReturned.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ==================== HOUSEKEEPING ====================
+
+    private void runHousekeeping() {
+        try {
+            evictIdleConnections();
+            detectLeaks();
+            fillToMinimum();
+        } catch (Exception e) {
+            System.err.println("✗ ConnectionPool housekeeping failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Close connections that have been idle longer than the idle timeout,
+     * never dropping below the configured minimum.
+     */
+    private void evictIdleConnections() {
+        long now = System.currentTimeMillis();
+        List<PooledConnection> evicted = new ArrayList<>();
+
+        lock.lock();
+        try {
+            Iterator<PooledConnection> it = idle.descendingIterator(); // oldest returns first
+            while (it.hasNext() && totalConnections - evicted.size() > config.minIdle) {
+                PooledConnection pc = it.next();
+                if (now - pc.lastReturnedAt > config.idleTimeoutMillis) {
+                    it.remove();
+                    evicted.add(pc);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        for (PooledConnection pc : evicted) {
+            destroy(pc, true);
+        }
+    }
+
+    private void detectLeaks() {
+        if (config.leakDetectionThresholdMillis <= 0) return;
+
+        long now = System.currentTimeMillis();
+        List<PooledConnection> suspects = new ArrayList<>();
+
+        lock.lock();
+        try {
+            for (PooledConnection pc : active) {
+                if (!pc.leakReported && !pc.longRunning && now - pc.borrowedAt > config.leakDetectionThresholdMillis) {
+                    pc.leakReported = true;
+                    leaksDetected++;
+                    suspects.add(pc);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        for (PooledConnection pc : suspects) {
+            System.err.println("⚠ ConnectionPool: possible connection leak, held for "
+                + (now - pc.borrowedAt) + "ms");
+            Throwable stack = pc.borrowStack;
+            if (stack != null) {
+                stack.printStackTrace();
+            }
+        }
+    }
+
+    private void fillToMinimum() {
+        while (true) {
+            lock.lock();
+            try {
+                if (closed || totalConnections >= config.minIdle) return;
+                totalConnections++;
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                PooledConnection pc = openPooledConnection();
+                lock.lock();
+                try {
+                    createdCount++;
+                    pc.lastReturnedAt = System.currentTimeMillis();
+                    idle.addLast(pc);
+                    connectionReturned.signal();
+                } finally {
+                    lock.unlock();
+                }
+            } catch (SQLException e) {
+                lock.lock();
+                try {
+                    totalConnections--;
+                } finally {
+                    lock.unlock();
+                }
+                return; // database unreachable; try again on the next cycle
+            }
+        }
+    }
+
+    /**
+     * Close all idle connections and stop handing out new ones.
+     * Active connections are closed when their borrowers return them.
+     */
+    public void close() {
+        List<PooledConnection> toClose;
+        lock.lock();
+        try {
+            closed = true;
+            toClose = new ArrayList<>(idle);
+            idle.clear();
+            connectionReturned.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        housekeeper.shutdownNow();
+        for (PooledConnection pc : toClose) {
+            destroy(pc, true);
+        }
+    }
+
+    // ==================== METRICS ====================
+
+    public PoolStats getStats() {
+        lock.lock();
+        try {
+            return new PoolStats(active.size(), idle.size(), totalConnections, borrowCount,
+                totalWaitNanos, maxWaitNanos, createdCount, destroyedCount,
+                validationFailures, leaksDetected, borrowTimeouts);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private String describeLocked() {
+        return "active=" + active.size() + ", idle=" + idle.size() + ", max=" + config.maxSize;
+    }
+
+    @Override
+    public String toString() {
+        return getStats().toString();
+    }
+
+    // ==================== INNER CLASSES ====================
+
+    /**
+     * Pool configuration with fluent setters
+     */
+    public static class Config {
+        private int minIdle = 2;
+        private int maxSize = 10;
+        private long idleTimeoutMillis = TimeUnit.MINUTES.toMillis(5);
+        private long borrowTimeoutMillis = TimeUnit.SECONDS.toMillis(10);
+        private long leakDetectionThresholdMillis = TimeUnit.SECONDS.toMillis(30);
+        private long housekeepingIntervalMillis = TimeUnit.SECONDS.toMillis(30);
+        private int validationTimeoutSeconds = 2;
+        private boolean validateOnBorrow = true;
+
+        public Config minIdle(int minIdle) {
+            if (minIdle < 0) {
+                throw new IllegalArgumentException("minIdle cannot be negative");
+            }
+            this.minIdle = minIdle;
+            return this;
+        }
+
+        public Config maxSize(int maxSize) {
+            if (maxSize <= 0) {
+                throw new IllegalArgumentException("maxSize must be positive");
+            }
+            this.maxSize = maxSize;
+            return this;
+        }
+
+        public Config idleTimeoutMillis(long millis) {
+            this.idleTimeoutMillis = millis;
+            return this;
+        }
+
+        public Config borrowTimeoutMillis(long millis) {
+            this.borrowTimeoutMillis = millis;
+            return this;
+        }
+
+        /**
+         * Connections held longer than this are reported with the borrower's stack trace.
+         * Zero disables leak detection (and the stack capture cost on borrow).
+         */
+        public Config leakDetectionThresholdMillis(long millis) {
+            this.leakDetectionThresholdMillis = millis;
+            return this;
+        }
+
+        public Config housekeepingIntervalMillis(long millis) {
+            if (millis <= 0) {
+                throw new IllegalArgumentException("housekeepingIntervalMillis must be positive");
+            }
+            this.housekeepingIntervalMillis = millis;
+            return this;
+        }
+
+        public Config validationTimeoutSeconds(int seconds) {
+            this.validationTimeoutSeconds = seconds;
+            return this;
+        }
+
+        public Config validateOnBorrow(boolean validate) {
+            this.validateOnBorrow = validate;
+            return this;
+        }
+
+        /**
+         * Read overrides from system properties (kwartrack.pool.min, kwartrack.pool.max,
+         * kwartrack.pool.idleTimeoutMs, kwartrack.pool.leakThresholdMs)
+         */
+        public static Config fromSystemProperties() {
+            Config config = new Config();
+            config.minIdle(Integer.getInteger("kwartrack.pool.min", config.minIdle));
+            config.maxSize(Integer.getInteger("kwartrack.pool.max", config.maxSize));
+            config.idleTimeoutMillis(Long.getLong("kwartrack.pool.idleTimeoutMs", config.idleTimeoutMillis));
+            config.leakDetectionThresholdMillis(Long.getLong("kwartrack.pool.leakThresholdMs",
+                config.leakDetectionThresholdMillis));
+            if (config.minIdle > config.maxSize) {
+                config.minIdle(config.maxSize);
+            }
+            return config;
+        }
+    }
+
+    /**
+     * Immutable snapshot of pool metrics
+     */
+    public static class PoolStats {
+        public final int active;
+        public final int idle;
+        public final int total;
+        public final long borrowCount;
+        public final long totalWaitNanos;
+        public final long maxWaitNanos;
+        public final long created;
+        public final long destroyed;
+        public final long validationFailures;
+        public final long leaksDetected;
+        public final long borrowTimeouts;
+
+        public PoolStats(int active, int idle, int total, long borrowCount, long totalWaitNanos,
+                         long maxWaitNanos, long created, long destroyed, long validationFailures,
+                         long leaksDetected, long borrowTimeouts) {
+            this.active = active;
+            this.idle = idle;
+            this.total = total;
+            this.borrowCount = borrowCount;
+            this.totalWaitNanos = totalWaitNanos;
+            this.maxWaitNanos = maxWaitNanos;
+            this.created = created;
+            this.destroyed = destroyed;
+            this.validationFailures = validationFailures;
+            this.leaksDetected = leaksDetected;
+            this.borrowTimeouts = borrowTimeouts;
+        }
+
+        public double getAverageWaitMillis() {
+            return borrowCount == 0 ? 0.0 : (totalWaitNanos / (double) borrowCount) / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("PoolStats[active=%d, idle=%d, total=%d, borrows=%d, avgWait=%.3fms, " +
+                "maxWait=%.3fms, created=%d, destroyed=%d, validationFailures=%d, leaks=%d, timeouts=%d]",
+                active, idle, total, borrowCount, getAverageWaitMillis(), maxWaitNanos / 1_000_000.0,
+                created, destroyed, validationFailures, leaksDetected, borrowTimeouts);
+        }
+    }
+
+    /**
+     * A physical connection owned by the pool
+     */
+    private final class PooledConnection {
+        final Connection raw;
+        final int defaultIsolation;
+        final boolean defaultReadOnly;
+        volatile long borrowedAt;
+        volatile long lastReturnedAt = System.currentTimeMillis();
+        volatile Throwable borrowStack;
+        volatile boolean leakReported;
+        volatile boolean longRunning;
+
+        PooledConnection(Connection raw) throws SQLException {
+            this.raw = raw;
+            // Session defaults restored on every return, see release()
+            this.defaultIsolation = raw.getTransactionIsolation();
+            this.defaultReadOnly = raw.isReadOnly();
+        }
+
+        Connection newLease() {
+            return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                new Lease(this)
+            );
+        }
+    }
+
+    /**
+     * One borrow of a pooled connection. close() returns it to the pool exactly once;
+     * any further use of the lease fails instead of touching a connection someone else holds.
+     */
+    private final class Lease implements InvocationHandler {
+        private PooledConnection owner;
+
+        Lease(PooledConnection owner) {
+            this.owner = owner;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            PooledConnection pc = owner;
+
+            switch (name) {
+                case "close":
+                    if (pc != null) {
+                        owner = null;
+                        release(pc);
+                    }
+                    return null;
+                case "isClosed":
+                    return pc == null || pc.raw.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + (pc == null ? "returned" : pc.raw.toString()) + "]";
+                default:
+                    break;
+            }
+
+            if (pc == null) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            try {
+                return method.invoke(pc.raw, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -1,9 +1,16 @@
 package com.mycompany.labopr.database;
 
+import com.mycompany.labopr.data.AnalyticsData;
+import com.mycompany.labopr.data.TransactionColumns;
 import com.mycompany.labopr.data.TransactionData;
 import com.mycompany.labopr.data.BudgetData;
+import java.io.IOException;
+import java.math.BigDecimal;
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Enhanced Database Access Object with real-time balance tracking
@@ -15,13 +22,57 @@ public class DatabaseDAO {
     private static final String DB_USER = "root";
     private static final String DB_PASSWORD = "root";
 
+    private static final int ER_TRG_ALREADY_EXISTS = 1359;
+
+    /**
+     * Triggers that fill change_journal, as { name, definition }
+     * A row is only journaled once the user has a backup_watermarks row (created when
+     * the first full backup starts), so users who never back up add nothing.
+     */
+    private static final String[][] JOURNAL_TRIGGERS = {
+        { "trg_transactions_journal_insert",
+            "CREATE TRIGGER trg_transactions_journal_insert AFTER INSERT ON transactions FOR EACH ROW " +
+            "INSERT INTO change_journal (user_id, entity, transaction_id) " +
+            "SELECT NEW.user_id, 'transaction', NEW.transaction_id FROM backup_watermarks WHERE user_id = NEW.user_id" },
+        { "trg_transactions_journal_update",
+            "CREATE TRIGGER trg_transactions_journal_update AFTER UPDATE ON transactions FOR EACH ROW " +
+            "INSERT INTO change_journal (user_id, entity, transaction_id) " +
+            "SELECT NEW.user_id, 'transaction', NEW.transaction_id FROM backup_watermarks WHERE user_id = NEW.user_id" },
+        { "trg_transactions_journal_delete",
+            "CREATE TRIGGER trg_transactions_journal_delete AFTER DELETE ON transactions FOR EACH ROW " +
+            "INSERT INTO change_journal (user_id, entity, transaction_id) " +
+            "SELECT OLD.user_id, 'transaction', OLD.transaction_id FROM backup_watermarks WHERE user_id = OLD.user_id" },
+        { "trg_budgets_journal_insert",
+            "CREATE TRIGGER trg_budgets_journal_insert AFTER INSERT ON budgets FOR EACH ROW " +
+            "INSERT INTO change_journal (user_id, entity, category, month) " +
+            "SELECT NEW.user_id, 'budget', NEW.category, NEW.month FROM backup_watermarks WHERE user_id = NEW.user_id" },
+        { "trg_budgets_journal_update",
+            "CREATE TRIGGER trg_budgets_journal_update AFTER UPDATE ON budgets FOR EACH ROW BEGIN " +
+            "INSERT INTO change_journal (user_id, entity, category, month) " +
+            "SELECT NEW.user_id, 'budget', NEW.category, NEW.month FROM backup_watermarks WHERE user_id = NEW.user_id; " +
+            "IF OLD.category <> NEW.category OR OLD.month <> NEW.month THEN " +
+            "INSERT INTO change_journal (user_id, entity, category, month) " +
+            "SELECT OLD.user_id, 'budget', OLD.category, OLD.month FROM backup_watermarks WHERE user_id = OLD.user_id; " +
+            "END IF; END" },
+        { "trg_budgets_journal_delete",
+            "CREATE TRIGGER trg_budgets_journal_delete AFTER DELETE ON budgets FOR EACH ROW " +
+            "INSERT INTO change_journal (user_id, entity, category, month) " +
+            "SELECT OLD.user_id, 'budget', OLD.category, OLD.month FROM backup_watermarks WHERE user_id = OLD.user_id" }
+    };
+
     private static DatabaseDAO instance;
-    private static Integer currentUserId = null;
+    private static volatile Integer currentUserId = null;
+
+    private final ConnectionPool pool;
+    private final ThreadLocal<long[]> roundTrips = ThreadLocal.withInitial(() -> new long[1]);
+    private ScheduledExecutorService reconciliationJob;
 
     private DatabaseDAO() {
         try {
             Class.forName("com.mysql.cj.jdbc.Driver");
+            pool = new ConnectionPool(DB_URL, DB_USER, DB_PASSWORD, ConnectionPool.Config.fromSystemProperties());
             initializeDatabase();
+            startBalanceReconciliation(Long.getLong("kwartrack.balance.reconcileMinutes", 30));
         } catch (ClassNotFoundException e) {
             throw new RuntimeException("MySQL JDBC Driver not found", e);
         }
@@ -46,8 +97,37 @@ public class DatabaseDAO {
         currentUserId = null;
     }
 
+    /**
+     * Borrow a pooled connection. Closing it returns it to the pool.
+     */
     private Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+        roundTrips.get()[0]++;
+        return pool.getConnection();
+    }
+
+    /**
+     * Borrow a pooled connection that is held for the whole of a long operation
+     * (streaming exports and backups, restore sessions); exempt from leak reports
+     */
+    private Connection getLongRunningConnection() throws SQLException {
+        roundTrips.get()[0]++;
+        return pool.getConnection(true);
+    }
+
+    /**
+     * Number of connections the calling thread has borrowed. Every DAO call borrows exactly
+     * one, so the difference across an operation is the number of database round trips it
+     * made, whatever other threads (reconciliation, background loads) do meanwhile.
+     */
+    public long getRoundTripCount() {
+        return roundTrips.get()[0];
+    }
+
+    /**
+     * Current connection pool metrics (active/idle connections, wait times, leaks)
+     */
+    public ConnectionPool.PoolStats getPoolStats() {
+        return pool.getStats();
     }
 
     private void initializeDatabase() {
@@ -72,7 +152,8 @@ public class DatabaseDAO {
                 created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
                 FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE CASCADE,
                 INDEX idx_user_type (user_id, transaction_type),
-                INDEX idx_user_date (user_id, transaction_date)
+                INDEX idx_user_date (user_id, transaction_date),
+                INDEX idx_user_type_date_id (user_id, transaction_type, transaction_date, transaction_id)
             )
         """;
 
@@ -114,12 +195,40 @@ public class DatabaseDAO {
             )
         """;
 
+        // One row per write to transactions/budgets, filled by triggers so every write
+        // path (single edits, bulk import, restore, reset) is journaled. Only users with
+        // a backup_watermarks row are journaled. Incremental backups read the rows after
+        // the user's watermark, and each backup prunes the rows it covers.
+        String createChangeJournalTable = """
+            CREATE TABLE IF NOT EXISTS change_journal (
+                change_seq BIGINT AUTO_INCREMENT PRIMARY KEY,
+                user_id INT NOT NULL,
+                entity ENUM('transaction', 'budget') NOT NULL,
+                transaction_id INT NULL,
+                category VARCHAR(50) NULL,
+                month VARCHAR(7) NULL,
+                changed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                INDEX idx_user_seq (user_id, change_seq)
+            )
+        """;
+
+        String createWatermarksTable = """
+            CREATE TABLE IF NOT EXISTS backup_watermarks (
+                user_id INT PRIMARY KEY,
+                last_change_seq BIGINT NOT NULL,
+                updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+                FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE CASCADE
+            )
+        """;
+
         try (Connection conn = getConnection(); Statement stmt = conn.createStatement()) {
             stmt.execute(createUsersTable);
             stmt.execute(createTransactionsTable);
             stmt.execute(createBudgetsTable);
             stmt.execute(createCategoriesTable);
             stmt.execute(createBalanceTable);
+            stmt.execute(createChangeJournalTable);
+            stmt.execute(createWatermarksTable);
             
             // Add current_balance column if it doesn't exist (for existing databases)
             try {
@@ -128,11 +237,67 @@ public class DatabaseDAO {
             } catch (SQLException e) {
                 // Column already exists, ignore
             }
+            
+            // Keyset pagination index (for existing databases)
+            try {
+                stmt.execute("CREATE INDEX idx_user_type_date_id ON transactions (user_id, transaction_type, transaction_date, transaction_id)");
+                System.out.println("Added idx_user_type_date_id index to transactions table");
+            } catch (SQLException e) {
+                // Index already exists, ignore
+            }
+            
+            installJournalTriggers(conn, stmt);
+
+            // Journal rows left by users who have no backup (older triggers journaled everyone)
+            int orphaned = stmt.executeUpdate(
+                "DELETE FROM change_journal WHERE user_id NOT IN (SELECT user_id FROM backup_watermarks)");
+            if (orphaned > 0) {
+                System.out.println("Removed " + orphaned + " change_journal rows of users without a backup");
+            }
         } catch (SQLException e) {
             throw new RuntimeException("Failed to initialize database", e);
         }
     }
 
+    /**
+     * Create missing journal triggers and replace outdated ones (those that journal
+     * users without a backup)
+     * A failure is only reported here; isChangeJournalInstalled() lets incremental
+     * backups refuse to run without the triggers.
+     */
+    private void installJournalTriggers(Connection conn, Statement stmt) throws SQLException {
+        Map<String, String> installed = readJournalTriggers(conn);
+        for (String[] trigger : JOURNAL_TRIGGERS) {
+            String current = installed.get(trigger[0]);
+            if (current != null && current.contains("backup_watermarks")) {
+                continue;
+            }
+            try {
+                if (current != null) {
+                    stmt.execute("DROP TRIGGER IF EXISTS " + trigger[0]);
+                }
+                stmt.execute(trigger[1]);
+            } catch (SQLException e) {
+                if (e.getErrorCode() != ER_TRG_ALREADY_EXISTS) {
+                    System.err.println("⚠ Change journal trigger " + trigger[0] + " not created, incremental backups are disabled: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private Map<String, String> readJournalTriggers(Connection conn) throws SQLException {
+        Map<String, String> triggers = new HashMap<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT TRIGGER_NAME, ACTION_STATEMENT FROM information_schema.TRIGGERS " +
+                "WHERE TRIGGER_SCHEMA = DATABASE() AND TRIGGER_NAME LIKE 'trg\\_%\\_journal\\_%'");
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                triggers.put(rs.getString(1), rs.getString(2));
+            }
+        }
+        return triggers;
+    }
+
     // ==================== USER OPERATIONS ====================
 
     public boolean createUser(String username, String passwordHash) {
@@ -230,93 +395,185 @@ public class DatabaseDAO {
 
     // ==================== TRANSACTION OPERATIONS ====================
 
+    /**
+     * Insert a transaction and apply its effect to current_balance
+     * in the same database transaction.
+     * 
+     * <p>A transaction with id 0 gets a generated key; a non-zero id is inserted
+     * as-is so that undo can restore a deleted row under its original id.
+     */
     public boolean createTransaction(TransactionData.Transaction transaction) {
-        if (currentUserId == null) return false;
+        Integer userId = currentUserId;
+        if (userId == null) return false;
         
-        String sql = "INSERT INTO transactions (user_id, transaction_type, transaction_date, category, amount, comment) VALUES (?, ?, ?, ?, ?, ?)";
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        String sql = "INSERT INTO transactions (transaction_id, user_id, transaction_type, transaction_date, category, amount, comment) VALUES (?, ?, ?, ?, ?, ?, ?)";
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
 
-            pstmt.setInt(1, currentUserId);
-            pstmt.setString(2, transaction.type);
-            pstmt.setString(3, transaction.date);
-            pstmt.setString(4, transaction.category);
-            pstmt.setDouble(5, transaction.amount);
-            pstmt.setString(6, transaction.comment);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                BigDecimal amount = toDecimal(transaction.amount);
+
+                if (transaction.id > 0) {
+                    pstmt.setInt(1, transaction.id);
+                } else {
+                    pstmt.setNull(1, Types.INTEGER);
+                }
+                pstmt.setInt(2, userId);
+                pstmt.setString(3, transaction.type);
+                pstmt.setString(4, transaction.date);
+                pstmt.setString(5, transaction.category);
+                pstmt.setBigDecimal(6, amount);
+                pstmt.setString(7, transaction.comment);
+
+                if (pstmt.executeUpdate() == 0) {
+                    conn.rollback();
+                    return false;
+                }
+
+                applyBalanceDelta(conn, userId, signedAmount(transaction.type, amount));
+                conn.commit();
 
-            boolean success = pstmt.executeUpdate() > 0;
-            if (success) {
-                updateCurrentBalanceInDB();
+                try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                    if (keys.next()) {
+                        transaction.id = keys.getInt(1);
+                    }
+                }
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                e.printStackTrace();
+                return false;
+            } finally {
+                conn.setAutoCommit(true);
             }
-            return success;
         } catch (SQLException e) {
             e.printStackTrace();
             return false;
         }
     }
 
-    public boolean updateTransaction(String originalDate, String originalCategory, double originalAmount, 
-                                     TransactionData.Transaction updatedTransaction) {
-        if (currentUserId == null) return false;
+    /**
+     * Update a transaction by primary key and apply the difference between its old
+     * and new signed amounts to current_balance in the same database transaction.
+     */
+    public boolean updateTransaction(int transactionId, TransactionData.Transaction updatedTransaction) {
+        Integer userId = currentUserId;
+        if (userId == null) return false;
         
         String sql = """
             UPDATE transactions 
             SET transaction_type = ?, transaction_date = ?, category = ?, amount = ?, comment = ?
-            WHERE user_id = ? AND transaction_date = ? AND category = ? AND amount = ?
-            LIMIT 1
+            WHERE transaction_id = ?
         """;
         
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
 
-            pstmt.setString(1, updatedTransaction.type);
-            pstmt.setString(2, updatedTransaction.date);
-            pstmt.setString(3, updatedTransaction.category);
-            pstmt.setDouble(4, updatedTransaction.amount);
-            pstmt.setString(5, updatedTransaction.comment);
-            pstmt.setInt(6, currentUserId);
-            pstmt.setString(7, originalDate);
-            pstmt.setString(8, originalCategory);
-            pstmt.setDouble(9, originalAmount);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                StoredAmount original = lockTransaction(conn, userId, transactionId);
+                if (original == null) {
+                    conn.rollback();
+                    return false;
+                }
+
+                BigDecimal newAmount = toDecimal(updatedTransaction.amount);
+
+                pstmt.setString(1, updatedTransaction.type);
+                pstmt.setString(2, updatedTransaction.date);
+                pstmt.setString(3, updatedTransaction.category);
+                pstmt.setBigDecimal(4, newAmount);
+                pstmt.setString(5, updatedTransaction.comment);
+                pstmt.setInt(6, original.transactionId);
+
+                if (pstmt.executeUpdate() == 0) {
+                    conn.rollback();
+                    return false;
+                }
+
+                applyBalanceDelta(conn, userId, signedAmount(updatedTransaction.type, newAmount)
+                    .subtract(signedAmount(original.type, original.amount)));
+                conn.commit();
 
-            boolean success = pstmt.executeUpdate() > 0;
-            if (success) {
-                updateCurrentBalanceInDB();
+                updatedTransaction.id = transactionId;
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                e.printStackTrace();
+                return false;
+            } finally {
+                conn.setAutoCommit(true);
             }
-            return success;
         } catch (SQLException e) {
             e.printStackTrace();
             return false;
         }
     }
 
-    public boolean deleteTransaction(String date, String category, double amount) {
-        if (currentUserId == null) return false;
+    /**
+     * Delete a transaction by primary key and reverse its effect on current_balance
+     * in the same database transaction.
+     */
+    public boolean deleteTransaction(int transactionId) {
+        Integer userId = currentUserId;
+        if (userId == null) return false;
         
-        String sql = """
-            DELETE FROM transactions 
-            WHERE user_id = ? AND transaction_date = ? AND category = ? AND amount = ?
-            LIMIT 1
-        """;
+        String sql = "DELETE FROM transactions WHERE transaction_id = ?";
         
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
 
-            pstmt.setInt(1, currentUserId);
-            pstmt.setString(2, date);
-            pstmt.setString(3, category);
-            pstmt.setDouble(4, amount);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                StoredAmount original = lockTransaction(conn, userId, transactionId);
+                if (original == null) {
+                    conn.rollback();
+                    return false;
+                }
+
+                pstmt.setInt(1, original.transactionId);
+
+                if (pstmt.executeUpdate() == 0) {
+                    conn.rollback();
+                    return false;
+                }
 
-            boolean success = pstmt.executeUpdate() > 0;
-            if (success) {
-                updateCurrentBalanceInDB();
+                applyBalanceDelta(conn, userId, signedAmount(original.type, original.amount).negate());
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                e.printStackTrace();
+                return false;
+            } finally {
+                conn.setAutoCommit(true);
             }
-            return success;
         } catch (SQLException e) {
             e.printStackTrace();
             return false;
         }
     }
+
+    /**
+     * Row-lock one of the current user's transactions by primary key,
+     * returning its type and stored amount (needed to compute the balance delta).
+     */
+    private StoredAmount lockTransaction(Connection conn, int userId, int transactionId) throws SQLException {
+        String sql = "SELECT transaction_type, amount FROM transactions WHERE transaction_id = ? AND user_id = ? FOR UPDATE";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, transactionId);
+            pstmt.setInt(2, userId);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return new StoredAmount(
+                        transactionId,
+                        rs.getString("transaction_type"),
+                        rs.getBigDecimal("amount")
+                    );
+                }
+            }
+        }
+        return null;
+    }
     
     public List<TransactionData.Transaction> getTransactionsByType(String type) {
         if (currentUserId == null) return new ArrayList<>();
@@ -333,6 +590,7 @@ public class DatabaseDAO {
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
                     transactions.add(new TransactionData.Transaction(
+                        rs.getInt("transaction_id"),
                         rs.getString("transaction_type"),
                         rs.getString("transaction_date"),
                         rs.getString("category"),
@@ -347,20 +605,69 @@ public class DatabaseDAO {
         return transactions;
     }
 
-    public List<TransactionData.Transaction> getAllTransactions() {
+    // ==================== KEYSET PAGINATION ====================
+    // Pages are ordered (transaction_date DESC, transaction_id DESC) and walked with the
+    // last key of the previous page instead of OFFSET, so every page is an index range
+    // scan on idx_user_type_date_id no matter how deep it is. The row comparison is
+    // spelled out because MySQL does not always use an index range for (a, b) < (?, ?).
+
+    /**
+     * Number of transactions of one type (answered from the index)
+     */
+    public int countTransactionsByType(String type) {
+        if (currentUserId == null) return 0;
+        
+        String sql = "SELECT COUNT(*) FROM transactions WHERE user_id = ? AND transaction_type = ?";
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, currentUserId);
+            pstmt.setString(2, type);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt(1);
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return 0;
+    }
+
+    /**
+     * Up to limit transactions of one type strictly after a key, newest first
+     * 
+     * @param after last key of the previous page, or null for the first page
+     */
+    public List<TransactionData.Transaction> getTransactionPage(String type, TransactionData.PageKey after, int limit) {
         if (currentUserId == null) return new ArrayList<>();
         
-        String sql = "SELECT * FROM transactions WHERE user_id = ? ORDER BY transaction_date DESC";
-        List<TransactionData.Transaction> transactions = new ArrayList<>();
+        String sql = after == null
+            ? "SELECT * FROM transactions WHERE user_id = ? AND transaction_type = ? "
+                + "ORDER BY transaction_date DESC, transaction_id DESC LIMIT ?"
+            : "SELECT * FROM transactions WHERE user_id = ? AND transaction_type = ? "
+                + "AND (transaction_date < ? OR (transaction_date = ? AND transaction_id < ?)) "
+                + "ORDER BY transaction_date DESC, transaction_id DESC LIMIT ?";
+        List<TransactionData.Transaction> transactions = new ArrayList<>(limit);
 
         try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
-            pstmt.setInt(1, currentUserId);
+            int index = 1;
+            pstmt.setInt(index++, currentUserId);
+            pstmt.setString(index++, type);
+            if (after != null) {
+                pstmt.setString(index++, after.date);
+                pstmt.setString(index++, after.date);
+                pstmt.setInt(index++, after.id);
+            }
+            pstmt.setInt(index, limit);
 
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
                     transactions.add(new TransactionData.Transaction(
+                        rs.getInt("transaction_id"),
                         rs.getString("transaction_type"),
                         rs.getString("transaction_date"),
                         rs.getString("category"),
@@ -375,200 +682,520 @@ public class DatabaseDAO {
         return transactions;
     }
 
-    // CRITICAL FIX: Replace the replaceAllTransactions method in DatabaseDAO.java
-// The issue is that getCurrentBalance() opens a NEW connection which can't see
-// uncommitted changes in the transaction. We need to calculate balance using
-// the SAME connection.
-
-public boolean replaceAllTransactions(List<TransactionData.Transaction> transactions) {
-    if (currentUserId == null) return false;
-    
-    try (Connection conn = getConnection()) {
-        conn.setAutoCommit(false);
+    /**
+     * Key of the row at a position in the (date DESC, id DESC) order, or null past the end
+     * Used to start a keyset walk when the table jumps to a page whose predecessor was
+     * never loaded. Only index entries are read (the index covers every selected column),
+     * but OFFSET still steps over position of them, so this is O(position), not a seek;
+     * PagedTransactionTableModel only issues it for the page the user stopped on.
+     */
+    public TransactionData.PageKey getTransactionKeyAt(String type, int position) {
+        if (currentUserId == null) return null;
         
-        try (PreparedStatement deleteStmt = conn.prepareStatement("DELETE FROM transactions WHERE user_id = ?");
-             PreparedStatement insertStmt = conn.prepareStatement(
-                 "INSERT INTO transactions (user_id, transaction_type, transaction_date, category, amount, comment) VALUES (?, ?, ?, ?, ?, ?)")) {
-
-            // Delete all existing transactions
-            deleteStmt.setInt(1, currentUserId);
-            deleteStmt.executeUpdate();
-
-            // Insert all transactions from snapshot
-            for (TransactionData.Transaction t : transactions) {
-                insertStmt.setInt(1, currentUserId);
-                insertStmt.setString(2, t.type);
-                insertStmt.setString(3, t.date);
-                insertStmt.setString(4, t.category);
-                insertStmt.setDouble(5, t.amount);
-                insertStmt.setString(6, t.comment);
-                insertStmt.addBatch();
-            }
-
-            insertStmt.executeBatch();
-            
-            // CRITICAL FIX: Calculate balance using the SAME connection
-            // so we can see the uncommitted changes
-            double startingBalance = 0.0;
-            String balanceSql = "SELECT starting_balance FROM user_balance WHERE user_id = ?";
-            try (PreparedStatement balanceStmt = conn.prepareStatement(balanceSql)) {
-                balanceStmt.setInt(1, currentUserId);
-                try (ResultSet balanceRs = balanceStmt.executeQuery()) {
-                    if (balanceRs.next()) {
-                        startingBalance = balanceRs.getDouble("starting_balance");
-                    }
-                }
-            }
-            
-            // Sum income using the same connection
-            double totalIncome = 0.0;
-            String incomeSql = "SELECT COALESCE(SUM(amount), 0) AS total_income FROM transactions WHERE user_id = ? AND transaction_type = 'Income'";
-            try (PreparedStatement incomeStmt = conn.prepareStatement(incomeSql)) {
-                incomeStmt.setInt(1, currentUserId);
-                try (ResultSet incomeRs = incomeStmt.executeQuery()) {
-                    if (incomeRs.next()) {
-                        totalIncome = incomeRs.getDouble("total_income");
-                    }
-                }
-            }
-            
-            // Sum expenses using the same connection
-            double totalExpenses = 0.0;
-            String expenseSql = "SELECT COALESCE(SUM(amount), 0) AS total_expenses FROM transactions WHERE user_id = ? AND transaction_type = 'Expenses'";
-            try (PreparedStatement expenseStmt = conn.prepareStatement(expenseSql)) {
-                expenseStmt.setInt(1, currentUserId);
-                try (ResultSet expenseRs = expenseStmt.executeQuery()) {
-                    if (expenseRs.next()) {
-                        totalExpenses = expenseRs.getDouble("total_expenses");
-                    }
+        String sql = "SELECT transaction_date, transaction_id FROM transactions "
+            + "WHERE user_id = ? AND transaction_type = ? "
+            + "ORDER BY transaction_date DESC, transaction_id DESC LIMIT 1 OFFSET ?";
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, currentUserId);
+            pstmt.setString(2, type);
+            pstmt.setInt(3, position);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return new TransactionData.PageKey(rs.getString(1), rs.getInt(2));
                 }
             }
-            
-            // Calculate current balance
-            double computedBalance = startingBalance + totalIncome - totalExpenses;
-            
-            // Update current_balance using the same connection
-            String updateBalanceSql = "UPDATE user_balance SET current_balance = ? WHERE user_id = ?";
-            try (PreparedStatement updateStmt = conn.prepareStatement(updateBalanceSql)) {
-                updateStmt.setDouble(1, computedBalance);
-                updateStmt.setInt(2, currentUserId);
-                updateStmt.executeUpdate();
-            }
-            
-            System.out.println("✓ replaceAllTransactions(): Updated current_balance to ₱" + 
-                String.format("%,.2f", computedBalance) + " within transaction");
-            
-            // Commit all changes together
-            conn.commit();
-            
-            System.out.println("✓ replaceAllTransactions(): Transaction committed successfully");
-            return true;
-            
         } catch (SQLException e) {
-            conn.rollback();
-            System.err.println("✗ replaceAllTransactions(): Rolled back due to error");
             e.printStackTrace();
-            return false;
-        } finally {
-            conn.setAutoCommit(true);
         }
-    } catch (SQLException e) {
-        e.printStackTrace();
-        return false;
+        return null;
     }
-}
-
-    // ==================== CATEGORY OPERATIONS ====================
 
-    public Set<String> getCategories(String type) {
-        if (currentUserId == null) return new HashSet<>();
+    public List<TransactionData.Transaction> getAllTransactions() {
+        if (currentUserId == null) return new ArrayList<>();
         
-        String sql = "SELECT category_name FROM categories WHERE user_id = ? AND category_type = ?";
-        Set<String> categories = new HashSet<>();
+        String sql = "SELECT * FROM transactions WHERE user_id = ? ORDER BY transaction_date DESC";
+        List<TransactionData.Transaction> transactions = new ArrayList<>();
 
         try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, currentUserId);
-            pstmt.setString(2, type);
 
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    categories.add(rs.getString("category_name"));
+                    transactions.add(new TransactionData.Transaction(
+                        rs.getInt("transaction_id"),
+                        rs.getString("transaction_type"),
+                        rs.getString("transaction_date"),
+                        rs.getString("category"),
+                        rs.getDouble("amount"),
+                        rs.getString("comment")
+                    ));
                 }
             }
         } catch (SQLException e) {
             e.printStackTrace();
         }
-        return categories;
+        return transactions;
     }
 
-    public boolean addCustomCategory(String type, String categoryName) {
-        if (currentUserId == null) return false;
+    /**
+     * Stream the user's history into columnar form, newest first
+     * Comments are left out here and fetched on demand by {@link #getTransactionComments()}
+     */
+    public void loadTransactionColumns(TransactionColumns.Builder builder) {
+        if (currentUserId == null) return;
         
-        String sql = "INSERT INTO categories (user_id, category_type, category_name, is_default) VALUES (?, ?, ?, FALSE)";
+        String sql = """
+            SELECT transaction_id, transaction_type, transaction_date, category, amount
+            FROM transactions
+            WHERE user_id = ?
+            ORDER BY transaction_date DESC, transaction_id DESC
+        """;
+
         try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, currentUserId);
-            pstmt.setString(2, type);
-            pstmt.setString(3, categoryName);
+            pstmt.setFetchSize(1000);
 
-            return pstmt.executeUpdate() > 0;
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    builder.add(
+                        rs.getInt("transaction_id"),
+                        (int) rs.getDate("transaction_date").toLocalDate().toEpochDay(),
+                        TransactionColumns.typeCode(rs.getString("transaction_type")),
+                        rs.getString("category"),
+                        TransactionColumns.toCents(rs.getBigDecimal("amount"))
+                    );
+                }
+            }
         } catch (SQLException e) {
             e.printStackTrace();
-            return false;
         }
     }
 
-    // ==================== BUDGET OPERATIONS ====================
+    /**
+     * Receives exported rows one at a time
+     */
+    @FunctionalInterface
+    public interface TransactionRowVisitor {
+        void visit(int id, String type, String date, String category, long amountCents, String comment) throws IOException;
+    }
 
-    public boolean saveBudgetGoal(BudgetData.BudgetGoal goal) {
+    /**
+     * Stream the user's full history to visitor, newest first, without materializing it
+     *
+     * Uses a forward-only, read-only statement with fetch size Integer.MIN_VALUE, which
+     * makes MySQL Connector/J stream rows off the socket one by one instead of buffering
+     * the whole result set, so memory stays constant however large the account is.
+     * The connection is held until the last row has been visited.
+     *
+     * @return false if no user is logged in or the query failed
+     */
+    public boolean streamTransactions(TransactionRowVisitor visitor) throws IOException {
         if (currentUserId == null) return false;
-        
-        String sql = "INSERT INTO budgets (user_id, category, month, goal_amount) VALUES (?, ?, ?, ?) " +
-                     "ON DUPLICATE KEY UPDATE goal_amount = ?";
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+        String sql = """
+            SELECT transaction_id, transaction_type, transaction_date, category, amount, comment
+            FROM transactions
+            WHERE user_id = ?
+            ORDER BY transaction_date DESC, transaction_id DESC
+        """;
+
+        try (Connection conn = getLongRunningConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
 
             pstmt.setInt(1, currentUserId);
-            pstmt.setString(2, goal.category);
-            pstmt.setString(3, goal.month);
-            pstmt.setDouble(4, goal.goal);
-            pstmt.setDouble(5, goal.goal);
+            pstmt.setFetchSize(Integer.MIN_VALUE);
 
-            return pstmt.executeUpdate() > 0;
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    visitor.visit(
+                        rs.getInt(1),
+                        rs.getString(2),
+                        rs.getString(3),
+                        rs.getString(4),
+                        TransactionColumns.toCents(rs.getBigDecimal(5)),
+                        rs.getString(6)
+                    );
+                }
+            }
+            return true;
         } catch (SQLException e) {
             e.printStackTrace();
             return false;
         }
     }
 
-    public boolean saveBudgetGoals(List<BudgetData.BudgetGoal> goals) {
-        if (currentUserId == null || goals.isEmpty()) return false;
+    /**
+     * Comments of all the user's transactions, keyed by transaction_id (null comments omitted)
+     */
+    public Map<Integer, String> getTransactionComments() {
+        Map<Integer, String> comments = new HashMap<>();
+        if (currentUserId == null) return comments;
+        
+        String sql = "SELECT transaction_id, comment FROM transactions WHERE user_id = ? AND comment IS NOT NULL";
+
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, currentUserId);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    comments.put(rs.getInt("transaction_id"), rs.getString("comment"));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return comments;
+    }
+
+    // ==================== BULK IMPORT ====================
+
+    /** Rows per multi-row INSERT statement (7 parameters each) */
+    private static final int BULK_ROWS_PER_STATEMENT = 1000;
+
+    /**
+     * Insert a chunk of new transactions in one database transaction.
+     *
+     * <p>Rows go out as multi-row {@code INSERT ... VALUES (...),(...)} statements of up to
+     * {@value #BULK_ROWS_PER_STATEMENT} rows, so a chunk costs one connection and a handful
+     * of statements regardless of the driver's rewriteBatchedStatements setting.
+     * current_balance moves once by the chunk's net signed amount in the same commit.
+     * Rows with id 0 get generated ids, which are not read back: callers reload the store.
+     *
+     * @return the chunk's net signed amount, or null if nothing was written
+     */
+    public BigDecimal bulkInsertTransactions(List<TransactionData.Transaction> chunk) {
+        Integer userId = currentUserId;
+        if (userId == null) return null;
+        if (chunk.isEmpty()) return BigDecimal.ZERO;
+
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+
+            try {
+                BigDecimal balanceDelta = insertRows(conn, userId, chunk);
+                applyBalanceDelta(conn, userId, balanceDelta);
+                conn.commit();
+                return balanceDelta;
+            } catch (SQLException e) {
+                conn.rollback();
+                System.err.println("✗ bulkInsertTransactions(): Rolled back chunk of " + chunk.size() + " rows");
+                e.printStackTrace();
+                return null;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Insert rows with multi-row statements on conn, without committing
+     * A row with a transaction id keeps it; id 0 inserts NULL so the database generates one.
+     *
+     * @return the rows' net signed amount
+     */
+    private static BigDecimal insertRows(Connection conn, int userId, List<TransactionData.Transaction> rows) throws SQLException {
+        BigDecimal net = BigDecimal.ZERO;
+        int fullStatements = rows.size() / BULK_ROWS_PER_STATEMENT;
+        int remainder = rows.size() % BULK_ROWS_PER_STATEMENT;
+
+        if (fullStatements > 0) {
+            try (PreparedStatement pstmt = conn.prepareStatement(multiRowInsertSql(BULK_ROWS_PER_STATEMENT))) {
+                for (int s = 0; s < fullStatements; s++) {
+                    net = net.add(bindRows(pstmt, userId, rows, s * BULK_ROWS_PER_STATEMENT, BULK_ROWS_PER_STATEMENT));
+                    pstmt.executeUpdate();
+                }
+            }
+        }
+        if (remainder > 0) {
+            try (PreparedStatement pstmt = conn.prepareStatement(multiRowInsertSql(remainder))) {
+                net = net.add(bindRows(pstmt, userId, rows, fullStatements * BULK_ROWS_PER_STATEMENT, remainder));
+                pstmt.executeUpdate();
+            }
+        }
+        return net;
+    }
+
+    private static String multiRowInsertSql(int rows) {
+        StringBuilder sql = new StringBuilder(96 + rows * 16)
+            .append("INSERT INTO transactions (transaction_id, user_id, transaction_type, transaction_date, category, amount, comment) VALUES ");
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) sql.append(',');
+            sql.append("(?,?,?,?,?,?,?)");
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Bind rows [from, from + count) and return their net signed amount
+     */
+    private static BigDecimal bindRows(PreparedStatement pstmt, int userId, List<TransactionData.Transaction> rows,
+                                       int from, int count) throws SQLException {
+        BigDecimal net = BigDecimal.ZERO;
+        int p = 1;
+        for (int i = from; i < from + count; i++) {
+            TransactionData.Transaction t = rows.get(i);
+            BigDecimal amount = toDecimal(t.amount);
+            if (t.id > 0) {
+                pstmt.setInt(p++, t.id);
+            } else {
+                pstmt.setNull(p++, Types.INTEGER);
+            }
+            pstmt.setInt(p++, userId);
+            pstmt.setString(p++, t.type);
+            pstmt.setString(p++, t.date);
+            pstmt.setString(p++, t.category);
+            pstmt.setBigDecimal(p++, amount);
+            pstmt.setString(p++, t.comment);
+            net = net.add(signedAmount(t.type, amount));
+        }
+        return net;
+    }
+
+    /**
+     * Clear (set to 0) the ids of rows whose transaction_id is already in the table,
+     * under any user, so inserting them cannot collide. Ids that survive are kept by
+     * insertRows. Modifies the given rows; RestoreSession passes its own copies.
+     */
+    private static void releaseTakenIds(Connection conn, List<TransactionData.Transaction> rows) throws SQLException {
+        List<TransactionData.Transaction> candidates = new ArrayList<>();
+        for (TransactionData.Transaction t : rows) {
+            if (t.id > 0) candidates.add(t);
+        }
+        for (int from = 0; from < candidates.size(); from += BULK_ROWS_PER_STATEMENT) {
+            int count = Math.min(BULK_ROWS_PER_STATEMENT, candidates.size() - from);
+            StringBuilder sql = new StringBuilder("SELECT transaction_id FROM transactions WHERE transaction_id IN (");
+            for (int i = 0; i < count; i++) {
+                sql.append(i > 0 ? ",?" : "?");
+            }
+            sql.append(')');
+            Set<Integer> taken = new HashSet<>();
+            try (PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+                for (int i = 0; i < count; i++) {
+                    pstmt.setInt(i + 1, candidates.get(from + i).id);
+                }
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        taken.add(rs.getInt(1));
+                    }
+                }
+            }
+            for (int i = from; i < from + count; i++) {
+                if (taken.contains(candidates.get(i).id)) {
+                    candidates.get(i).id = 0;
+                }
+            }
+        }
+    }
+
+    // ==================== AGGREGATE QUERIES ====================
+
+    /**
+     * Sum and count of transactions per (type, category) for a date range.
+     * The range predicate on transaction_date is served by idx_user_date,
+     * and only one row per type/category crosses the wire.
+     * Analytics use this while the TransactionStore has not loaded the user's history.
+     *
+     * @param fromDate first day included (YYYY-MM-DD)
+     * @param toDateExclusive first day excluded (YYYY-MM-DD)
+     */
+    public List<AnalyticsData.CategoryTotal> getCategoryTotals(String fromDate, String toDateExclusive) {
+        Integer userId = currentUserId;
+        if (userId == null) return new ArrayList<>();
+
+        String sql = """
+            SELECT transaction_type, category, SUM(amount) AS total, COUNT(*) AS cnt
+            FROM transactions
+            WHERE user_id = ? AND transaction_date >= ? AND transaction_date < ?
+            GROUP BY transaction_type, category
+        """;
+        List<AnalyticsData.CategoryTotal> totals = new ArrayList<>();
+
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, userId);
+            pstmt.setString(2, fromDate);
+            pstmt.setString(3, toDateExclusive);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    totals.add(new AnalyticsData.CategoryTotal(
+                        rs.getString("transaction_type"),
+                        rs.getString("category"),
+                        rs.getDouble("total"),
+                        rs.getInt("cnt")
+                    ));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return totals;
+    }
+
+    /**
+     * Distinct YYYY-MM months that have at least one transaction, ascending
+     */
+    public List<String> getMonthsWithTransactions() {
+        Integer userId = currentUserId;
+        if (userId == null) return new ArrayList<>();
+
+        String sql = """
+            SELECT DISTINCT DATE_FORMAT(transaction_date, '%Y-%m') AS month
+            FROM transactions
+            WHERE user_id = ?
+            ORDER BY month
+        """;
+        List<String> months = new ArrayList<>();
+
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, userId);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    months.add(rs.getString("month"));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return months;
+    }
+
+    // ==================== CATEGORY OPERATIONS ====================
+
+    public Set<String> getCategories(String type) {
+        if (currentUserId == null) return new HashSet<>();
+        
+        String sql = "SELECT category_name FROM categories WHERE user_id = ? AND category_type = ?";
+        Set<String> categories = new HashSet<>();
+
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, currentUserId);
+            pstmt.setString(2, type);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    categories.add(rs.getString("category_name"));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return categories;
+    }
+
+    public boolean addCustomCategory(String type, String categoryName) {
+        if (currentUserId == null) return false;
+        
+        String sql = "INSERT INTO categories (user_id, category_type, category_name, is_default) VALUES (?, ?, ?, FALSE)";
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, currentUserId);
+            pstmt.setString(2, type);
+            pstmt.setString(3, categoryName);
+
+            return pstmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    // ==================== BUDGET OPERATIONS ====================
+
+    public boolean saveBudgetGoal(BudgetData.BudgetGoal goal) {
+        if (currentUserId == null) return false;
         
         String sql = "INSERT INTO budgets (user_id, category, month, goal_amount) VALUES (?, ?, ?, ?) " +
                      "ON DUPLICATE KEY UPDATE goal_amount = ?";
         try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
-            for (BudgetData.BudgetGoal goal : goals) {
-                pstmt.setInt(1, currentUserId);
-                pstmt.setString(2, goal.category);
-                pstmt.setString(3, goal.month);
-                pstmt.setDouble(4, goal.goal);
-                pstmt.setDouble(5, goal.goal);
-                pstmt.addBatch();
-            }
+            pstmt.setInt(1, currentUserId);
+            pstmt.setString(2, goal.category);
+            pstmt.setString(3, goal.month);
+            pstmt.setDouble(4, goal.goal);
+            pstmt.setDouble(5, goal.goal);
 
-            pstmt.executeBatch();
-            return true;
+            return pstmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Upsert many budget goals in one database transaction, as multi-row
+     * INSERT ... ON DUPLICATE KEY UPDATE statements of up to
+     * {@value #BULK_ROWS_PER_STATEMENT} rows. A later goal for the same
+     * category and month wins, as with one-by-one saves.
+     */
+    public boolean saveBudgetGoals(List<BudgetData.BudgetGoal> goals) {
+        Integer userId = currentUserId;
+        if (userId == null || goals.isEmpty()) return false;
+        
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+
+            try {
+                upsertBudgetGoals(conn, userId, goals);
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                e.printStackTrace();
+                return false;
+            } finally {
+                conn.setAutoCommit(true);
+            }
         } catch (SQLException e) {
             e.printStackTrace();
             return false;
         }
     }
 
+    private static void upsertBudgetGoals(Connection conn, int userId, List<BudgetData.BudgetGoal> goals) throws SQLException {
+        for (int from = 0; from < goals.size(); from += BULK_ROWS_PER_STATEMENT) {
+            int rows = Math.min(BULK_ROWS_PER_STATEMENT, goals.size() - from);
+            StringBuilder sql = new StringBuilder("INSERT INTO budgets (user_id, category, month, goal_amount) VALUES ");
+            for (int i = 0; i < rows; i++) {
+                if (i > 0) sql.append(',');
+                sql.append("(?,?,?,?)");
+            }
+            sql.append(" ON DUPLICATE KEY UPDATE goal_amount = VALUES(goal_amount)");
+
+            try (PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+                int p = 1;
+                for (int i = from; i < from + rows; i++) {
+                    BudgetData.BudgetGoal goal = goals.get(i);
+                    pstmt.setInt(p++, userId);
+                    pstmt.setString(p++, goal.category);
+                    pstmt.setString(p++, goal.month);
+                    pstmt.setDouble(p++, goal.goal);
+                }
+                pstmt.executeUpdate();
+            }
+        }
+    }
+    
     public List<BudgetData.BudgetGoal> getAllBudgetGoals() {
         if (currentUserId == null) return new ArrayList<>();
         
@@ -595,6 +1222,32 @@ public boolean replaceAllTransactions(List<TransactionData.Transaction> transact
         return goals;
     }
 
+    /**
+     * Goals for one month as category -> amount (served by idx_user_month)
+     */
+    public Map<String, Double> getBudgetGoalsForMonth(String month) {
+        Map<String, Double> goals = new HashMap<>();
+        if (currentUserId == null) return goals;
+        
+        String sql = "SELECT category, goal_amount FROM budgets WHERE user_id = ? AND month = ?";
+
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, currentUserId);
+            pstmt.setString(2, month);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    goals.put(rs.getString("category"), rs.getDouble("goal_amount"));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return goals;
+    }
+
     public Double getBudgetGoal(String category, String month) {
         if (currentUserId == null) return null;
         
@@ -639,32 +1292,46 @@ public boolean replaceAllTransactions(List<TransactionData.Transaction> transact
         return null;
     }
 
+    /**
+     * Set the starting balance. current_balance moves by the same delta
+     * (new starting balance - old starting balance) in the same database transaction.
+     */
     public boolean setBalance(double balance) {
-        if (currentUserId == null) return false;
+        Integer userId = currentUserId;
+        if (userId == null) return false;
         
         try (Connection conn = getConnection()) {
             conn.setAutoCommit(false);
             
             try {
-                // STEP 1: Update the starting balance
-                String updateSql = "INSERT INTO user_balance (user_id, starting_balance, current_balance) VALUES (?, ?, 0.00) " +
-                                 "ON DUPLICATE KEY UPDATE starting_balance = ?";
+                BigDecimal newStarting = toDecimal(balance);
+
+                // MySQL applies SET assignments left to right, so current_balance
+                // is shifted using the OLD starting_balance before it is replaced
+                String updateSql = "UPDATE user_balance SET current_balance = current_balance + (? - starting_balance), " +
+                                   "starting_balance = ? WHERE user_id = ?";
+                int updated;
                 try (PreparedStatement pstmt = conn.prepareStatement(updateSql)) {
-                    pstmt.setInt(1, currentUserId);
-                    pstmt.setDouble(2, balance);
-                    pstmt.setDouble(3, balance);
-                    pstmt.executeUpdate();
+                    pstmt.setBigDecimal(1, newStarting);
+                    pstmt.setBigDecimal(2, newStarting);
+                    pstmt.setInt(3, userId);
+                    updated = pstmt.executeUpdate();
                 }
                 
-                // STEP 2: Recalculate and update current_balance
-                updateCurrentBalanceInDB(conn);
+                // No balance row yet: create it from the full history once
+                if (updated == 0) {
+                    String insertSql = "INSERT INTO user_balance (user_id, starting_balance, current_balance) VALUES (?, ?, ?)";
+                    try (PreparedStatement pstmt = conn.prepareStatement(insertSql)) {
+                        pstmt.setInt(1, userId);
+                        pstmt.setBigDecimal(2, newStarting);
+                        pstmt.setBigDecimal(3, newStarting.add(sumSignedTransactions(conn, userId)));
+                        pstmt.executeUpdate();
+                    }
+                }
                 
                 conn.commit();
                 
                 System.out.println("✓ setBalance(): Starting balance set to ₱" + String.format("%,.2f", balance));
-                Double newCurrent = getCurrentBalance();
-                System.out.println("✓ setBalance(): Current balance updated to ₱" + String.format("%,.2f", newCurrent));
-                
                 return true;
             } catch (SQLException e) {
                 conn.rollback();
@@ -680,175 +1347,423 @@ public boolean replaceAllTransactions(List<TransactionData.Transaction> transact
     }
 
     /**
-     * Computes and returns the logged-in user's real-time total balance.
+     * Returns the logged-in user's real-time total balance.
      * 
-     * <p>This method calculates the current balance by combining the user's starting balance
-     * with all recorded income and expense transactions from the database:
-     * <ol>
-     *   <li>Retrieves the user's starting balance from the user_balance table</li>
-     *   <li>Sums all Income transactions</li>
-     *   <li>Sums all Expenses transactions</li>
-     *   <li>Computes: current_balance = starting_balance + total_income - total_expenses</li>
-     * </ol>
+     * <p>current_balance is maintained incrementally: every transaction write applies
+     * its signed delta to user_balance in the same database transaction, so this is a
+     * single primary-key lookup instead of two SUM scans over the user's history.
+     * {@link #reconcileCurrentBalance()} verifies it against the full history.
      * 
-     * <p>This ensures the balance reflects real-time data from the database and stays
-     * synchronized with the UI display.
-     * 
-     * @return The computed current balance as a Double, or null if no user is logged in
-     *         or if any database query fails
+     * @return The current balance as a Double, or null if no user is logged in
+     *         or if the query fails
      */
     public Double getCurrentBalance() {
         if (currentUserId == null) return null;
         
-        Connection conn = null;
-        PreparedStatement balanceStmt = null;
-        PreparedStatement incomeStmt = null;
-        PreparedStatement expenseStmt = null;
-        ResultSet balanceRs = null;
-        ResultSet incomeRs = null;
-        ResultSet expenseRs = null;
-        
-        try {
-            conn = getConnection();
-            
-            // Get starting balance
-            String balanceSql = "SELECT starting_balance FROM user_balance WHERE user_id = ?";
-            balanceStmt = conn.prepareStatement(balanceSql);
-            balanceStmt.setInt(1, currentUserId);
-            balanceRs = balanceStmt.executeQuery();
-            
-            double startingBalance = 0.0;
-            if (balanceRs.next()) {
-                startingBalance = balanceRs.getDouble("starting_balance");
-            }
-            
-            // Sum all income transactions
-            String incomeSql = "SELECT COALESCE(SUM(amount), 0) AS total_income FROM transactions WHERE user_id = ? AND transaction_type = 'Income'";
-            incomeStmt = conn.prepareStatement(incomeSql);
-            incomeStmt.setInt(1, currentUserId);
-            incomeRs = incomeStmt.executeQuery();
-            
-            double totalIncome = 0.0;
-            if (incomeRs.next()) {
-                totalIncome = incomeRs.getDouble("total_income");
-            }
-            
-            // Sum all expense transactions
-            String expenseSql = "SELECT COALESCE(SUM(amount), 0) AS total_expenses FROM transactions WHERE user_id = ? AND transaction_type = 'Expenses'";
-            expenseStmt = conn.prepareStatement(expenseSql);
-            expenseStmt.setInt(1, currentUserId);
-            expenseRs = expenseStmt.executeQuery();
-            
-            double totalExpenses = 0.0;
-            if (expenseRs.next()) {
-                totalExpenses = expenseRs.getDouble("total_expenses");
+        String sql = "SELECT current_balance FROM user_balance WHERE user_id = ?";
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, currentUserId);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getDouble("current_balance");
+                }
             }
-            
-            // Calculate and return current balance
-            return startingBalance + totalIncome - totalExpenses;
-            
+            return 0.0;
         } catch (SQLException e) {
             e.printStackTrace();
             return null;
-        } finally {
-            // Close all resources in reverse order of creation
-            try {
-                if (expenseRs != null) expenseRs.close();
-            } catch (SQLException e) {
-                e.printStackTrace();
-            }
-            try {
-                if (incomeRs != null) incomeRs.close();
-            } catch (SQLException e) {
-                e.printStackTrace();
-            }
-            try {
-                if (balanceRs != null) balanceRs.close();
-            } catch (SQLException e) {
-                e.printStackTrace();
-            }
+        }
+    }
+
+    /**
+     * Full reconciliation of current_balance against the transaction history.
+     * 
+     * <p>Recomputes starting_balance + income - expenses with the balance row locked,
+     * and repairs current_balance if it has drifted.
+     * 
+     * @return the drift that was corrected (stored - computed), zero if consistent,
+     *         or null if no user is logged in or the reconciliation failed
+     */
+    public BigDecimal reconcileCurrentBalance() {
+        // Read once: a logout or login on another thread must not switch users mid-repair
+        Integer userId = currentUserId;
+        if (userId == null) return null;
+
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+
             try {
-                if (expenseStmt != null) expenseStmt.close();
+                BigDecimal starting = BigDecimal.ZERO;
+                BigDecimal stored = null;
+                String lockSql = "SELECT starting_balance, current_balance FROM user_balance WHERE user_id = ? FOR UPDATE";
+                try (PreparedStatement pstmt = conn.prepareStatement(lockSql)) {
+                    pstmt.setInt(1, userId);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        if (rs.next()) {
+                            starting = rs.getBigDecimal("starting_balance");
+                            stored = rs.getBigDecimal("current_balance");
+                        }
+                    }
+                }
+
+                if (stored == null) {
+                    conn.rollback();
+                    return BigDecimal.ZERO;
+                }
+
+                BigDecimal computed = starting.add(sumSignedTransactions(conn, userId));
+                BigDecimal drift = stored.subtract(computed);
+
+                if (drift.signum() != 0) {
+                    String repairSql = "UPDATE user_balance SET current_balance = ? WHERE user_id = ?";
+                    try (PreparedStatement pstmt = conn.prepareStatement(repairSql)) {
+                        pstmt.setBigDecimal(1, computed);
+                        pstmt.setInt(2, userId);
+                        pstmt.executeUpdate();
+                    }
+                    System.err.println("⚠ reconcileCurrentBalance(): Repaired drift of ₱" +
+                        String.format("%,.2f", drift) + " for user " + userId);
+                }
+
+                conn.commit();
+                return drift;
             } catch (SQLException e) {
+                conn.rollback();
                 e.printStackTrace();
+                return null;
+            } finally {
+                conn.setAutoCommit(true);
             }
-            try {
-                if (incomeStmt != null) incomeStmt.close();
-            } catch (SQLException e) {
-                e.printStackTrace();
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Start the periodic balance reconciliation job for whichever user is logged in.
+     * Calling it again has no effect.
+     */
+    public synchronized void startBalanceReconciliation(long periodMinutes) {
+        if (reconciliationJob != null) return;
+
+        reconciliationJob = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "kwartrack-balance-reconciliation");
+            t.setDaemon(true);
+            return t;
+        });
+        reconciliationJob.scheduleWithFixedDelay(() -> {
+            if (currentUserId != null) {
+                reconcileCurrentBalance();
             }
-            try {
-                if (balanceStmt != null) balanceStmt.close();
-            } catch (SQLException e) {
-                e.printStackTrace();
+        }, periodMinutes, periodMinutes, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Net effect of all transactions (income - expenses) in one scan,
+     * using the caller's connection so uncommitted changes are visible.
+     */
+    private BigDecimal sumSignedTransactions(Connection conn, int userId) throws SQLException {
+        String sql = "SELECT COALESCE(SUM(CASE WHEN transaction_type = 'Income' THEN amount ELSE -amount END), 0) " +
+                     "AS net FROM transactions WHERE user_id = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, userId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getBigDecimal("net") : BigDecimal.ZERO;
             }
-            try {
-                if (conn != null) conn.close();
-            } catch (SQLException e) {
-                e.printStackTrace();
+        }
+    }
+
+    /**
+     * Shift current_balance by a signed delta on the caller's connection.
+     * Used inside the same database transaction as the write it accounts for.
+     *
+     * @throws SQLException unless exactly one balance row was updated, so that a
+     *         missing user_balance row fails the write instead of leaving
+     *         current_balance wrong until the next reconciliation
+     */
+    private void applyBalanceDelta(Connection conn, int userId, BigDecimal delta) throws SQLException {
+        if (delta.signum() == 0) return;
+
+        String sql = "UPDATE user_balance SET current_balance = current_balance + ? WHERE user_id = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setBigDecimal(1, delta);
+            pstmt.setInt(2, userId);
+            int updated = pstmt.executeUpdate();
+            if (updated != 1) {
+                throw new SQLException("Expected one user_balance row for user " + userId + ", updated " + updated);
             }
         }
     }
 
+    private static BigDecimal toDecimal(double amount) {
+        return TransactionColumns.toDecimal(amount);
+    }
+
+    private static BigDecimal signedAmount(String type, BigDecimal amount) {
+        return "Income".equals(type) ? amount : amount.negate();
+    }
+
+    // ==================== CHANGE JOURNAL ====================
+
     /**
-     * Updates the current_balance field in the user_balance table to reflect
-     * the real-time computed balance.
-     * 
-     * <p>This method should be called after any transaction operation (create, update, delete)
-     * to ensure the database stores the current balance for quick retrieval and transparency.
-     * 
-     * @return true if the update was successful, false otherwise
+     * Receives the net changes since a watermark: rows that still exist are visited with
+     * their current values, rows that no longer exist as deletions
      */
-    private boolean updateCurrentBalanceInDB() {
+    public interface ChangeVisitor {
+        void transaction(int id, String type, String date, String category, long amountCents, String comment) throws IOException;
+
+        void transactionDeleted(int id) throws IOException;
+
+        void budget(String category, String month, long goalCents) throws IOException;
+
+        void budgetDeleted(String category, String month) throws IOException;
+    }
+
+    /**
+     * The change_seq the last backup covers, or null if no backup has been taken
+     */
+    public Long getBackupWatermark() {
+        if (currentUserId == null) return null;
+
         try (Connection conn = getConnection()) {
-            return updateCurrentBalanceInDB(conn);
+            Long watermark = readWatermark(conn, false);
+            return watermark != null && watermark >= 0 ? watermark : null;
         } catch (SQLException e) {
             e.printStackTrace();
-            return false;
+            return null;
         }
     }
 
     /**
-     * Updates the current_balance field using an existing connection.
-     * Used within transactions to maintain consistency.
-     * 
-     * @param conn The database connection to use
-     * @return true if the update was successful, false otherwise
+     * Whether every journal trigger is installed and current
+     * Without them writes are not journaled and an increment would silently miss changes.
      */
-    private boolean updateCurrentBalanceInDB(Connection conn) {
-        if (currentUserId == null) {
-            System.err.println("✗ updateCurrentBalanceInDB(): No user logged in");
+    public boolean isChangeJournalInstalled() {
+        try (Connection conn = getConnection()) {
+            Map<String, String> installed = readJournalTriggers(conn);
+            for (String[] trigger : JOURNAL_TRIGGERS) {
+                String current = installed.get(trigger[0]);
+                if (current == null || !current.contains("backup_watermarks")) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (SQLException e) {
+            e.printStackTrace();
             return false;
         }
-        
-        Double computedBalance = getCurrentBalance();
-        if (computedBalance == null) {
-            System.err.println("✗ updateCurrentBalanceInDB(): Could not compute balance");
-            return false;
+    }
+
+    /**
+     * Highest change_seq committed for the user, as the cut point of a full backup
+     *
+     * First turns journaling on for the user (a watermark row of -1 until the backup
+     * completes). That insert waits for writers that already checked for the row, so
+     * every write not journaled has committed before the backup reads anything.
+     * The share-mode read then waits for writers whose journal rows are still
+     * uncommitted, so every change at or below the returned value is visible to a read
+     * started after it. Changes committed later get a higher change_seq and go to the
+     * next increment.
+     *
+     * @return the change_seq, or -1 on failure
+     */
+    public long getChangeSeq() {
+        if (currentUserId == null) return -1;
+
+        try (Connection conn = getConnection()) {
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "INSERT IGNORE INTO backup_watermarks (user_id, last_change_seq) VALUES (?, -1)")) {
+                pstmt.setInt(1, currentUserId);
+                pstmt.executeUpdate();
+            }
+
+            conn.setAutoCommit(false);
+            try {
+                long seq = lockLatestChangeSeq(conn, 0);
+                conn.commit();
+                return seq;
+            } catch (SQLException e) {
+                conn.rollback();
+                e.printStackTrace();
+                return -1;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return -1;
         }
-        
-        String sql = "UPDATE user_balance SET current_balance = ? WHERE user_id = ?";
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setDouble(1, computedBalance);
-            pstmt.setInt(2, currentUserId);
-            
-            int rowsUpdated = pstmt.executeUpdate();
-            
-            if (rowsUpdated > 0) {
-                System.out.println("✓ updateCurrentBalanceInDB(): Updated current_balance to ₱" + 
-                    String.format("%,.2f", computedBalance) + " for user " + currentUserId);
+    }
+
+    /**
+     * Record that a backup covers every change up to seq and drop those journal rows
+     */
+    public boolean setBackupWatermark(long seq) {
+        if (currentUserId == null) return false;
+
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement upsert = conn.prepareStatement(
+                     "INSERT INTO backup_watermarks (user_id, last_change_seq) VALUES (?, ?) " +
+                     "ON DUPLICATE KEY UPDATE last_change_seq = GREATEST(last_change_seq, VALUES(last_change_seq))");
+                 PreparedStatement prune = conn.prepareStatement(
+                     "DELETE FROM change_journal WHERE user_id = ? AND change_seq <= ?")) {
+
+                upsert.setInt(1, currentUserId);
+                upsert.setLong(2, seq);
+                upsert.executeUpdate();
+
+                prune.setInt(1, currentUserId);
+                prune.setLong(2, seq);
+                int pruned = prune.executeUpdate();
+
+                conn.commit();
+                System.out.println("✓ setBackupWatermark(): watermark " + seq + ", pruned " + pruned + " journal rows");
                 return true;
-            } else {
-                System.err.println("✗ updateCurrentBalanceInDB(): No rows updated for user " + currentUserId);
+            } catch (SQLException e) {
+                conn.rollback();
+                e.printStackTrace();
                 return false;
+            } finally {
+                conn.setAutoCommit(true);
             }
         } catch (SQLException e) {
-            System.err.println("✗ updateCurrentBalanceInDB(): SQL Exception");
             e.printStackTrace();
             return false;
         }
     }
 
+    /**
+     * Stream the net changes to transactions and budgets after afterSeq
+     *
+     * Runs in one database transaction: the journal range is read in share mode first,
+     * which waits for in-flight writers and holds off new ones until the export
+     * commits. Only then does the first plain read fix the REPEATABLE READ snapshot, so
+     * it includes every writer waited for and the rows read match the journal exactly. Several changes to one row
+     * collapse into its current state. Cost is proportional to the number of changes,
+     * not to the size of the history.
+     *
+     * @return the change_seq the visited changes run up to, or -1 on failure
+     */
+    public long streamChangesSince(long afterSeq, ChangeVisitor visitor) throws IOException {
+        if (currentUserId == null) return -1;
+
+        String transactionsSql = """
+            SELECT j.transaction_id, t.transaction_id, t.transaction_type, t.transaction_date,
+                   t.category, t.amount, t.comment
+            FROM (SELECT DISTINCT transaction_id FROM change_journal
+                  WHERE user_id = ? AND entity = 'transaction' AND change_seq > ? AND change_seq <= ?) j
+            LEFT JOIN transactions t ON t.transaction_id = j.transaction_id AND t.user_id = ?
+        """;
+        String budgetsSql = """
+            SELECT j.category, j.month, b.goal_amount
+            FROM (SELECT DISTINCT category, month FROM change_journal
+                  WHERE user_id = ? AND entity = 'budget' AND change_seq > ? AND change_seq <= ?) j
+            LEFT JOIN budgets b ON b.user_id = ? AND b.category = j.category AND b.month = j.month
+        """;
+
+        try (Connection conn = getLongRunningConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                long upToSeq = lockLatestChangeSeq(conn, afterSeq);
+
+                try (PreparedStatement pstmt = conn.prepareStatement(transactionsSql,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                    pstmt.setInt(1, currentUserId);
+                    pstmt.setLong(2, afterSeq);
+                    pstmt.setLong(3, upToSeq);
+                    pstmt.setInt(4, currentUserId);
+                    pstmt.setFetchSize(Integer.MIN_VALUE);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            int id = rs.getInt(1);
+                            rs.getInt(2);
+                            if (rs.wasNull()) {
+                                visitor.transactionDeleted(id);
+                            } else {
+                                visitor.transaction(id, rs.getString(3), rs.getString(4), rs.getString(5),
+                                    TransactionColumns.toCents(rs.getBigDecimal(6)), rs.getString(7));
+                            }
+                        }
+                    }
+                }
+
+                try (PreparedStatement pstmt = conn.prepareStatement(budgetsSql)) {
+                    pstmt.setInt(1, currentUserId);
+                    pstmt.setLong(2, afterSeq);
+                    pstmt.setLong(3, upToSeq);
+                    pstmt.setInt(4, currentUserId);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            BigDecimal goal = rs.getBigDecimal(3);
+                            if (goal == null) {
+                                visitor.budgetDeleted(rs.getString(1), rs.getString(2));
+                            } else {
+                                visitor.budget(rs.getString(1), rs.getString(2), TransactionColumns.toCents(goal));
+                            }
+                        }
+                    }
+                }
+
+                conn.commit();
+                return upToSeq;
+            } catch (SQLException e) {
+                conn.rollback();
+                e.printStackTrace();
+                return -1;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
+    private Long readWatermark(Connection conn, boolean shareMode) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT last_change_seq FROM backup_watermarks WHERE user_id = ?" + (shareMode ? " LOCK IN SHARE MODE" : ""))) {
+            pstmt.setInt(1, currentUserId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : null;
+            }
+        }
+    }
+
+    /**
+     * Highest change_seq after afterSeq, never below the watermark or afterSeq, since
+     * pruned journal rows no longer show up in MAX
+     *
+     * Both reads are locking reads, which see the latest committed rows and do not
+     * start the transaction's snapshot; it must be the first statement of the
+     * transaction so the snapshot only starts after the wait.
+     */
+    private long lockLatestChangeSeq(Connection conn, long afterSeq) throws SQLException {
+        long latest = afterSeq;
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT MAX(change_seq) FROM change_journal WHERE user_id = ? AND change_seq > ? LOCK IN SHARE MODE")) {
+            pstmt.setInt(1, currentUserId);
+            pstmt.setLong(2, afterSeq);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    long max = rs.getLong(1);
+                    if (!rs.wasNull()) {
+                        latest = Math.max(latest, max);
+                    }
+                }
+            }
+        }
+        Long watermark = readWatermark(conn, true);
+        if (watermark != null) {
+            latest = Math.max(latest, watermark);
+        }
+        return latest;
+    }
+
     // ==================== DATA MANAGEMENT ====================
 
     public boolean resetUserData() {
@@ -857,15 +1772,9 @@ public boolean replaceAllTransactions(List<TransactionData.Transaction> transact
         try (Connection conn = getConnection()) {
             conn.setAutoCommit(false);
             
-            try (PreparedStatement deleteTransactions = conn.prepareStatement("DELETE FROM transactions WHERE user_id = ?");
-                 PreparedStatement deleteBudgets = conn.prepareStatement("DELETE FROM budgets WHERE user_id = ?");
-                 PreparedStatement updateBalance = conn.prepareStatement("UPDATE user_balance SET starting_balance = 0.00, current_balance = 0.00 WHERE user_id = ?")) {
+            try (PreparedStatement updateBalance = conn.prepareStatement("UPDATE user_balance SET starting_balance = 0.00, current_balance = 0.00 WHERE user_id = ?")) {
 
-                deleteTransactions.setInt(1, currentUserId);
-                deleteTransactions.executeUpdate();
-
-                deleteBudgets.setInt(1, currentUserId);
-                deleteBudgets.executeUpdate();
+                deleteUserRows(conn);
 
                 updateBalance.setInt(1, currentUserId);
                 updateBalance.executeUpdate();
@@ -884,4 +1793,323 @@ public boolean replaceAllTransactions(List<TransactionData.Transaction> transact
             return false;
         }
     }
+
+    private static void deleteUserRows(Connection conn) throws SQLException {
+        try (PreparedStatement deleteTransactions = conn.prepareStatement("DELETE FROM transactions WHERE user_id = ?");
+             PreparedStatement deleteBudgets = conn.prepareStatement("DELETE FROM budgets WHERE user_id = ?")) {
+
+            deleteTransactions.setInt(1, currentUserId);
+            deleteTransactions.executeUpdate();
+
+            deleteBudgets.setInt(1, currentUserId);
+            deleteBudgets.executeUpdate();
+        }
+    }
+
+    /**
+     * Start replacing all of the user's data (restore from a backup)
+     * The user's transactions and budgets are locked and read on a connection held by
+     * the returned session, which then receives the backup's rows and writes only the
+     * difference: rows are matched by transaction_id, changed rows are updated, new rows
+     * are inserted with their backed-up ids (a new id if another user's row has it), and
+     * commit() deletes whatever the backup did not contain. Restoring a backup taken one
+     * edit ago therefore costs one write, not a rewrite of the whole history. Nothing is
+     * visible to other connections until commit(); closing the session without
+     * committing rolls back to the data as it was. The session keeps the user id it was
+     * started for, so logging out or switching users mid-restore cannot redirect its writes.
+     *
+     * @return the session, or null on failure
+     */
+    public RestoreSession beginRestore() {
+        Integer userId = currentUserId;
+        if (userId == null) return null;
+
+        Connection conn = null;
+        try {
+            conn = getLongRunningConnection();
+            conn.setAutoCommit(false);
+            return new RestoreSession(conn, userId, lockAllTransactions(conn, userId), lockAllBudgets(conn, userId));
+        } catch (SQLException e) {
+            e.printStackTrace();
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                    conn.setAutoCommit(true);
+                    conn.close();
+                } catch (SQLException ignored) {
+                    // the pool discards broken connections
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * One database transaction that replaces the user's data, see beginRestore()
+     * Methods return false on failure; the caller should then close without committing.
+     */
+    public static final class RestoreSession implements AutoCloseable {
+        private final Connection conn;
+        private final int userId;
+        private final long startTime = System.nanoTime();
+        /** Current rows not yet matched by a backup row; deleted on commit */
+        private final Map<Integer, TransactionData.Transaction> unmatched;
+        private final int currentCount;
+        /** Current budget goals by category + '|' + month not yet in the backup */
+        private final Map<String, BigDecimal> unmatchedBudgets;
+        private final Set<Integer> seenIds = new HashSet<>();
+        private BigDecimal startingBalance = BigDecimal.ZERO;
+        private BigDecimal transactionsNet = BigDecimal.ZERO;
+        private long transactionCount = 0;
+        private long inserted = 0;
+        private long updated = 0;
+        private long renumbered = 0;
+        private boolean committed = false;
+
+        private RestoreSession(Connection conn, int userId, Map<Integer, TransactionData.Transaction> current,
+                               Map<String, BigDecimal> budgets) {
+            this.conn = conn;
+            this.userId = userId;
+            this.unmatched = current;
+            this.currentCount = current.size();
+            this.unmatchedBudgets = budgets;
+        }
+
+        public void setStartingBalance(double balance) {
+            startingBalance = toDecimal(balance);
+        }
+
+        /**
+         * Write the difference between the current rows and a chunk of backed-up rows
+         * The caller's objects are left untouched: ids that have to change (repeated in
+         * the backup, or taken by another user's row) are cleared on copies.
+         */
+        public boolean addTransactions(List<TransactionData.Transaction> rows) {
+            try {
+                List<TransactionData.Transaction> inserts = new ArrayList<>();
+                List<TransactionData.Transaction> updates = new ArrayList<>();
+                for (TransactionData.Transaction row : rows) {
+                    TransactionData.Transaction t = row.copy();
+                    if (t.id > 0 && !seenIds.add(t.id)) {
+                        t.id = 0; // repeated id in the backup: insert as a new row
+                    }
+                    TransactionData.Transaction existing = t.id > 0 ? unmatched.remove(t.id) : null;
+                    if (existing == null) {
+                        inserts.add(t);
+                    } else if (!sameTransaction(existing, t)) {
+                        updates.add(t);
+                    }
+                    transactionsNet = transactionsNet.add(signedAmount(t.type, toDecimal(t.amount)));
+                }
+
+                if (!updates.isEmpty()) {
+                    try (PreparedStatement pstmt = conn.prepareStatement(
+                            "UPDATE transactions SET transaction_type=?, transaction_date=?, category=?, amount=?, comment=? " +
+                            "WHERE transaction_id=? AND user_id=?")) {
+                        for (TransactionData.Transaction t : updates) {
+                            pstmt.setString(1, t.type);
+                            pstmt.setString(2, t.date);
+                            pstmt.setString(3, t.category);
+                            pstmt.setBigDecimal(4, toDecimal(t.amount));
+                            pstmt.setString(5, t.comment);
+                            pstmt.setInt(6, t.id);
+                            pstmt.setInt(7, userId);
+                            pstmt.addBatch();
+                        }
+                        pstmt.executeBatch();
+                    }
+                }
+                if (!inserts.isEmpty()) {
+                    long withIds = inserts.stream().filter(t -> t.id > 0).count();
+                    releaseTakenIds(conn, inserts);
+                    renumbered += withIds - inserts.stream().filter(t -> t.id > 0).count();
+                    insertRows(conn, userId, inserts);
+                }
+
+                inserted += inserts.size();
+                updated += updates.size();
+                transactionCount += rows.size();
+                return true;
+            } catch (SQLException e) {
+                System.err.println("✗ RestoreSession.addTransactions(): Failed after " + transactionCount + " rows");
+                e.printStackTrace();
+                return false;
+            }
+        }
+
+        public boolean addBudgetGoals(List<BudgetData.BudgetGoal> goals) {
+            try {
+                List<BudgetData.BudgetGoal> changed = new ArrayList<>();
+                for (BudgetData.BudgetGoal goal : goals) {
+                    BigDecimal existing = unmatchedBudgets.remove(goal.category + '|' + goal.month);
+                    if (existing == null || existing.compareTo(toDecimal(goal.goal)) != 0) {
+                        changed.add(goal);
+                    }
+                }
+                upsertBudgetGoals(conn, userId, changed);
+                return true;
+            } catch (SQLException e) {
+                e.printStackTrace();
+                return false;
+            }
+        }
+
+        /**
+         * Delete what the backup did not contain, set both balances from the restored
+         * data and commit everything at once
+         */
+        public boolean commit() {
+            try {
+                if (!unmatched.isEmpty()) {
+                    try (PreparedStatement pstmt = conn.prepareStatement(
+                            "DELETE FROM transactions WHERE transaction_id=? AND user_id=?")) {
+                        for (int transactionId : unmatched.keySet()) {
+                            pstmt.setInt(1, transactionId);
+                            pstmt.setInt(2, userId);
+                            pstmt.addBatch();
+                        }
+                        pstmt.executeBatch();
+                    }
+                }
+                if (!unmatchedBudgets.isEmpty()) {
+                    try (PreparedStatement pstmt = conn.prepareStatement(
+                            "DELETE FROM budgets WHERE user_id=? AND category=? AND month=?")) {
+                        for (String key : unmatchedBudgets.keySet()) {
+                            int split = key.lastIndexOf('|');
+                            pstmt.setInt(1, userId);
+                            pstmt.setString(2, key.substring(0, split));
+                            pstmt.setString(3, key.substring(split + 1));
+                            pstmt.addBatch();
+                        }
+                        pstmt.executeBatch();
+                    }
+                }
+
+                BigDecimal current = startingBalance.add(transactionsNet);
+                int balanceRows;
+                try (PreparedStatement pstmt = conn.prepareStatement(
+                        "UPDATE user_balance SET starting_balance = ?, current_balance = ? WHERE user_id = ?")) {
+                    pstmt.setBigDecimal(1, startingBalance);
+                    pstmt.setBigDecimal(2, current);
+                    pstmt.setInt(3, userId);
+                    balanceRows = pstmt.executeUpdate();
+                }
+                if (balanceRows == 0) {
+                    try (PreparedStatement pstmt = conn.prepareStatement(
+                            "INSERT INTO user_balance (user_id, starting_balance, current_balance) VALUES (?, ?, ?)")) {
+                        pstmt.setInt(1, userId);
+                        pstmt.setBigDecimal(2, startingBalance);
+                        pstmt.setBigDecimal(3, current);
+                        pstmt.executeUpdate();
+                    }
+                }
+                conn.commit();
+                committed = true;
+                System.out.println(String.format(
+                    "✓ RestoreSession.commit(): %,d transactions restored over %,d (+%d ~%d -%d%s) in %.1f ms",
+                    transactionCount, currentCount, inserted, updated, unmatched.size(),
+                    renumbered > 0 ? ", " + renumbered + " with new ids" : "",
+                    (System.nanoTime() - startTime) / 1_000_000.0));
+                return true;
+            } catch (SQLException e) {
+                e.printStackTrace();
+                return false;
+            }
+        }
+
+        public long getTransactionCount() {
+            return transactionCount;
+        }
+
+        /**
+         * Rows written so far (inserts + updates, plus deletes once committed)
+         */
+        public long getWriteCount() {
+            return inserted + updated + (committed ? unmatched.size() : 0);
+        }
+
+        @Override
+        public void close() {
+            try {
+                if (!committed) {
+                    conn.rollback();
+                    System.err.println("✗ RestoreSession: Rolled back, existing data kept");
+                }
+                conn.setAutoCommit(true);
+            } catch (SQLException e) {
+                e.printStackTrace();
+            } finally {
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /**
+     * Lock and read all of the user's transactions, keyed by id
+     */
+    private static Map<Integer, TransactionData.Transaction> lockAllTransactions(Connection conn, int userId) throws SQLException {
+        String sql = "SELECT * FROM transactions WHERE user_id = ? FOR UPDATE";
+        Map<Integer, TransactionData.Transaction> rows = new HashMap<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, userId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    TransactionData.Transaction t = new TransactionData.Transaction(
+                        rs.getInt("transaction_id"),
+                        rs.getString("transaction_type"),
+                        rs.getString("transaction_date"),
+                        rs.getString("category"),
+                        rs.getDouble("amount"),
+                        rs.getString("comment")
+                    );
+                    rows.put(t.id, t);
+                }
+            }
+        }
+        return rows;
+    }
+    
+    private static boolean sameTransaction(TransactionData.Transaction a, TransactionData.Transaction b) {
+        return Objects.equals(a.type, b.type)
+            && Objects.equals(a.date, b.date)
+            && Objects.equals(a.category, b.category)
+            && toDecimal(a.amount).compareTo(toDecimal(b.amount)) == 0
+            && Objects.equals(a.comment, b.comment);
+    }
+
+    /**
+     * Lock and read all of the user's budget goals, keyed by category + '|' + month
+     */
+    private static Map<String, BigDecimal> lockAllBudgets(Connection conn, int userId) throws SQLException {
+        String sql = "SELECT category, month, goal_amount FROM budgets WHERE user_id = ? FOR UPDATE";
+        Map<String, BigDecimal> goals = new HashMap<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, userId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    goals.put(rs.getString("category") + '|' + rs.getString("month"), rs.getBigDecimal("goal_amount"));
+                }
+            }
+        }
+        return goals;
+    }
+
+    /**
+     * Identity, type and stored DECIMAL amount of a row locked for update
+     */
+    private static class StoredAmount {
+        final int transactionId;
+        final String type;
+        final BigDecimal amount;
+
+        StoredAmount(int transactionId, String type, BigDecimal amount) {
+            this.transactionId = transactionId;
+            this.type = type;
+            this.amount = amount;
+        }
+    }
 }
\ No newline at end of file
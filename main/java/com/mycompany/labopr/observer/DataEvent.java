@@ -0,0 +1,147 @@
+package com.mycompany.labopr.observer;
+
+import java.util.*;
+
+/**
+ * Observer Pattern: Typed change notification published through PanelObserver
+ *
+ * Each event belongs to one or more topics; observers subscribe to the topics they
+ * display and only receive matching events. Events carry enough detail (affected
+ * months and types) for an observer to skip a refresh that cannot change its view.
+ */
+public abstract class DataEvent {
+
+    public enum Topic {
+        TRANSACTIONS,
+        BUDGETS,
+        BALANCE
+    }
+
+    private final long timestamp = System.currentTimeMillis();
+
+    /**
+     * Topics this event belongs to
+     */
+    public abstract Set<Topic> getTopics();
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * True if the event belongs to any of the given topics
+     */
+    public boolean matches(Set<Topic> topics) {
+        for (Topic topic : getTopics()) {
+            if (topics.contains(topic)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName();
+    }
+
+    // ==================== EVENT TYPES ====================
+
+    /**
+     * Transactions were added, edited or deleted
+     * Empty months/types mean "unknown": treat every month/type as affected.
+     * Transaction changes also move the current balance.
+     */
+    public static final class TransactionsChanged extends DataEvent {
+        public final Set<String> months; // YYYY-MM
+        public final Set<String> types;  // Income/Expenses
+
+        public TransactionsChanged(Collection<String> months, Collection<String> types) {
+            this.months = Collections.unmodifiableSet(new HashSet<>(months));
+            this.types = Collections.unmodifiableSet(new HashSet<>(types));
+        }
+
+        /**
+         * Change with unknown scope (bulk operations, undo/redo)
+         */
+        public TransactionsChanged() {
+            this(Collections.emptySet(), Collections.emptySet());
+        }
+
+        /**
+         * Change to transactions dated in the given YYYY-MM-DD dates
+         */
+        public static TransactionsChanged forDates(String type, String... dates) {
+            Set<String> months = new HashSet<>();
+            for (String date : dates) {
+                if (date != null && date.length() >= 7) {
+                    months.add(date.substring(0, 7));
+                }
+            }
+            return new TransactionsChanged(months, Collections.singleton(type));
+        }
+
+        public boolean affectsMonth(String month) {
+            return months.isEmpty() || months.contains(month);
+        }
+
+        public boolean affectsType(String type) {
+            return types.isEmpty() || types.contains(type);
+        }
+
+        @Override
+        public Set<Topic> getTopics() {
+            return EnumSet.of(Topic.TRANSACTIONS, Topic.BALANCE);
+        }
+
+        @Override
+        public String toString() {
+            return "TransactionsChanged[months=" + months + ", types=" + types + "]";
+        }
+    }
+
+    /**
+     * Budget goals were saved for a month
+     */
+    public static final class BudgetChanged extends DataEvent {
+        public final String month; // YYYY-MM, null if unknown
+
+        public BudgetChanged(String month) {
+            this.month = month;
+        }
+
+        public boolean affectsMonth(String candidate) {
+            return month == null || month.equals(candidate);
+        }
+
+        @Override
+        public Set<Topic> getTopics() {
+            return EnumSet.of(Topic.BUDGETS);
+        }
+
+        @Override
+        public String toString() {
+            return "BudgetChanged[month=" + month + "]";
+        }
+    }
+
+    /**
+     * The starting balance was edited
+     */
+    public static final class BalanceChanged extends DataEvent {
+        @Override
+        public Set<Topic> getTopics() {
+            return EnumSet.of(Topic.BALANCE);
+        }
+    }
+
+    /**
+     * Anything may have changed (import, reset, legacy notifyObservers())
+     */
+    public static final class AllChanged extends DataEvent {
+        @Override
+        public Set<Topic> getTopics() {
+            return EnumSet.of(Topic.TRANSACTIONS, Topic.BUDGETS, Topic.BALANCE);
+        }
+    }
+}
@@ -1,7 +1,21 @@
 package com.mycompany.labopr.observer;
 
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.swing.SwingUtilities;
 
 /**
  * Observer Pattern: Centralized notification system for data changes
@@ -9,6 +23,16 @@ import java.util.concurrent.CopyOnWriteArraySet;
  * This singleton manages all observers (panels) and notifies them when data is updated.
  * Uses CopyOnWriteArraySet to handle concurrent modifications safely.
  * 
+ * Event bus: changes are published as typed {@link DataEvent}s. Events published within
+ * a short window are coalesced and delivered asynchronously on a single dispatcher
+ * thread, so each observer gets at most one onDataChanged() per window with only the
+ * events for its subscribed topics, in publish order.
+ * 
+ * Dirty flags: observers that are not showing are not refreshed. Only the topics they
+ * missed are kept (at most one entry per topic, however long the panel stays hidden)
+ * and delivered as one unknown-scope event per topic when the panel is shown again
+ * (panelShown()).
+ * 
  * Benefits:
  * - Automatic UI updates across all panels
  * - Loose coupling between data operations and UI components
@@ -17,12 +41,31 @@ import java.util.concurrent.CopyOnWriteArraySet;
 public class PanelObserver {
     
     private static PanelObserver instance;
+    private static final long COALESCE_WINDOW_MS = Long.getLong("kwartrack.events.coalesceMs", 50);
+    
     private final Set<Refreshable> observers;
+    private final ScheduledExecutorService dispatcher;
+    private final List<DataEvent> pendingEvents = new ArrayList<>();
+    private boolean flushScheduled = false; // guarded by pendingEvents
     private boolean verboseLogging = false;
     
+    private final AtomicLong eventsPublished = new AtomicLong();
+    private final AtomicLong refreshesDelivered = new AtomicLong();
+    private final AtomicLong refreshesDeferred = new AtomicLong();
+    private final AtomicLong catchUpRefreshes = new AtomicLong();
+    
+    // Hidden observers and the topics they missed; only mutated on the dispatcher thread
+    private final Map<Refreshable, Set<DataEvent.Topic>> dirtyObservers = new ConcurrentHashMap<>();
+    
     private PanelObserver() {
         // CopyOnWriteArraySet ensures thread safety during iteration
         this.observers = new CopyOnWriteArraySet<>();
+        // One dispatcher thread keeps delivery ordered
+        this.dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "kwartrack-events");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
     
     /**
@@ -65,6 +108,7 @@ public class PanelObserver {
         }
         
         boolean removed = observers.remove(observer);
+        dispatcher.execute(() -> dirtyObservers.remove(observer));
         
         if (verboseLogging && removed) {
             System.out.println("✓ Unregistered observer: " + observer.getClass().getSimpleName());
@@ -73,44 +117,230 @@ public class PanelObserver {
     }
     
     /**
-     * Notify all registered observers that data has changed
-     * This triggers refreshData() on all panels
+     * Publish a change event
+     * Returns immediately; delivery happens on the dispatcher thread after the
+     * coalescing window, together with any other events published meanwhile.
      * 
-     * Call this after any data modification:
-     * - Transaction added/edited/deleted
-     * - Budget goal updated
-     * - Settings changed
-     * - Balance updated
+     * Publish after any data modification:
+     * - Transaction added/edited/deleted (TransactionsChanged)
+     * - Budget goal updated (BudgetChanged)
+     * - Balance updated (BalanceChanged)
+     */
+    public void publish(DataEvent event) {
+        if (event == null) {
+            return;
+        }
+        eventsPublished.incrementAndGet();
+        
+        synchronized (pendingEvents) {
+            pendingEvents.add(event);
+            if (!flushScheduled) {
+                flushScheduled = true;
+                dispatcher.schedule(this::flush, COALESCE_WINDOW_MS, TimeUnit.MILLISECONDS);
+            }
+        }
+        
+        if (verboseLogging) {
+            System.out.println("→ Published " + event);
+        }
+    }
+    
+    /**
+     * Notify all registered observers that data has changed
+     * Kept for callers that do not know what changed; publishes {@link DataEvent.AllChanged}
      */
     public void notifyObservers() {
+        publish(new DataEvent.AllChanged());
+    }
+    
+    /**
+     * Deliver everything published during the window: one call per interested observer
+     */
+    private void flush() {
+        List<DataEvent> batch;
+        synchronized (pendingEvents) {
+            batch = new ArrayList<>(pendingEvents);
+            pendingEvents.clear();
+            flushScheduled = false;
+        }
+        
         if (verboseLogging) {
-            System.out.println("\n=== NOTIFYING ALL OBSERVERS ===");
-            System.out.println("Broadcasting update to " + observers.size() + " observer(s)");
+            System.out.println("\n=== DISPATCHING " + batch.size() + " EVENT(S) ===");
         }
         
         int successCount = 0;
+        int deferredCount = 0;
         int errorCount = 0;
         
+        Map<Refreshable, List<DataEvent>> interested = new LinkedHashMap<>();
         for (Refreshable observer : observers) {
-            try {
-                if (verboseLogging) {
-                    System.out.println("  → Refreshing: " + observer.getClass().getSimpleName());
+            List<DataEvent> matching = new ArrayList<>();
+            for (DataEvent event : batch) {
+                if (event.matches(observer.getSubscribedTopics())) {
+                    matching.add(event);
                 }
-                
-                observer.refreshData();
+            }
+            if (!matching.isEmpty()) {
+                interested.put(observer, matching);
+            }
+        }
+        Set<Refreshable> showing = showingObservers(interested.keySet());
+        
+        for (Map.Entry<Refreshable, List<DataEvent>> entry : interested.entrySet()) {
+            Refreshable observer = entry.getKey();
+            Set<DataEvent.Topic> topics = observer.getSubscribedTopics();
+            List<DataEvent> matching = entry.getValue();
+            
+            if (!showing.contains(observer)) {
+                // Hidden: mark dirty and refresh once when shown again
+                Set<DataEvent.Topic> missed = dirtyObservers.computeIfAbsent(observer,
+                    key -> EnumSet.noneOf(DataEvent.Topic.class));
+                for (DataEvent event : matching) {
+                    for (DataEvent.Topic topic : event.getTopics()) {
+                        if (topics.contains(topic)) {
+                            missed.add(topic);
+                        }
+                    }
+                }
+                refreshesDeferred.incrementAndGet();
+                deferredCount++;
+                continue;
+            }
+            Set<DataEvent.Topic> missed = dirtyObservers.remove(observer);
+            if (missed != null) {
+                // Shown again before panelShown() ran: its catch-up folds into this delivery
+                catchUpRefreshes.incrementAndGet();
+                List<DataEvent> events = catchUpEvents(missed);
+                events.addAll(matching);
+                matching = events;
+            }
+            
+            if (deliver(observer, matching)) {
                 successCount++;
-                
-            } catch (Exception e) {
+            } else {
                 errorCount++;
-                System.err.println("✗ Error refreshing observer: " + observer.getClass().getSimpleName());
-                e.printStackTrace();
             }
         }
         
         if (verboseLogging) {
-            System.out.println("✓ Notification complete: " + successCount + " refreshed, " + errorCount + " errors");
-            System.out.println("=== END OBSERVER NOTIFICATION ===\n");
+            System.out.println("✓ Dispatch complete: " + successCount + " notified, " + deferredCount
+                + " hidden, " + errorCount + " errors");
+            System.out.println("=== END EVENT DISPATCH ===\n");
+        }
+    }
+    
+    /**
+     * The observers that are on screen, read on the EDT
+     * isShowing() walks the Swing component hierarchy, which is only safe on the EDT,
+     * so all observers of a flush are asked in one hop. invokeAndWait cannot deadlock
+     * here: the EDT never waits for the dispatcher (publish, panelShown, unregister and
+     * clear only enqueue work for it).
+     */
+    private static Set<Refreshable> showingObservers(Collection<Refreshable> candidates) {
+        Set<Refreshable> showing = new HashSet<>();
+        if (candidates.isEmpty()) {
+            return showing;
+        }
+        Runnable check = () -> {
+            for (Refreshable observer : candidates) {
+                if (observer.isShowing()) {
+                    showing.add(observer);
+                }
+            }
+        };
+        if (SwingUtilities.isEventDispatchThread()) {
+            check.run();
+            return showing;
+        }
+        try {
+            SwingUtilities.invokeAndWait(check);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (InvocationTargetException e) {
+            System.err.println("✗ PanelObserver: visibility check failed: " + e.getCause());
+        }
+        return showing;
+    }
+    
+    /**
+     * Tell the bus an observer has just been put on screen
+     * If it missed events while hidden it gets them now in one delivery. Runs on the
+     * dispatcher thread after any flush already in progress, so an event is never lost
+     * between the visibility check and the panel being shown.
+     */
+    public void panelShown(Refreshable observer) {
+        if (observer == null) {
+            return;
         }
+        dispatcher.execute(() -> {
+            Set<DataEvent.Topic> missed = dirtyObservers.remove(observer);
+            if (missed == null || !observers.contains(observer)) {
+                return;
+            }
+            catchUpRefreshes.incrementAndGet();
+            if (verboseLogging) {
+                System.out.println("→ " + observer.getClass().getSimpleName() + " shown dirty, catching up on " + missed);
+            }
+            deliver(observer, catchUpEvents(missed));
+        });
+    }
+    
+    /**
+     * One unknown-scope event per missed topic: the details of what changed while
+     * hidden are not kept, so the observer must treat everything in the topic as changed
+     */
+    private static List<DataEvent> catchUpEvents(Set<DataEvent.Topic> missed) {
+        List<DataEvent> events = new ArrayList<>(missed.size());
+        for (DataEvent.Topic topic : missed) {
+            switch (topic) {
+                case TRANSACTIONS:
+                    events.add(new DataEvent.TransactionsChanged());
+                    break;
+                case BUDGETS:
+                    events.add(new DataEvent.BudgetChanged(null));
+                    break;
+                case BALANCE:
+                    events.add(new DataEvent.BalanceChanged());
+                    break;
+            }
+        }
+        return events;
+    }
+    
+    private boolean deliver(Refreshable observer, List<DataEvent> events) {
+        try {
+            if (verboseLogging) {
+                System.out.println("  → " + observer.getClass().getSimpleName() + ": " + events);
+            }
+            
+            observer.onDataChanged(events);
+            refreshesDelivered.incrementAndGet();
+            return true;
+            
+        } catch (Exception e) {
+            System.err.println("✗ Error refreshing observer: " + observer.getClass().getSimpleName());
+            e.printStackTrace();
+            return false;
+        }
+    }
+    
+    /**
+     * Total events published and observer deliveries made (deliveries <= events x observers)
+     */
+    public long getEventsPublished() {
+        return eventsPublished.get();
+    }
+    
+    public long getRefreshesDelivered() {
+        return refreshesDelivered.get();
+    }
+    
+    /**
+     * Refreshes skipped because the observer was hidden, minus the single
+     * catch-up refresh each dirty observer gets when shown again
+     */
+    public long getRefreshesAvoided() {
+        return refreshesDeferred.get() - catchUpRefreshes.get();
     }
     
     /**
@@ -126,6 +356,7 @@ public class PanelObserver {
     public void clearAllObservers() {
         int count = observers.size();
         observers.clear();
+        dispatcher.execute(dirtyObservers::clear);
         
         if (verboseLogging) {
             System.out.println("✓ Cleared all observers: " + count + " removed");
@@ -149,10 +380,15 @@ public class PanelObserver {
         StringBuilder sb = new StringBuilder();
         sb.append("PanelObserver Status:\n");
         sb.append("  Registered observers: ").append(observers.size()).append("\n");
+        sb.append("  Events published: ").append(eventsPublished.get()).append("\n");
+        sb.append("  Deliveries: ").append(refreshesDelivered.get()).append("\n");
+        sb.append("  Refreshes avoided (hidden): ").append(getRefreshesAvoided()).append("\n");
+        sb.append("  Dirty observers: ").append(dirtyObservers.size()).append("\n");
         sb.append("  Observers:\n");
         
         for (Refreshable observer : observers) {
-            sb.append("    - ").append(observer.getClass().getSimpleName()).append("\n");
+            sb.append("    - ").append(observer.getClass().getSimpleName())
+              .append(dirtyObservers.containsKey(observer) ? " (dirty)" : "").append("\n");
         }
         
         return sb.toString();
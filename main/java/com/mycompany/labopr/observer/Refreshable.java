@@ -1,5 +1,9 @@
 package com.mycompany.labopr.observer;
 
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
 /**
  * Observer Pattern: Interface for panels that need to refresh when data changes
  * 
@@ -12,4 +16,29 @@ public interface Refreshable {
      * Implementations should re-fetch data from DataFacade and update their UI components.
      */
     void refreshData();
+    
+    /**
+     * Topics this observer wants events for (default: all data topics)
+     */
+    default Set<DataEvent.Topic> getSubscribedTopics() {
+        return EnumSet.of(DataEvent.Topic.TRANSACTIONS, DataEvent.Topic.BUDGETS, DataEvent.Topic.BALANCE);
+    }
+    
+    /**
+     * Called once per coalescing window with the matching events, in publish order.
+     * Runs on the PanelObserver dispatcher thread, not the EDT.
+     * The default refreshes unconditionally; override to skip irrelevant changes.
+     */
+    default void onDataChanged(List<DataEvent> events) {
+        refreshData();
+    }
+    
+    /**
+     * Whether the observer is currently on screen.
+     * Hidden observers are marked dirty instead of refreshed and catch up once via
+     * PanelObserver.panelShown(). Swing components satisfy this with Component.isShowing().
+     */
+    default boolean isShowing() {
+        return true;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,105 @@
+package com.mycompany.labopr.ui.composite;
+
+import com.mycompany.labopr.ui.theme.UITheme;
+import javax.swing.*;
+import java.awt.*;
+import java.util.Objects;
+
+/**
+ * Composite Pattern: leaf component (ranked top-category card)
+ * Built once; setCategory() updates the labels in place and only touches
+ * the Swing tree when the category or amount actually changed.
+ */
+public class TopCategoryCardComponent implements UIComponent {
+    private static final Font RANK_FONT = new Font(UITheme.FONT_FAMILY, Font.BOLD, 16);
+    private static final Font CATEGORY_FONT = new Font(UITheme.FONT_FAMILY, Font.PLAIN, 14);
+    private static final Font AMOUNT_FONT = new Font(UITheme.FONT_FAMILY, Font.BOLD, 18);
+    
+    private final int rank;
+    private final Color accentColor;
+    private String category = "";
+    private double amount;
+    private JPanel panel;
+    private JLabel categoryLabel;
+    private JLabel amountLabel;
+    
+    public TopCategoryCardComponent(int rank, Color accentColor) {
+        this.rank = rank;
+        this.accentColor = accentColor;
+        buildPanel();
+    }
+    
+    private void buildPanel() {
+        panel = new JPanel();
+        panel.setLayout(new BoxLayout(panel, BoxLayout.Y_AXIS));
+        panel.setBackground(Color.WHITE);
+        panel.setBorder(BorderFactory.createCompoundBorder(
+            BorderFactory.createLineBorder(accentColor, 2),
+            BorderFactory.createEmptyBorder(12, 15, 12, 15)
+        ));
+        panel.setPreferredSize(new Dimension(220, 90));
+        
+        JLabel rankLabel = new JLabel("#" + rank);
+        rankLabel.setFont(RANK_FONT);
+        rankLabel.setForeground(accentColor);
+        rankLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+        
+        categoryLabel = new JLabel(category);
+        categoryLabel.setFont(CATEGORY_FONT);
+        categoryLabel.setForeground(Color.DARK_GRAY);
+        categoryLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+        
+        amountLabel = new JLabel(formatAmount());
+        amountLabel.setFont(AMOUNT_FONT);
+        amountLabel.setForeground(Color.BLACK);
+        amountLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+        
+        panel.add(rankLabel);
+        panel.add(Box.createVerticalStrut(5));
+        panel.add(categoryLabel);
+        panel.add(Box.createVerticalStrut(5));
+        panel.add(amountLabel);
+    }
+    
+    private String formatAmount() {
+        return "₱" + String.format("%,.2f", amount);
+    }
+    
+    @Override
+    public JPanel getPanel() {
+        return panel;
+    }
+    
+    @Override
+    public void update() {
+        categoryLabel.setText(category);
+        amountLabel.setText(formatAmount());
+    }
+    
+    /**
+     * Show a category and amount
+     * @return true if the card changed (false means nothing was repainted)
+     */
+    public boolean setCategory(String newCategory, double newAmount) {
+        if (Objects.equals(category, newCategory) && Double.compare(amount, newAmount) == 0) {
+            return false;
+        }
+        this.category = newCategory;
+        this.amount = newAmount;
+        update();
+        return true;
+    }
+    
+    public String getCategory() {
+        return category;
+    }
+    
+    public double getAmount() {
+        return amount;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("TopCategoryCard[rank=%d, category=%s, amount=%.2f]", rank, category, amount);
+    }
+}
@@ -1,11 +1,13 @@
 package com.mycompany.labopr.ui.dialogs;
 
+import com.mycompany.labopr.data.TransactionStore;
 import com.mycompany.labopr.database.DatabaseDAO;
 import com.mycompany.labopr.views.Landing;
 import com.mycompany.labopr.ui.builders.DialogBuilder;
 import com.mycompany.labopr.ui.factories.ButtonFactory;
 import com.mycompany.labopr.ui.factories.PanelFactory;
 import com.mycompany.labopr.ui.theme.UITheme;
+import com.mycompany.labopr.utils.AsyncLoader;
 import javax.swing.*;
 import java.awt.*;
 import java.security.MessageDigest;
@@ -61,10 +63,35 @@ public class AuthDialogs {
             
             if (userId != null) {
                 DatabaseDAO.setCurrentUserId(userId);
-                JOptionPane.showMessageDialog(dialog, "Login successful!", "Success", JOptionPane.INFORMATION_MESSAGE);
-                dialog.dispose();
-                parent.dispose();
-                new Landing().setVisible(true);
+                
+                // Reconciling the balance and loading the history can take seconds on
+                // a large account, so both run off the EDT behind a loading message
+                infoLabel.setText("Loading your data...");
+                loginBtn.setEnabled(false);
+                cancelBtn.setEnabled(false);
+                new AsyncLoader<Boolean>("Login", contentPanel).load(() -> {
+                    try {
+                        DatabaseDAO.getInstance().reconcileCurrentBalance();
+                        TransactionStore.getInstance().load();
+                        return true;
+                    } catch (RuntimeException ex) {
+                        ex.printStackTrace();
+                        return false;
+                    }
+                }, loaded -> {
+                    if (loaded) {
+                        JOptionPane.showMessageDialog(dialog, "Login successful!", "Success", JOptionPane.INFORMATION_MESSAGE);
+                        dialog.dispose();
+                        parent.dispose();
+                        new Landing().setVisible(true);
+                    } else {
+                        DatabaseDAO.clearSession();
+                        infoLabel.setText("Enter your credentials to login");
+                        loginBtn.setEnabled(true);
+                        cancelBtn.setEnabled(true);
+                        JOptionPane.showMessageDialog(dialog, "Could not load your data. Please try again.", "Error", JOptionPane.ERROR_MESSAGE);
+                    }
+                });
             } else {
                 JOptionPane.showMessageDialog(dialog, "Invalid username or password.", "Error", JOptionPane.ERROR_MESSAGE);
             }
@@ -1,5 +1,6 @@
 package com.mycompany.labopr.ui.dialogs;
 
+import com.mycompany.labopr.data.TransactionColumns;
 import com.mycompany.labopr.data.TransactionData;
 import com.mycompany.labopr.ui.builders.DialogBuilder;
 import com.mycompany.labopr.ui.factories.ButtonFactory;
@@ -21,10 +22,7 @@ public class EditTransactionDialog {
     
     private final JFrame parent;
     private final String transactionType;
-    private final String originalDate;
-    private final String originalCategory;
-    private final double originalAmount;
-    private final String originalComment;
+    private final TransactionData.Transaction original;
     private final ButtonFactory buttonFactory;
     private final PanelFactory panelFactory;
 
@@ -35,16 +33,11 @@ public class EditTransactionDialog {
     private boolean confirmed = false;
     private TransactionData.Transaction updatedTransaction;
 
-    public EditTransactionDialog(JFrame parent, String type, String originalDate,
-                                 String originalCategory, double originalAmount,
-                                 String originalComment, ButtonFactory buttonFactory,
-                                 PanelFactory panelFactory) {
+    public EditTransactionDialog(JFrame parent, String type, TransactionData.Transaction original,
+                                 ButtonFactory buttonFactory, PanelFactory panelFactory) {
         this.parent = parent;
         this.transactionType = type;
-        this.originalDate = originalDate;
-        this.originalCategory = originalCategory;
-        this.originalAmount = originalAmount;
-        this.originalComment = originalComment;
+        this.original = original;
         this.buttonFactory = buttonFactory;
         this.panelFactory = panelFactory;
     }
@@ -73,7 +66,7 @@ public class EditTransactionDialog {
         JPanel contentPanel = DialogBuilder.createStyledPanel(panelFactory);
 
         // Amount
-        amountField = new JTextField(String.valueOf(originalAmount), 20);
+        amountField = new JTextField(String.valueOf(original.amount), 20);
         contentPanel.add(DialogBuilder.createFieldRow(panelFactory, "Amount (₱):", amountField));
         contentPanel.add(Box.createVerticalStrut(15));
 
@@ -83,7 +76,7 @@ public class EditTransactionDialog {
         contentPanel.add(Box.createVerticalStrut(15));
 
         // Date
-        dateField = new JTextField(originalDate, 20);
+        dateField = new JTextField(original.date, 20);
         contentPanel.add(DialogBuilder.createFieldRow(panelFactory, "Date (YYYY-MM-DD):", dateField));
         contentPanel.add(Box.createVerticalStrut(15));
 
@@ -95,7 +88,7 @@ public class EditTransactionDialog {
         contentPanel.add(commentLabel);
         contentPanel.add(Box.createVerticalStrut(5));
 
-        commentArea = new JTextArea(originalComment, 4, 20);
+        commentArea = new JTextArea(original.comment, 4, 20);
         commentArea.setLineWrap(true);
         commentArea.setWrapStyleWord(true);
         JScrollPane scrollPane = new JScrollPane(commentArea);
@@ -117,7 +110,7 @@ public class EditTransactionDialog {
 
         JComboBox<String> combo = new JComboBox<>(categoriesWithCreate);
         combo.setMaximumSize(new Dimension(350, 30));
-        combo.setSelectedItem(originalCategory);
+        combo.setSelectedItem(original.category);
         combo.addActionListener(e -> handleCategorySelection(combo));
 
         return combo;
@@ -152,7 +145,7 @@ public class EditTransactionDialog {
                 combo.setModel(new DefaultComboBoxModel<>(categoriesWithCreate));
                 combo.setSelectedItem(newCategory);
             } else {
-                combo.setSelectedItem(originalCategory);
+                combo.setSelectedItem(original.category);
             }
         }
     }
@@ -210,11 +203,17 @@ public class EditTransactionDialog {
             JOptionPane.showMessageDialog(dialog, "Invalid date format. Use YYYY-MM-DD.", "Error", JOptionPane.ERROR_MESSAGE);
             return;
         }
+        
+        if (!TransactionData.isSupportedDate(date)) {
+            JOptionPane.showMessageDialog(dialog, "Please enter a real date between " + TransactionColumns.FIRST_DATE +
+                " and " + TransactionColumns.LAST_DATE + ".", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
 
         String comment = commentArea.getText().trim();
 
         updatedTransaction = new TransactionData.Transaction(
-                transactionType, date, category, amount.doubleValue(), comment
+                original.id, transactionType, date, category, amount.doubleValue(), comment
         );
 
         confirmed = true;
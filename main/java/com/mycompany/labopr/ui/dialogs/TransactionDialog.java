@@ -1,5 +1,6 @@
 package com.mycompany.labopr.ui.dialogs;
 
+import com.mycompany.labopr.data.TransactionColumns;
 import com.mycompany.labopr.data.TransactionData;
 import com.mycompany.labopr.ui.builders.DialogBuilder;
 import com.mycompany.labopr.ui.factories.ButtonFactory;
@@ -25,6 +26,7 @@ public class TransactionDialog {
     private JTextField dateField;
     private JTextArea commentArea;
     private boolean confirmed = false;
+    private TransactionData.Transaction newTransaction;
     
     public TransactionDialog(JFrame parent, String type, 
                             ButtonFactory buttonFactory, PanelFactory panelFactory) {
@@ -192,12 +194,17 @@ public class TransactionDialog {
             return;
         }
         
+        if (!TransactionData.isSupportedDate(date)) {
+            JOptionPane.showMessageDialog(dialog, "Please enter a real date between " + TransactionColumns.FIRST_DATE +
+                " and " + TransactionColumns.LAST_DATE + ".", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        
         String comment = commentArea.getText().trim();
         
-        TransactionData.Transaction transaction = new TransactionData.Transaction(
+        newTransaction = new TransactionData.Transaction(
             transactionType, date, category, amount.doubleValue(), comment
         );
-        TransactionData.saveTransaction(transaction);
         
         confirmed = true;
         dialog.dispose();
@@ -206,4 +213,11 @@ public class TransactionDialog {
     public boolean isConfirmed() {
         return confirmed;
     }
+    
+    /**
+     * The validated transaction to insert (not yet saved), or null if the dialog was cancelled
+     */
+    public TransactionData.Transaction getNewTransaction() {
+        return newTransaction;
+    }
 }
@@ -2,12 +2,14 @@ package com.mycompany.labopr.ui.panels;
 
 import com.mycompany.labopr.data.DataFacade;
 import com.mycompany.labopr.data.BudgetData.BudgetStatusInfo;
+import com.mycompany.labopr.observer.DataEvent;
 import com.mycompany.labopr.observer.PanelObserver;
 import com.mycompany.labopr.observer.Refreshable;
 import com.mycompany.labopr.ui.dialogs.BudgetGoalDialog;
 import com.mycompany.labopr.ui.factories.ButtonFactory;
 import com.mycompany.labopr.ui.factories.PanelFactory;
 import com.mycompany.labopr.ui.theme.UITheme;
+import com.mycompany.labopr.utils.AsyncLoader;
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import javax.swing.table.DefaultTableCellRenderer;
@@ -29,10 +31,11 @@ public class BudgetsPanel extends JPanel implements UITheme.ThemeChangeListener,
     private JComboBox<String> monthSelector;
     private JTable budgetTable;
     private DefaultTableModel tableModel;
-    private String currentMonth;
+    private volatile String currentMonth; // read by the event dispatcher thread
     private JButton themeToggleBtn;
     private JPanel topPanel; // FIXED: Store reference for theme updates
     private JLabel titleLabel; // FIXED: Store reference for text color updates
+    private final AsyncLoader<BudgetsViewModel> loader = new AsyncLoader<>("Budgets", this);
     
     public BudgetsPanel(JFrame parent, DataFacade dataFacade, 
                        ButtonFactory buttonFactory, PanelFactory panelFactory) {
@@ -56,9 +59,34 @@ public class BudgetsPanel extends JPanel implements UITheme.ThemeChangeListener,
     
     @Override
     public void refreshData() {
-        SwingUtilities.invokeLater(() -> {
-            loadBudgets();
-        });
+        SwingUtilities.invokeLater(this::loadBudgets);
+    }
+    
+    @Override
+    public Set<DataEvent.Topic> getSubscribedTopics() {
+        return EnumSet.of(DataEvent.Topic.TRANSACTIONS, DataEvent.Topic.BUDGETS);
+    }
+    
+    /**
+     * Only the selected month is shown, so changes to other months are ignored
+     */
+    @Override
+    public void onDataChanged(List<DataEvent> events) {
+        String month = currentMonth;
+        for (DataEvent event : events) {
+            boolean relevant;
+            if (event instanceof DataEvent.TransactionsChanged changed) {
+                relevant = changed.affectsMonth(month) && changed.affectsType("Expenses");
+            } else if (event instanceof DataEvent.BudgetChanged changed) {
+                relevant = changed.affectsMonth(month);
+            } else {
+                relevant = true;
+            }
+            if (relevant) {
+                refreshData();
+                return;
+            }
+        }
     }
     
     private void initComponents() {
@@ -227,14 +255,27 @@ public class BudgetsPanel extends JPanel implements UITheme.ThemeChangeListener,
         return months.toArray(new String[0]);
     }
     
+    /**
+     * Fetch the month's budget status in the background, then fill the table on the EDT
+     */
     private void loadBudgets() {
+        String month = currentMonth;
+        loader.load(() -> {
+            Map<String, BudgetStatusInfo> statusMap = dataFacade.getBudgetStatusForMonth(month);
+            Set<String> categories = statusMap.isEmpty()
+                ? dataFacade.getCategories("Expenses")
+                : Collections.emptySet();
+            return new BudgetsViewModel(statusMap, categories);
+        }, this::applyBudgets);
+    }
+    
+    private void applyBudgets(BudgetsViewModel model) {
         tableModel.setRowCount(0);
         
-        Map<String, BudgetStatusInfo> statusMap = dataFacade.getBudgetStatusForMonth(currentMonth);
+        Map<String, BudgetStatusInfo> statusMap = model.statusMap;
         
         if (statusMap.isEmpty()) {
-            Set<String> categories = dataFacade.getCategories("Expenses");
-            for (String category : categories) {
+            for (String category : model.expenseCategories) {
                 tableModel.addRow(new Object[]{
                     category,
                     "-",
@@ -285,7 +326,7 @@ public class BudgetsPanel extends JPanel implements UITheme.ThemeChangeListener,
                                                        buttonFactory, panelFactory);
         
         if (dialog.showDialog()) {
-            PanelObserver.getInstance().notifyObservers();
+            PanelObserver.getInstance().publish(new DataEvent.BudgetChanged(currentMonth));
         }
     }
     
@@ -305,7 +346,7 @@ public class BudgetsPanel extends JPanel implements UITheme.ThemeChangeListener,
                                                        currentGoal, buttonFactory, panelFactory);
         
         if (dialog.showDialog()) {
-            PanelObserver.getInstance().notifyObservers();
+            PanelObserver.getInstance().publish(new DataEvent.BudgetChanged(currentMonth));
         }
     }
     
@@ -314,7 +355,7 @@ public class BudgetsPanel extends JPanel implements UITheme.ThemeChangeListener,
                                                        buttonFactory, panelFactory);
         
         if (dialog.showDialog()) {
-            PanelObserver.getInstance().notifyObservers();
+            PanelObserver.getInstance().publish(new DataEvent.BudgetChanged(currentMonth));
         }
     }
     
@@ -359,7 +400,22 @@ public class BudgetsPanel extends JPanel implements UITheme.ThemeChangeListener,
     }
     
     public void cleanup() {
+        loader.cancel();
         PanelObserver.getInstance().unregisterObserver(this);
         UITheme.removeThemeChangeListener(this);
     }
+    
+    /**
+     * Immutable result of one background load
+     * expenseCategories is only filled when the month has no budget data
+     */
+    private static final class BudgetsViewModel {
+        final Map<String, BudgetStatusInfo> statusMap;
+        final Set<String> expenseCategories;
+        
+        BudgetsViewModel(Map<String, BudgetStatusInfo> statusMap, Set<String> expenseCategories) {
+            this.statusMap = Collections.unmodifiableMap(statusMap);
+            this.expenseCategories = Collections.unmodifiableSet(expenseCategories);
+        }
+    }
 }
\ No newline at end of file
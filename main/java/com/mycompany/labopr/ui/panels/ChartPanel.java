@@ -6,6 +6,8 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ComponentAdapter;
 import java.awt.event.ComponentEvent;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
 import java.util.*;
 import java.util.List;
 
@@ -13,18 +15,49 @@ import java.util.List;
  * ChartPanel - Fully Responsive Chart Panel
  * Note: This panel handles its own rendering and doesn't need factories for internal components
  * The panel itself is created through factory methods in other classes
+ * 
+ * Render cache: the chart is drawn once into an off-screen image and repaints just blit
+ * it. The image is redrawn only when its key changes: data version, size, device scale
+ * (HiDPI) or theme. Fonts and colors are shared constants instead of per-paint allocations.
  */
 public class ChartPanel extends JPanel {
+    private static final Font TITLE_FONT = new Font(UITheme.FONT_FAMILY, Font.BOLD, 18);
+    private static final Font PIE_LEGEND_FONT = new Font(UITheme.FONT_FAMILY, Font.PLAIN, 11);
+    private static final Font BAR_LABEL_FONT = new Font(UITheme.FONT_FAMILY, Font.PLAIN, 10);
+    private static final Font BAR_LEGEND_FONT = new Font(UITheme.FONT_FAMILY, Font.PLAIN, 12);
+    private static final Font NO_DATA_FONT = new Font(UITheme.FONT_FAMILY, Font.ITALIC, 16);
+    private static final BasicStroke AXIS_STROKE = new BasicStroke(2);
+    private static final Color INCOME_COLOR = new Color(0x7ed957);
+    private static final Color EXPENSE_COLOR = new Color(0xe57373);
+    
+    // Color palette
+    private static final Color[] PIE_COLORS = {
+        new Color(0x7ed957), new Color(0x4fc3f7), new Color(0xffb74d),
+        new Color(0xe57373), new Color(0x9575cd), new Color(0x81c784),
+        new Color(0xffd54f), new Color(0x64b5f6), new Color(0xff8a65),
+        new Color(0xba68c8), new Color(0xa1887f)
+    };
+    
     private String chartType;
     private Map<String, Double> pieData;
     private Map<String, AnalyticsData.MonthlyData> trendData;
     private String title;
     
+    // Render cache and the key it was drawn for (dataVersion changes whenever the data does)
+    private long dataVersion;
+    private BufferedImage cachedImage;
+    private long cachedVersion = -1;
+    private int cachedWidth;
+    private int cachedHeight;
+    private double cachedScale;
+    private boolean cachedDarkMode;
+    private long renderCount;
+    
     // Constructor for pie chart
     public ChartPanel(String title, Map<String, Double> data) {
         this.title = title;
         this.chartType = "pie";
-        this.pieData = data;
+        this.pieData = data != null ? new LinkedHashMap<>(data) : null;
         
         setupPanel();
     }
@@ -33,7 +66,7 @@ public class ChartPanel extends JPanel {
     public ChartPanel(String title, Map<String, AnalyticsData.MonthlyData> data, boolean isTrend) {
         this.title = title;
         this.chartType = "bar";
-        this.trendData = data;
+        this.trendData = data != null ? new LinkedHashMap<>(data) : null;
         
         setupPanel();
     }
@@ -54,6 +87,50 @@ public class ChartPanel extends JPanel {
         });
     }
     
+    // ==================== DATA UPDATES ====================
+    
+    /**
+     * Replace the pie chart data in place
+     * @return true if the data changed (and the chart will be redrawn)
+     */
+    public boolean setPieData(Map<String, Double> data) {
+        if (sameEntries(pieData, data)) {
+            return false;
+        }
+        this.pieData = data != null ? new LinkedHashMap<>(data) : null;
+        invalidateChart();
+        return true;
+    }
+    
+    /**
+     * Replace the trend chart data in place
+     * @return true if the data changed (and the chart will be redrawn)
+     */
+    public boolean setTrendData(Map<String, AnalyticsData.MonthlyData> data) {
+        if (sameEntries(trendData, data)) {
+            return false;
+        }
+        this.trendData = data != null ? new LinkedHashMap<>(data) : null;
+        invalidateChart();
+        return true;
+    }
+    
+    /**
+     * Same entries in the same order (order decides slice colors and bar positions)
+     */
+    private static <V> boolean sameEntries(Map<String, V> current, Map<String, V> candidate) {
+        if (current == null || candidate == null) {
+            return current == candidate;
+        }
+        return current.size() == candidate.size()
+            && new ArrayList<>(current.entrySet()).equals(new ArrayList<>(candidate.entrySet()));
+    }
+    
+    private void invalidateChart() {
+        dataVersion++;
+        repaint();
+    }
+    
     @Override
     public Dimension getPreferredSize() {
         // Let the parent container determine size, but provide minimum
@@ -66,24 +143,65 @@ public class ChartPanel extends JPanel {
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
-        Graphics2D g2d = (Graphics2D) g.create();
-        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        int width = getWidth();
+        int height = getHeight();
+        if (width <= 0 || height <= 0) {
+            return;
+        }
         
-        // Draw title - always centered
-        g2d.setFont(new Font(UITheme.FONT_FAMILY, Font.BOLD, 18));
-        g2d.setColor(Color.BLACK);
-        FontMetrics fm = g2d.getFontMetrics();
-        int titleWidth = fm.stringWidth(title);
-        g2d.drawString(title, (getWidth() - titleWidth) / 2, 30);
+        AffineTransform transform = ((Graphics2D) g).getTransform();
+        double scale = Math.max(1.0, transform.getScaleX());
+        boolean darkMode = UITheme.isDarkMode();
         
-        if (chartType.equals("pie")) {
-            drawPieChart(g2d);
-        } else if (chartType.equals("bar")) {
-            drawBarChart(g2d);
+        if (cachedImage == null || cachedVersion != dataVersion || cachedWidth != width
+                || cachedHeight != height || cachedScale != scale || cachedDarkMode != darkMode) {
+            cachedImage = renderChart(width, height, scale);
+            cachedVersion = dataVersion;
+            cachedWidth = width;
+            cachedHeight = height;
+            cachedScale = scale;
+            cachedDarkMode = darkMode;
         }
         
-        g2d.dispose();
+        g.drawImage(cachedImage, 0, 0, width, height, null);
+    }
+    
+    /**
+     * Draw the chart into a new transparent image at device resolution
+     */
+    private BufferedImage renderChart(int width, int height, double scale) {
+        BufferedImage image = new BufferedImage(
+            (int) Math.ceil(width * scale), (int) Math.ceil(height * scale), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = image.createGraphics();
+        try {
+            g2d.scale(scale, scale);
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            
+            // Draw title - always centered
+            g2d.setFont(TITLE_FONT);
+            g2d.setColor(Color.BLACK);
+            FontMetrics fm = g2d.getFontMetrics();
+            int titleWidth = fm.stringWidth(title);
+            g2d.drawString(title, (width - titleWidth) / 2, 30);
+            
+            if (chartType.equals("pie")) {
+                drawPieChart(g2d);
+            } else if (chartType.equals("bar")) {
+                drawBarChart(g2d);
+            }
+        } finally {
+            g2d.dispose();
+        }
+        renderCount++;
+        return image;
+    }
+    
+    /**
+     * Number of times the chart was actually drawn (repaints served from the cache excluded)
+     */
+    public long getRenderCount() {
+        return renderCount;
     }
     
     private void drawPieChart(Graphics2D g2d) {
@@ -108,13 +226,7 @@ public class ChartPanel extends JPanel {
         int centerY = 50 + diameter / 2;
         int radius = diameter / 2;
         
-        // Color palette
-        Color[] colors = {
-            new Color(0x7ed957), new Color(0x4fc3f7), new Color(0xffb74d),
-            new Color(0xe57373), new Color(0x9575cd), new Color(0x81c784),
-            new Color(0xffd54f), new Color(0x64b5f6), new Color(0xff8a65),
-            new Color(0xba68c8), new Color(0xa1887f)
-        };
+        Color[] colors = PIE_COLORS;
         
         // Draw pie slices
         int startAngle = 0;
@@ -136,7 +248,7 @@ public class ChartPanel extends JPanel {
     }
     
     private void drawResponsiveLegend(Graphics2D g2d, List<Map.Entry<String, Double>> entries, Color[] colors, double total) {
-        g2d.setFont(new Font(UITheme.FONT_FAMILY, Font.PLAIN, 11));
+        g2d.setFont(PIE_LEGEND_FONT);
         
         int legendStartY = getHeight() - 80;
         int itemWidth = getWidth() / 2 - 20;
@@ -187,7 +299,7 @@ public class ChartPanel extends JPanel {
         
         // Draw axes
         g2d.setColor(Color.BLACK);
-        g2d.setStroke(new BasicStroke(2));
+        g2d.setStroke(AXIS_STROKE);
         g2d.drawLine(chartX, chartY + chartHeight, chartX + chartWidth, chartY + chartHeight); // X-axis
         g2d.drawLine(chartX, chartY, chartX, chartY + chartHeight); // Y-axis
         
@@ -204,30 +316,36 @@ public class ChartPanel extends JPanel {
         
         // Draw bars with responsive sizing
         int groupWidth = chartWidth / trendData.size();
-        int barWidth = Math.max(20, groupWidth / 3 - 5);
+        int barWidth = Math.max(2, Math.min(groupWidth / 3 - 5, (groupWidth - 7) / 2));
         int index = 0;
         
-        g2d.setFont(new Font(UITheme.FONT_FAMILY, Font.PLAIN, 10));
+        g2d.setFont(BAR_LABEL_FONT);
+        
+        // Long ranges span years: label YY-MM, and only every labelStep-th month so labels don't overlap
+        boolean showYear = trendData.size() > 12;
+        FontMetrics labelMetrics = g2d.getFontMetrics();
+        int labelStep = Math.max(1, (int) Math.ceil((labelMetrics.stringWidth(showYear ? "00-00" : "00") + 6.0) / Math.max(1, groupWidth)));
         
         for (Map.Entry<String, AnalyticsData.MonthlyData> entry : trendData.entrySet()) {
             int x = chartX + index * groupWidth + (groupWidth - barWidth * 2 - 5) / 2;
             
             // Income bar (green)
             int incomeHeight = (int) ((entry.getValue().income / maxValue) * chartHeight);
-            g2d.setColor(new Color(0x7ed957));
+            g2d.setColor(INCOME_COLOR);
             g2d.fillRect(x, chartY + chartHeight - incomeHeight, barWidth, incomeHeight);
             
             // Expense bar (red)
             int expenseHeight = (int) ((entry.getValue().expenses / maxValue) * chartHeight);
-            g2d.setColor(new Color(0xe57373));
+            g2d.setColor(EXPENSE_COLOR);
             g2d.fillRect(x + barWidth + 5, chartY + chartHeight - expenseHeight, barWidth, expenseHeight);
             
             // Month label
-            g2d.setColor(Color.BLACK);
-            String monthLabel = entry.getKey().substring(5); // Get MM part
-            FontMetrics fm = g2d.getFontMetrics();
-            int labelWidth = fm.stringWidth(monthLabel);
-            g2d.drawString(monthLabel, x + barWidth - labelWidth / 2, chartY + chartHeight + 15);
+            if (index % labelStep == 0) {
+                g2d.setColor(Color.BLACK);
+                String monthLabel = entry.getKey().substring(showYear ? 2 : 5); // YY-MM or MM
+                int labelWidth = labelMetrics.stringWidth(monthLabel);
+                g2d.drawString(monthLabel, x + barWidth - labelWidth / 2, chartY + chartHeight + 15);
+            }
             
             index++;
         }
@@ -237,25 +355,25 @@ public class ChartPanel extends JPanel {
     }
     
     private void drawBarChartLegend(Graphics2D g2d) {
-        g2d.setFont(new Font(UITheme.FONT_FAMILY, Font.PLAIN, 12));
+        g2d.setFont(BAR_LEGEND_FONT);
         int legendY = getHeight() - 30;
         int centerX = getWidth() / 2;
         
         // Income legend
-        g2d.setColor(new Color(0x7ed957));
+        g2d.setColor(INCOME_COLOR);
         g2d.fillRect(centerX - 80, legendY - 10, 15, 15);
         g2d.setColor(Color.BLACK);
         g2d.drawString("Income", centerX - 60, legendY);
         
         // Expense legend
-        g2d.setColor(new Color(0xe57373));
+        g2d.setColor(EXPENSE_COLOR);
         g2d.fillRect(centerX + 20, legendY - 10, 15, 15);
         g2d.setColor(Color.BLACK);
         g2d.drawString("Expenses", centerX + 40, legendY);
     }
     
     private void drawNoDataMessage(Graphics2D g2d) {
-        g2d.setFont(new Font(UITheme.FONT_FAMILY, Font.ITALIC, 16));
+        g2d.setFont(NO_DATA_FONT);
         g2d.setColor(Color.GRAY);
         String message = "No data available";
         FontMetrics fm = g2d.getFontMetrics();
@@ -5,19 +5,25 @@ import com.mycompany.labopr.data.DataFacade.DashboardData;
 import com.mycompany.labopr.data.DataFacade.AnalyticsSummary;
 import com.mycompany.labopr.data.AnalyticsData.MonthlyData;
 import com.mycompany.labopr.data.AnalyticsData.CategorySpending;
-import com.mycompany.labopr.data.TransactionData.Transaction;
+import com.mycompany.labopr.data.AnalyticsData.RangeTotals;
+import com.mycompany.labopr.data.TransactionColumns;
 import com.mycompany.labopr.observer.PanelObserver;
 import com.mycompany.labopr.observer.Refreshable;
 import com.mycompany.labopr.ui.factories.ButtonFactory;
 import com.mycompany.labopr.ui.factories.PanelFactory;
 import com.mycompany.labopr.ui.composite.CompositePanel;
+import com.mycompany.labopr.ui.composite.TopCategoryCardComponent;
+import com.mycompany.labopr.ui.tables.CurrencyCellRenderer;
+import com.mycompany.labopr.ui.tables.TransactionTableModel;
 import com.mycompany.labopr.ui.composite.MetricCardComponent;
 import com.mycompany.labopr.ui.theme.UITheme;
+import com.mycompany.labopr.utils.AsyncLoader;
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
-import javax.swing.table.DefaultTableCellRenderer;
 import java.awt.*;
 import java.text.SimpleDateFormat;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.*;
 import java.util.List;
 
@@ -26,12 +32,18 @@ import java.util.List;
  */
 public class DashboardPanel extends JPanel implements UITheme.ThemeChangeListener, Refreshable {
     
+    private static final String[] TREND_RANGE_OPTIONS = {"3 months", "6 months", "12 months", "24 months"};
+    private static final String[] DATE_RANGE_PRESETS = {
+        "This week", "Last 7 days", "This month", "Last 30 days", "This quarter", "Year to date", "Custom"
+    };
+    
     private final DataFacade dataFacade;
     private final JFrame parentFrame;
     private final ButtonFactory buttonFactory;
     private final PanelFactory panelFactory;
     
     private String currentMonth;
+    private int trendMonthCount = 3; // bar chart range, ending with currentMonth
     
     // Overview metrics
     private MetricCardComponent balanceCard;
@@ -45,19 +57,39 @@ public class DashboardPanel extends JPanel implements UITheme.ThemeChangeListene
     private MetricCardComponent monthlyExpensesCard;
     private MetricCardComponent monthlySavingsCard;
     private MetricCardComponent savingsRateCard;
+    
+    // Custom date range (totals come from the O(1) day index)
+    private JComboBox<String> rangePresetSelector;
+    private JSpinner rangeFromSpinner;
+    private JSpinner rangeToSpinner;
+    private CompositePanel rangeMetricsContainer;
+    private MetricCardComponent rangeIncomeCard;
+    private MetricCardComponent rangeExpensesCard;
+    private MetricCardComponent rangeNetCard;
+    private boolean applyingPreset;
     private CompositePanel analyticsMetricsContainer;
     
     private JComboBox<String> monthSelector;
+    private JComboBox<String> trendRangeSelector;
     private JPanel chartsPanel;
+    private ChartPanel pieChart;
+    private ChartPanel barChart;
+    private TimeSeriesChartPanel timeSeriesChart;
     private JPanel topCategoriesPanel;
+    private final List<TopCategoryCardComponent> topCategoryCards = new ArrayList<>();
     private JTable recentTransactionsTable;
-    private DefaultTableModel transactionTableModel;
+    private TransactionTableModel transactionTableModel;
     private JLabel budgetStatusLabel;
     private JButton themeToggleBtn;
     private JScrollPane mainScrollPane;
     private JPanel titlePanel;
     private JLabel dashboardTitleLabel;
     
+    // Full refreshes and month-only reloads supersede only loads of their own kind
+    private final AsyncLoader<DashboardViewModel> loader = new AsyncLoader<>("Dashboard", this);
+    private final AsyncLoader<DashboardViewModel> analyticsLoader = new AsyncLoader<>("Dashboard analytics", this);
+    private final AsyncLoader<RangeTotals> rangeLoader = new AsyncLoader<>("Dashboard range", this);
+    
     public DashboardPanel(JFrame parentFrame, DataFacade dataFacade, 
                          ButtonFactory buttonFactory, PanelFactory panelFactory) {
         this.parentFrame = parentFrame;
@@ -78,9 +110,7 @@ public class DashboardPanel extends JPanel implements UITheme.ThemeChangeListene
     
     @Override
     public void refreshData() {
-        SwingUtilities.invokeLater(() -> {
-            loadDashboardData();
-        });
+        SwingUtilities.invokeLater(this::loadDashboardData);
     }
     
     private void initComponents() {
@@ -109,11 +139,19 @@ public class DashboardPanel extends JPanel implements UITheme.ThemeChangeListene
         gbc.insets = new Insets(0, 0, 20, 0);
         mainContentPanel.add(createAnalyticsMetricsSection(), gbc);
         
+        gbc.gridy++;
+        mainContentPanel.add(createDateRangeSection(), gbc);
+        
         gbc.gridy++;
         gbc.fill = GridBagConstraints.BOTH;
         gbc.weighty = 0.4;
         mainContentPanel.add(createChartsSection(), gbc);
         
+        gbc.gridy++;
+        gbc.weighty = 0.0;
+        gbc.fill = GridBagConstraints.HORIZONTAL;
+        mainContentPanel.add(createTimeSeriesSection(), gbc);
+        
         gbc.gridy++;
         gbc.weighty = 0.0;
         gbc.fill = GridBagConstraints.HORIZONTAL;
@@ -231,8 +269,25 @@ public class DashboardPanel extends JPanel implements UITheme.ThemeChangeListene
             loadAnalyticsData();
         });
         
+        JLabel trendLabel = new JLabel("Trend:");
+        trendLabel.setFont(new Font(UITheme.FONT_FAMILY, Font.PLAIN, 16));
+        trendLabel.setForeground(UITheme.TEXT_COLOR);
+        
+        trendRangeSelector = new JComboBox<>(TREND_RANGE_OPTIONS);
+        trendRangeSelector.setSelectedItem(trendMonthCount + " months");
+        trendRangeSelector.setFont(new Font(UITheme.FONT_FAMILY, Font.PLAIN, 14));
+        trendRangeSelector.setPreferredSize(new Dimension(120, 30));
+        trendRangeSelector.addActionListener(e -> {
+            String selected = (String) trendRangeSelector.getSelectedItem();
+            trendMonthCount = Integer.parseInt(selected.substring(0, selected.indexOf(' ')));
+            loadAnalyticsData();
+        });
+        
         panel.add(monthLabel);
         panel.add(monthSelector);
+        panel.add(Box.createHorizontalStrut(20));
+        panel.add(trendLabel);
+        panel.add(trendRangeSelector);
         
         return panel;
     }
@@ -277,6 +332,147 @@ public class DashboardPanel extends JPanel implements UITheme.ThemeChangeListene
         return section;
     }
     
+    private JPanel createDateRangeSection() {
+        JPanel section = panelFactory.createPanel(new GridBagLayout());
+        section.setOpaque(false);
+        
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.gridx = 0;
+        gbc.gridy = 0;
+        gbc.weightx = 1.0;
+        gbc.fill = GridBagConstraints.HORIZONTAL;
+        gbc.insets = new Insets(0, 0, 15, 0);
+        
+        JLabel sectionTitle = createSectionTitle("Date Range Analytics", 24);
+        section.add(sectionTitle, gbc);
+        
+        // Preset + inclusive from/to pickers
+        JPanel pickers = panelFactory.createFlowPanel(FlowLayout.CENTER, 10, 5);
+        pickers.setOpaque(false);
+        
+        rangePresetSelector = new JComboBox<>(DATE_RANGE_PRESETS);
+        rangePresetSelector.setFont(new Font(UITheme.FONT_FAMILY, Font.PLAIN, 14));
+        rangePresetSelector.setPreferredSize(new Dimension(150, 30));
+        rangePresetSelector.addActionListener(e -> applyRangePreset((String) rangePresetSelector.getSelectedItem()));
+        
+        rangeFromSpinner = createDateSpinner();
+        rangeToSpinner = createDateSpinner();
+        rangeFromSpinner.addChangeListener(e -> onRangeEdited());
+        rangeToSpinner.addChangeListener(e -> onRangeEdited());
+        
+        JLabel fromLabel = new JLabel("From:");
+        fromLabel.setFont(new Font(UITheme.FONT_FAMILY, Font.PLAIN, 16));
+        fromLabel.setForeground(UITheme.TEXT_COLOR);
+        JLabel toLabel = new JLabel("To:");
+        toLabel.setFont(new Font(UITheme.FONT_FAMILY, Font.PLAIN, 16));
+        toLabel.setForeground(UITheme.TEXT_COLOR);
+        
+        pickers.add(rangePresetSelector);
+        pickers.add(fromLabel);
+        pickers.add(rangeFromSpinner);
+        pickers.add(toLabel);
+        pickers.add(rangeToSpinner);
+        
+        gbc.gridy++;
+        section.add(pickers, gbc);
+        
+        rangeMetricsContainer = new CompositePanel(new GridLayout(1, 3, 15, 0));
+        rangeMetricsContainer.setBackground(UITheme.isDarkMode() ? Color.BLACK : UITheme.PRIMARY_GREEN);
+        rangeMetricsContainer.setOpaque(false);
+        
+        rangeIncomeCard = new MetricCardComponent("Income", 0.0, new Color(0x7ed957), false);
+        rangeExpensesCard = new MetricCardComponent("Expenses", 0.0, new Color(0xe57373), false);
+        rangeNetCard = new MetricCardComponent("Net", 0.0, new Color(0x66bb6a), false);
+        rangeMetricsContainer.addChild(rangeIncomeCard);
+        rangeMetricsContainer.addChild(rangeExpensesCard);
+        rangeMetricsContainer.addChild(rangeNetCard);
+        
+        gbc.gridy++;
+        gbc.fill = GridBagConstraints.BOTH;
+        section.add(rangeMetricsContainer.getPanel(), gbc);
+        
+        rangePresetSelector.setSelectedItem("This month");
+        
+        return section;
+    }
+    
+    /**
+     * Date picker limited to the supported range, so a typed year such as 10000 is rejected
+     */
+    private JSpinner createDateSpinner() {
+        Date first = toDate(LocalDate.parse(TransactionColumns.FIRST_DATE));
+        Date last = toDate(LocalDate.parse(TransactionColumns.LAST_DATE));
+        JSpinner spinner = new JSpinner(new SpinnerDateModel(new Date(), first, last, Calendar.DAY_OF_MONTH));
+        spinner.setEditor(new JSpinner.DateEditor(spinner, "yyyy-MM-dd"));
+        spinner.setFont(new Font(UITheme.FONT_FAMILY, Font.PLAIN, 14));
+        spinner.setPreferredSize(new Dimension(130, 30));
+        return spinner;
+    }
+    
+    /**
+     * Set the pickers from a preset (ranges are inclusive and end today)
+     */
+    private void applyRangePreset(String preset) {
+        LocalDate today = LocalDate.now();
+        LocalDate from;
+        switch (preset) {
+            case "This week":    from = today.with(DayOfWeek.MONDAY); break;
+            case "Last 7 days":  from = today.minusDays(6); break;
+            case "This month":   from = today.withDayOfMonth(1); break;
+            case "Last 30 days": from = today.minusDays(29); break;
+            case "This quarter": from = today.withMonth((today.getMonthValue() - 1) / 3 * 3 + 1).withDayOfMonth(1); break;
+            case "Year to date": from = today.withDayOfYear(1); break;
+            default:             return; // Custom: keep whatever the pickers show
+        }
+        applyingPreset = true;
+        try {
+            rangeFromSpinner.setValue(toDate(from));
+            rangeToSpinner.setValue(toDate(today));
+        } finally {
+            applyingPreset = false;
+        }
+        updateRangeTotals();
+    }
+    
+    private void onRangeEdited() {
+        if (applyingPreset) return;
+        rangePresetSelector.setSelectedItem("Custom");
+        updateRangeTotals();
+    }
+    
+    /**
+     * Recompute the range cards in the background
+     * The lookups are O(1) in the day index, but the first snapshot() may still have to
+     * load the store from the database. Picking a new range supersedes an older load.
+     */
+    private void updateRangeTotals() {
+        LocalDate from = toLocalDate((Date) rangeFromSpinner.getValue());
+        LocalDate to = toLocalDate((Date) rangeToSpinner.getValue());
+        if (to.isBefore(from)) {
+            LocalDate swap = from;
+            from = to;
+            to = swap;
+        }
+        LocalDate fromDate = from;
+        LocalDate toDateExclusive = to.plusDays(1);
+        rangeLoader.load(() -> dataFacade.getRangeTotals(fromDate, toDateExclusive), this::applyRangeTotals);
+    }
+    
+    private void applyRangeTotals(RangeTotals totals) {
+        rangeIncomeCard.setValue(totals.income);
+        rangeExpensesCard.setValue(totals.expenses);
+        rangeNetCard.setValue(totals.net);
+        rangeMetricsContainer.update();
+    }
+    
+    private static Date toDate(LocalDate date) {
+        return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+    
+    private static LocalDate toLocalDate(Date date) {
+        return date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+    
     private JPanel createChartsSection() {
         JPanel section = panelFactory.createPanel(new GridBagLayout());
         section.setOpaque(false);
@@ -298,11 +494,38 @@ public class DashboardPanel extends JPanel implements UITheme.ThemeChangeListene
         chartsPanel = panelFactory.createPanel(new GridLayout(1, 2, 20, 0));
         chartsPanel.setOpaque(false);
         
+        // Created once; refreshes push new data into them
+        pieChart = new ChartPanel("Spending by Category", Collections.emptyMap());
+        barChart = new ChartPanel("Income vs Expenses Trend", Collections.emptyMap(), true);
+        chartsPanel.add(pieChart);
+        chartsPanel.add(barChart);
+        
         section.add(chartsPanel, gbc);
         
         return section;
     }
     
+    private JPanel createTimeSeriesSection() {
+        JPanel section = panelFactory.createPanel(new GridBagLayout());
+        section.setOpaque(false);
+        
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.gridx = 0;
+        gbc.gridy = 0;
+        gbc.weightx = 1.0;
+        gbc.fill = GridBagConstraints.HORIZONTAL;
+        gbc.insets = new Insets(0, 0, 15, 0);
+        
+        JLabel sectionTitle = createSectionTitle("Balance & Spending Over Time", 24);
+        section.add(sectionTitle, gbc);
+        
+        gbc.gridy++;
+        timeSeriesChart = new TimeSeriesChartPanel("Daily Balance and Spending", dataFacade);
+        section.add(timeSeriesChart, gbc);
+        
+        return section;
+    }
+    
     private JPanel createTopCategoriesSection() {
         JPanel section = panelFactory.createPanel(new GridBagLayout());
         section.setOpaque(false);
@@ -321,6 +544,18 @@ public class DashboardPanel extends JPanel implements UITheme.ThemeChangeListene
         topCategoriesPanel = panelFactory.createFlowPanel(FlowLayout.CENTER, 15, 10);
         topCategoriesPanel.setOpaque(false);
         
+        Color[] colors = {
+            new Color(0xff6b6b),
+            new Color(0xfeca57),
+            new Color(0x48dbfb)
+        };
+        for (int i = 0; i < colors.length; i++) {
+            TopCategoryCardComponent card = new TopCategoryCardComponent(i + 1, colors[i]);
+            card.getPanel().setVisible(false);
+            topCategoryCards.add(card);
+            topCategoriesPanel.add(card.getPanel());
+        }
+        
         section.add(topCategoriesPanel, gbc);
         
         return section;
@@ -344,13 +579,12 @@ public class DashboardPanel extends JPanel implements UITheme.ThemeChangeListene
         gbc.fill = GridBagConstraints.BOTH;
         gbc.weighty = 1.0;
         
-        String[] columnNames = {"Date", "Type", "Category", "Amount"};
-        transactionTableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        transactionTableModel = new TransactionTableModel(
+            TransactionTableModel.Column.DATE,
+            TransactionTableModel.Column.TYPE,
+            TransactionTableModel.Column.CATEGORY,
+            TransactionTableModel.Column.AMOUNT
+        );
         
         recentTransactionsTable = new JTable(transactionTableModel);
         recentTransactionsTable.setFont(new Font(UITheme.FONT_FAMILY, Font.PLAIN, 14));
@@ -362,9 +596,7 @@ public class DashboardPanel extends JPanel implements UITheme.ThemeChangeListene
         recentTransactionsTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         recentTransactionsTable.setFillsViewportHeight(true);
         
-        DefaultTableCellRenderer centerRenderer = new DefaultTableCellRenderer();
-        centerRenderer.setHorizontalAlignment(SwingConstants.CENTER);
-        recentTransactionsTable.getColumnModel().getColumn(3).setCellRenderer(centerRenderer);
+        recentTransactionsTable.getColumnModel().getColumn(3).setCellRenderer(new CurrencyCellRenderer());
         
         JScrollPane scrollPane = new JScrollPane(recentTransactionsTable);
         scrollPane.setBackground(Color.WHITE);
@@ -396,8 +628,39 @@ public class DashboardPanel extends JPanel implements UITheme.ThemeChangeListene
         return months.toArray(new String[0]);
     }
     
+    /**
+     * Fetch everything the dashboard shows in the background, then apply it on the EDT
+     * A full load covers the analytics section too, so it replaces any month-only load
+     */
     private void loadDashboardData() {
-        DashboardData data = dataFacade.getDashboardData(currentMonth);
+        String month = currentMonth;
+        int trendMonths = trendMonthCount;
+        analyticsLoader.cancel();
+        loader.load(() -> {
+            DashboardData data = dataFacade.getDashboardData(month);
+            return new DashboardViewModel(month, trendMonths, data, data.analytics,
+                dataFacade.getIncomeExpensesTrend(month, trendMonths));
+        }, this::applyDashboardData);
+    }
+    
+    /**
+     * Month selector: only the analytics section changes
+     * Runs on its own loader so it never drops a full refresh still in flight
+     */
+    private void loadAnalyticsData() {
+        String month = currentMonth;
+        int trendMonths = trendMonthCount;
+        analyticsLoader.load(() -> new DashboardViewModel(
+            month,
+            trendMonths,
+            null,
+            dataFacade.getAnalyticsSummary(month),
+            dataFacade.getIncomeExpensesTrend(month, trendMonths)
+        ), this::applyAnalyticsData);
+    }
+    
+    private void applyDashboardData(DashboardViewModel model) {
+        DashboardData data = model.data;
         
         // Update overview metric cards
         balanceCard.setValue(data.currentBalance);
@@ -408,6 +671,10 @@ public class DashboardPanel extends JPanel implements UITheme.ThemeChangeListene
         // Update composite (propagates to all children)
         overviewMetricsContainer.update();
         
+        // The time series keeps its own zoom window and reloads just that
+        timeSeriesChart.reload();
+        updateRangeTotals();
+        
         if (data.isOverBudget) {
             budgetStatusLabel.setText("⚠️ Warning: You are over budget for this month");
             budgetStatusLabel.setForeground(new Color(0xe57373));
@@ -416,21 +683,18 @@ public class DashboardPanel extends JPanel implements UITheme.ThemeChangeListene
             budgetStatusLabel.setForeground(UITheme.isDarkMode() ? Color.WHITE : Color.BLACK);
         }
         
-        transactionTableModel.setRowCount(0);
-        for (Transaction t : data.recentTransactions) {
-            transactionTableModel.addRow(new Object[]{
-                t.date,
-                t.type,
-                t.category,
-                "₱" + String.format("%,.2f", t.amount)
-            });
-        }
+        transactionTableModel.setTransactions(data.recentTransactions);
         
-        loadAnalyticsData();
+        // The month or trend range changed while this load was running: the
+        // month-only load started since then fills the analytics section
+        if (model.month.equals(currentMonth) && model.trendMonths == trendMonthCount) {
+            applyAnalyticsData(model);
+        }
     }
     
-    private void loadAnalyticsData() {
-        AnalyticsSummary analytics = dataFacade.getAnalyticsSummary(currentMonth);
+    private void applyAnalyticsData(DashboardViewModel model) {
+        AnalyticsSummary analytics = model.analytics;
+        
         
         // FIXED: Update existing cards instead of recreating them
         monthlyIncomeCard.setValue(analytics.totalIncome);
@@ -441,7 +705,7 @@ public class DashboardPanel extends JPanel implements UITheme.ThemeChangeListene
         // Update composite (propagates to all children)
         analyticsMetricsContainer.update();
         
-        loadCharts(analytics);
+        loadCharts(analytics, model.trend);
         loadTopCategories(analytics);
     }
     
@@ -457,93 +721,23 @@ public class DashboardPanel extends JPanel implements UITheme.ThemeChangeListene
         }
     }
     
-    private void loadCharts(AnalyticsSummary analytics) {
-        chartsPanel.removeAll();
-        
-        ChartPanel pieChart = new ChartPanel("Spending by Category", analytics.spendingByCategory);
-        chartsPanel.add(pieChart);
-        
-        Calendar cal = Calendar.getInstance();
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM");
-        List<String> trendMonths = new ArrayList<>();
-        
-        try {
-            cal.setTime(sdf.parse(currentMonth));
-        } catch (Exception e) {
-            cal = Calendar.getInstance();
-        }
-        
-        cal.add(Calendar.MONTH, -2);
-        for (int i = 0; i < 3; i++) {
-            trendMonths.add(sdf.format(cal.getTime()));
-            cal.add(Calendar.MONTH, 1);
-        }
-        
-        Map<String, MonthlyData> trendData = dataFacade.getIncomeExpensesTrend(trendMonths);
-        ChartPanel barChart = new ChartPanel("Income vs Expenses Trend", trendData, true);
-        chartsPanel.add(barChart);
-        
-        chartsPanel.revalidate();
-        chartsPanel.repaint();
+    private void loadCharts(AnalyticsSummary analytics, Map<String, MonthlyData> trendData) {
+        // Each chart redraws only if its data actually changed
+        pieChart.setPieData(analytics.spendingByCategory);
+        barChart.setTrendData(trendData);
     }
     
     private void loadTopCategories(AnalyticsSummary analytics) {
-        topCategoriesPanel.removeAll();
-        
-        if (analytics.topCategories.isEmpty()) {
-            topCategoriesPanel.revalidate();
-            topCategoriesPanel.repaint();
-            return;
-        }
-        
-        Color[] colors = {
-            new Color(0xff6b6b),
-            new Color(0xfeca57),
-            new Color(0x48dbfb)
-        };
-        
-        for (int i = 0; i < analytics.topCategories.size(); i++) {
-            CategorySpending cat = analytics.topCategories.get(i);
-            JPanel card = createTopCategoryCard(i + 1, cat.category, cat.amount, colors[i]);
-            topCategoriesPanel.add(card);
+        for (int i = 0; i < topCategoryCards.size(); i++) {
+            TopCategoryCardComponent card = topCategoryCards.get(i);
+            if (i < analytics.topCategories.size()) {
+                CategorySpending cat = analytics.topCategories.get(i);
+                card.setCategory(cat.category, cat.amount);
+                card.getPanel().setVisible(true);
+            } else {
+                card.getPanel().setVisible(false); // no-op (no relayout) if already hidden
+            }
         }
-        
-        topCategoriesPanel.revalidate();
-        topCategoriesPanel.repaint();
-    }
-    
-    private JPanel createTopCategoryCard(int rank, String category, double amount, Color accentColor) {
-        JPanel card = panelFactory.createPanel();
-        card.setLayout(new BoxLayout(card, BoxLayout.Y_AXIS));
-        card.setBackground(Color.WHITE);
-        card.setBorder(BorderFactory.createCompoundBorder(
-            BorderFactory.createLineBorder(accentColor, 2),
-            BorderFactory.createEmptyBorder(12, 15, 12, 15)
-        ));
-        card.setPreferredSize(new Dimension(220, 90));
-        
-        JLabel rankLabel = new JLabel("#" + rank);
-        rankLabel.setFont(new Font(UITheme.FONT_FAMILY, Font.BOLD, 16));
-        rankLabel.setForeground(accentColor);
-        rankLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
-        
-        JLabel categoryLabel = new JLabel(category);
-        categoryLabel.setFont(new Font(UITheme.FONT_FAMILY, Font.PLAIN, 14));
-        categoryLabel.setForeground(Color.DARK_GRAY);
-        categoryLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
-        
-        JLabel amountLabel = new JLabel("₱" + String.format("%,.2f", amount));
-        amountLabel.setFont(new Font(UITheme.FONT_FAMILY, Font.BOLD, 18));
-        amountLabel.setForeground(Color.BLACK);
-        amountLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
-        
-        card.add(rankLabel);
-        card.add(Box.createVerticalStrut(5));
-        card.add(categoryLabel);
-        card.add(Box.createVerticalStrut(5));
-        card.add(amountLabel);
-        
-        return card;
     }
     
     @Override
@@ -570,6 +764,10 @@ public class DashboardPanel extends JPanel implements UITheme.ThemeChangeListene
             analyticsMetricsContainer.setBackground(bgColor);
         }
         
+        if (rangeMetricsContainer != null) {
+            rangeMetricsContainer.setBackground(bgColor);
+        }
+        
         if (mainScrollPane != null) {
             mainScrollPane.getViewport().setBackground(bgColor);
             Component view = mainScrollPane.getViewport().getView();
@@ -627,7 +825,32 @@ public class DashboardPanel extends JPanel implements UITheme.ThemeChangeListene
     }
     
     public void cleanup() {
+        loader.cancel();
+        analyticsLoader.cancel();
+        rangeLoader.cancel();
+        timeSeriesChart.cleanup();
         PanelObserver.getInstance().unregisterObserver(this);
         UITheme.removeThemeChangeListener(this);
     }
+    
+    /**
+     * Immutable result of one background load
+     * data is null when only the analytics section was reloaded
+     */
+    private static final class DashboardViewModel {
+        final String month;
+        final int trendMonths;
+        final DashboardData data;
+        final AnalyticsSummary analytics;
+        final Map<String, MonthlyData> trend;
+        
+        DashboardViewModel(String month, int trendMonths, DashboardData data, AnalyticsSummary analytics,
+                           Map<String, MonthlyData> trend) {
+            this.month = month;
+            this.trendMonths = trendMonths;
+            this.data = data;
+            this.analytics = analytics;
+            this.trend = Collections.unmodifiableMap(trend);
+        }
+    }
 }
@@ -7,6 +7,7 @@ import com.mycompany.labopr.ui.factories.PanelFactory;
 import com.mycompany.labopr.ui.factories.RoundedButtonFactory;
 import com.mycompany.labopr.ui.factories.StandardPanelFactory;
 import com.mycompany.labopr.ui.theme.UITheme;
+import com.mycompany.labopr.utils.AsyncLoader;
 
 import javax.swing.*;
 import javax.swing.filechooser.FileNameExtensionFilter;
@@ -14,6 +15,12 @@ import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.io.File;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * SettingsPanel - Rounded white panels, theme toggle, data management
@@ -30,6 +37,8 @@ public class SettingsPanel extends JPanel implements UITheme.ThemeChangeListener
     private JLabel dataManagementLabel;
     private JButton lightModeBtn;
     private JButton darkModeBtn;
+    private final List<JButton> dataButtons = new ArrayList<>();
+    private final AsyncLoader<Boolean> dataTask = new AsyncLoader<>("Data management", this);
 
     private static final Color BUTTON_SELECTED = Color.decode("#66a74b"); // Green
     private static final Color BUTTON_UNSELECTED = Color.decode("#d3d3d3"); // Light gray
@@ -201,14 +210,34 @@ public class SettingsPanel extends JPanel implements UITheme.ThemeChangeListener
         importBtn.setAlignmentX(Component.CENTER_ALIGNMENT);
         importBtn.addActionListener(e -> handleImportData());
 
+        JButton backupBtn = factory.createGreenButton("Backup Data", new Dimension(240, 50));
+        backupBtn.setAlignmentX(Component.CENTER_ALIGNMENT);
+        backupBtn.addActionListener(e -> handleBackupData());
+
+        JButton incrementalBtn = factory.createGreenButton("Incremental Backup", new Dimension(240, 50));
+        incrementalBtn.setAlignmentX(Component.CENTER_ALIGNMENT);
+        incrementalBtn.addActionListener(e -> handleIncrementalBackup());
+
+        JButton restoreBtn = factory.createGreenButton("Restore Backup", new Dimension(240, 50));
+        restoreBtn.setAlignmentX(Component.CENTER_ALIGNMENT);
+        restoreBtn.addActionListener(e -> handleRestoreBackup());
+
         JButton resetBtn = factory.createGreenButton("Reset All Data", new Dimension(240, 50));
         resetBtn.setAlignmentX(Component.CENTER_ALIGNMENT);
         resetBtn.addActionListener(e -> handleResetData());
 
+        dataButtons.addAll(List.of(exportBtn, importBtn, backupBtn, incrementalBtn, restoreBtn, resetBtn));
+
         buttonsPanel.add(exportBtn);
         buttonsPanel.add(Box.createVerticalStrut(15));
         buttonsPanel.add(importBtn);
         buttonsPanel.add(Box.createVerticalStrut(15));
+        buttonsPanel.add(backupBtn);
+        buttonsPanel.add(Box.createVerticalStrut(15));
+        buttonsPanel.add(incrementalBtn);
+        buttonsPanel.add(Box.createVerticalStrut(15));
+        buttonsPanel.add(restoreBtn);
+        buttonsPanel.add(Box.createVerticalStrut(15));
         buttonsPanel.add(resetBtn);
 
         section.add(buttonsPanel);
@@ -299,10 +328,36 @@ public class SettingsPanel extends JPanel implements UITheme.ThemeChangeListener
     }
 
     public void cleanup() {
+        dataTask.cancel();
         UITheme.removeThemeChangeListener(this);
     }
 
     // --- Data handling methods ---
+
+    /**
+     * Run an operation that reads or rewrites the user's whole data set off the EDT
+     * Export and backup stream every row to disk, while import, restore and reset finish by
+     * reloading the whole history into the TransactionStore; both take seconds on a
+     * large account. Meanwhile the data buttons are disabled and the section title
+     * shows progress; done gets the result on the EDT.
+     */
+    private void runDataTask(String progress, Supplier<Boolean> task, Consumer<Boolean> done) {
+        dataButtons.forEach(btn -> btn.setEnabled(false));
+        dataManagementLabel.setText("Data Management - " + progress);
+        dataTask.load(() -> {
+            try {
+                return task.get();
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+                return false;
+            }
+        }, success -> {
+            dataButtons.forEach(btn -> btn.setEnabled(true));
+            dataManagementLabel.setText("Data Management");
+            done.accept(success);
+        });
+    }
+
     private void handleExportData() {
         JFileChooser fileChooser = new JFileChooser();
         fileChooser.setDialogTitle("Export Data");
@@ -312,20 +367,22 @@ public class SettingsPanel extends JPanel implements UITheme.ThemeChangeListener
         int result = fileChooser.showSaveDialog(parentFrame);
         if (result == JFileChooser.APPROVE_OPTION) {
             File file = fileChooser.getSelectedFile();
-            String filepath = file.getAbsolutePath();
-            if (!filepath.endsWith(".csv")) filepath += ".csv";
-
-            if (dataFacade.exportData(filepath)) {
-                JOptionPane.showMessageDialog(parentFrame,
-                        "Data exported successfully to:\n" + filepath,
-                        "Export Complete",
-                        JOptionPane.INFORMATION_MESSAGE);
-            } else {
-                JOptionPane.showMessageDialog(parentFrame,
-                        "Failed to export data. Please try again.",
-                        "Error",
-                        JOptionPane.ERROR_MESSAGE);
-            }
+            String path = file.getAbsolutePath();
+            String filepath = path.endsWith(".csv") ? path : path + ".csv";
+
+            runDataTask("exporting...", () -> dataFacade.exportData(filepath), exported -> {
+                if (exported) {
+                    JOptionPane.showMessageDialog(parentFrame,
+                            "Data exported successfully to:\n" + filepath,
+                            "Export Complete",
+                            JOptionPane.INFORMATION_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(parentFrame,
+                            "Failed to export data. Please try again.",
+                            "Error",
+                            JOptionPane.ERROR_MESSAGE);
+                }
+            });
         }
     }
 
@@ -344,18 +401,113 @@ public class SettingsPanel extends JPanel implements UITheme.ThemeChangeListener
             int result = fileChooser.showOpenDialog(parentFrame);
             if (result == JFileChooser.APPROVE_OPTION) {
                 File file = fileChooser.getSelectedFile();
-                if (dataFacade.importData(file.getAbsolutePath())) {
+                runDataTask("importing...", () -> dataFacade.importData(file.getAbsolutePath()), imported -> {
+                    if (imported) {
+                        JOptionPane.showMessageDialog(parentFrame,
+                                "Data imported successfully!\nAll panels will refresh automatically.",
+                                "Import Complete",
+                                JOptionPane.INFORMATION_MESSAGE);
+                        PanelObserver.getInstance().notifyObservers();
+                    } else {
+                        JOptionPane.showMessageDialog(parentFrame,
+                                "Failed to import data. Please check the file format.",
+                                "Error",
+                                JOptionPane.ERROR_MESSAGE);
+                    }
+                });
+            }
+        }
+    }
+
+    private void handleBackupData() {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Backup Data");
+        fileChooser.setFileFilter(new FileNameExtensionFilter("KwarTrack Backups (*.kwtb)", "kwtb"));
+        fileChooser.setSelectedFile(new File("kwartrack_backup.kwtb"));
+
+        int result = fileChooser.showSaveDialog(parentFrame);
+        if (result == JFileChooser.APPROVE_OPTION) {
+            File file = fileChooser.getSelectedFile();
+            String path = file.getAbsolutePath();
+            String filepath = path.endsWith(".kwtb") ? path : path + ".kwtb";
+
+            runDataTask("backing up...", () -> dataFacade.exportBackup(filepath), saved -> {
+                if (saved) {
                     JOptionPane.showMessageDialog(parentFrame,
-                            "Data imported successfully!\nAll panels will refresh automatically.",
-                            "Import Complete",
+                            "Backup saved successfully to:\n" + filepath,
+                            "Backup Complete",
                             JOptionPane.INFORMATION_MESSAGE);
-                    PanelObserver.getInstance().notifyObservers();
                 } else {
                     JOptionPane.showMessageDialog(parentFrame,
-                            "Failed to import data. Please check the file format.",
+                            "Failed to save backup. Please try again.",
                             "Error",
                             JOptionPane.ERROR_MESSAGE);
                 }
+            });
+        }
+    }
+
+    private void handleIncrementalBackup() {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Incremental Backup");
+        fileChooser.setFileFilter(new FileNameExtensionFilter("KwarTrack Backups (*.kwtb)", "kwtb"));
+        fileChooser.setSelectedFile(new File("kwartrack_incremental_" +
+                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".kwtb"));
+
+        int result = fileChooser.showSaveDialog(parentFrame);
+        if (result == JFileChooser.APPROVE_OPTION) {
+            File file = fileChooser.getSelectedFile();
+            String path = file.getAbsolutePath();
+            String filepath = path.endsWith(".kwtb") ? path : path + ".kwtb";
+
+            runDataTask("backing up changes...", () -> dataFacade.exportIncrementalBackup(filepath), saved -> {
+                if (saved) {
+                    JOptionPane.showMessageDialog(parentFrame,
+                            "Changes since your last backup saved to:\n" + filepath,
+                            "Backup Complete",
+                            JOptionPane.INFORMATION_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(parentFrame,
+                            "Failed to save incremental backup.\nIf you have not made a full backup yet, use \"Backup Data\" first.",
+                            "Error",
+                            JOptionPane.ERROR_MESSAGE);
+                }
+            });
+        }
+    }
+
+    private void handleRestoreBackup() {
+        int confirm = JOptionPane.showConfirmDialog(parentFrame,
+                "Restoring a backup will REPLACE all of your current data\n" +
+                        "(transactions, budget goals and balance).\n\n" +
+                        "The backup is checked for damage before anything is replaced.\n\n" +
+                        "Continue with restore?",
+                "Confirm Restore",
+                JOptionPane.YES_NO_OPTION,
+                JOptionPane.WARNING_MESSAGE);
+
+        if (confirm == JOptionPane.YES_OPTION) {
+            JFileChooser fileChooser = new JFileChooser();
+            fileChooser.setDialogTitle("Restore Backup");
+            fileChooser.setFileFilter(new FileNameExtensionFilter("KwarTrack Backups (*.kwtb)", "kwtb"));
+
+            int result = fileChooser.showOpenDialog(parentFrame);
+            if (result == JFileChooser.APPROVE_OPTION) {
+                File file = fileChooser.getSelectedFile();
+                runDataTask("restoring...", () -> dataFacade.restoreBackup(file.getAbsolutePath()), restored -> {
+                    if (restored) {
+                        JOptionPane.showMessageDialog(parentFrame,
+                                "Backup restored successfully!\nAll panels will refresh automatically.",
+                                "Restore Complete",
+                                JOptionPane.INFORMATION_MESSAGE);
+                    } else {
+                        JOptionPane.showMessageDialog(parentFrame,
+                                "Failed to restore backup. The file may be damaged or not a KwarTrack backup.",
+                                "Error",
+                                JOptionPane.ERROR_MESSAGE);
+                    }
+                    PanelObserver.getInstance().notifyObservers();
+                });
             }
         }
     }
@@ -373,18 +525,20 @@ public class SettingsPanel extends JPanel implements UITheme.ThemeChangeListener
                 JOptionPane.WARNING_MESSAGE);
 
         if (confirm == JOptionPane.YES_OPTION) {
-            if (dataFacade.resetAllData()) {
-                JOptionPane.showMessageDialog(parentFrame,
-                        "All data has been reset successfully.",
-                        "Reset Complete",
-                        JOptionPane.INFORMATION_MESSAGE);
-                PanelObserver.getInstance().notifyObservers();
-            } else {
-                JOptionPane.showMessageDialog(parentFrame,
-                        "Failed to reset data. Please try again.",
-                        "Error",
-                        JOptionPane.ERROR_MESSAGE);
-            }
+            runDataTask("resetting...", dataFacade::resetAllData, reset -> {
+                if (reset) {
+                    JOptionPane.showMessageDialog(parentFrame,
+                            "All data has been reset successfully.",
+                            "Reset Complete",
+                            JOptionPane.INFORMATION_MESSAGE);
+                    PanelObserver.getInstance().notifyObservers();
+                } else {
+                    JOptionPane.showMessageDialog(parentFrame,
+                            "Failed to reset data. Please try again.",
+                            "Error",
+                            JOptionPane.ERROR_MESSAGE);
+                }
+            });
         }
     }
 }
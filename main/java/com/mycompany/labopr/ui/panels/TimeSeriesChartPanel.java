@@ -0,0 +1,438 @@
+package com.mycompany.labopr.ui.panels;
+
+import com.mycompany.labopr.data.AnalyticsData.DailySeries;
+import com.mycompany.labopr.data.DataFacade;
+import com.mycompany.labopr.ui.theme.UITheme;
+import com.mycompany.labopr.utils.AsyncLoader;
+import com.mycompany.labopr.utils.Downsampler;
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.geom.Path2D;
+import java.awt.image.BufferedImage;
+import java.time.LocalDate;
+
+/**
+ * TimeSeriesChartPanel - daily balance (line) and spending (area) over any date range
+ *
+ * Only the visible window is loaded: the daily aggregates are recomputed for the
+ * window whenever it changes (Ctrl+scroll zooms around the cursor, dragging pans,
+ * double-click shows the whole history). Each series is then reduced with
+ * Largest-Triangle-Three-Buckets to one point per pixel column, so drawing ten years
+ * of days costs about the same as drawing a few hundred.
+ *
+ * Like ChartPanel, the chart is drawn into a cached image that is only redrawn
+ * when the data, the window, the size, the device scale or the theme changes.
+ */
+public class TimeSeriesChartPanel extends JPanel {
+    private static final Font TITLE_FONT = new Font(UITheme.FONT_FAMILY, Font.BOLD, 18);
+    private static final Font AXIS_FONT = new Font(UITheme.FONT_FAMILY, Font.PLAIN, 11);
+    private static final Font LEGEND_FONT = new Font(UITheme.FONT_FAMILY, Font.PLAIN, 12);
+    private static final Font HINT_FONT = new Font(UITheme.FONT_FAMILY, Font.ITALIC, 11);
+    private static final Font NO_DATA_FONT = new Font(UITheme.FONT_FAMILY, Font.ITALIC, 16);
+    private static final BasicStroke AXIS_STROKE = new BasicStroke(2);
+    private static final BasicStroke LINE_STROKE = new BasicStroke(2, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND);
+    private static final Color BALANCE_COLOR = new Color(0x1e88e5);
+    private static final Color SPEND_COLOR = new Color(0xe57373);
+    private static final Color SPEND_FILL = new Color(0xe5, 0x73, 0x73, 90);
+
+    private static final int LEFT = 80;
+    private static final int RIGHT = 75;
+    private static final int TOP = 50;
+    private static final int BOTTOM = 60;
+    private static final int MIN_VIEW_DAYS = 14;
+    private static final int LOAD_DELAY_MS = 150;
+
+    private final DataFacade dataFacade;
+    private final String title;
+    private final AsyncLoader<SeriesModel> loader;
+    private final Timer loadTimer;
+
+    // Whole history and the visible window, in epoch days [from, to)
+    private boolean hasData;
+    private int extentFrom;
+    private int extentTo;
+    private int viewFrom;
+    private int viewTo;
+    private boolean zoomed; // false: the window follows the whole history
+    private DailySeries series;
+
+    // Drag-to-pan state
+    private int dragStartX;
+    private int dragViewFrom;
+
+    // Render cache and the key it was drawn for
+    private long dataVersion;
+    private BufferedImage cachedImage;
+    private long cachedVersion = -1;
+    private int cachedViewFrom;
+    private int cachedViewTo;
+    private int cachedWidth;
+    private int cachedHeight;
+    private double cachedScale;
+    private boolean cachedDarkMode;
+
+    public TimeSeriesChartPanel(String title, DataFacade dataFacade) {
+        this.title = title;
+        this.dataFacade = dataFacade;
+        this.loader = new AsyncLoader<>("Time series", this);
+
+        // Zoom/pan settle before the window is reloaded
+        this.loadTimer = new Timer(LOAD_DELAY_MS, e -> reload());
+        this.loadTimer.setRepeats(false);
+
+        setupPanel();
+    }
+
+    private void setupPanel() {
+        setBackground(Color.WHITE);
+        setBorder(BorderFactory.createCompoundBorder(
+            BorderFactory.createLineBorder(new Color(0xcccccc), 1),
+            BorderFactory.createEmptyBorder(15, 15, 15, 15)
+        ));
+        setPreferredSize(new Dimension(600, 340));
+
+        MouseAdapter mouse = new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                dragStartX = e.getX();
+                dragViewFrom = viewFrom;
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                pan(e.getX());
+            }
+
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (e.getClickCount() == 2) {
+                    resetZoom();
+                }
+            }
+
+            @Override
+            public void mouseWheelMoved(MouseWheelEvent e) {
+                if (!e.isControlDown()) {
+                    // Plain scrolling keeps scrolling the dashboard
+                    Container parent = getParent();
+                    if (parent != null) {
+                        parent.dispatchEvent(SwingUtilities.convertMouseEvent(TimeSeriesChartPanel.this, e, parent));
+                    }
+                    return;
+                }
+                zoom(e.getX(), e.getWheelRotation() < 0 ? 0.8 : 1.25);
+            }
+        };
+        addMouseListener(mouse);
+        addMouseMotionListener(mouse);
+        addMouseWheelListener(mouse);
+    }
+
+    // ==================== LOADING ====================
+
+    /**
+     * Reload the history extent and the visible window's series in the background
+     */
+    public void reload() {
+        boolean followExtent = !zoomed;
+        int requestedFrom = viewFrom;
+        int requestedTo = viewTo;
+
+        loader.load(() -> {
+            String first = dataFacade.getFirstTransactionDate();
+            String last = dataFacade.getLastTransactionDate();
+            if (first == null || last == null) {
+                return new SeriesModel(false, 0, 0, 0, 0, null);
+            }
+            int fromDay = (int) LocalDate.parse(first).toEpochDay();
+            int toDay = (int) LocalDate.parse(last).toEpochDay() + 1;
+
+            int windowFrom = followExtent ? fromDay : Math.max(fromDay, requestedFrom);
+            int windowTo = followExtent ? toDay : Math.min(toDay, requestedTo);
+            if (windowTo <= windowFrom) {
+                windowFrom = fromDay;
+                windowTo = toDay;
+            }
+
+            DailySeries loaded = dataFacade.getDailySeries(
+                LocalDate.ofEpochDay(windowFrom).toString(), LocalDate.ofEpochDay(windowTo).toString());
+            return new SeriesModel(true, fromDay, toDay, windowFrom, windowTo, loaded);
+        }, this::applySeries);
+    }
+
+    private void applySeries(SeriesModel model) {
+        hasData = model.hasData;
+        extentFrom = model.extentFrom;
+        extentTo = model.extentTo;
+        if (!zoomed) {
+            viewFrom = model.viewFrom;
+            viewTo = model.viewTo;
+        }
+        series = model.series;
+        dataVersion++;
+        repaint();
+    }
+
+    public void cleanup() {
+        loadTimer.stop();
+        loader.cancel();
+    }
+
+    // ==================== ZOOM / PAN ====================
+
+    private void zoom(int mouseX, double factor) {
+        if (!hasData) return;
+
+        int span = viewTo - viewFrom;
+        int plotWidth = Math.max(1, getWidth() - LEFT - RIGHT);
+        double anchor = viewFrom + (double) Math.max(0, Math.min(plotWidth, mouseX - LEFT)) / plotWidth * span;
+
+        int newSpan = (int) Math.round(span * factor);
+        newSpan = Math.max(Math.min(MIN_VIEW_DAYS, extentTo - extentFrom), Math.min(extentTo - extentFrom, newSpan));
+        int newFrom = (int) Math.round(anchor - (anchor - viewFrom) * newSpan / span);
+        setWindow(newFrom, newSpan);
+    }
+
+    private void pan(int mouseX) {
+        if (!hasData) return;
+
+        int span = viewTo - viewFrom;
+        int plotWidth = Math.max(1, getWidth() - LEFT - RIGHT);
+        int deltaDays = (int) Math.round((double) (dragStartX - mouseX) / plotWidth * span);
+        setWindow(dragViewFrom + deltaDays, span);
+    }
+
+    private void resetZoom() {
+        if (!hasData) return;
+        setWindow(extentFrom, extentTo - extentFrom);
+    }
+
+    /**
+     * Move the window inside the history; the visible series reloads once input settles
+     */
+    private void setWindow(int from, int span) {
+        int clampedFrom = Math.max(extentFrom, Math.min(from, extentTo - span));
+        if (clampedFrom == viewFrom && clampedFrom + span == viewTo) {
+            return;
+        }
+        viewFrom = clampedFrom;
+        viewTo = clampedFrom + span;
+        zoomed = viewFrom != extentFrom || viewTo != extentTo;
+        repaint(); // redrawn from the series already loaded until the reload lands
+        loadTimer.restart();
+    }
+
+    // ==================== RENDERING ====================
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        int width = getWidth();
+        int height = getHeight();
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+
+        double scale = Math.max(1.0, ((Graphics2D) g).getTransform().getScaleX());
+        boolean darkMode = UITheme.isDarkMode();
+
+        if (cachedImage == null || cachedVersion != dataVersion || cachedViewFrom != viewFrom
+                || cachedViewTo != viewTo || cachedWidth != width || cachedHeight != height
+                || cachedScale != scale || cachedDarkMode != darkMode) {
+            cachedImage = renderChart(width, height, scale);
+            cachedVersion = dataVersion;
+            cachedViewFrom = viewFrom;
+            cachedViewTo = viewTo;
+            cachedWidth = width;
+            cachedHeight = height;
+            cachedScale = scale;
+            cachedDarkMode = darkMode;
+        }
+
+        g.drawImage(cachedImage, 0, 0, width, height, null);
+    }
+
+    private BufferedImage renderChart(int width, int height, double scale) {
+        BufferedImage image = new BufferedImage(
+            (int) Math.ceil(width * scale), (int) Math.ceil(height * scale), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = image.createGraphics();
+        try {
+            g2d.scale(scale, scale);
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+
+            g2d.setFont(TITLE_FONT);
+            g2d.setColor(Color.BLACK);
+            FontMetrics fm = g2d.getFontMetrics();
+            g2d.drawString(title, (width - fm.stringWidth(title)) / 2, 30);
+
+            drawSeries(g2d, width, height);
+        } finally {
+            g2d.dispose();
+        }
+        return image;
+    }
+
+    private void drawSeries(Graphics2D g2d, int width, int height) {
+        int plotX = LEFT;
+        int plotY = TOP;
+        int plotWidth = width - LEFT - RIGHT;
+        int plotHeight = height - TOP - BOTTOM;
+
+        // Part of the loaded series inside the window
+        int first = series == null ? 0 : Math.max(0, viewFrom - series.fromDay);
+        int last = series == null ? 0 : Math.min(series.size(), viewTo - series.fromDay);
+        if (!hasData || plotWidth < 10 || plotHeight < 10 || last - first < 1) {
+            drawNoDataMessage(g2d, width, height);
+            return;
+        }
+
+        double minBalance = Double.MAX_VALUE;
+        double maxBalance = -Double.MAX_VALUE;
+        double maxSpend = 0;
+        for (int i = first; i < last; i++) {
+            minBalance = Math.min(minBalance, series.balance[i]);
+            maxBalance = Math.max(maxBalance, series.balance[i]);
+            maxSpend = Math.max(maxSpend, series.spend[i]);
+        }
+        if (maxBalance - minBalance < 1) {
+            maxBalance += 1;
+            minBalance -= 1;
+        }
+        if (maxSpend <= 0) {
+            maxSpend = 1;
+        }
+
+        double span = viewTo - viewFrom;
+        int bottom = plotY + plotHeight;
+
+        // Spending area (own scale, right axis)
+        int[] spendPoints = Downsampler.lttb(series.spend, first, last, plotWidth);
+        Path2D.Double area = new Path2D.Double();
+        area.moveTo(xOf(series.fromDay + spendPoints[0], plotX, plotWidth, span), bottom);
+        for (int index : spendPoints) {
+            area.lineTo(xOf(series.fromDay + index, plotX, plotWidth, span),
+                bottom - series.spend[index] / maxSpend * plotHeight);
+        }
+        area.lineTo(xOf(series.fromDay + spendPoints[spendPoints.length - 1], plotX, plotWidth, span), bottom);
+        area.closePath();
+        g2d.setColor(SPEND_FILL);
+        g2d.fill(area);
+
+        // Balance line (left axis)
+        int[] balancePoints = Downsampler.lttb(series.balance, first, last, plotWidth);
+        Path2D.Double line = new Path2D.Double();
+        for (int k = 0; k < balancePoints.length; k++) {
+            int index = balancePoints[k];
+            double x = xOf(series.fromDay + index, plotX, plotWidth, span);
+            double y = bottom - (series.balance[index] - minBalance) / (maxBalance - minBalance) * plotHeight;
+            if (k == 0) {
+                line.moveTo(x, y);
+            } else {
+                line.lineTo(x, y);
+            }
+        }
+        g2d.setColor(BALANCE_COLOR);
+        g2d.setStroke(LINE_STROKE);
+        g2d.draw(line);
+
+        drawAxes(g2d, plotX, plotY, plotWidth, plotHeight, minBalance, maxBalance, maxSpend);
+        drawLegend(g2d, width, height);
+    }
+
+    private double xOf(int day, int plotX, int plotWidth, double span) {
+        return plotX + (day - viewFrom + 0.5) / span * plotWidth;
+    }
+
+    private void drawAxes(Graphics2D g2d, int plotX, int plotY, int plotWidth, int plotHeight,
+                          double minBalance, double maxBalance, double maxSpend) {
+        int bottom = plotY + plotHeight;
+        g2d.setColor(Color.BLACK);
+        g2d.setStroke(AXIS_STROKE);
+        g2d.drawLine(plotX, bottom, plotX + plotWidth, bottom);
+        g2d.drawLine(plotX, plotY, plotX, bottom);
+        g2d.drawLine(plotX + plotWidth, plotY, plotX + plotWidth, bottom);
+
+        g2d.setFont(AXIS_FONT);
+        FontMetrics fm = g2d.getFontMetrics();
+
+        // Balance range on the left, spending peak on the right
+        g2d.setColor(BALANCE_COLOR);
+        String top = formatPeso(maxBalance);
+        String low = formatPeso(minBalance);
+        g2d.drawString(top, plotX - 6 - fm.stringWidth(top), plotY + fm.getAscent());
+        g2d.drawString(low, plotX - 6 - fm.stringWidth(low), bottom);
+        g2d.setColor(SPEND_COLOR);
+        g2d.drawString(formatPeso(maxSpend), plotX + plotWidth + 6, plotY + fm.getAscent());
+
+        // Window start, middle and end dates
+        g2d.setColor(Color.BLACK);
+        int lastDay = viewTo - 1;
+        String[] labels = {
+            LocalDate.ofEpochDay(viewFrom).toString(),
+            LocalDate.ofEpochDay(viewFrom + (lastDay - viewFrom) / 2).toString(),
+            LocalDate.ofEpochDay(lastDay).toString()
+        };
+        int labelY = bottom + 16;
+        g2d.drawString(labels[0], plotX, labelY);
+        g2d.drawString(labels[1], plotX + (plotWidth - fm.stringWidth(labels[1])) / 2, labelY);
+        g2d.drawString(labels[2], plotX + plotWidth - fm.stringWidth(labels[2]), labelY);
+    }
+
+    private void drawLegend(Graphics2D g2d, int width, int height) {
+        g2d.setFont(LEGEND_FONT);
+        int legendY = height - 22;
+        int centerX = width / 2;
+
+        g2d.setColor(BALANCE_COLOR);
+        g2d.fillRect(centerX - 150, legendY - 6, 15, 4);
+        g2d.setColor(Color.BLACK);
+        g2d.drawString("Balance", centerX - 130, legendY);
+
+        g2d.setColor(SPEND_FILL);
+        g2d.fillRect(centerX - 50, legendY - 10, 15, 15);
+        g2d.setColor(Color.BLACK);
+        g2d.drawString("Daily spending", centerX - 30, legendY);
+
+        g2d.setFont(HINT_FONT);
+        g2d.setColor(Color.GRAY);
+        String hint = "Ctrl+scroll to zoom, drag to pan, double-click to reset";
+        g2d.drawString(hint, width - 20 - g2d.getFontMetrics().stringWidth(hint), legendY + 16);
+    }
+
+    private void drawNoDataMessage(Graphics2D g2d, int width, int height) {
+        g2d.setFont(NO_DATA_FONT);
+        g2d.setColor(Color.GRAY);
+        String message = "No data available";
+        FontMetrics fm = g2d.getFontMetrics();
+        g2d.drawString(message, (width - fm.stringWidth(message)) / 2, height / 2);
+    }
+
+    private static String formatPeso(double amount) {
+        return "₱" + String.format("%,.0f", amount);
+    }
+
+    /**
+     * Immutable result of one background load
+     */
+    private static final class SeriesModel {
+        final boolean hasData;
+        final int extentFrom;
+        final int extentTo;
+        final int viewFrom;
+        final int viewTo;
+        final DailySeries series;
+
+        SeriesModel(boolean hasData, int extentFrom, int extentTo, int viewFrom, int viewTo, DailySeries series) {
+            this.hasData = hasData;
+            this.extentFrom = extentFrom;
+            this.extentTo = extentTo;
+            this.viewFrom = viewFrom;
+            this.viewTo = viewTo;
+            this.series = series;
+        }
+    }
+}
@@ -2,22 +2,31 @@ package com.mycompany.labopr.ui.panels;
 
 import com.mycompany.labopr.data.DataFacade;
 import com.mycompany.labopr.data.TransactionData.Transaction;
+import com.mycompany.labopr.observer.DataEvent;
 import com.mycompany.labopr.observer.PanelObserver;
 import com.mycompany.labopr.observer.Refreshable;
 import com.mycompany.labopr.ui.factories.ButtonFactory;
 import com.mycompany.labopr.ui.factories.PanelFactory;
 import com.mycompany.labopr.ui.factories.RoundedButtonFactory;
+import com.mycompany.labopr.ui.tables.CurrencyCellRenderer;
+import com.mycompany.labopr.ui.tables.PagedTransactionTableModel;
+import com.mycompany.labopr.ui.tables.TransactionTableModel;
 import com.mycompany.labopr.ui.dialogs.TransactionDialog;
 import com.mycompany.labopr.ui.dialogs.EditTransactionDialog;
 import com.mycompany.labopr.ui.theme.UITheme;
+import com.mycompany.labopr.utils.AsyncLoader;
 import com.mycompany.labopr.utils.TransactionCaretaker;
+import com.mycompany.labopr.utils.TransactionMemento;
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
-import javax.swing.table.DefaultTableCellRenderer;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * TransactionsPanel - FIXED: Balance edit button always white with black text
@@ -33,13 +42,20 @@ public class TransactionsPanel extends JPanel implements UITheme.ThemeChangeList
     private JButton expensesBtn;
     private JButton incomeBtn;
     private JTable transactionTable;
-    private DefaultTableModel tableModel;
+    private PagedTransactionTableModel tableModel;
     private String currentType = "Expenses";
     private JButton themeToggleBtn;
     
     private TransactionCaretaker caretaker = new TransactionCaretaker();
+    private final AsyncLoader<TransactionsViewModel> loader = new AsyncLoader<>("Transactions", this);
+    private final AsyncLoader<Boolean> action = new AsyncLoader<>("Transactions update", this);
+    private boolean actionRunning = false;
+    private boolean balanceChecked = false;
+    private Double startingBalance;
+    private double currentBalance;
     private JButton undoBtn;
     private JButton redoBtn;
+    private JButton addBtn;
     
     private JButton editBtn;
     private JButton deleteBtn;
@@ -65,69 +81,68 @@ public class TransactionsPanel extends JPanel implements UITheme.ThemeChangeList
         UITheme.addThemeChangeListener(this);
         PanelObserver.getInstance().registerObserver(this);
         
-        checkAndSetBalance();
-        
         initComponents();
         loadTransactions();
     }
     
     @Override
     public void refreshData() {
-        SwingUtilities.invokeLater(() -> {
-            loadTransactions();
-        });
+        SwingUtilities.invokeLater(this::loadTransactions);
+    }
+    
+    @Override
+    public Set<DataEvent.Topic> getSubscribedTopics() {
+        return EnumSet.of(DataEvent.Topic.TRANSACTIONS, DataEvent.Topic.BALANCE);
     }
     
+    /**
+     * Ask for a starting balance the first time the panel finds none
+     * Called from the first applied load, which fetched the balance in the background.
+     */
     private void checkAndSetBalance() {
-        Double balance = dataFacade.getBalance();
-        if (balance == null) {
-            String input = JOptionPane.showInputDialog(
-                parentFrame,
-                "Enter your starting balance (₱):",
-                "Set Starting Balance",
-                JOptionPane.QUESTION_MESSAGE
-            );
-            
-            if (input != null && !input.trim().isEmpty()) {
-                try {
-                    double startBalance = Double.parseDouble(input.trim());
-                    if (startBalance >= 0) {
-                        dataFacade.setBalance(startBalance);
-                        PanelObserver.getInstance().notifyObservers();
-                    } else {
-                        JOptionPane.showMessageDialog(
-                            parentFrame,
-                            "Balance must be non-negative. Setting to 0.",
-                            "Invalid Balance",
-                            JOptionPane.WARNING_MESSAGE
-                        );
-                        dataFacade.setBalance(0);
-                        PanelObserver.getInstance().notifyObservers();
-                    }
-                } catch (NumberFormatException e) {
+        String input = JOptionPane.showInputDialog(
+            parentFrame,
+            "Enter your starting balance (₱):",
+            "Set Starting Balance",
+            JOptionPane.QUESTION_MESSAGE
+        );
+        
+        double startBalance = 0;
+        if (input != null && !input.trim().isEmpty()) {
+            try {
+                startBalance = Double.parseDouble(input.trim());
+                if (startBalance < 0) {
                     JOptionPane.showMessageDialog(
                         parentFrame,
-                        "Invalid number format. Setting balance to 0.",
-                        "Error",
-                        JOptionPane.ERROR_MESSAGE
+                        "Balance must be non-negative. Setting to 0.",
+                        "Invalid Balance",
+                        JOptionPane.WARNING_MESSAGE
                     );
-                    dataFacade.setBalance(0);
-                    PanelObserver.getInstance().notifyObservers();
+                    startBalance = 0;
                 }
-            } else {
-                dataFacade.setBalance(0);
-                PanelObserver.getInstance().notifyObservers();
+            } catch (NumberFormatException e) {
+                JOptionPane.showMessageDialog(
+                    parentFrame,
+                    "Invalid number format. Setting balance to 0.",
+                    "Error",
+                    JOptionPane.ERROR_MESSAGE
+                );
+                startBalance = 0;
             }
         }
+        
+        double value = startBalance;
+        runAction(() -> dataFacade.setBalance(value), set -> {
+            if (set) PanelObserver.getInstance().publish(new DataEvent.BalanceChanged());
+        });
     }
     
     private void initComponents() {
         JPanel topPanel = panelFactory.createPanel(new BorderLayout());
         topPanel.setBackground(UITheme.PANEL_BG);
         
-        // Left side: Balance with fixed white button
-        double currentBalance = dataFacade.calculateCurrentBalance();
-        balanceLabel = new JLabel("Total Balance: ₱" + String.format("%,.2f", currentBalance));
+        // Left side: Balance with fixed white button (filled in by the first load)
+        balanceLabel = new JLabel("Total Balance: ₱");
         balanceLabel.setFont(new Font(UITheme.FONT_FAMILY, Font.BOLD, 28));
         balanceLabel.setForeground(UITheme.TEXT_COLOR);
         balanceLabel.setBorder(BorderFactory.createEmptyBorder(0, 10, 0, 0));
@@ -179,13 +194,13 @@ public class TransactionsPanel extends JPanel implements UITheme.ThemeChangeList
         centerPanel.add(togglePanel, BorderLayout.NORTH);
         
         // Transaction table
-        String[] columnNames = {"Date", "Category", "Amount", "Comment"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        tableModel = new PagedTransactionTableModel(
+            dataFacade,
+            TransactionTableModel.Column.DATE,
+            TransactionTableModel.Column.CATEGORY,
+            TransactionTableModel.Column.AMOUNT,
+            TransactionTableModel.Column.COMMENT
+        );
         
         transactionTable = new JTable(tableModel);
         transactionTable.setFont(new Font(UITheme.FONT_FAMILY, Font.PLAIN, 14));
@@ -196,9 +211,7 @@ public class TransactionsPanel extends JPanel implements UITheme.ThemeChangeList
         
         transactionTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         
-        DefaultTableCellRenderer centerRenderer = new DefaultTableCellRenderer();
-        centerRenderer.setHorizontalAlignment(SwingConstants.CENTER);
-        transactionTable.getColumnModel().getColumn(2).setCellRenderer(centerRenderer);
+        transactionTable.getColumnModel().getColumn(2).setCellRenderer(new CurrencyCellRenderer());
         
         transactionTable.getSelectionModel().addListSelectionListener(e -> {
             if (!e.getValueIsAdjusting()) {
@@ -251,7 +264,7 @@ public class TransactionsPanel extends JPanel implements UITheme.ThemeChangeList
         redoBtn.addActionListener(e -> handleRedo());
         redoBtn.setEnabled(false);
         
-        JButton addBtn = buttonFactory.createButton("Add", new Dimension(150, 50));
+        addBtn = buttonFactory.createButton("Add", new Dimension(150, 50));
         addBtn.addActionListener(e -> handleAddTransaction());
         
         rightButtonPanel.add(undoBtn);
@@ -336,7 +349,7 @@ public class TransactionsPanel extends JPanel implements UITheme.ThemeChangeList
     }
     
     private void updateEditDeleteButtons() {
-        boolean enabled = selectedRow != -1;
+        boolean enabled = !actionRunning && selectedRow != -1;
         editBtn.setEnabled(enabled);
         deleteBtn.setEnabled(enabled);
     }
@@ -347,38 +360,71 @@ public class TransactionsPanel extends JPanel implements UITheme.ThemeChangeList
         loadTransactions();
     }
     
+    /**
+     * Fetch the current type's rows and the balance in the background, then fill the table on the EDT
+     */
     private void loadTransactions() {
-        tableModel.setRowCount(0);
-        
-        List<Transaction> transactions = dataFacade.getTransactionsByType(currentType);
-        
-        for (Transaction t : transactions) {
-            tableModel.addRow(new Object[]{
-                t.date,
-                t.category,
-                "₱" + String.format("%,.2f", t.amount),
-                t.comment
-            });
-        }
+        String type = currentType;
+        loader.load(() -> new TransactionsViewModel(
+            type,
+            dataFacade.countTransactionsByType(type),
+            dataFacade.getTransactionPage(type, null, PagedTransactionTableModel.PAGE_SIZE),
+            dataFacade.getBalance(),
+            dataFacade.calculateCurrentBalance()
+        ), this::applyTransactions);
+    }
+    
+    private void applyTransactions(TransactionsViewModel model) {
+        // Only the first page is loaded; the rest is fetched as the table scrolls
+        tableModel.reset(model.type, model.rowCount, model.firstPage);
         
-        updateBalanceDisplay();
+        startingBalance = model.startingBalance;
+        currentBalance = model.currentBalance;
+        balanceLabel.setText("Total Balance: ₱" + String.format("%,.2f", currentBalance));
         updateUndoRedoButtons();
         
         transactionTable.clearSelection();
         selectedRow = -1;
         updateEditDeleteButtons();
+        
+        if (!balanceChecked) {
+            balanceChecked = true;
+            if (startingBalance == null) checkAndSetBalance();
+        }
     }
     
-    private void updateBalanceDisplay() {
-        double currentBalance = dataFacade.calculateCurrentBalance();
-        balanceLabel.setText("Total Balance: ₱" + String.format("%,.2f", currentBalance));
+    /**
+     * Run a write against the data layer off the EDT
+     * The action buttons stay disabled until done gets the result on the EDT, so a
+     * second edit cannot start (or supersede this one) while the first is in flight.
+     */
+    private void runAction(Supplier<Boolean> task, Consumer<Boolean> done) {
+        actionRunning = true;
+        updateActionButtons();
+        action.load(() -> {
+            try {
+                return task.get();
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+                return false;
+            }
+        }, success -> {
+            actionRunning = false;
+            updateActionButtons();
+            done.accept(success);
+        });
+    }
+    
+    private void updateActionButtons() {
+        balanceEditBtn.setEnabled(!actionRunning);
+        addBtn.setEnabled(!actionRunning);
+        updateEditDeleteButtons();
+        updateUndoRedoButtons();
     }
     
     private void handleEditBalance() {
-        Double currentStartingBalance = dataFacade.getBalance();
-        double currentBalance = dataFacade.calculateCurrentBalance();
-
-        if (currentStartingBalance == null) currentStartingBalance = 0.0;
+        if (actionRunning) return;
+        double currentStartingBalance = startingBalance == null ? 0.0 : startingBalance;
         
         String input = JOptionPane.showInputDialog(
             parentFrame,
@@ -391,15 +437,27 @@ public class TransactionsPanel extends JPanel implements UITheme.ThemeChangeList
             try {
                 double newBalance = Double.parseDouble(input.trim());
                 if (newBalance >= 0) {
-                    dataFacade.setBalance(newBalance);
-                    PanelObserver.getInstance().notifyObservers();
-                    
-                    JOptionPane.showMessageDialog(
-                        parentFrame,
-                        "Starting balance updated successfully!",
-                        "Success",
-                        JOptionPane.INFORMATION_MESSAGE
-                    );
+                    runAction(() -> dataFacade.setBalance(newBalance), set -> {
+                        if (!set) {
+                            JOptionPane.showMessageDialog(
+                                parentFrame,
+                                "Failed to update starting balance.",
+                                "Error",
+                                JOptionPane.ERROR_MESSAGE
+                            );
+                            return;
+                        }
+                        caretaker.recordBalanceChange(currentStartingBalance, newBalance);
+                        updateUndoRedoButtons();
+                        PanelObserver.getInstance().publish(new DataEvent.BalanceChanged());
+                        
+                        JOptionPane.showMessageDialog(
+                            parentFrame,
+                            "Starting balance updated successfully!",
+                            "Success",
+                            JOptionPane.INFORMATION_MESSAGE
+                        );
+                    });
                 } else {
                     JOptionPane.showMessageDialog(
                         parentFrame,
@@ -420,39 +478,40 @@ public class TransactionsPanel extends JPanel implements UITheme.ThemeChangeList
     }
     
     private void handleAddTransaction() {
-        caretaker.saveState();
-        
+        if (actionRunning) return;
         TransactionDialog dialog = new TransactionDialog(parentFrame, currentType, buttonFactory, panelFactory);
         
         if (dialog.showDialog()) {
-            PanelObserver.getInstance().notifyObservers();
-        } else {
-            if (caretaker.canUndo()) {
-                caretaker.undo();
-            }
+            Transaction added = dialog.getNewTransaction();
+            
+            // saveTransaction fills in the generated id before runAction hands back the result
+            runAction(() -> dataFacade.saveTransaction(added), success -> {
+                if (success) {
+                    caretaker.recordInsert(added);
+                    updateUndoRedoButtons();
+                    PanelObserver.getInstance().publish(DataEvent.TransactionsChanged.forDates(added.type, added.date));
+                } else {
+                    JOptionPane.showMessageDialog(
+                        parentFrame,
+                        "Failed to add transaction.",
+                        "Error",
+                        JOptionPane.ERROR_MESSAGE
+                    );
+                }
+            });
         }
-        
-        updateUndoRedoButtons();
     }
     
     private void handleEditTransaction() {
-        if (selectedRow == -1) return;
+        if (selectedRow == -1 || actionRunning) return;
         
-        String originalDate = (String) tableModel.getValueAt(selectedRow, 0);
-        String originalCategory = (String) tableModel.getValueAt(selectedRow, 1);
-        String amountStr = ((String) tableModel.getValueAt(selectedRow, 2)).replace("₱", "").replace(",", "");
-        double originalAmount = Double.parseDouble(amountStr);
-        String originalComment = (String) tableModel.getValueAt(selectedRow, 3);
-        
-        caretaker.saveState();
+        Transaction original = tableModel.getTransactionAt(selectedRow);
+        if (original == null) return; // page still loading
         
         EditTransactionDialog dialog = new EditTransactionDialog(
             parentFrame, 
             currentType,
-            originalDate,
-            originalCategory,
-            originalAmount,
-            originalComment,
+            original,
             buttonFactory,
             panelFactory
         );
@@ -460,120 +519,125 @@ public class TransactionsPanel extends JPanel implements UITheme.ThemeChangeList
         if (dialog.showDialog()) {
             Transaction updatedTransaction = dialog.getUpdatedTransaction();
             
-            boolean success = dataFacade.updateTransaction(
-                originalDate, 
-                originalCategory, 
-                originalAmount, 
-                updatedTransaction
-            );
-            
-            if (success) {
-                PanelObserver.getInstance().notifyObservers();
-                
-                JOptionPane.showMessageDialog(
-                    parentFrame,
-                    "Transaction updated successfully!",
-                    "Success",
-                    JOptionPane.INFORMATION_MESSAGE
-                );
-            } else {
-                if (caretaker.canUndo()) {
-                    caretaker.undo();
+            runAction(() -> dataFacade.updateTransaction(original.id, updatedTransaction), success -> {
+                if (success) {
+                    caretaker.recordUpdate(original, updatedTransaction);
+                    updateUndoRedoButtons();
+                    PanelObserver.getInstance().publish(DataEvent.TransactionsChanged.forDates(
+                        original.type, original.date, updatedTransaction.date));
+                    
+                    JOptionPane.showMessageDialog(
+                        parentFrame,
+                        "Transaction updated successfully!",
+                        "Success",
+                        JOptionPane.INFORMATION_MESSAGE
+                    );
+                } else {
+                    JOptionPane.showMessageDialog(
+                        parentFrame,
+                        "Failed to update transaction.",
+                        "Error",
+                        JOptionPane.ERROR_MESSAGE
+                    );
                 }
-                JOptionPane.showMessageDialog(
-                    parentFrame,
-                    "Failed to update transaction.",
-                    "Error",
-                    JOptionPane.ERROR_MESSAGE
-                );
-            }
-        } else {
-            if (caretaker.canUndo()) {
-                caretaker.undo();
-            }
+            });
         }
-        
-        updateUndoRedoButtons();
     }
     
     private void handleDeleteTransaction() {
-        if (selectedRow == -1) return;
+        if (selectedRow == -1 || actionRunning) return;
         
-        String date = (String) tableModel.getValueAt(selectedRow, 0);
-        String category = (String) tableModel.getValueAt(selectedRow, 1);
-        String amountStr = ((String) tableModel.getValueAt(selectedRow, 2)).replace("₱", "").replace(",", "");
-        double amount = Double.parseDouble(amountStr);
+        Transaction target = tableModel.getTransactionAt(selectedRow);
+        if (target == null) return; // page still loading
         
         int confirm = JOptionPane.showConfirmDialog(
             parentFrame,
             "Are you sure you want to delete this transaction?\n\n" +
-            "Date: " + date + "\n" +
-            "Category: " + category + "\n" +
-            "Amount: ₱" + String.format("%,.2f", amount),
+            "Date: " + target.date + "\n" +
+            "Category: " + target.category + "\n" +
+            "Amount: ₱" + String.format("%,.2f", target.amount),
             "Confirm Delete",
             JOptionPane.YES_NO_OPTION,
             JOptionPane.WARNING_MESSAGE
         );
         
         if (confirm == JOptionPane.YES_OPTION) {
-            caretaker.saveState();
-            
-            boolean success = dataFacade.deleteTransaction(date, category, amount);
-            
-            if (success) {
-                PanelObserver.getInstance().notifyObservers();
-                
-                JOptionPane.showMessageDialog(
-                    parentFrame,
-                    "Transaction deleted successfully!",
-                    "Success",
-                    JOptionPane.INFORMATION_MESSAGE
-                );
-            } else {
-                if (caretaker.canUndo()) {
-                    caretaker.undo();
+            runAction(() -> dataFacade.deleteTransaction(target.id), success -> {
+                if (success) {
+                    caretaker.recordDelete(target);
+                    updateUndoRedoButtons();
+                    PanelObserver.getInstance().publish(DataEvent.TransactionsChanged.forDates(target.type, target.date));
+                    
+                    JOptionPane.showMessageDialog(
+                        parentFrame,
+                        "Transaction deleted successfully!",
+                        "Success",
+                        JOptionPane.INFORMATION_MESSAGE
+                    );
+                } else {
+                    JOptionPane.showMessageDialog(
+                        parentFrame,
+                        "Failed to delete transaction.",
+                        "Error",
+                        JOptionPane.ERROR_MESSAGE
+                    );
                 }
-                JOptionPane.showMessageDialog(
-                    parentFrame,
-                    "Failed to delete transaction.",
-                    "Error",
-                    JOptionPane.ERROR_MESSAGE
-                );
-            }
-            
-            updateUndoRedoButtons();
+            });
         }
     }
     
     private void handleUndo() {
-        if (caretaker.undo()) {
-            PanelObserver.getInstance().notifyObservers();
+        TransactionMemento change = caretaker.peekUndo();
+        if (change == null || actionRunning) return;
+        
+        runAction(caretaker::undo, undone -> {
+            updateUndoRedoButtons();
+            if (!undone) return;
+            PanelObserver.getInstance().publish(changeEvent(change));
             
             JOptionPane.showMessageDialog(
                 parentFrame,
-                "Transaction undone successfully!",
+                change.getKind() == TransactionMemento.Kind.BALANCE
+                    ? "Starting balance change undone successfully!"
+                    : "Transaction undone successfully!",
                 "Undo",
                 JOptionPane.INFORMATION_MESSAGE
             );
-        }
+        });
     }
     
     private void handleRedo() {
-        if (caretaker.redo()) {
-            PanelObserver.getInstance().notifyObservers();
+        TransactionMemento change = caretaker.peekRedo();
+        if (change == null || actionRunning) return;
+        
+        runAction(caretaker::redo, redone -> {
+            updateUndoRedoButtons();
+            if (!redone) return;
+            PanelObserver.getInstance().publish(changeEvent(change));
             
             JOptionPane.showMessageDialog(
                 parentFrame,
-                "Transaction redone successfully!",
+                change.getKind() == TransactionMemento.Kind.BALANCE
+                    ? "Starting balance change redone successfully!"
+                    : "Transaction redone successfully!",
                 "Redo",
                 JOptionPane.INFORMATION_MESSAGE
             );
-        }
+        });
+    }
+    
+    /**
+     * Event for an undone or redone change: a balance edit only affects the balance topic
+     */
+    private static DataEvent changeEvent(TransactionMemento change) {
+        return change.getKind() == TransactionMemento.Kind.BALANCE
+            ? new DataEvent.BalanceChanged()
+            : new DataEvent.TransactionsChanged();
     }
     
     private void updateUndoRedoButtons() {
-        undoBtn.setEnabled(caretaker.canUndo());
-        redoBtn.setEnabled(caretaker.canRedo());
+        undoBtn.setEnabled(!actionRunning && caretaker.canUndo());
+        redoBtn.setEnabled(!actionRunning && caretaker.canRedo());
     }
     
     @Override
@@ -609,7 +673,28 @@ public class TransactionsPanel extends JPanel implements UITheme.ThemeChangeList
     }
     
     public void cleanup() {
+        loader.cancel();
         PanelObserver.getInstance().unregisterObserver(this);
         UITheme.removeThemeChangeListener(this);
     }
+    
+    /**
+     * Immutable result of one background load
+     */
+    private static final class TransactionsViewModel {
+        final String type;
+        final int rowCount;
+        final List<Transaction> firstPage;
+        final Double startingBalance; // null until the user sets one
+        final double currentBalance;
+        
+        TransactionsViewModel(String type, int rowCount, List<Transaction> firstPage,
+                              Double startingBalance, double currentBalance) {
+            this.type = type;
+            this.rowCount = rowCount;
+            this.firstPage = Collections.unmodifiableList(firstPage);
+            this.startingBalance = startingBalance;
+            this.currentBalance = currentBalance;
+        }
+    }
 }
\ No newline at end of file
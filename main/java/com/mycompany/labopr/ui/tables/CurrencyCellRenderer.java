@@ -0,0 +1,24 @@
+package com.mycompany.labopr.ui.tables;
+
+import javax.swing.SwingConstants;
+import javax.swing.table.DefaultTableCellRenderer;
+
+/**
+ * Formats numeric cells as pesos (₱1,234.56) at paint time
+ * Only visible cells are formatted, instead of every row when the model is filled.
+ */
+public class CurrencyCellRenderer extends DefaultTableCellRenderer {
+
+    public CurrencyCellRenderer() {
+        setHorizontalAlignment(SwingConstants.CENTER);
+    }
+
+    @Override
+    protected void setValue(Object value) {
+        if (value instanceof Number) {
+            setText("₱" + String.format("%,.2f", ((Number) value).doubleValue()));
+        } else {
+            setText(value == null ? "" : value.toString());
+        }
+    }
+}
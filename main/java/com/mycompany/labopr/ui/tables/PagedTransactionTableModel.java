@@ -0,0 +1,219 @@
+package com.mycompany.labopr.ui.tables;
+
+import com.mycompany.labopr.data.DataFacade;
+import com.mycompany.labopr.data.TransactionData.PageKey;
+import com.mycompany.labopr.data.TransactionData.Transaction;
+import javax.swing.SwingUtilities;
+import javax.swing.table.AbstractTableModel;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Virtualized table model over one transaction type, loaded a page at a time
+ *
+ * The table only knows the row count up front. Pages of PAGE_SIZE rows are fetched
+ * in the background with keyset pagination when a row on them is first painted,
+ * together with the neighbouring pages (prefetch), and kept in a small LRU. Rows that
+ * are not loaded yet paint as "Loading…" until their page arrives.
+ *
+ * Each loaded page records the key of its last row, which is where the next page
+ * starts. Jumping to a page whose predecessor was never loaded (dragging the scroll
+ * bar) first looks that key up by position on the index. That lookup is a
+ * LIMIT 1 OFFSET query, O(position) in index entries, and the only step that is not a
+ * keyset seek: the (date, id) key of an arbitrary row number cannot be derived
+ * without counting rows. To keep a long drag from queueing one such scan per page it
+ * crosses, a request whose page is no longer near the last painted row is dropped on
+ * the page loader thread before it queries anything; it is requested again if its
+ * rows are painted later.
+ *
+ * Memory and first paint are bounded by PAGE_SIZE x MAX_CACHED_PAGES rows no matter
+ * how long the history is. All state is confined to the EDT; only the fetches run
+ * on the page loader thread.
+ */
+public class PagedTransactionTableModel extends AbstractTableModel {
+
+    public static final int PAGE_SIZE = 100;
+    private static final int PREFETCH_PAGES = 1;
+    // Pages further than this from the last painted page are skipped before fetching
+    private static final int KEEP_DISTANCE = PREFETCH_PAGES + 1;
+    private static final int MAX_CACHED_PAGES = 12;
+    private static final String LOADING = "Loading…";
+
+    // One thread: page requests run in the order rows were painted
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "kwartrack-pages");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final DataFacade dataFacade;
+    private final TransactionTableModel.Column[] columns;
+
+    private String type;
+    private int rowCount;
+    private long generation; // bumped on reset so pages of an older view are dropped
+    private volatile int focusPage; // page of the last painted row, read by the page loader
+
+    private final Map<Integer, List<Transaction>> pages = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<Transaction>> eldest) {
+            return size() > MAX_CACHED_PAGES;
+        }
+    };
+    private final Map<Integer, PageKey> pageStarts = new HashMap<>(); // page -> last key of the page before it
+    private final Set<Integer> inFlight = new HashSet<>();
+    private long pagesFetched;
+
+    public PagedTransactionTableModel(DataFacade dataFacade, TransactionTableModel.Column... columns) {
+        this.dataFacade = dataFacade;
+        this.columns = columns.clone();
+    }
+
+    /**
+     * Show a new view: a type, its row count and its first page (fetched by the caller
+     * in the background). Drops every cached page. Must be called on the EDT.
+     */
+    public void reset(String type, int rowCount, List<Transaction> firstPage) {
+        this.type = type;
+        this.rowCount = rowCount;
+        generation++;
+        focusPage = 0;
+        pages.clear();
+        pageStarts.clear();
+        inFlight.clear();
+        if (firstPage != null) {
+            storePage(0, firstPage);
+        }
+        fireTableDataChanged();
+    }
+
+    /**
+     * Transaction at a model row, or null if its page is not loaded
+     */
+    public Transaction getTransactionAt(int row) {
+        List<Transaction> page = pages.get(row / PAGE_SIZE);
+        int offset = row % PAGE_SIZE;
+        return page != null && offset < page.size() ? page.get(offset) : null;
+    }
+
+    public int getCachedPageCount() {
+        return pages.size();
+    }
+
+    public long getPagesFetched() {
+        return pagesFetched;
+    }
+
+    // ==================== TableModel ====================
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columns[column].getTitle();
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return columns[column].getValueClass();
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        int pageIndex = row / PAGE_SIZE;
+        focusPage = pageIndex;
+        for (int p = pageIndex - PREFETCH_PAGES; p <= pageIndex + PREFETCH_PAGES; p++) {
+            requestPage(p);
+        }
+
+        Transaction t = getTransactionAt(row);
+        if (t == null) {
+            return column == 0 ? LOADING : null;
+        }
+        return columns[column].valueOf(t);
+    }
+
+    // ==================== PAGE LOADING ====================
+
+    private int pageCount() {
+        return (rowCount + PAGE_SIZE - 1) / PAGE_SIZE;
+    }
+
+    private void requestPage(int pageIndex) {
+        if (pageIndex < 0 || pageIndex >= pageCount()
+                || pages.containsKey(pageIndex) || inFlight.contains(pageIndex)) {
+            return;
+        }
+        inFlight.add(pageIndex);
+
+        long pageGeneration = generation;
+        String pageType = type;
+        boolean startKnown = pageIndex == 0 || pageStarts.containsKey(pageIndex);
+        PageKey knownStart = pageStarts.get(pageIndex);
+
+        executor.submit(() -> {
+            if (Math.abs(pageIndex - focusPage) > KEEP_DISTANCE) {
+                // Scrolled past while queued: let a later paint request it again
+                SwingUtilities.invokeLater(() -> {
+                    if (pageGeneration == generation) {
+                        inFlight.remove(pageIndex);
+                    }
+                });
+                return;
+            }
+
+            List<Transaction> rows;
+            try {
+                PageKey after = startKnown
+                    ? knownStart
+                    : dataFacade.getTransactionKeyAt(pageType, pageIndex * PAGE_SIZE - 1);
+                rows = (startKnown || after != null)
+                    ? dataFacade.getTransactionPage(pageType, after, PAGE_SIZE)
+                    : Collections.emptyList();
+            } catch (RuntimeException e) {
+                System.err.println("✗ Failed to load transactions page " + pageIndex + ": " + e.getMessage());
+                SwingUtilities.invokeLater(() -> {
+                    if (pageGeneration == generation) {
+                        inFlight.remove(pageIndex);
+                    }
+                });
+                return;
+            }
+
+            SwingUtilities.invokeLater(() -> {
+                if (pageGeneration != generation) {
+                    return; // view was reset while fetching
+                }
+                inFlight.remove(pageIndex);
+                storePage(pageIndex, rows);
+                int first = pageIndex * PAGE_SIZE;
+                int last = Math.min(rowCount, first + PAGE_SIZE) - 1;
+                if (first <= last) {
+                    fireTableRowsUpdated(first, last);
+                }
+            });
+        });
+    }
+
+    private void storePage(int pageIndex, List<Transaction> rows) {
+        pages.put(pageIndex, Collections.unmodifiableList(new ArrayList<>(rows)));
+        if (!rows.isEmpty()) {
+            pageStarts.put(pageIndex + 1, PageKey.of(rows.get(rows.size() - 1)));
+        }
+        pagesFetched++;
+    }
+}
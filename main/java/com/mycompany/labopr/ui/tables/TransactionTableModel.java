@@ -0,0 +1,124 @@
+package com.mycompany.labopr.ui.tables;
+
+import com.mycompany.labopr.data.TransactionData.Transaction;
+import javax.swing.table.AbstractTableModel;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Table model that views a list of transactions directly
+ *
+ * Unlike DefaultTableModel nothing is copied into Vectors: getValueAt reads the
+ * transaction for the row, and amounts stay doubles until CurrencyCellRenderer
+ * formats the cells that are actually painted. Replacing the list fires a single
+ * fireTableDataChanged(), so loading 100k rows is O(1) for the model.
+ *
+ * The list must not be modified after it is handed over (view models pass
+ * unmodifiable snapshot lists).
+ */
+public class TransactionTableModel extends AbstractTableModel {
+
+    public enum Column {
+        DATE("Date", String.class),
+        TYPE("Type", String.class),
+        CATEGORY("Category", String.class),
+        AMOUNT("Amount", Double.class),
+        COMMENT("Comment", String.class);
+
+        private final String title;
+        private final Class<?> valueClass;
+
+        Column(String title, Class<?> valueClass) {
+            this.title = title;
+            this.valueClass = valueClass;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public Class<?> getValueClass() {
+            return valueClass;
+        }
+
+        /**
+         * Cell value of this column for a transaction (raw, formatted by the renderer)
+         */
+        public Object valueOf(Transaction t) {
+            switch (this) {
+                case DATE:     return t.date;
+                case TYPE:     return t.type;
+                case CATEGORY: return t.category;
+                case AMOUNT:   return t.amount;
+                case COMMENT:  return t.comment;
+                default:       return null;
+            }
+        }
+    }
+
+    private final Column[] columns;
+    private List<Transaction> rows = Collections.emptyList();
+
+    public TransactionTableModel(Column... columns) {
+        this.columns = columns.clone();
+    }
+
+    /**
+     * Show a new set of rows (one table event)
+     */
+    public void setTransactions(List<Transaction> transactions) {
+        this.rows = transactions != null ? transactions : Collections.emptyList();
+        fireTableDataChanged();
+    }
+
+    /**
+     * Transaction displayed at a model row
+     */
+    public Transaction getTransactionAt(int row) {
+        return rows.get(row);
+    }
+
+    /**
+     * Model column index of a column, or -1 if this model does not show it
+     */
+    public int indexOf(Column column) {
+        for (int i = 0; i < columns.length; i++) {
+            if (columns[i] == column) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // ==================== TableModel ====================
+
+    @Override
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columns[column].title;
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return columns[column].valueClass;
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        return columns[column].valueOf(rows.get(row));
+    }
+}
@@ -0,0 +1,105 @@
+package com.mycompany.labopr.utils;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Loads panel data off the Event Dispatch Thread
+ *
+ * fetch runs on a shared background executor and must only touch the data layer;
+ * it returns an immutable view model that apply then pushes into Swing components
+ * on the EDT. Every load gets a generation number: when a newer load is started
+ * (e.g. the user flips through months quickly) the older one is cancelled and its
+ * result is dropped, so the UI only ever shows the latest request.
+ *
+ * While a load is in flight the owner shows a wait cursor. Each refresh logs how long
+ * the fetch took in the background and how long the EDT was blocked applying it.
+ */
+public class AsyncLoader<T> {
+
+    private static final AtomicInteger threadCounter = new AtomicInteger();
+    private static final ExecutorService executor = Executors.newFixedThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "kwartrack-loader-" + threadCounter.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final String name;
+    private final JComponent owner;
+    private final AtomicLong generation = new AtomicLong();
+    private Future<?> pending; // only touched on the EDT
+
+    public AsyncLoader(String name, JComponent owner) {
+        this.name = name;
+        this.owner = owner;
+    }
+
+    /**
+     * Start a load, superseding any load still in flight
+     * Must be called on the EDT
+     */
+    public void load(Supplier<T> fetch, Consumer<T> apply) {
+        long loadGeneration = generation.incrementAndGet();
+        if (pending != null) {
+            pending.cancel(false);
+        }
+        owner.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+
+        pending = executor.submit(() -> {
+            if (loadGeneration != generation.get()) return;
+
+            long fetchStart = System.nanoTime();
+            T model;
+            try {
+                model = fetch.get();
+            } catch (RuntimeException e) {
+                System.err.println("✗ " + name + " load failed: " + e.getMessage());
+                e.printStackTrace();
+                SwingUtilities.invokeLater(() -> finish(loadGeneration));
+                return;
+            }
+            double fetchMs = (System.nanoTime() - fetchStart) / 1_000_000.0;
+
+            SwingUtilities.invokeLater(() -> {
+                if (loadGeneration != generation.get()) {
+                    System.out.println("⚠ " + name + ": dropped superseded load");
+                    return;
+                }
+                long edtStart = System.nanoTime();
+                try {
+                    apply.accept(model);
+                } finally {
+                    finish(loadGeneration);
+                }
+                System.out.println(String.format("✓ %s refreshed: fetch %.1f ms (background), EDT blocked %.1f ms",
+                    name, fetchMs, (System.nanoTime() - edtStart) / 1_000_000.0));
+            });
+        });
+    }
+
+    /**
+     * Drop any load in flight (panel cleanup)
+     */
+    public void cancel() {
+        generation.incrementAndGet();
+        if (pending != null) {
+            pending.cancel(false);
+            pending = null;
+        }
+        owner.setCursor(Cursor.getDefaultCursor());
+    }
+
+    private void finish(long loadGeneration) {
+        if (loadGeneration == generation.get()) {
+            pending = null;
+            owner.setCursor(Cursor.getDefaultCursor());
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.mycompany.labopr.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Buffered UTF-8 CSV writer over a FileChannel
+ *
+ * Text is encoded by hand into one reusable byte array, which is written to the
+ * channel whenever it fills up, so memory stays at BUFFER_BYTES however much is
+ * written. Amounts are formatted from whole cents with plain integer arithmetic:
+ * always two decimals and a '.' separator, independent of the default locale, and no
+ * Formatter or boxing per value.
+ */
+public final class ChannelCsvWriter implements Closeable {
+
+    public static final int BUFFER_BYTES = 256 << 10;
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+
+    private final FileChannel channel;
+    private final byte[] bytes = new byte[BUFFER_BYTES];
+    private final ByteBuffer view = ByteBuffer.wrap(bytes);
+    private final byte[] digits = new byte[20];
+    private int position = 0;
+    private long bytesWritten = 0;
+
+    private ChannelCsvWriter(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Create or truncate the file at path
+     */
+    public static ChannelCsvWriter open(Path path) throws IOException {
+        return new ChannelCsvWriter(FileChannel.open(path,
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING));
+    }
+
+    /**
+     * Append text as is (no quoting)
+     */
+    public ChannelCsvWriter write(String text) throws IOException {
+        return write(text, 0, text.length());
+    }
+
+    /**
+     * Append text[from, to) as is
+     */
+    private ChannelCsvWriter write(String text, int from, int to) throws IOException {
+        int length = to - from;
+        if (position + length * 3 > bytes.length) {
+            flush();
+        }
+        if (length * 3 > bytes.length) {
+            for (int i = from; i < to; i++) {
+                ensure(4);
+                i = encode(text, i);
+            }
+            return this;
+        }
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                bytes[position++] = (byte) c;
+            } else {
+                i = encode(text, i);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Append a field, quoting it only if it contains a comma, quote or line break
+     */
+    public ChannelCsvWriter field(String value) throws IOException {
+        if (value == null) {
+            return this;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return quoted(value);
+            }
+        }
+        return write(value);
+    }
+
+    /**
+     * Append a field in double quotes, doubling embedded quotes (RFC 4180)
+     */
+    public ChannelCsvWriter quoted(String value) throws IOException {
+        ensure(1);
+        bytes[position++] = '"';
+        if (value != null) {
+            int start = 0;
+            int quote;
+            while ((quote = value.indexOf('"', start)) >= 0) {
+                write(value, start, quote + 1);
+                ensure(1);
+                bytes[position++] = '"';
+                start = quote + 1;
+            }
+            write(value, start, value.length());
+        }
+        ensure(1);
+        bytes[position++] = '"';
+        return this;
+    }
+
+    /**
+     * Append an amount given in cents as [-]units.cc
+     */
+    public ChannelCsvWriter cents(long cents) throws IOException {
+        ensure(24);
+        if (cents < 0) {
+            bytes[position++] = '-';
+        }
+        // Negate into the unsigned magnitude; Long.MIN_VALUE stays correct via unsigned division
+        long magnitude = cents < 0 ? -cents : cents;
+        long units = Long.divideUnsigned(magnitude, 100);
+        int fraction = (int) Long.remainderUnsigned(magnitude, 100);
+
+        int count = 0;
+        do {
+            digits[count++] = (byte) ('0' + Long.remainderUnsigned(units, 10));
+            units = Long.divideUnsigned(units, 10);
+        } while (units != 0);
+        while (count > 0) {
+            bytes[position++] = digits[--count];
+        }
+        bytes[position++] = '.';
+        bytes[position++] = (byte) ('0' + fraction / 10);
+        bytes[position++] = (byte) ('0' + fraction % 10);
+        return this;
+    }
+
+    public ChannelCsvWriter comma() throws IOException {
+        ensure(1);
+        bytes[position++] = ',';
+        return this;
+    }
+
+    public ChannelCsvWriter newLine() throws IOException {
+        ensure(LINE_SEPARATOR.length);
+        for (byte b : LINE_SEPARATOR) {
+            bytes[position++] = b;
+        }
+        return this;
+    }
+
+    /**
+     * Bytes handed to the channel so far, plus what is still buffered
+     */
+    public long getBytesWritten() {
+        return bytesWritten + position;
+    }
+
+    public void flush() throws IOException {
+        view.position(0).limit(position);
+        while (view.hasRemaining()) {
+            channel.write(view);
+        }
+        bytesWritten += position;
+        position = 0;
+        view.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void ensure(int needed) throws IOException {
+        if (position + needed > bytes.length) {
+            flush();
+        }
+    }
+
+    /**
+     * UTF-8 encode the char at index (and its low surrogate); returns the last index used
+     */
+    private int encode(String text, int index) {
+        char c = text.charAt(index);
+        if (c < 0x80) {
+            bytes[position++] = (byte) c;
+        } else if (c < 0x800) {
+            bytes[position++] = (byte) (0xC0 | (c >> 6));
+            bytes[position++] = (byte) (0x80 | (c & 0x3F));
+        } else if (Character.isHighSurrogate(c) && index + 1 < text.length()
+                && Character.isLowSurrogate(text.charAt(index + 1))) {
+            int codePoint = Character.toCodePoint(c, text.charAt(++index));
+            bytes[position++] = (byte) (0xF0 | (codePoint >> 18));
+            bytes[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+            bytes[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+            bytes[position++] = (byte) (0x80 | (codePoint & 0x3F));
+        } else if (Character.isSurrogate(c)) {
+            bytes[position++] = '?'; // unpaired surrogate
+        } else {
+            bytes[position++] = (byte) (0xE0 | (c >> 12));
+            bytes[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            bytes[position++] = (byte) (0x80 | (c & 0x3F));
+        }
+        return index;
+    }
+}
@@ -0,0 +1,183 @@
+package com.mycompany.labopr.utils;
+
+import java.util.*;
+
+/**
+ * Hand-written RFC 4180 tokenizer over a char buffer
+ *
+ * Fields are separated by commas and records by LF, CRLF or a lone CR. A field that
+ * starts with a double quote may contain commas, line breaks and doubled quotes ("").
+ * Quotes anywhere else are ordinary characters, and text after a closing quote is kept
+ * as part of the field. Blank records are skipped.
+ *
+ * Each field is copied straight out of the buffer with one String allocation; only a
+ * quoted field containing doubled quotes goes through a StringBuilder. There is no
+ * regex and no intermediate line String.
+ *
+ * recordBoundaries runs the same state machine without building fields, so a buffer
+ * can be cut into ranges that each start and end on a record boundary and then be
+ * tokenized independently (see ParallelCsvReader).
+ */
+public final class CsvTokenizer {
+
+    // Scanner states, shared by tokenize and recordBoundaries
+    private static final int FIELD_START = 0;
+    private static final int UNQUOTED = 1;
+    private static final int QUOTED = 2;
+    private static final int QUOTE_IN_QUOTED = 3; // a quote inside a quoted field: closing or escaped
+
+    private CsvTokenizer() {
+    }
+
+    /**
+     * Tokenize the records in buf[from, to) and append them to out
+     * The range must start on a record boundary; a record cut off by the end of the
+     * range (only possible at end of input) is returned as it stands.
+     */
+    public static void tokenize(char[] buf, int from, int to, List<String[]> out) {
+        String[] fields = new String[8];
+        int count = 0;
+        int i = from;
+
+        while (i < to) {
+            String value;
+            if (buf[i] == '"') {
+                StringBuilder escaped = null;
+                int segment = ++i;
+                while (true) {
+                    if (i >= to) { // unterminated quote at end of input
+                        value = escaped == null ? new String(buf, segment, i - segment)
+                            : escaped.append(buf, segment, i - segment).toString();
+                        break;
+                    }
+                    if (buf[i] == '"') {
+                        if (i + 1 < to && buf[i + 1] == '"') {
+                            if (escaped == null) escaped = new StringBuilder();
+                            escaped.append(buf, segment, i + 1 - segment);
+                            i += 2;
+                            segment = i;
+                            continue;
+                        }
+                        value = escaped == null ? new String(buf, segment, i - segment)
+                            : escaped.append(buf, segment, i - segment).toString();
+                        i++;
+                        break;
+                    }
+                    i++;
+                }
+                int tail = i;
+                while (i < to && !isDelimiter(buf[i])) i++;
+                if (i > tail) {
+                    value = value.concat(new String(buf, tail, i - tail));
+                }
+            } else {
+                int start = i;
+                while (i < to && !isDelimiter(buf[i])) i++;
+                value = new String(buf, start, i - start);
+            }
+
+            if (count == fields.length) {
+                fields = Arrays.copyOf(fields, count * 2);
+            }
+            fields[count++] = value;
+
+            if (i >= to) {
+                break;
+            }
+            char delimiter = buf[i++];
+            if (delimiter == ',') {
+                if (i >= to) { // trailing comma at end of input
+                    if (count == fields.length) fields = Arrays.copyOf(fields, count + 1);
+                    fields[count++] = "";
+                    break;
+                }
+                continue;
+            }
+            if (delimiter == '\r' && i < to && buf[i] == '\n') {
+                i++;
+            }
+            emit(fields, count, out);
+            count = 0;
+        }
+        if (count > 0) {
+            emit(fields, count, out);
+        }
+    }
+
+    /**
+     * Offsets that cut buf[from, to) into up to parts ranges of similar size, each
+     * starting and ending on a record boundary (just after an unquoted LF or lone CR,
+     * the same record ends tokenize recognizes)
+     *
+     * The result starts with from and ends with the end of the last complete record.
+     * When endOfInput is false a trailing partial record is left out, so the caller can
+     * carry it into the next read; when true the last range runs to to.
+     * A result of length 1 means no complete record was found.
+     */
+    public static int[] recordBoundaries(char[] buf, int from, int to, int parts, boolean endOfInput) {
+        int[] bounds = new int[parts + 1];
+        int found = 0;
+        bounds[found++] = from;
+        long span = to - from;
+        int nextTarget = from + (int) (span / parts);
+        int lastEnd = from;
+        int state = FIELD_START;
+
+        for (int i = from; i < to; i++) {
+            char c = buf[i];
+            switch (state) {
+                case QUOTED:
+                    if (c == '"') state = QUOTE_IN_QUOTED;
+                    continue;
+                case QUOTE_IN_QUOTED:
+                    if (c == '"') {
+                        state = QUOTED;
+                        continue;
+                    }
+                    break;
+                case FIELD_START:
+                    if (c == '"') {
+                        state = QUOTED;
+                        continue;
+                    }
+                    break;
+                default:
+                    break;
+            }
+            // Outside quotes
+            if (c == ',') {
+                state = FIELD_START;
+            } else if (c == '\n' || c == '\r') {
+                state = FIELD_START;
+                // CRLF ends at its LF, a lone CR ends the record itself. A CR in the last
+                // slot waits for the next read, which shows whether an LF follows.
+                if (c == '\n' || (i + 1 < to && buf[i + 1] != '\n')) {
+                    lastEnd = i + 1;
+                    if (lastEnd >= nextTarget && found < parts) {
+                        bounds[found++] = lastEnd;
+                        nextTarget = from + (int) (span * found / parts);
+                    }
+                }
+            } else {
+                state = UNQUOTED;
+            }
+        }
+
+        int end = endOfInput ? to : lastEnd;
+        if (end > bounds[found - 1]) {
+            bounds[found++] = end;
+        }
+        return Arrays.copyOf(bounds, found);
+    }
+
+    private static boolean isDelimiter(char c) {
+        return c == ',' || c == '\n' || c == '\r';
+    }
+
+    private static void emit(String[] fields, int count, List<String[]> out) {
+        if (count == 1 && fields[0].isBlank()) {
+            return;
+        }
+        out.add(Arrays.copyOf(fields, count));
+    }
+}
@@ -0,0 +1,72 @@
+package com.mycompany.labopr.utils;
+
+/**
+ * Largest-Triangle-Three-Buckets downsampling for evenly spaced series
+ *
+ * Picks threshold points that keep the visual shape of the line: the first and last
+ * points are kept, the rest of the series is split into equal buckets, and from each
+ * bucket the point forming the largest triangle with the previously picked point and
+ * the average of the next bucket is kept. Peaks and dips survive, so a series of any
+ * length can be drawn with one point per pixel column.
+ */
+public final class Downsampler {
+
+    private Downsampler() {
+    }
+
+    /**
+     * Indices of the points to keep from values[from, to), in ascending order
+     * (x is the index). Returns every index when the range already fits.
+     */
+    public static int[] lttb(double[] values, int from, int to, int threshold) {
+        int length = to - from;
+        if (length <= 0) {
+            return new int[0];
+        }
+        if (threshold >= length || threshold < 3) {
+            int[] all = new int[length];
+            for (int i = 0; i < length; i++) {
+                all[i] = from + i;
+            }
+            return all;
+        }
+
+        int[] sampled = new int[threshold];
+        double bucketSize = (double) (length - 2) / (threshold - 2);
+        int a = from;
+        sampled[0] = from;
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            // Average of the next bucket (the third triangle vertex)
+            int avgStart = from + (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            int avgEnd = Math.min(from + (int) Math.floor((bucket + 2) * bucketSize) + 1, to);
+            double avgX = 0;
+            double avgY = 0;
+            for (int i = avgStart; i < avgEnd; i++) {
+                avgX += i;
+                avgY += values[i];
+            }
+            int avgCount = avgEnd - avgStart;
+            avgX /= avgCount;
+            avgY /= avgCount;
+
+            // Point of this bucket with the largest triangle
+            int rangeStart = from + (int) Math.floor(bucket * bucketSize) + 1;
+            int rangeEnd = from + (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            double maxArea = -1;
+            int next = rangeStart;
+            for (int i = rangeStart; i < rangeEnd; i++) {
+                double area = Math.abs((a - avgX) * (values[i] - values[a]) - (a - i) * (avgY - values[a]));
+                if (area > maxArea) {
+                    maxArea = area;
+                    next = i;
+                }
+            }
+            sampled[bucket + 1] = next;
+            a = next;
+        }
+
+        sampled[threshold - 1] = to - 1;
+        return sampled;
+    }
+}
@@ -0,0 +1,127 @@
+package com.mycompany.labopr.utils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Streaming CSV reader that tokenizes large inputs on the fork/join pool
+ *
+ * Input is read in blocks of BLOCK_CHARS. Each block is cut at record boundaries into
+ * one range per pool thread (CsvTokenizer.recordBoundaries), the ranges are tokenized
+ * in parallel, and the records are handed to the sink strictly in file order. The
+ * partial record at the end of a block is carried into the next one.
+ *
+ * Two buffers alternate: while the sink consumes block k (e.g. bulk inserts), block
+ * k + 1 is already being tokenized, so memory stays at two blocks whatever the file
+ * size. Inputs that fit in one small block are tokenized on the calling thread.
+ */
+public final class ParallelCsvReader {
+
+    public static final int BLOCK_CHARS = 4 << 20;
+    private static final int MIN_PARALLEL_CHARS = 256 << 10;
+
+    /**
+     * Receives records in file order; return false to stop reading
+     */
+    @FunctionalInterface
+    public interface RecordSink {
+        boolean accept(List<String[]> records);
+    }
+
+    private ParallelCsvReader() {
+    }
+
+    /**
+     * Read every record from reader into sink
+     *
+     * @return false if the sink stopped early
+     */
+    public static boolean read(Reader reader, RecordSink sink) throws IOException {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        char[][] buffers = { new char[BLOCK_CHARS], new char[BLOCK_CHARS] };
+        int current = 0;
+        int length = 0; // chars in buffers[current], carry included
+        List<ForkJoinTask<List<String[]>>> inFlight = null;
+
+        while (true) {
+            char[] buf = buffers[current];
+            boolean endOfInput = false;
+            while (length < buf.length) {
+                int n = reader.read(buf, length, buf.length - length);
+                if (n < 0) {
+                    endOfInput = true;
+                    break;
+                }
+                length += n;
+            }
+
+            boolean inline = endOfInput && length < MIN_PARALLEL_CHARS;
+            int parts = inline ? 1 : Math.max(1, pool.getParallelism());
+            int[] bounds = CsvTokenizer.recordBoundaries(buf, 0, length, parts, endOfInput);
+            if (bounds.length == 1 && !endOfInput) {
+                // One record longer than the block: grow both buffers and keep reading
+                buffers[current] = Arrays.copyOf(buf, buf.length * 2);
+                buffers[1 - current] = new char[buf.length * 2];
+                continue;
+            }
+
+            List<ForkJoinTask<List<String[]>>> tasks = new ArrayList<>(bounds.length - 1);
+            for (int p = 0; p + 1 < bounds.length; p++) {
+                int from = bounds[p];
+                int to = bounds[p + 1];
+                ForkJoinTask<List<String[]>> task = ForkJoinTask.adapt(() -> {
+                    List<String[]> records = new ArrayList<>();
+                    CsvTokenizer.tokenize(buf, from, to, records);
+                    return records;
+                });
+                if (inline) {
+                    task.invoke();
+                } else {
+                    pool.execute(task);
+                }
+                tasks.add(task);
+            }
+
+            // Hand the previous block to the sink while this one is tokenized
+            if (inFlight != null && !deliver(inFlight, sink)) {
+                cancel(tasks);
+                return false;
+            }
+            inFlight = tasks;
+
+            if (endOfInput) {
+                return deliver(inFlight, sink);
+            }
+
+            // Carry the trailing partial record into the other buffer
+            int consumed = bounds[bounds.length - 1];
+            int carry = length - consumed;
+            char[] next = buffers[1 - current];
+            if (next.length < buf.length) {
+                next = buffers[1 - current] = new char[buf.length];
+            }
+            System.arraycopy(buf, consumed, next, 0, carry);
+            length = carry;
+            current = 1 - current;
+        }
+    }
+
+    private static boolean deliver(List<ForkJoinTask<List<String[]>>> tasks, RecordSink sink) {
+        for (int i = 0; i < tasks.size(); i++) {
+            if (!sink.accept(tasks.get(i).join())) {
+                cancel(tasks.subList(i + 1, tasks.size()));
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void cancel(List<ForkJoinTask<List<String[]>>> tasks) {
+        for (ForkJoinTask<List<String[]>> task : tasks) {
+            task.cancel(false);
+        }
+    }
+}
@@ -1,64 +1,107 @@
 package com.mycompany.labopr.utils;
 
+import com.mycompany.labopr.data.TransactionData;
+import com.mycompany.labopr.data.TransactionStore;
 import java.util.*;
 
 /**
- * Enhanced Memento Pattern Caretaker with Database Synchronization
+ * Memento Pattern Caretaker with a delta-based history
  * 
- * FIXED: Undo/Redo now properly synchronize database balance immediately
+ * Callers record each change after it succeeds (recordInsert/Update/Delete/BalanceChange).
+ * Undo applies the inverse of the latest change and moves it to the redo stack; redo
+ * re-applies it. Only the touched rows are kept, never a copy of the whole history.
+ * 
+ * Mementos act on rows by id, so they are discarded whenever the data is replaced in
+ * bulk (import, restore, reset): the store's load generation is checked before every
+ * use, and a change there empties both stacks.
  */
 public class TransactionCaretaker {
     private static final int MAX_HISTORY = 20;
     private final Deque<TransactionMemento> undoStack = new ArrayDeque<>();
     private final Deque<TransactionMemento> redoStack = new ArrayDeque<>();
+    private long generation = TransactionStore.getInstance().getLoadGeneration();
     private boolean verboseLogging = false;
     
-    public synchronized void saveState() {
-        try {
-            TransactionMemento memento = TransactionMemento.createMemento();
-            undoStack.push(memento);
-            
+    /**
+     * Record a transaction that has just been inserted (must carry its id)
+     */
+    public synchronized void recordInsert(TransactionData.Transaction inserted) {
+        record(TransactionMemento.forInsert(inserted));
+    }
+    
+    /**
+     * Record an update; original is the row as it was before the change
+     */
+    public synchronized void recordUpdate(TransactionData.Transaction original, TransactionData.Transaction updated) {
+        record(TransactionMemento.forUpdate(original, updated));
+    }
+    
+    /**
+     * Record a transaction that has just been deleted
+     */
+    public synchronized void recordDelete(TransactionData.Transaction deleted) {
+        record(TransactionMemento.forDelete(deleted));
+    }
+    
+    /**
+     * Record a starting balance edit
+     */
+    public synchronized void recordBalanceChange(double balanceBefore, double balanceAfter) {
+        record(TransactionMemento.forBalance(balanceBefore, balanceAfter));
+    }
+    
+    private void record(TransactionMemento memento) {
+        discardIfReplaced();
+        undoStack.push(memento);
+        
+        if (verboseLogging) {
+            System.out.println("Change recorded: " + memento);
+        }
+        
+        while (undoStack.size() > MAX_HISTORY) {
+            TransactionMemento removed = undoStack.removeLast();
             if (verboseLogging) {
-                System.out.println("State saved: " + memento);
+                System.out.println("Removed oldest change from history: " + removed);
             }
-            
-            while (undoStack.size() > MAX_HISTORY) {
-                TransactionMemento removed = undoStack.removeLast();
-                if (verboseLogging) {
-                    System.out.println("Removed oldest state from history: " + removed);
-                }
+        }
+        
+        if (!redoStack.isEmpty()) {
+            int clearedCount = redoStack.size();
+            redoStack.clear();
+            if (verboseLogging) {
+                System.out.println("Cleared " + clearedCount + " redo changes (invalidated by new action)");
             }
-            
-            if (!redoStack.isEmpty()) {
-                int clearedCount = redoStack.size();
-                redoStack.clear();
-                if (verboseLogging) {
-                    System.out.println("Cleared " + clearedCount + " redo states (invalidated by new action)");
-                }
+        }
+    }
+    
+    /**
+     * Drop all history recorded before the data was last replaced in bulk
+     */
+    private void discardIfReplaced() {
+        long current = TransactionStore.getInstance().getLoadGeneration();
+        if (current != generation) {
+            if (verboseLogging && (!undoStack.isEmpty() || !redoStack.isEmpty())) {
+                System.out.println("Discarded history: data was replaced (import, restore or reset)");
             }
-            
-        } catch (Exception e) {
-            System.err.println("Error saving state: " + e.getMessage());
-            e.printStackTrace();
+            undoStack.clear();
+            redoStack.clear();
+            generation = current;
         }
     }
     
     public synchronized boolean canUndo() {
+        discardIfReplaced();
         return !undoStack.isEmpty();
     }
     
     public synchronized boolean canRedo() {
+        discardIfReplaced();
         return !redoStack.isEmpty();
     }
     
     /**
-     * FIXED: Undo now properly synchronizes database balance
-     * 
-     * Key fix: We DON'T save current state first. Instead, we:
-     * 1. Pop the previous state from undo stack
-     * 2. Capture the CURRENT state (before restoration)
-     * 3. Restore the previous state (this updates DB)
-     * 4. Push the captured current state to redo stack
+     * Undo the latest change by applying its inverse
+     * On failure the change stays on the undo stack
      */
     public synchronized boolean undo() {
         if (!canUndo()) {
@@ -69,36 +112,17 @@ public class TransactionCaretaker {
         }
         
         try {
-            if (verboseLogging) {
-                System.out.println("\n=== UNDO OPERATION STARTED ===");
-            }
-            
-            // STEP 1: Get the previous state we want to restore
-            TransactionMemento previous = undoStack.pop();
-            
-            if (verboseLogging) {
-                System.out.println("Previous state to restore: " + previous);
-                System.out.println(previous.toDetailedString());
-            }
-            
-            // STEP 2: Capture CURRENT state BEFORE restoration (for redo)
-            TransactionMemento current = TransactionMemento.createMemento();
-            
-            if (verboseLogging) {
-                System.out.println("Current state captured for redo: " + current);
+            TransactionMemento latest = undoStack.peek();
+            if (!latest.undo()) {
+                return false;
             }
             
-            // STEP 3: Restore previous state (this syncs DB automatically)
-            previous.restore();
-            
-            // STEP 4: Push current state to redo stack
-            redoStack.push(current);
+            undoStack.pop();
+            redoStack.push(latest);
             
             if (verboseLogging) {
-                System.out.println("=== UNDO OPERATION COMPLETED ===\n");
                 System.out.println("History status: " + this);
             }
-            
             return true;
             
         } catch (Exception e) {
@@ -109,9 +133,8 @@ public class TransactionCaretaker {
     }
     
     /**
-     * FIXED: Redo now properly synchronizes database balance
-     * 
-     * Key fix: Same pattern as undo - capture state before restoration
+     * Redo the most recently undone change
+     * On failure the change stays on the redo stack
      */
     public synchronized boolean redo() {
         if (!canRedo()) {
@@ -122,36 +145,17 @@ public class TransactionCaretaker {
         }
         
         try {
-            if (verboseLogging) {
-                System.out.println("\n=== REDO OPERATION STARTED ===");
-            }
-            
-            // STEP 1: Get the next state we want to restore
-            TransactionMemento next = redoStack.pop();
-            
-            if (verboseLogging) {
-                System.out.println("Next state to restore: " + next);
-                System.out.println(next.toDetailedString());
+            TransactionMemento next = redoStack.peek();
+            if (!next.redo()) {
+                return false;
             }
             
-            // STEP 2: Capture CURRENT state BEFORE restoration (for undo)
-            TransactionMemento current = TransactionMemento.createMemento();
+            redoStack.pop();
+            undoStack.push(next);
             
             if (verboseLogging) {
-                System.out.println("Current state captured for undo: " + current);
-            }
-            
-            // STEP 3: Restore next state (this syncs DB automatically)
-            next.restore();
-            
-            // STEP 4: Push current state to undo stack
-            undoStack.push(current);
-            
-            if (verboseLogging) {
-                System.out.println("=== REDO OPERATION COMPLETED ===\n");
                 System.out.println("History status: " + this);
             }
-            
             return true;
             
         } catch (Exception e) {
@@ -169,15 +173,17 @@ public class TransactionCaretaker {
         redoStack.clear();
         
         if (verboseLogging) {
-            System.out.println("Cleared all history: " + undoCount + " undo states, " + redoCount + " redo states");
+            System.out.println("Cleared all history: " + undoCount + " undo changes, " + redoCount + " redo changes");
         }
     }
     
     public synchronized int getUndoCount() {
+        discardIfReplaced();
         return undoStack.size();
     }
     
     public synchronized int getRedoCount() {
+        discardIfReplaced();
         return redoStack.size();
     }
     
@@ -193,14 +199,17 @@ public class TransactionCaretaker {
     }
     
     public synchronized boolean isHistoryFull() {
+        discardIfReplaced();
         return undoStack.size() >= MAX_HISTORY;
     }
     
     public synchronized TransactionMemento peekUndo() {
+        discardIfReplaced();
         return undoStack.isEmpty() ? null : undoStack.peek();
     }
     
     public synchronized TransactionMemento peekRedo() {
+        discardIfReplaced();
         return redoStack.isEmpty() ? null : redoStack.peek();
     }
     
@@ -212,10 +221,7 @@ public class TransactionCaretaker {
         sb.append("  History full: ").append(isHistoryFull() ? "Yes" : "No").append("\n");
         
         if (!undoStack.isEmpty()) {
-            TransactionMemento latest = undoStack.peek();
-            sb.append("  Latest state: ").append(latest.getTransactionCount())
-              .append(" transactions, Balance: ₱")
-              .append(String.format("%,.2f", latest.getBalance())).append("\n");
+            sb.append("  Latest change: ").append(undoStack.peek().describe()).append("\n");
         }
         
         return sb.toString();
@@ -1,179 +1,162 @@
 package com.mycompany.labopr.utils;
 
 import com.mycompany.labopr.data.TransactionData;
-import java.util.*;
 
 /**
- * Enhanced Memento Pattern: State capture with guaranteed database synchronization
- * 
- * FIXED: Restore now explicitly updates current_balance after transaction replacement
+ * Memento Pattern (delta form): records one change and how to invert it
+ *
+ * Each memento holds only the rows touched by a single operation (insert, update,
+ * delete with their ids) or the starting balance before/after an edit, so undo and
+ * redo cost O(change) in memory and in database work instead of copying and
+ * replacing the whole transaction history.
  */
 public class TransactionMemento {
-    private final List<TransactionData.Transaction> transactionSnapshot;
-    private final Double balanceSnapshot;
+
+    public enum Kind {
+        INSERT,
+        UPDATE,
+        DELETE,
+        BALANCE
+    }
+
+    private final Kind kind;
+    private final TransactionData.Transaction before; // row before the change (UPDATE, DELETE)
+    private final TransactionData.Transaction after;  // row after the change (INSERT, UPDATE)
+    private final double balanceBefore;
+    private final double balanceAfter;
     private final long timestamp;
-    
-    private TransactionMemento(List<TransactionData.Transaction> transactions, Double balance) {
-        // Deep copy to prevent external modification
-        this.transactionSnapshot = new ArrayList<>();
-        for (TransactionData.Transaction t : transactions) {
-            this.transactionSnapshot.add(new TransactionData.Transaction(
-                t.type, t.date, t.category, t.amount, t.comment
-            ));
-        }
-        this.balanceSnapshot = balance;
+
+    private TransactionMemento(Kind kind, TransactionData.Transaction before, TransactionData.Transaction after,
+                               double balanceBefore, double balanceAfter) {
+        this.kind = kind;
+        // Copies so later edits to the caller's objects cannot change history
+        this.before = before != null ? before.copy() : null;
+        this.after = after != null ? after.copy() : null;
+        this.balanceBefore = balanceBefore;
+        this.balanceAfter = balanceAfter;
         this.timestamp = System.currentTimeMillis();
     }
-    
-    /**
-     * Package-private: Only TransactionCaretaker creates mementos.
-     */
-    static TransactionMemento createMemento() {
-        List<TransactionData.Transaction> transactions = TransactionData.getAllTransactions();
-        Double balance = TransactionData.getBalance();
-        return new TransactionMemento(transactions, balance != null ? balance : 0.0);
+
+    // ==================== FACTORIES (package-private: only TransactionCaretaker records changes) ====================
+
+    static TransactionMemento forInsert(TransactionData.Transaction inserted) {
+        return new TransactionMemento(Kind.INSERT, null, inserted, 0, 0);
     }
-    
+
+    static TransactionMemento forUpdate(TransactionData.Transaction original, TransactionData.Transaction updated) {
+        TransactionData.Transaction after = updated.copy();
+        after.id = original.id;
+        return new TransactionMemento(Kind.UPDATE, original, after, 0, 0);
+    }
+
+    static TransactionMemento forDelete(TransactionData.Transaction deleted) {
+        return new TransactionMemento(Kind.DELETE, deleted, null, 0, 0);
+    }
+
+    static TransactionMemento forBalance(double balanceBefore, double balanceAfter) {
+        return new TransactionMemento(Kind.BALANCE, null, null, balanceBefore, balanceAfter);
+    }
+
+    // ==================== UNDO / REDO ====================
+
     /**
-     * FIXED: Restore with explicit database synchronization
-     * 
-     * Key Fix: After replacing transactions, we explicitly force
-     * a recalculation and update of current_balance to ensure
-     * the database reflects the restored state immediately.
+     * Apply the inverse of the recorded change
+     * Deleted rows are re-inserted under their original ids so later mementos stay valid.
+     * Rows are restored as recorded, so a legacy date outside the range accepted for
+     * new entries does not block the change (or the history beneath it).
      */
-    void restore() {
-        boolean dbSyncSuccess = true;
-        
-        try {
-            System.out.println("\n=== MEMENTO RESTORE STARTED ===");
-            System.out.println("Restoring to state with " + transactionSnapshot.size() + " transactions");
-            System.out.println("Starting balance: ₱" + String.format("%,.2f", balanceSnapshot));
-            
-            // STEP 1: Restore starting balance to database
-            if (balanceSnapshot != null) {
-                try {
-                    TransactionData.setBalance(balanceSnapshot);
-                    System.out.println("✓ Step 1: Starting balance restored to database");
-                } catch (Exception e) {
-                    System.err.println("✗ Warning: Failed to restore starting balance to database");
-                    e.printStackTrace();
-                    dbSyncSuccess = false;
-                }
-            }
-            
-            // STEP 2: Replace all transactions in database
-            // This completely replaces the transactions table with the snapshot state
-            try {
-                TransactionData.replaceAllTransactions(transactionSnapshot);
-                System.out.println("✓ Step 2: Transactions replaced in database (" + 
-                    transactionSnapshot.size() + " transactions)");
-            } catch (Exception e) {
-                System.err.println("✗ Error: Failed to replace transactions in database");
-                e.printStackTrace();
-                dbSyncSuccess = false;
-                throw e; // Critical failure
-            }
-            
-            // STEP 3: Verify current_balance was updated
-            // The replaceAllTransactions method now handles this within its transaction
-            try {
-                Double currentBalance = TransactionData.calculateCurrentBalance();
-                if (currentBalance != null) {
-                    System.out.println("✓ Step 3: Current balance verified: ₱" + 
-                        String.format("%,.2f", currentBalance));
-                } else {
-                    System.err.println("✗ Warning: Could not verify current balance");
-                    dbSyncSuccess = false;
-                }
-            } catch (Exception e) {
-                System.err.println("✗ Error: Failed to verify current_balance");
-                e.printStackTrace();
-                dbSyncSuccess = false;
-            }
-            
-            if (dbSyncSuccess) {
-                System.out.println("✓ MEMENTO RESTORE: Successfully synchronized state with database");
-                System.out.println("  - Restored " + transactionSnapshot.size() + " transactions");
-                System.out.println("  - Starting balance: ₱" + String.format("%,.2f", balanceSnapshot));
-                
-                Double finalBalance = TransactionData.calculateCurrentBalance();
-                if (finalBalance != null) {
-                    System.out.println("  - Current balance: ₱" + String.format("%,.2f", finalBalance));
-                }
-            }
-            
-            System.out.println("=== MEMENTO RESTORE COMPLETED ===\n");
-            
-        } catch (Exception e) {
-            System.err.println("✗ Error during memento restore database synchronization:");
-            e.printStackTrace();
-            dbSyncSuccess = false;
-        }
-        
-        if (!dbSyncSuccess) {
-            System.err.println("⚠ Memento restore: Database synchronization incomplete");
-            System.err.println("  In-memory state has been restored, but database may be out of sync.");
-            System.err.println("  Recommendation: Verify data consistency or retry operation.");
+    boolean undo() {
+        boolean success;
+        switch (kind) {
+            case INSERT:
+                success = TransactionData.deleteTransaction(after.id);
+                break;
+            case UPDATE:
+                success = TransactionData.restoreTransaction(before.id, before.copy());
+                break;
+            case DELETE:
+                success = TransactionData.restoreTransaction(before.copy());
+                break;
+            case BALANCE:
+                success = TransactionData.setBalance(balanceBefore);
+                break;
+            default:
+                success = false;
         }
+        log("Undo", success);
+        return success;
     }
-    
+
     /**
-     * Get snapshot of transactions for inspection (returns defensive copy).
+     * Re-apply the recorded change
      */
-    List<TransactionData.Transaction> getTransactions() {
-        return new ArrayList<>(transactionSnapshot);
+    boolean redo() {
+        boolean success;
+        switch (kind) {
+            case INSERT:
+                success = TransactionData.restoreTransaction(after.copy());
+                break;
+            case UPDATE:
+                success = TransactionData.restoreTransaction(after.id, after.copy());
+                break;
+            case DELETE:
+                success = TransactionData.deleteTransaction(before.id);
+                break;
+            case BALANCE:
+                success = TransactionData.setBalance(balanceAfter);
+                break;
+            default:
+                success = false;
+        }
+        log("Redo", success);
+        return success;
     }
-    
-    /**
-     * Get the starting balance captured in this memento.
-     */
-    Double getBalance() {
-        return balanceSnapshot;
+
+    private void log(String operation, boolean success) {
+        if (success) {
+            System.out.println("✓ " + operation + ": " + describe());
+        } else {
+            System.err.println("✗ " + operation + " failed: " + describe());
+        }
     }
-    
+
+    // ==================== INSPECTION ====================
+
+    public Kind getKind() {
+        return kind;
+    }
+
     /**
      * Get the timestamp when this memento was created.
      */
     public long getTimestamp() {
         return timestamp;
     }
-    
+
     /**
-     * Get the count of transactions in this snapshot.
+     * One-line description of the recorded change
      */
-    public int getTransactionCount() {
-        return transactionSnapshot.size();
+    public String describe() {
+        switch (kind) {
+            case INSERT:
+                return "insert #" + after.id + " " + describe(after);
+            case UPDATE:
+                return "update #" + before.id + " " + describe(before) + " -> " + describe(after);
+            case DELETE:
+                return "delete #" + before.id + " " + describe(before);
+            case BALANCE:
+                return String.format("starting balance ₱%,.2f -> ₱%,.2f", balanceBefore, balanceAfter);
+            default:
+                return kind.toString();
+        }
     }
-    
+
+    private static String describe(TransactionData.Transaction t) {
+        return String.format("(%s ₱%,.2f, %s, %s)", t.type, t.amount, t.category, t.date);
+    }
+
     @Override
     public String toString() {
-        return String.format("TransactionMemento[transactions=%d, balance=₱%.2f, timestamp=%d]",
-            transactionSnapshot.size(), balanceSnapshot, timestamp);
-    }
-    
-    /**
-     * Provides detailed information about this memento for debugging.
-     */
-    public String toDetailedString() {
-        StringBuilder sb = new StringBuilder();
-        sb.append("TransactionMemento Details:\n");
-        sb.append("  Timestamp: ").append(new java.util.Date(timestamp)).append("\n");
-        sb.append("  Starting Balance: ₱").append(String.format("%,.2f", balanceSnapshot)).append("\n");
-        sb.append("  Transaction Count: ").append(transactionSnapshot.size()).append("\n");
-        
-        if (!transactionSnapshot.isEmpty()) {
-            sb.append("  Transactions:\n");
-            for (int i = 0; i < Math.min(5, transactionSnapshot.size()); i++) {
-                TransactionData.Transaction t = transactionSnapshot.get(i);
-                sb.append("    - ").append(t.type).append(": ₱")
-                  .append(String.format("%,.2f", t.amount))
-                  .append(" (").append(t.category).append(", ").append(t.date).append(")\n");
-            }
-            if (transactionSnapshot.size() > 5) {
-                sb.append("    ... and ").append(transactionSnapshot.size() - 5).append(" more\n");
-            }
-        }
-        
-        return sb.toString();
+        return String.format("TransactionMemento[%s, timestamp=%d]", describe(), timestamp);
     }
 }
\ No newline at end of file
@@ -1,7 +1,10 @@
 package com.mycompany.labopr.views;
 
 import com.mycompany.labopr.data.DataFacade;
+import com.mycompany.labopr.data.TransactionStore;
 import com.mycompany.labopr.database.DatabaseDAO;
+import com.mycompany.labopr.observer.PanelObserver;
+import com.mycompany.labopr.observer.Refreshable;
 import com.mycompany.labopr.ui.panels.*;
 import com.mycompany.labopr.ui.factories.ButtonFactory;
 import com.mycompany.labopr.ui.factories.PanelFactory;
@@ -95,6 +98,13 @@ public class MainApp extends JFrame implements UITheme.ThemeChangeListener {
             case 3: displaySettings(); break;
         }
         
+        // Panels kept alive while hidden only mark themselves dirty; refresh once now
+        Component shown = ((BorderLayout) mainContentArea.getLayout())
+            .getLayoutComponent(BorderLayout.CENTER);
+        if (shown instanceof Refreshable) {
+            PanelObserver.getInstance().panelShown((Refreshable) shown);
+        }
+        
         mainContentArea.revalidate();
         mainContentArea.repaint();
     }
@@ -141,7 +151,10 @@ public class MainApp extends JFrame implements UITheme.ThemeChangeListener {
         
         if (confirm == JOptionPane.YES_OPTION) {
             DatabaseDAO.clearSession();
+            TransactionStore.getInstance().clear();
             dispose();
+            // dispose() unregisters the panels; drop anything else this session registered
+            PanelObserver.getInstance().clearAllObservers();
             new GUI().setVisible(true);
         }
     }